@@ -23,8 +23,10 @@ import java.lang.reflect.Method;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.ClassUtils;
 import org.sniper.commons.util.MapUtils;
 import org.sniper.commons.util.ReflectionUtils;
 import org.sniper.commons.util.StringUtils;
@@ -39,6 +41,15 @@ public class DefaultBeanReflector implements BeanReflector {
 	/** 在表达式中各属性间的分隔符 */
 	private String propertySeperator;
 	
+	/** 各类型按表达式已解析的属性访问器，未找到getter/setter方法和属性时以PropertyAccessor.NONE占位 */
+	private final ClassValue<ConcurrentMap<String, PropertyAccessor>> accessors = new ClassValue<ConcurrentMap<String, PropertyAccessor>>() {
+		
+		@Override
+		protected ConcurrentMap<String, PropertyAccessor> computeValue(Class<?> type) {
+			return MapUtils.newConcurrentHashMap();
+		}
+	};
+	
 	public DefaultBeanReflector() {
 		this.propertySeperator = ".";
 	}
@@ -105,15 +116,10 @@ public class DefaultBeanReflector implements BeanReflector {
 		String memberName = StringUtils.beforeFrist(expression, this.propertySeperator);
 		if (StringUtils.isNotBlank(memberName)) {
 			
-			String memberGetterName = getterName(bean, memberName);
-			if (StringUtils.isNotBlank(memberGetterName)) {
-				Object memberValue = null;
-				try {
-					/* 先调用复合成员属性的getter方法或对其直接访问获取到值 */
-					memberValue = ReflectionUtils.invokeMethod(bean, memberGetterName, null, null);
-				} catch (NoSuchMethodException e) {
-					memberValue = ReflectionUtils.getFieldValue(bean, memberName);
-				}
+			PropertyAccessor memberGetter = getter(bean, memberName);
+			if (memberGetter != null) {
+				/* 先调用复合成员属性的getter方法或对其直接访问获取到值 */
+				Object memberValue = memberGetter.get(bean);
 				
 				// 复合成员的下一级成员名
 				String nextMemberName = StringUtils.afterFrist(expression, this.propertySeperator);
@@ -132,6 +138,10 @@ public class DefaultBeanReflector implements BeanReflector {
 				throw new NoSuchMethodException("Unknow member propertity [" + memberName 
 						+ "] value,Please ensure that this property or corresponding getter method exists");
 		} else {
+			PropertyAccessor accessor = getter(bean, expression);
+			if (accessor != null)
+				return accessor.get(bean);
+			
 			/*  调用当前成员属性的getter方法或对其直接访问获取值，否则抛出异常 */
 			try {
 				return ReflectionUtils.invokeMethod(bean, getterName(bean, expression), null, null);
@@ -206,6 +216,12 @@ public class DefaultBeanReflector implements BeanReflector {
 				// 设置当前对象值
 				set(bean, memberName, parameterType, parameterValue);
 		} else {
+			PropertyAccessor accessor = setter(bean, expression, parameterType);
+			if (accessor != null) {
+				accessor.set(bean, parameterValue);
+				return;
+			}
+			
 			if (parameterType == null)
 				// 传入的参数参数为空时，则自动识别出属性的类型后作为setter参数的类型
 				parameterType = ReflectionUtils.getFieldType(bean, expression);
@@ -265,6 +281,78 @@ public class DefaultBeanReflector implements BeanReflector {
 		return bean;
 	}
 	
+	/**
+	 * 获取当前Bean对象属性对应的取值访问器，优先使用getter方法，其次直接访问属性
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param bean
+	 * @param propertyName 不包含分隔符的属性名称
+	 * @return 未找到getter方法和属性时返回null
+	 */
+	private PropertyAccessor getter(Object bean, String propertyName) {
+		Class<?> beanClass = ClassUtils.getDeclaredClass(bean);
+		if (beanClass == null)
+			return null;
+		
+		ConcurrentMap<String, PropertyAccessor> cache = accessors.get(beanClass);
+		String key = "get:" + propertyName;
+		PropertyAccessor accessor = cache.get(key);
+		if (accessor == null) {
+			accessor = PropertyAccessor.NONE;
+			String getterName = getterName(bean, propertyName);
+			Method getter = StringUtils.isNotBlank(getterName) ? ReflectionUtils.getMethod(bean, getterName, null) : null;
+			if (getter != null)
+				accessor = PropertyAccessor.getter(getter);
+			else {
+				Field field = ReflectionUtils.getField(bean, propertyName);
+				if (field != null)
+					accessor = PropertyAccessor.getter(field);
+			}
+			cache.putIfAbsent(key, accessor);
+		}
+		return accessor != PropertyAccessor.NONE ? accessor : null;
+	}
+	
+	/**
+	 * 获取当前Bean对象属性对应的赋值访问器，优先使用setter方法，其次直接访问属性
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param bean
+	 * @param propertyName 不包含分隔符的属性名称
+	 * @param parameterType setter方法参数类型，为空时按属性类型或第一个同名setter方法的参数类型检索
+	 * @return 未找到setter方法和属性时返回null
+	 */
+	private PropertyAccessor setter(Object bean, String propertyName, Class<?> parameterType) {
+		Class<?> beanClass = ClassUtils.getDeclaredClass(bean);
+		if (beanClass == null)
+			return null;
+		
+		ConcurrentMap<String, PropertyAccessor> cache = accessors.get(beanClass);
+		String key = "set:" + propertyName + (parameterType != null ? "(" + parameterType.getName() + ")" : "");
+		PropertyAccessor accessor = cache.get(key);
+		if (accessor == null) {
+			accessor = PropertyAccessor.NONE;
+			if (parameterType == null)
+				parameterType = ReflectionUtils.getFieldType(bean, propertyName);
+			if (parameterType == null) {
+				Method setter = BeanUtils.findSetter(bean, propertyName, null);
+				if (setter != null)
+					parameterType = setter.getParameterTypes()[0];
+			}
+			
+			if (parameterType != null) {
+				Method setter = ReflectionUtils.getMethod(bean, BeanUtils.setterName(propertyName), new Class<?>[] { parameterType });
+				if (setter != null)
+					accessor = PropertyAccessor.setter(setter);
+				else {
+					Field field = ReflectionUtils.getField(bean, propertyName);
+					if (field != null)
+						accessor = PropertyAccessor.setter(field);
+				}
+			}
+			cache.putIfAbsent(key, accessor);
+		}
+		return accessor != PropertyAccessor.NONE ? accessor : null;
+	}
+	
 	/**
 	 * 获取当前Bean对象成员属性对应的getter方法名称
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.beans;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+import org.sniper.commons.util.ClassUtils;
+
+/**
+ * 属性访问器，将已解析的getter/setter方法或属性转换为MethodHandle后再调用。</P>
+ * 目标对象或参数值与成员类型不匹配，以及无法创建MethodHandle时改用反射调用，使类型转换和抛出的异常与反射调用保持一致
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class PropertyAccessor {
+	
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+	
+	/** 未找到任何可访问成员时的访问器 */
+	static final PropertyAccessor NONE = new PropertyAccessor(null, null, false);
+	
+	private final Method method;
+	
+	private final Field field;
+	
+	/** 成员所在的类 */
+	private final Class<?> declaringClass;
+	
+	/** setter参数值的类型，基本类型已转换为对应的包装类型 */
+	private final Class<?> valueType;
+	
+	private final MethodHandle handle;
+	
+	private PropertyAccessor(Method method, Field field, boolean setter) {
+		this.method = method;
+		this.field = field;
+		
+		Member member = method != null ? method : field;
+		this.declaringClass = member != null ? member.getDeclaringClass() : null;
+		
+		Class<?> type = null;
+		if (setter && member != null) {
+			type = method != null ? method.getParameterTypes()[0] : field.getType();
+			if (type.isPrimitive())
+				type = ClassUtils.getWrapperType(type);
+		}
+		this.valueType = type;
+		this.handle = createHandle(member, setter);
+	}
+	
+	/**
+	 * 根据getter方法创建访问器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param method
+	 * @return
+	 */
+	static PropertyAccessor getter(Method method) {
+		return new PropertyAccessor(method, null, false);
+	}
+	
+	/**
+	 * 根据属性创建取值访问器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param field
+	 * @return
+	 */
+	static PropertyAccessor getter(Field field) {
+		return new PropertyAccessor(null, field, false);
+	}
+	
+	/**
+	 * 根据setter方法创建访问器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param method
+	 * @return
+	 */
+	static PropertyAccessor setter(Method method) {
+		return new PropertyAccessor(method, null, true);
+	}
+	
+	/**
+	 * 根据属性创建赋值访问器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param field
+	 * @return
+	 */
+	static PropertyAccessor setter(Field field) {
+		return new PropertyAccessor(null, field, true);
+	}
+	
+	/**
+	 * 获取目标对象的属性值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param bean
+	 * @return
+	 * @throws Exception
+	 */
+	Object get(Object bean) throws Exception {
+		if (handle != null && declaringClass.isInstance(bean)) {
+			try {
+				return (Object) handle.invokeExact(bean);
+			} catch (Throwable e) {
+				throw targetException(e);
+			}
+		}
+		
+		if (method != null) {
+			method.setAccessible(true);
+			return method.invoke(bean);
+		}
+		
+		field.setAccessible(true);
+		return field.get(bean);
+	}
+	
+	/**
+	 * 设置目标对象的属性值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param bean
+	 * @param value
+	 * @throws Exception
+	 */
+	void set(Object bean, Object value) throws Exception {
+		if (handle != null && declaringClass.isInstance(bean) 
+				&& (value != null ? valueType.isInstance(value) : !isPrimitive())) {
+			try {
+				handle.invokeExact(bean, value);
+				return;
+			} catch (Throwable e) {
+				throw targetException(e);
+			}
+		}
+		
+		if (method != null) {
+			method.setAccessible(true);
+			method.invoke(bean, value);
+		} else {
+			field.setAccessible(true);
+			field.set(bean, value);
+		}
+	}
+	
+	/**
+	 * 判断setter的参数类型是否为基本类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @return
+	 */
+	private boolean isPrimitive() {
+		return method != null ? method.getParameterTypes()[0].isPrimitive() : field.getType().isPrimitive();
+	}
+	
+	/**
+	 * 将MethodHandle调用时抛出的异常转换为与反射调用一致的异常，方法抛出的异常被包装为InvocationTargetException
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param e
+	 * @return
+	 */
+	private Exception targetException(Throwable e) {
+		if (method == null) {
+			if (e instanceof Error)
+				throw (Error) e;
+			if (e instanceof Exception)
+				return (Exception) e;
+		}
+		return new InvocationTargetException(e);
+	}
+	
+	/**
+	 * 创建统一为(Object)Object或(Object, Object)void类型的MethodHandle，静态成员忽略目标对象参数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param member
+	 * @param setter
+	 * @return 无法创建时返回null
+	 */
+	private static MethodHandle createHandle(Member member, boolean setter) {
+		if (member == null)
+			return null;
+		
+		try {
+			MethodHandle handle;
+			if (member instanceof Method) {
+				Method method = (Method) member;
+				method.setAccessible(true);
+				handle = LOOKUP.unreflect(method).asFixedArity();
+			} else {
+				Field field = (Field) member;
+				field.setAccessible(true);
+				// final属性无法创建setter的MethodHandle，抛出的异常被忽略后改用反射赋值
+				handle = setter ? LOOKUP.unreflectSetter(field) : LOOKUP.unreflectGetter(field);
+			}
+			
+			if (Modifier.isStatic(member.getModifiers()))
+				handle = MethodHandles.dropArguments(handle, 0, Object.class);
+			
+			return handle.asType(setter ? SETTER_TYPE : GETTER_TYPE);
+		} catch (Exception e) {
+			return null;
+		}
+	}
+	
+}
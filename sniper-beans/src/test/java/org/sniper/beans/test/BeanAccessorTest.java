@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.beans.test;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.junit.Test;
+import org.sniper.beans.BeanUtils;
+import org.sniper.commons.util.ReflectionUtils;
+import org.sniper.test.domain.Company;
+import org.sniper.test.domain.Department;
+import org.sniper.test.domain.User;
+import org.sniper.test.junit.BaseTestCase;
+
+/**
+ * Bean属性访问器单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class BeanAccessorTest extends BaseTestCase {
+	
+	private final int count = 1000000;
+	
+	/**
+	 * 通过getter/setter方法和直接访问属性的方式读写值，重复读写时结果保持一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void getAndSetTest() throws Exception {
+		User user = new User();
+		for (int i = 0; i < 3; i++) {
+			BeanUtils.set(user, "name", "sniper" + i);
+			BeanUtils.set(user, "age", i);
+			BeanUtils.set(user, "married", true);
+			assertEquals("sniper" + i, BeanUtils.get(user, "name"));
+			assertEquals(i, BeanUtils.get(user, "age"));
+			assertEquals(true, BeanUtils.get(user, "married"));
+		}
+		
+		// 复合成员为空时自动创建
+		BeanUtils.set(user, "department.company.name", "company");
+		assertEquals("company", user.getDepartment().getCompany().getName());
+		assertEquals("company", BeanUtils.get(user, "department.company.name"));
+		
+		// 没有getter/setter方法的属性直接访问
+		FieldBean bean = new FieldBean();
+		BeanUtils.set(bean, "value", 10L);
+		assertEquals(10L, BeanUtils.get(bean, "value"));
+		// 基本类型的拓宽转换与反射调用一致
+		BeanUtils.set(bean, "value", 20);
+		assertEquals(20L, BeanUtils.get(bean, "value"));
+	}
+	
+	/**
+	 * 未找到成员及参数类型不匹配时抛出的异常与反射调用一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void exceptionTest() throws Exception {
+		User user = new User();
+		for (int i = 0; i < 2; i++) {
+			try {
+				BeanUtils.get(user, "unknown");
+				fail();
+			} catch (NoSuchFieldException e) {
+			}
+			
+			try {
+				BeanUtils.set(user, "age", "30");
+				fail();
+			} catch (IllegalArgumentException e) {
+			}
+			
+			try {
+				BeanUtils.set(user, "age", null);
+				fail();
+			} catch (IllegalArgumentException e) {
+			}
+			
+			try {
+				BeanUtils.set(new FieldBean(), "checked", "value");
+				fail();
+			} catch (InvocationTargetException e) {
+				assertTrue(e.getCause() instanceof UnsupportedOperationException);
+			}
+		}
+		
+		assertNull(ReflectionUtils.getDeclaredMethod(user, "unknown", null));
+		assertNull(ReflectionUtils.getDeclaredField(user, "unknown"));
+		assertNotNull(ReflectionUtils.getMethod(user, "hashCode", null));
+		assertNull(ReflectionUtils.getDeclaredMethod(Company.class, "hashCode", null));
+		assertSame(ReflectionUtils.getMethod(user, "setAge", new Class<?>[] { int.class }), 
+				ReflectionUtils.getMethod(User.class, "setAge", new Class<?>[] { int.class }));
+	}
+	
+	/**
+	 * BeanUtils读写简单属性和复合属性的性能测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		User user = new User();
+		user.setDepartment(new Department());
+		user.getDepartment().setCompany(new Company());
+		
+		for (int i = 0; i < 2; i++) {
+			boolean print = i > 0;
+			benchmark("get name", user, "name", null, print);
+			benchmark("set name", user, "name", "sniper", print);
+			benchmark("get department.company.name", user, "department.company.name", null, print);
+			benchmark("set department.company.name", user, "department.company.name", "company", print);
+		}
+	}
+	
+	/**
+	 * 重复读写属性后输出每次调用的平均耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param bean
+	 * @param expression
+	 * @param value 为空时读取属性值，否则设置属性值
+	 * @param print 是否输出结果，首轮作为预热不输出
+	 * @throws Exception
+	 */
+	private void benchmark(String name, Object bean, String expression, Object value, boolean print) throws Exception {
+		int times = count;
+		long start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			if (value != null)
+				BeanUtils.set(bean, expression, value);
+			else
+				BeanUtils.get(bean, expression);
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		if (print)
+			System.out.println(String.format("%s: %d calls, %d ns/op", name, times, elapsed / times));
+	}
+	
+	/**
+	 * 只有属性或setter方法会抛出异常的Bean
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	public static class FieldBean {
+		
+		private long value;
+		
+		private String checked;
+		
+		public void setChecked(String checked) {
+			throw new UnsupportedOperationException(checked);
+		}
+	}
+
+}
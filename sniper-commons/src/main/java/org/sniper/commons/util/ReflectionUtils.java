@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * 反射工具类
@@ -34,6 +35,18 @@ import java.util.Set;
  */
 public class ReflectionUtils {
 	
+	/** 未找到成员时的占位对象 */
+	private static final Object NOT_FOUND = new Object();
+	
+	/** 各类型按名称和参数类型已检索过的方法和属性，未找到的成员也会被缓存，避免每次都遍历类层次并以异常作为判断条件 */
+	private static final ClassValue<ConcurrentMap<String, Object>> members = new ClassValue<ConcurrentMap<String, Object>>() {
+		
+		@Override
+		protected ConcurrentMap<String, Object> computeValue(Class<?> type) {
+			return MapUtils.newConcurrentHashMap();
+		}
+	};
+	
 	private ReflectionUtils() {}
 	
 	/**
@@ -82,21 +95,7 @@ public class ReflectionUtils {
 	 * @return
 	 */
 	public static Method getDeclaredMethod(Object object, String methodName, Class<?>[] pTypes) {
-		if (StringUtils.isBlank(methodName))
-			return null;
-		
-		Class<?> declaredClass = ClassUtils.getDeclaredClass(object);
-		if (declaredClass != null) {
-			methodName = methodName.trim();
-			while (declaredClass != Object.class) {
-				try {
-					return declaredClass.getDeclaredMethod(methodName, pTypes);
-				} catch (NoSuchMethodException e) {
-					declaredClass = declaredClass.getSuperclass();
-				}
-			}
-		}
-		return null;
+		return findMethod(object, methodName, pTypes, Object.class);
 	}
 	
 	/**
@@ -120,19 +119,63 @@ public class ReflectionUtils {
 	 * @return
 	 */
 	public static Method getMethod(Object object, String methodName, Class<?>[] pTypes) {
+		return findMethod(object, methodName, pTypes, null);
+	}
+	
+	/**
+	 * 从当前对象所在类开始向上检索指定的方法，检索到终止类时为止，检索结果按类型缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param object
+	 * @param methodName 方法名称
+	 * @param pTypes 方法中各参数对应的类型
+	 * @param stopClass 终止类，不检索此类中的方法
+	 * @return
+	 */
+	private static Method findMethod(Object object, String methodName, Class<?>[] pTypes, Class<?> stopClass) {
 		if (StringUtils.isBlank(methodName))
 			return null;
 		
 		Class<?> declaredClass = ClassUtils.getDeclaredClass(object);
-		while (declaredClass != null) {
-			methodName = methodName.trim();
-			try {
-				return declaredClass.getDeclaredMethod(methodName, pTypes);
-			} catch (NoSuchMethodException e) {
-				declaredClass = declaredClass.getSuperclass();
+		if (declaredClass == null)
+			return null;
+		
+		methodName = methodName.trim();
+		ConcurrentMap<String, Object> cache = members.get(declaredClass);
+		String key = memberKey(stopClass != null ? "D:" : "M:", methodName, pTypes);
+		Object method = cache.get(key);
+		if (method == null) {
+			method = NOT_FOUND;
+			while (declaredClass != null && declaredClass != stopClass) {
+				try {
+					method = declaredClass.getDeclaredMethod(methodName, pTypes);
+					break;
+				} catch (NoSuchMethodException e) {
+					declaredClass = declaredClass.getSuperclass();
+				}
 			}
+			cache.putIfAbsent(key, method);
 		}
-		return null;
+		
+		return method != NOT_FOUND ? (Method) method : null;
+	}
+	
+	/**
+	 * 生成成员在缓存中的键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param kind 成员种类
+	 * @param name 成员名称
+	 * @param pTypes 方法中各参数对应的类型
+	 * @return
+	 */
+	private static String memberKey(String kind, String name, Class<?>[] pTypes) {
+		StringBuilder key = new StringBuilder(kind).append(name);
+		if (pTypes != null) {
+			key.append('(');
+			for (Class<?> pType : pTypes) 
+				key.append(pType != null ? pType.getName() : null).append(',');
+			key.append(')');
+		}
+		return key.toString();
 	}
 	
 	/**
@@ -297,17 +340,27 @@ public class ReflectionUtils {
 			return null;
 		
 		Class<?> declaredClass = ClassUtils.getDeclaredClass(object);
-		if (declaredClass != null) {
-			fieldName = fieldName.trim();
-			while (declaredClass != Object.class) {
+		if (declaredClass == null)
+			return null;
+		
+		fieldName = fieldName.trim();
+		ConcurrentMap<String, Object> cache = members.get(declaredClass);
+		String key = memberKey("F:", fieldName, null);
+		Object field = cache.get(key);
+		if (field == null) {
+			field = NOT_FOUND;
+			while (declaredClass != null && declaredClass != Object.class) {
 				try {
-					return declaredClass.getDeclaredField(fieldName);
+					field = declaredClass.getDeclaredField(fieldName);
+					break;
 				} catch (NoSuchFieldException e) {
 					declaredClass = declaredClass.getSuperclass();
 				}
 			}
+			cache.putIfAbsent(key, field);
 		}
-		return null;
+		
+		return field != NOT_FOUND ? (Field) field : null;
 	}
 	
 	/**
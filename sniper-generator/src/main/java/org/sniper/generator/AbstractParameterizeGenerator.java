@@ -18,6 +18,11 @@
 
 package org.sniper.generator;
 
+import java.util.List;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+
 /**
  * 参数化生成器抽象类
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
@@ -42,4 +47,27 @@ public abstract class AbstractParameterizeGenerator<P, T> implements Parameteriz
 		return generate(this.parameter);
 	}
 	
+	@Override
+	public List<T> batchGenerate(int count) {
+		return batchGenerate(this.parameter, count);
+	}
+	
+	/**
+	 * 默认的批量生成实现，逐个调用generate(parameter)方法，子类可根据自身的特点提供更高效的实现
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param count
+	 * @return
+	 */
+	@Override
+	public List<T> batchGenerate(P parameter, int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+		
+		List<T> list = CollectionUtils.newArrayList(count);
+		for (int i = 0; i < count; i++) {
+			list.add(generate(parameter));
+		}
+		return list;
+	}
+	
 }
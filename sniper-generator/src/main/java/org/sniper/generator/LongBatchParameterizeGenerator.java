@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.generator;
+
+/**
+ * 可根据参数批量生成原始long类型结果的生成器
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface LongBatchParameterizeGenerator<P> extends LongBatchGenerator {
+	
+	/**
+	 * 根据指定的参数生成结果后依次填充到指定的数组中，生成个数为数组的长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	public void batchGenerate(P parameter, long[] values);
+
+}
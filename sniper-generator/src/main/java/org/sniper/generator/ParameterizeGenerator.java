@@ -18,6 +18,8 @@
 
 package org.sniper.generator;
 
+import java.util.List;
+
 /**
  * 参数化生成器接口
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
@@ -32,5 +34,14 @@ public interface ParameterizeGenerator<P, T> extends Generator<T> {
 	 * @return
 	 */
 	public T generate(P parameter);
+	
+	/**
+	 * 根据指定的参数批量生成指定个数的结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param count
+	 * @return
+	 */
+	public List<T> batchGenerate(P parameter, int count);
 
 }
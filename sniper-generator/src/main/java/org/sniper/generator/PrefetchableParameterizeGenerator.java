@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-3
+ */
+
+package org.sniper.generator;
+
+/**
+ * 可预取的参数化生成器，在当前缓存即将耗尽时异步预取下一批缓存
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface PrefetchableParameterizeGenerator<K, V, P, T> extends CacheableParameterizeGenerator<K, V, P, T> {
+
+	/**
+	 * 获取触发预取的剩余比例
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public double getPrefetchThreshold();
+
+	/**
+	 * 设置触发预取的剩余比例，当前缓存的剩余量低于此比例时开始预取
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param prefetchThreshold
+	 */
+	public void setPrefetchThreshold(double prefetchThreshold);
+
+	/**
+	 * 获取直接从已有缓存中生成结果的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getHitCount();
+
+	/**
+	 * 获取因缓存耗尽并且没有预取结果而同步加载缓存的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getMissCount();
+
+	/**
+	 * 获取因缓存耗尽而等待进行中的预取结果的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getPrefetchWaitCount();
+
+	/**
+	 * 获取已发起的预取次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getPrefetchCount();
+
+}
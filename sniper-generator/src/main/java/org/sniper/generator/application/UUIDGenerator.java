@@ -18,6 +18,10 @@
 
 package org.sniper.generator.application;
 
+import java.util.List;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
 import org.sniper.commons.util.StringUtils;
 import org.sniper.generator.Generator;
 
@@ -55,4 +59,15 @@ public class UUIDGenerator implements Generator<String> {
 		return unsigned ? StringUtils.unsignedUUID(upperCase) : StringUtils.UUID(upperCase);
 	}
 	
+	@Override
+	public List<String> batchGenerate(int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+		
+		List<String> list = CollectionUtils.newArrayList(count);
+		for (int i = 0; i < count; i++) {
+			list.add(generate());
+		}
+		return list;
+	}
+	
 }
@@ -18,9 +18,13 @@
 
 package org.sniper.generator.redis;
 
+import java.util.List;
+
 import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
 import org.sniper.commons.util.StringUtils;
 import org.sniper.generator.AbstractParameterizeGenerator;
+import org.sniper.generator.LongBatchParameterizeGenerator;
 import org.sniper.nosql.redis.dao.RedisCommandsDao;
 
 /**
@@ -28,7 +32,8 @@ import org.sniper.nosql.redis.dao.RedisCommandsDao;
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public abstract class AbstractRedisParameterizeGenerator<P> extends AbstractParameterizeGenerator<P, Long> {
+public abstract class AbstractRedisParameterizeGenerator<P> extends AbstractParameterizeGenerator<P, Long> 
+		implements LongBatchParameterizeGenerator<P> {
 	
 	/** 生成器库名 */
 	protected final String dbName;
@@ -52,6 +57,54 @@ public abstract class AbstractRedisParameterizeGenerator<P> extends AbstractPara
 		return generateByParameter(parameter != null ? parameter : (P) StringUtils.EMPTY);
 	}
 
+	@Override
+	public List<Long> batchGenerate(P parameter, int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+		
+		long[] values = new long[count];
+		batchGenerate(parameter, values);
+		
+		List<Long> list = CollectionUtils.newArrayList(count);
+		for (long value : values) {
+			list.add(value);
+		}
+		return list;
+	}
+	
+	@Override
+	public void batchGenerate(long[] values) {
+		batchGenerate(this.parameter, values);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public void batchGenerate(P parameter, long[] values) {
+		AssertUtils.assertTrue(values != null && values.length > 0, "Generate count must greater than 0");
+		batchGenerateByParameter(parameter != null ? parameter : (P) StringUtils.EMPTY, values);
+	}
+
+	/**
+	 * 根据参数批量生成结果后依次填充到数组中，默认逐个生成，子类可根据自身的特点提供更高效的实现
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		generateOneByOne(parameter, values);
+	}
+	
+	/**
+	 * 根据参数逐个生成结果后依次填充到数组中
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	protected final void generateOneByOne(P parameter, long[] values) {
+		for (int i = 0; i < values.length; i++) {
+			values[i] = generateByParameter(parameter);
+		}
+	}
+
 	/**
 	 * 根据参数来生成结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -48,6 +48,17 @@ public abstract class CacheableRedisNumberGenerator<K, V, P> extends RedisNumber
 		this.cache = MapUtils.newConcurrentHashMap();
 	}
 	
+	/**
+	 * 缓存中未分配的数字都小于直接通过incrBy指令截取的区间，为保证趋势递增性，未按缓存实现批量截取的子类默认逐个消耗缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	@Override
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		generateOneByOne(parameter, values);
+	}
+	
 	@Override
 	public Map<K, V> getCache() {
 		return cache;
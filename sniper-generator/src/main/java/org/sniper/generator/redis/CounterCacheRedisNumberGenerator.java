@@ -106,6 +106,55 @@ public class CounterCacheRedisNumberGenerator<K, P> extends CacheableRedisNumber
 		}
 	}
 	
+	/**
+	 * 先一次性截取计数器区间内剩余的全部数字，不足部分通过一次incrBy指令截取多个计数区间后连续填充，
+	 * 最后一个计数区间的剩余部分留给计数器继续分配
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		lock.lock(parameter);
+		try {
+			int filled = 0;
+			IntervalCounter<Long> counter = cache.get(parameter);
+			if (counter != null) {
+				int claimed = (int) Math.min(counter.getMaximum() - counter.get(), values.length);
+				if (claimed > 0) {
+					long last = counter.increment((long) claimed);
+					for (long value = last - claimed + 1; value <= last; value++) {
+						values[filled++] = value;
+					}
+				}
+			}
+			
+			if (filled == values.length)
+				return;
+			
+			long times = (values.length - filled + cacheSize - 1) / cacheSize;
+			long redisSeed = redisCommandsDao.incrBy(dbName, parameter, times * cacheSize);
+			long value = redisSeed - times * cacheSize + 1;
+			while (filled < values.length) {
+				values[filled++] = value++;
+			}
+			
+			long start = redisSeed - cacheSize;
+			if (counter == null) {
+				counter = new AtomicLongIntervalCounter(start, (long) cacheSize);
+				cache.put((K) parameter, counter);
+			} else
+				counter.setStart(start);
+			
+			// 跳过最后一个计数区间中已填充的数字
+			counter.increment(value - 1 - start);
+			logger.debug("Parameter '{}' --- reset counter {}", parameter, counter);
+		} finally {
+			lock.unlock(parameter);
+		}
+	}
+	
 	/**
 	 * 根据参数计算出计数器的起始值
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
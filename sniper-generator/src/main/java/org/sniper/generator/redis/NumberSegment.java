@@ -0,0 +1,144 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-2
+ */
+
+package org.sniper.generator.redis;
+
+import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sniper.commons.util.AssertUtils;
+
+/**
+ * 数字号段，表示[next, end)区间内尚未分配的连续数字。</P>
+ * 号段一旦创建，其结束值不再改变，分配操作仅通过CAS推进next值完成，因此无需加锁。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public final class NumberSegment {
+
+	/** 号段耗尽时的分配结果 */
+	public static final long EXHAUSTED = Long.MIN_VALUE;
+
+	/** 号段的起始值(包含) */
+	private final long start;
+
+	/** 号段的结束值(不包含) */
+	private final long end;
+
+	/** 下一个待分配的值 */
+	private final AtomicLong next;
+
+	/** 号段的创建时间 */
+	private final long createTime;
+
+	public NumberSegment(long start, long end) {
+		AssertUtils.assertTrue(start < end, "Segment start must less than end");
+		this.start = start;
+		this.end = end;
+		this.next = new AtomicLong(start);
+		this.createTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * 分配下一个数字，号段耗尽时返回EXHAUSTED
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long next() {
+		for (;;) {
+			long current = next.get();
+			if (current >= end)
+				return EXHAUSTED;
+
+			if (next.compareAndSet(current, current + 1))
+				return current;
+		}
+	}
+
+	/**
+	 * 一次性分配最多count个连续的数字，返回分配区间的起始值，号段耗尽时返回EXHAUSTED。
+	 * 实际分配的区间为[start, min(start + count, end))
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param count
+	 * @return
+	 */
+	public long claim(long count) {
+		for (;;) {
+			long current = next.get();
+			if (current >= end)
+				return EXHAUSTED;
+
+			if (next.compareAndSet(current, Math.min(current + count, end)))
+				return current;
+		}
+	}
+
+	public long getStart() {
+		return start;
+	}
+
+	public long getEnd() {
+		return end;
+	}
+
+	public long getCreateTime() {
+		return createTime;
+	}
+
+	/**
+	 * 获取号段的总长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long size() {
+		return end - start;
+	}
+
+	/**
+	 * 获取号段内剩余未分配的数字个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long remaining() {
+		return Math.max(end - next.get(), 0);
+	}
+
+	/**
+	 * 获取号段内已分配的数字个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long consumed() {
+		return Math.min(next.get(), end) - start;
+	}
+
+	/**
+	 * 判断号段是否已耗尽
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public boolean isExhausted() {
+		return next.get() >= end;
+	}
+
+	@Override
+	public String toString() {
+		return MessageFormat.format("[start={0},end={1},next={2}]", start, end, next);
+	}
+
+}
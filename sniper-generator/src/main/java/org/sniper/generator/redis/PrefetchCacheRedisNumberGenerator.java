@@ -0,0 +1,315 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-3
+ */
+
+package org.sniper.generator.redis;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.generator.PrefetchableParameterizeGenerator;
+import org.sniper.lock.ParameterizeLock;
+import org.sniper.lock.jdk.JdkParameterizeLock;
+import org.sniper.nosql.redis.dao.RedisCommandsDao;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 基于双缓冲号段预取的Redis数字生成器实现类，实现原理如下：</P>
+ * 在SegmentCacheRedisNumberGenerator的基础上，每个参数除了当前正在使用的号段以外，还对应一个预取的号段。
+ * 当当前号段的剩余量低于prefetchThreshold比例时，由后台执行器异步地通过incrBy指令申请下一个号段，
+ * 当前号段耗尽后直接切换到预取好的号段，从而避免生成调用同步等待Redis的网络往返。</P>
+ * 若开启了adaptiveCacheSize，则会根据当前号段的消耗速度来动态调整下一个号段的长度：</P>
+ * 1)当前号段的预计使用时长小于segmentDuration时，下一个号段的长度翻倍，但不超过maxCacheSize；</P>
+ * 2)当前号段的预计使用时长大于等于segmentDuration的两倍时，下一个号段的长度减半，但不小于cacheSize；</P>
+ * 由于预取的号段总是在当前号段之后申请的，因此仍然能保证生成的数字是全局唯一并且趋势递增的。</P>
+ * 默认由单个守护线程执行预取任务，等待队列有界，队列满时退化为同步申请，未指定执行器时需在销毁时调用destroy方法释放预取线程。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class PrefetchCacheRedisNumberGenerator<K, P> extends SegmentCacheRedisNumberGenerator<K, P>
+		implements PrefetchableParameterizeGenerator<K, NumberSegment, P, Long>, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(PrefetchCacheRedisNumberGenerator.class);
+
+	/** 默认执行器的等待队列容量，每个参数同时最多只有一个预取任务 */
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+	/** 命中计数的分段数 */
+	private static final int HIT_STRIPES = 64;
+
+	/** 命中计数在数组中的间隔，使各分段的计数位于不同的缓存行 */
+	private static final int HIT_PADDING = 8;
+
+	/** 预取的号段 */
+	private final ConcurrentMap<P, Future<NumberSegment>> prefetchSegments;
+
+	/** 执行预取任务的执行器 */
+	private Executor executor;
+
+	/** 执行器是否为内部创建的 */
+	private boolean internalExecutor;
+
+	/** 触发预取的剩余比例 */
+	private double prefetchThreshold = 0.2;
+
+	/** 是否根据消耗速度自动调整号段长度 */
+	private boolean adaptiveCacheSize = true;
+
+	/** 自动调整时号段长度的上限 */
+	private int maxCacheSize = 1000000;
+
+	/** 期望每个号段的使用时长(毫秒) */
+	private long segmentDuration = 15 * 60 * 1000L;
+
+	/** 直接从已有号段中完成的生成调用次数，按线程分段计数，避免在无锁的生成路径上引入新的竞争点 */
+	private final AtomicLongArray hitCounts = new AtomicLongArray(HIT_STRIPES * HIT_PADDING);
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong prefetchWaitCount = new AtomicLong();
+
+	private final AtomicLong prefetchCount = new AtomicLong();
+
+	public PrefetchCacheRedisNumberGenerator(RedisCommandsDao redisCommandsDao) {
+		this(null, redisCommandsDao);
+	}
+
+	public PrefetchCacheRedisNumberGenerator(RedisCommandsDao redisCommandsDao, ParameterizeLock<P> lock) {
+		this(null, redisCommandsDao, lock);
+	}
+
+	public PrefetchCacheRedisNumberGenerator(String dbName, RedisCommandsDao redisCommandsDao) {
+		this(dbName, redisCommandsDao, new JdkParameterizeLock<P>());
+	}
+
+	public PrefetchCacheRedisNumberGenerator(String dbName, RedisCommandsDao redisCommandsDao, ParameterizeLock<P> lock) {
+		super(dbName, redisCommandsDao, lock);
+		this.prefetchSegments = MapUtils.newConcurrentHashMap();
+		this.executor = createDefaultExecutor();
+		this.internalExecutor = true;
+	}
+
+	/**
+	 * 创建默认的预取执行器，只有一个守护线程并且等待队列有界，队列满时拒绝的任务将由调用方同步申请号段
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private static ThreadPoolExecutor createDefaultExecutor() {
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, 
+				new ArrayBlockingQueue<Runnable>(DEFAULT_QUEUE_CAPACITY), new ThreadFactory() {
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "redis-number-prefetch");
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// 空闲时回收预取线程
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	public Executor getExecutor() {
+		return executor;
+	}
+
+	public void setExecutor(Executor executor) {
+		AssertUtils.assertNotNull(executor, "Prefetch executor must not be null");
+		if (this.internalExecutor)
+			((ThreadPoolExecutor) this.executor).shutdown();
+		
+		this.executor = executor;
+		this.internalExecutor = false;
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		if (this.internalExecutor)
+			((ThreadPoolExecutor) this.executor).shutdown();
+	}
+
+	@Override
+	public double getPrefetchThreshold() {
+		return prefetchThreshold;
+	}
+
+	@Override
+	public void setPrefetchThreshold(double prefetchThreshold) {
+		AssertUtils.assertTrue(prefetchThreshold > 0 && prefetchThreshold < 1,
+				"Generator prefetch threshold must within interval (0-1)");
+		this.prefetchThreshold = prefetchThreshold;
+	}
+
+	public boolean isAdaptiveCacheSize() {
+		return adaptiveCacheSize;
+	}
+
+	public void setAdaptiveCacheSize(boolean adaptiveCacheSize) {
+		this.adaptiveCacheSize = adaptiveCacheSize;
+	}
+
+	public int getMaxCacheSize() {
+		return maxCacheSize;
+	}
+
+	public void setMaxCacheSize(int maxCacheSize) {
+		AssertUtils.assertTrue(maxCacheSize > 0, "Generator max cache size must greater than 0");
+		this.maxCacheSize = maxCacheSize;
+	}
+
+	public long getSegmentDuration() {
+		return segmentDuration;
+	}
+
+	public void setSegmentDuration(long segmentDuration) {
+		AssertUtils.assertTrue(segmentDuration > 0, "Generator segment duration must greater than 0");
+		this.segmentDuration = segmentDuration;
+	}
+
+	@Override
+	public long getHitCount() {
+		long count = 0;
+		for (int i = 0; i < HIT_STRIPES; i++) {
+			count += hitCounts.get(i * HIT_PADDING);
+		}
+		return count;
+	}
+
+	@Override
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	@Override
+	public long getPrefetchWaitCount() {
+		return prefetchWaitCount.get();
+	}
+
+	@Override
+	public long getPrefetchCount() {
+		return prefetchCount.get();
+	}
+
+	@Override
+	protected void afterGenerate(P parameter, NumberSegment segment, long value, boolean hit) {
+		if (hit)
+			hitCounts.incrementAndGet(((int) Thread.currentThread().getId() & (HIT_STRIPES - 1)) * HIT_PADDING);
+
+		// 以刚分配出去的值来判断剩余量，避免再次读取号段内被频繁修改的next值
+		if (segment.getEnd() - value <= segment.size() * prefetchThreshold && !prefetchSegments.containsKey(parameter)) {
+			prefetch(parameter, segment);
+		}
+	}
+
+	/**
+	 * 根据当前号段的消耗情况异步预取下一个号段
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param current
+	 */
+	protected void prefetch(final P parameter, NumberSegment current) {
+		final long size = calculateNextSize(current);
+		FutureTask<NumberSegment> task = new FutureTask<NumberSegment>(new Callable<NumberSegment>() {
+
+			@Override
+			public NumberSegment call() throws Exception {
+				return allocateSegment(parameter, size);
+			}
+		});
+
+		// 同一参数同时只允许存在一个预取任务
+		if (prefetchSegments.putIfAbsent(parameter, task) != null)
+			return;
+
+		try {
+			executor.execute(task);
+			prefetchCount.incrementAndGet();
+		} catch (RejectedExecutionException e) {
+			prefetchSegments.remove(parameter, task);
+			logger.warn("Parameter '{}' --- prefetch segment rejected, will allocate synchronously", parameter);
+		}
+	}
+
+	@Override
+	protected NumberSegment nextSegment(P parameter, NumberSegment exhausted, long required) {
+		Future<NumberSegment> future = prefetchSegments.remove(parameter);
+		if (future != null) {
+			if (!future.isDone())
+				prefetchWaitCount.incrementAndGet();
+
+			try {
+				NumberSegment segment = future.get();
+				if (segment.size() >= required)
+					return segment;
+				
+				// 预取的号段不能满足批量生成的需求量时将被丢弃，重新申请足够长的号段，从而保证趋势递增性
+				logger.debug("Parameter '{}' --- discard prefetch segment {} for required {}", parameter, segment, required);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				logger.warn("Parameter '{}' --- interrupted while waiting for prefetch segment", parameter);
+			} catch (ExecutionException e) {
+				logger.warn("Parameter '{}' --- prefetch segment failed, will allocate synchronously", parameter, e.getCause());
+			}
+		}
+
+		missCount.incrementAndGet();
+		long size = (exhausted != null ? calculateNextSize(exhausted) : cacheSize);
+		return allocateSegment(parameter, required > size ? required + size : size);
+	}
+
+	/**
+	 * 根据当前号段的消耗速度计算下一个号段的长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param current
+	 * @return
+	 */
+	protected long calculateNextSize(NumberSegment current) {
+		if (!adaptiveCacheSize)
+			return cacheSize;
+
+		long size = current.size();
+		long consumed = current.consumed();
+		if (consumed > 0) {
+			long elapsed = System.currentTimeMillis() - current.getCreateTime();
+			// 按当前的消耗速度预计整个号段的使用时长
+			long expectedDuration = elapsed * size / consumed;
+			if (expectedDuration < segmentDuration)
+				size <<= 1;
+			else if (expectedDuration >= segmentDuration << 1)
+				size >>= 1;
+		}
+
+		return Math.max(Math.min(size, Math.max(maxCacheSize, cacheSize)), cacheSize);
+	}
+
+}
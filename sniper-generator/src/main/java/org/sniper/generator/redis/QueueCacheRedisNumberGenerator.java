@@ -114,6 +114,52 @@ public class QueueCacheRedisNumberGenerator<K, P> extends CacheableRedisNumberGe
 		}
 	}
 	
+	/**
+	 * 先取出队列中缓存的全部数字，不足部分通过一次incrBy指令截取多个缓存区间后连续填充，剩余的尾部数字放回队列
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		lock.lock(parameter);
+		try {
+			int filled = 0;
+			Queue<Long> queue = cache.get(parameter);
+			if (queue != null) {
+				Long value;
+				while (filled < values.length && (value = queue.poll()) != null) {
+					values[filled++] = value;
+				}
+			} else
+				queue = CollectionUtils.newConcurrentLinkedQueue();
+			
+			if (filled == values.length)
+				return;
+			
+			/* 每次以cacheSize累加种子时对应[start-1,end]区间内的cacheSize+1个数字，
+			 * 按不足部分计算出需要累加的次数后，一次性累加多个cacheSize */
+			int intervalSize = cacheSize + 1;
+			long times = (values.length - filled + cacheSize) / intervalSize;
+			long redisSeed = redisCommandsDao.incrBy(dbName, parameter, times * cacheSize);
+			long end = redisSeed + redisSeed / cacheSize;
+			long value = end - times * intervalSize + 1;
+			while (filled < values.length) {
+				values[filled++] = value++;
+			}
+			
+			for (; value <= end; value++) {
+				queue.add(value);
+			}
+			
+			cache.put((K) parameter, queue);
+			logger.debug("Parameter '{}' --- cache queue {}", parameter, queue);
+		} finally {
+			lock.unlock(parameter);
+		}
+	}
+	
 	/**
 	 * 缓存[start+1,end+1]区间内连续cacheSize个数字后返回
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -42,5 +42,19 @@ public class RedisNumberGenerator<P> extends AbstractRedisParameterizeGenerator<
 	protected Long generateByParameter(P parameter) {
 		return redisCommandsDao.incr(dbName, parameter);
 	}
+	
+	/**
+	 * 通过一次incrBy指令截取出连续的数字区间后依次填充到数组中
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	@Override
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		long start = redisCommandsDao.incrBy(dbName, parameter, values.length) - values.length + 1;
+		for (int i = 0; i < values.length; i++) {
+			values[i] = start + i;
+		}
+	}
 
 }
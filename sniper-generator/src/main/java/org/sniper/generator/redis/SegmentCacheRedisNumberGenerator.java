@@ -0,0 +1,208 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-2
+ */
+
+package org.sniper.generator.redis;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.lock.ParameterizeLock;
+import org.sniper.lock.jdk.JdkParameterizeLock;
+import org.sniper.nosql.redis.dao.RedisCommandsDao;
+
+/**
+ * 基于号段缓存的Redis数字生成器实现类，实现原理如下：</P>
+ * 以cacheSize的累加结果作为Redis种子计数(redisSeed)，并以此计算出号段区间[redisSeed-cacheSize+1, redisSeed+1)，
+ * 每个参数对应一个号段，生成时直接通过CAS推进号段内的next值来分配数字，整个分配过程无锁。</P>
+ * 只有当号段耗尽时才会对参数加锁，并在锁内再次检查号段是否已被其它线程更换，若没有，则通过incrBy指令申请新的号段后替换旧号段。</P>
+ * 与CounterCacheRedisNumberGenerator和QueueCacheRedisNumberGenerator相比：</P>
+ * 1)号段未耗尽时的生成调用不再竞争参数化锁；</P>
+ * 2)号段只保存起止两个原始类型的值，不会像队列缓存那样为每次分配装箱cacheSize个Long对象；</P>
+ * 此实现类生成的结果具备如下特点：</P>
+ * 1)生成的数字是全局唯一的；</P>
+ * 2)在单节点单线程无中断环境中生成的数字是连续递增的，当有中断时，也能保证是趋势递增的；</P>
+ * 3)在单节点多线程环境中，由于Redis种子计数是单调递增的，后申请的号段一定大于先申请的号段，因此能保证生成的数字是趋势递增的；</P>
+ * 4)在其余环境(多节点单线程/多节点多线程)中生成的数字不能保证是连续的，也不能保证是趋势递增的；</P>
+ * 5)当服务重启再恢复后，新旧数字之间可能存在不连续的情况，断续长度取决于cacheSize的设置。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class SegmentCacheRedisNumberGenerator<K, P> extends CacheableRedisNumberGenerator<K, NumberSegment, P> {
+
+	private static final Logger logger = LoggerFactory.getLogger(SegmentCacheRedisNumberGenerator.class);
+
+	protected final ParameterizeLock<P> lock;
+
+	public SegmentCacheRedisNumberGenerator(RedisCommandsDao redisCommandsDao) {
+		this(null, redisCommandsDao);
+	}
+
+	public SegmentCacheRedisNumberGenerator(RedisCommandsDao redisCommandsDao, ParameterizeLock<P> lock) {
+		this(null, redisCommandsDao, lock);
+	}
+
+	public SegmentCacheRedisNumberGenerator(String dbName, RedisCommandsDao redisCommandsDao) {
+		this(dbName, redisCommandsDao, new JdkParameterizeLock<P>());
+	}
+
+	public SegmentCacheRedisNumberGenerator(String dbName, RedisCommandsDao redisCommandsDao, ParameterizeLock<P> lock) {
+		super(dbName, redisCommandsDao);
+		AssertUtils.assertNotNull(lock, "Parameterize lock must not be null");
+		this.lock = lock;
+	}
+
+	@Override
+	protected Long generateByParameter(P parameter) {
+		boolean hit = true;
+		for (;;) {
+			NumberSegment segment = cache.get(parameter);
+			if (segment != null) {
+				// 无锁快速路径
+				long value = segment.next();
+				if (value != NumberSegment.EXHAUSTED) {
+					afterGenerate(parameter, segment, value, hit);
+					return value;
+				}
+			}
+
+			refill(parameter, segment);
+			hit = false;
+		}
+	}
+
+	/**
+	 * 先无锁地从当前号段中截取，不足的部分在持有参数锁的情况下通过一次incrBy指令申请足够长的新号段后截取，
+	 * 新号段剩余的部分作为当前号段继续使用，从而保证批量生成的结果与后续生成的结果之间仍然是趋势递增的
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param values
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected void batchGenerateByParameter(P parameter, long[] values) {
+		int count = values.length;
+		int filled = 0;
+		
+		NumberSegment segment = cache.get(parameter);
+		if (segment != null)
+			filled = claim(parameter, segment, values, filled, true);
+		
+		if (filled < count) {
+			lock.lock(parameter);
+			try {
+				for (;;) {
+					segment = cache.get(parameter);
+					if (segment != null && (filled = claim(parameter, segment, values, filled, false)) == count)
+						break;
+					
+					NumberSegment next = nextSegment(parameter, segment, count - filled);
+					cache.put((K) parameter, next);
+					logger.debug("Parameter '{}' --- allocate segment {}", parameter, next);
+				}
+			} finally {
+				lock.unlock(parameter);
+			}
+		}
+	}
+	
+	/**
+	 * 从号段中截取数字后从指定位置开始依次填充到数组中，直到数组被填满或号段耗尽，返回填充后的位置
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param segment
+	 * @param values
+	 * @param offset 开始填充的位置
+	 * @param hit 为true时表示在号段满足全部需求量的情况下，本次调用是直接从已有号段中生成的
+	 * @return
+	 */
+	private int claim(P parameter, NumberSegment segment, long[] values, int offset, boolean hit) {
+		int count = values.length - offset;
+		long start = segment.claim(count);
+		if (start == NumberSegment.EXHAUSTED)
+			return offset;
+		
+		long end = Math.min(start + count, segment.getEnd());
+		for (long value = start; value < end; value++) {
+			values[offset++] = value;
+		}
+		
+		afterGenerate(parameter, segment, end - 1, hit && end - start == count);
+		return offset;
+	}
+
+	/**
+	 * 当参数对应的号段仍为指定的已耗尽号段时，申请新的号段进行替换
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param exhausted 调用方观察到的已耗尽号段，为null时表示尚未初始化
+	 */
+	@SuppressWarnings("unchecked")
+	protected void refill(P parameter, NumberSegment exhausted) {
+		lock.lock(parameter);
+		try {
+			// 双重检查，防止多个线程针对同一个已耗尽的号段重复申请
+			if (cache.get(parameter) == exhausted) {
+				NumberSegment segment = nextSegment(parameter, exhausted, 1);
+				cache.put((K) parameter, segment);
+				logger.debug("Parameter '{}' --- allocate segment {}", parameter, segment);
+			}
+		} finally {
+			lock.unlock(parameter);
+		}
+	}
+
+	/**
+	 * 在号段内成功生成结果后的回调，默认不做任何处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param segment
+	 * @param value
+	 * @param hit 本次生成调用是否直接从已有号段中完成，期间没有申请过新号段
+	 */
+	protected void afterGenerate(P parameter, NumberSegment segment, long value, boolean hit) {
+		
+	}
+
+	/**
+	 * 在持有参数锁的情况下获取用于替换已耗尽号段的新号段
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param exhausted 已耗尽的号段，为null时表示尚未初始化
+	 * @param required 调用方至少需要从新号段中获取的数字个数
+	 * @return
+	 */
+	protected NumberSegment nextSegment(P parameter, NumberSegment exhausted, long required) {
+		// 需求量超过cacheSize时，申请的号段在满足需求量后仍保留cacheSize个数字供后续使用
+		return allocateSegment(parameter, required > cacheSize ? required + cacheSize : cacheSize);
+	}
+
+	/**
+	 * 根据参数向Redis申请一个指定长度的新号段
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param size
+	 * @return
+	 */
+	protected NumberSegment allocateSegment(P parameter, long size) {
+		/* 同CounterCacheRedisNumberGenerator实现类一样，以号段长度的累加结果作为种子，
+		 * 避免号段长度由大变小时出现计数回溯的情况 */
+		long redisSeed = redisCommandsDao.incrBy(dbName, parameter, size);
+		return new NumberSegment(redisSeed - size + 1, redisSeed + 1);
+	}
+
+}
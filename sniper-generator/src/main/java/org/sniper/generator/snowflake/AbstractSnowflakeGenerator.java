@@ -19,6 +19,8 @@
 package org.sniper.generator.snowflake;
 
 import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import org.sniper.commons.util.AssertUtils;
 import org.sniper.commons.util.DateUtils;
@@ -67,6 +69,9 @@ public abstract class AbstractSnowflakeGenerator<T> implements Generator<T> {
 
     /** 数据中心ID*/
     protected final long dataCenterId;
+    
+    /** 允许容忍的时钟回退以及向未来毫秒借用序列的最大毫秒数 */
+    protected long maxBackwardMillis = 10L;
             
     protected AbstractSnowflakeGenerator(SequenceNode sequenceNode) {
     	AssertUtils.assertNotNull(sequenceNode, "Sequence node must not be null");
@@ -84,6 +89,103 @@ public abstract class AbstractSnowflakeGenerator<T> implements Generator<T> {
         this.dataCenterId = dataCenterId;
     }
     
+    public long getMaxBackwardMillis() {
+		return maxBackwardMillis;
+	}
+
+	public void setMaxBackwardMillis(long maxBackwardMillis) {
+		AssertUtils.assertTrue(maxBackwardMillis >= 0, "Max backward millis must greater than or equals 0");
+		this.maxBackwardMillis = maxBackwardMillis;
+	}
+	
+	/**
+	 * 在打包的"相对时间戳(twepoch)<<sequenceBits|毫秒内序列"原子字上通过CAS一次性预留最多count个连续序列，返回第一个序列对应的打包值。
+	 * 实际预留的个数为min(count, sequenceMask + 1 - (返回值 & sequenceMask))，即预留的序列不会跨越毫秒。</P>
+	 * 与nextTimestamp方法不同：</P>
+	 * 1)当前毫秒的序列用完后，直接借用下一毫秒的序列，而不是自旋等待时钟前进；</P>
+	 * 2)当时钟回退时，继续在最近生成的时间戳上累加序列，而不是抛出异常；</P>
+	 * 只有当借用的时间戳超前于当前时钟maxBackwardMillis毫秒以上时才会短暂等待时钟追上，
+	 * 当时钟回退的幅度超过maxBackwardMillis毫秒时才会抛出异常。
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param sequence
+	 * @param count
+	 * @return
+	 */
+	protected long reserveSequences(AtomicLong sequence, int count) {
+		for (;;) {
+			long current = sequence.get();
+			long now = currentTimestamp() - twepoch;
+			long last = current >>> sequenceBits;
+			
+			long next;
+			if (now > last) {
+				// 时间戳前进，毫秒内序列重置
+				next = now << sequenceBits;
+			} else {
+				if (last - now > maxBackwardMillis) {
+					throw new RuntimeException(String.format(
+							"Clock moved backwards.Refusing to generate id for %d milliseconds", last - now));
+				}
+				
+				// 毫秒内序列溢出时会自然进位到下一毫秒，即借用未来毫秒的序列
+				next = current + 1;
+				if ((next >>> sequenceBits) - now > maxBackwardMillis) {
+					// 借用的序列过多，等待时钟追上
+					LockSupport.parkNanos(100000L);
+					continue;
+				}
+			}
+			
+			long reserved = Math.min(count, sequenceMask + 1 - (next & sequenceMask));
+			if (sequence.compareAndSet(current, next + reserved - 1))
+				return next;
+		}
+	}
+	
+	/**
+	 * 将reserveSequences方法返回的打包值组合成64位的结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param packed
+	 * @return
+	 */
+	protected long toId(long packed) {
+		return ((packed >>> sequenceBits) << timestampLeftShift) | (dataCenterId << datacenterIdShift)
+				| (workerId << workerIdShift) | (packed & sequenceMask);
+	}
+	
+    /**
+	 * 根据时间序列计算出下一个结果所在的时间戳，并同步更新时间序列的毫秒内序列和最近生成的时间戳，调用方需保证线程安全
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param timeSequence
+	 * @return
+	 */
+	protected long nextTimestamp(TimeSequence timeSequence) {
+		long currentTimestamp = currentTimestamp();
+		long lastTimestamp = timeSequence.getLastTimestamp();
+		
+		// 如果当前时间小于最近生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
+		if (currentTimestamp < lastTimestamp) {
+			throw new RuntimeException(String.format(
+					"Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
+		}
+
+		/* 如果是同一时间生成的，则进行毫秒内序列 */
+		if (lastTimestamp == currentTimestamp) {
+			timeSequence.nextSequence();
+			if (timeSequence.getSequence() == 0) {
+				// 阻塞到下一个毫秒，获得新的时间戳
+				currentTimestamp = nextMillis(lastTimestamp);
+			}
+		} else {
+			// 时间戳改变，毫秒内序列重置
+			timeSequence.resetSequence();
+		}
+
+		// 更新最近生成的时间戳为当前时间戳
+		timeSequence.setLastTimestamp(currentTimestamp);
+		return currentTimestamp;
+	}
+    
     /**
 	 * 生成下一步毫秒时间刻度
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -159,13 +261,13 @@ public abstract class AbstractSnowflakeGenerator<T> implements Generator<T> {
 	interface SequenceGenerator<T> {
 
 		/** 
-		 * 根据指定的时间戳和序列对象生成序列结果
+		 * 根据指定的时间戳和毫秒内序列生成序列结果
 		 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 		 * @param timestamp
-		 * @param timeSequence
+		 * @param sequence
 		 * @return 
 		 */
-		public T generate(long timestamp, AbstractSnowflakeGenerator<T>.TimeSequence timeSequence);
+		public T generate(long timestamp, long sequence);
 	}
 	
 	/**
@@ -179,13 +281,13 @@ public abstract class AbstractSnowflakeGenerator<T> implements Generator<T> {
 		 * 生成通过移位并进行"或"运算后拼到一起组成的64位序列结果
 		 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 		 * @param timestamp
-		 * @param timeSequence
+		 * @param sequence
 		 * @return 
 		 */
 		@Override
-		public Number generate(long timestamp, AbstractSnowflakeGenerator<Number>.TimeSequence timeSequence) {
+		public Number generate(long timestamp, long sequence) {
 			return ((timestamp - twepoch) << timestampLeftShift) | (dataCenterId << datacenterIdShift)
-					| (workerId << workerIdShift) | timeSequence.getSequence();
+					| (workerId << workerIdShift) | sequence;
 		}
 	}
 	
@@ -201,12 +303,12 @@ public abstract class AbstractSnowflakeGenerator<T> implements Generator<T> {
 		 * 由于已经超出Long类型的范围，因此这里返回的结果类型为BigInteger
 		 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 		 * @param timestamp
-		 * @param timeSequence
+		 * @param sequence
 		 * @return 
 		 */
 		@Override
-		public Number generate(long timestamp, AbstractSnowflakeGenerator<Number>.TimeSequence timeSequence) {
-			String value = new StringBuilder(20).append(timestamp).append(NumberUtils.format(timeSequence.getSequence(), 3))
+		public Number generate(long timestamp, long sequence) {
+			String value = new StringBuilder(20).append(timestamp).append(NumberUtils.format(sequence, 3))
 					.append(NumberUtils.format(workerId, 2)).append(NumberUtils.format(dataCenterId, 2)).toString();
 					
 			return new BigInteger(value);
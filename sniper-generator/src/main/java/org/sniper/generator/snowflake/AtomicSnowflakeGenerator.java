@@ -0,0 +1,106 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-5
+ */
+
+package org.sniper.generator.snowflake;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.generator.LongBatchGenerator;
+
+/**
+ * 基于CAS的无锁Snowflake生成器实现类，结果的组成与使用相对开始时间截(twepoch)的SnowflakeGenerator相同。</P>
+ * 与SnowflakeGenerator相比：</P>
+ * 1)将"相对时间戳<<sequenceBits|毫秒内序列"打包在一个原子长整型中，每次生成只需一次CAS，无需同步锁；</P>
+ * 2)通过nextId和nextIds方法直接返回原始long类型的结果，生成过程中没有任何对象分配；</P>
+ * 3)当前毫秒的序列用完后借用未来毫秒的序列，而不是自旋等待时钟前进；</P>
+ * 4)能容忍maxBackwardMillis毫秒内的时钟回退，回退期间继续在最近生成的时间戳上累加序列，从而不会产生重复的结果。</P>
+ * 此实现类生成的结果具备如下特点：</P>
+ * 1)生成的数字是全局唯一的；</P>
+ * 2)在单节点环境中生成的数字是趋势递增的，即后生成的数字一定比先生成的数字大；</P>
+ * 3)在多节点环境中，由于很难保证有一个全局同步的时钟，因此不能保证先后生成的数字是趋势递增的</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class AtomicSnowflakeGenerator extends AbstractSnowflakeGenerator<Number> implements LongBatchGenerator {
+
+	/** 打包的时间序列 */
+	private final AtomicLong sequence = new AtomicLong();
+
+	public AtomicSnowflakeGenerator() {
+		this(new SequenceNode());
+	}
+
+	public AtomicSnowflakeGenerator(SequenceNode sequenceNode) {
+		super(sequenceNode);
+		AssertUtils.assertTrue(sequenceNode.isUseTwepoch(), "Atomic snowflake generator only supports twepoch sequence node");
+	}
+
+	/**
+	 * 生成下一个原始long类型的结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long nextId() {
+		return toId(reserveSequences(sequence, 1));
+	}
+
+	/**
+	 * 生成结果后依次填充到指定的数组中，每次CAS一次性预留同一毫秒内尽可能多的序列
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param ids
+	 */
+	public void nextIds(long[] ids) {
+		int index = 0;
+		while (index < ids.length) {
+			long packed = reserveSequences(sequence, ids.length - index);
+			long last = packed + Math.min(ids.length - index, sequenceMask + 1 - (packed & sequenceMask));
+			for (long current = packed; current < last; current++) {
+				ids[index++] = toId(current);
+			}
+		}
+	}
+
+	@Override
+	public Number generate() {
+		return nextId();
+	}
+	
+	@Override
+	public void batchGenerate(long[] values) {
+		AssertUtils.assertTrue(values != null && values.length > 0, "Generate count must greater than 0");
+		nextIds(values);
+	}
+
+	@Override
+	public List<Number> batchGenerate(int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+
+		long[] ids = new long[count];
+		nextIds(ids);
+
+		List<Number> list = CollectionUtils.newArrayList(count);
+		for (long id : ids) {
+			list.add(id);
+		}
+		return list;
+	}
+
+}
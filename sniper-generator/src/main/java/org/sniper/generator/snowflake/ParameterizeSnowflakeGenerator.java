@@ -19,9 +19,12 @@
 package org.sniper.generator.snowflake;
 
 import java.math.BigInteger;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
 import org.sniper.commons.util.MapUtils;
 import org.sniper.commons.util.NumberUtils;
 import org.sniper.commons.util.StringUtils;
@@ -44,7 +47,8 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 
 	private final ParameterizeLock<Object> lock;
 	
-	private final Map<Object, TimeSequence> timeSequences;
+	/** 参数对应的打包时间序列，格式为"相对时间戳(twepoch)<<sequenceBits|毫秒内序列" */
+	private final Map<Object, AtomicLong> sequences;
 
 	private final ParameterizeSequenceGenerator<Number> sequenceGenerator;
 
@@ -64,7 +68,7 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 		super(sequenceNode);
 		
 		this.lock = (lock != null ? lock : new JdkParameterizeLock<Object>());
-		this.timeSequences = MapUtils.newConcurrentHashMap();
+		this.sequences = MapUtils.newConcurrentHashMap();
 		this.sequenceGenerator = createParameterizeSequenceGenerator(sequenceNode);
 	}
 	
@@ -95,58 +99,71 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 		return generateByParameter(parameter != null ? parameter : StringUtils.EMPTY);
 	}
 
+	@Override
+	public List<Number> batchGenerate(int count) {
+		return batchGenerate(null, count);
+	}
+	
+	/**
+	 * 每次CAS一次性预留同一毫秒内尽可能多的序列，只有当前毫秒的序列用完后才重新获取时间戳
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @param count
+	 * @return
+	 */
+	@Override
+	public List<Number> batchGenerate(Object parameter, int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+		
+		Object safeParameter = (parameter != null ? parameter : StringUtils.EMPTY);
+		AtomicLong sequence = getSequence(safeParameter);
+		List<Number> list = CollectionUtils.newArrayList(count);
+		
+		while (list.size() < count) {
+			long packed = reserveSequences(sequence, count - list.size());
+			long timestamp = (packed >>> sequenceBits) + twepoch;
+			long first = packed & sequenceMask;
+			long last = first + Math.min(count - list.size(), sequenceMask + 1 - first);
+			for (long i = first; i < last; i++) {
+				list.add(sequenceGenerator.generate(timestamp, i, safeParameter));
+			}
+		}
+		
+		return list;
+	}
+
 	/**
-	 * 根据参数来生成结果
+	 * 根据参数来生成结果，参数对应的时间序列通过CAS无锁更新，并能容忍maxBackwardMillis毫秒内的时钟回退
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 	 * @param parameter
 	 * @return
 	 */
 	protected Number generateByParameter(Object parameter) {
-		TimeSequence timeSequence = timeSequences.get(parameter);
-		if (timeSequence == null) {
+		long packed = reserveSequences(getSequence(parameter), 1);
+		return sequenceGenerator.generate((packed >>> sequenceBits) + twepoch, packed & sequenceMask, parameter);
+	}
+	
+	/**
+	 * 获取参数对应的打包时间序列，不存在时创建
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @return
+	 */
+	private AtomicLong getSequence(Object parameter) {
+		AtomicLong sequence = sequences.get(parameter);
+		if (sequence == null) {
 			lock.lock(parameter);
 			try {
 				// 双重检查，防止多线程环境针对同一参数同时创建多个时间序列
-				if ((timeSequence = timeSequences.get(parameter)) == null) {
-					timeSequence = new TimeSequence();
-					timeSequences.put(parameter, timeSequence);
+				if ((sequence = sequences.get(parameter)) == null) {
+					sequence = new AtomicLong();
+					sequences.put(parameter, sequence);
 				}
 			} finally {
 				lock.unlock(parameter);
 			}
 		}
-
-		lock.lock(parameter);
-		try {
-			long currentTimestamp = currentTimestamp();
-			long lastTimestamp = timeSequence.getLastTimestamp();
-
-			// 如果当前时间小于序列最近生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
-			if (currentTimestamp < lastTimestamp) {
-				throw new RuntimeException(String.format(
-						"Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
-			}
-
-			/* 如果是同一时间生成的，则进行毫秒内序列 */
-			if (lastTimestamp == currentTimestamp) {
-				timeSequence.nextSequence();
-				if (timeSequence.getSequence() == 0) {
-					// 阻塞到下一个毫秒,获得新的时间戳
-					currentTimestamp = nextMillis(lastTimestamp);
-				}
-			} else {
-				// 时间戳改变，毫秒内序列重置
-				timeSequence.resetSequence();
-			}
-
-			// 更新最近生成的时间戳为当前时间戳
-			timeSequence.setLastTimestamp(currentTimestamp);
-
-			// 移位并通过"或"运算拼到一起组成64位的序列结果
-			return sequenceGenerator.generate(currentTimestamp, timeSequence, parameter);
-		} finally {
-			lock.unlock(parameter);
-		}
+		return sequence;
 	}
 
 	/**
@@ -157,14 +174,14 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 	interface ParameterizeSequenceGenerator<T> {
 		
 		/**
-		 * 根据指定的时间戳、时间序列对象和参数生成序列结果
+		 * 根据指定的时间戳、毫秒内序列和参数生成序列结果
 		 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 		 * @param timestamp
-		 * @param timeSequence
+		 * @param sequence
 		 * @param parameter
 		 * @return
 		 */
-		public T generate(long timestamp, TimeSequence timeSequence, Object parameter);
+		public T generate(long timestamp, long sequence, Object parameter);
 	}
 	
 	/**
@@ -176,8 +193,8 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 			implements ParameterizeSequenceGenerator<Number> {
 
 		@Override
-		public Number generate(long timestamp, TimeSequence timeSequence, Object parameter) {
-			return super.generate(timestamp, timeSequence);
+		public Number generate(long timestamp, long sequence, Object parameter) {
+			return super.generate(timestamp, sequence);
 		}
 	}
 	
@@ -189,8 +206,8 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 	class UntwepochUnparameterizeSequenceGenerator extends UntwepochSequenceGenerator implements ParameterizeSequenceGenerator<Number> {
 
 		@Override
-		public Number generate(long timestamp, TimeSequence timeSequence, Object parameter) {
-			return super.generate(timestamp, timeSequence);
+		public Number generate(long timestamp, long sequence, Object parameter) {
+			return super.generate(timestamp, sequence);
 		}
 	}
 	
@@ -230,13 +247,13 @@ public class ParameterizeSnowflakeGenerator extends AbstractSnowflakeGenerator<N
 		 * 生成的结果是一个由无参序列生成器生成的结果和参数序列生成器生成的结果组合而成的数字
 		 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 		 * @param timestamp
-		 * @param timeSequence
+		 * @param sequence
 		 * @param parameter
 		 * @return
 		 */
 		@Override
-		public Number generate(long timestamp, TimeSequence timeSequence, Object parameter) {
-			return new BigInteger(sequenceGenerator.generate(timestamp, timeSequence).toString() + generateByParameter(parameter));
+		public Number generate(long timestamp, long sequence, Object parameter) {
+			return new BigInteger(sequenceGenerator.generate(timestamp, sequence).toString() + generateByParameter(parameter));
 		}
 	}
 	
@@ -18,6 +18,11 @@
 
 package org.sniper.generator.snowflake;
 
+import java.util.List;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+
 /**
  * 推特Snowflake序列生成器实现类，其结果为一个long型的数字。</p>
  * 其算法核心思想为：</p>
@@ -55,33 +60,33 @@ public class SnowflakeGenerator extends AbstractSnowflakeGenerator<Number> {
 
 	@Override
 	public synchronized Number generate() {
-		
-		long currentTimestamp = currentTimestamp();
-		long lastTimestamp = timeSequence.getLastTimestamp();
-		
-        //如果当前时间小于最近生成的时间戳，说明系统时钟回退过这个时候应当抛出异常
-        if (currentTimestamp < lastTimestamp) {
-			throw new RuntimeException(String.format(
-					"Clock moved backwards.Refusing to generate id for %d milliseconds", lastTimestamp - currentTimestamp));
-        }
-
-        /* 如果是同一时间生成的，则进行毫秒内序列 */
-        if (lastTimestamp == currentTimestamp) {
-        	timeSequence.nextSequence();
-            if (timeSequence.getSequence() == 0) {
-				// 阻塞到下一个毫秒，获得新的时间戳
-            	currentTimestamp = nextMillis(lastTimestamp);
-            }
-        } else {
-			// 时间戳改变，毫秒内序列重置
-        	timeSequence.resetSequence();
-        }
-
-		// 更新最近生成的时间戳为当前时间戳
-        timeSequence.setLastTimestamp(currentTimestamp);
+		long currentTimestamp = nextTimestamp(timeSequence);
 
         // 移位并通过"或"运算拼到一起组成64位的序列结果
-		return sequenceGenerator.generate(currentTimestamp, timeSequence);
+		return sequenceGenerator.generate(currentTimestamp, timeSequence.getSequence());
+	}
+	
+	/**
+	 * 每获取一次时间戳后一次性预留该毫秒内剩余的全部序列，只有当前毫秒的序列用完后才重新获取时间戳
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param count
+	 * @return
+	 */
+	@Override
+	public synchronized List<Number> batchGenerate(int count) {
+		AssertUtils.assertTrue(count > 0, "Generate count must greater than 0");
+		
+		List<Number> list = CollectionUtils.newArrayList(count);
+		while (list.size() < count) {
+			long currentTimestamp = nextTimestamp(timeSequence);
+			list.add(sequenceGenerator.generate(currentTimestamp, timeSequence.getSequence()));
+			
+			while (list.size() < count && timeSequence.getSequence() < sequenceMask) {
+				timeSequence.nextSequence();
+				list.add(sequenceGenerator.generate(currentTimestamp, timeSequence.getSequence()));
+			}
+		}
+		return list;
 	}
 	
 }
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-5
+ */
+
+package org.sniper.generator.test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.generator.snowflake.AtomicSnowflakeGenerator;
+import org.sniper.generator.snowflake.SnowflakeGenerator;
+
+/**
+ * 基于CAS的无锁Snowflake生成器单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class AtomicSnowflakeGeneratorTest extends GeneratorTest {
+
+	private final int threadSize = 16;
+
+	private final int count = 100000;
+
+	@Override
+	public void init() {
+		uniquenessTest = true;
+		performanceTest = true;
+	}
+
+	@Override
+	protected void doUniquenessTest() throws Exception {
+		final AtomicSnowflakeGenerator generator = new AtomicSnowflakeGenerator();
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		Callable<long[]> task = new Callable<long[]>() {
+
+			@Override
+			public long[] call() throws Exception {
+				long[] ids = new long[count];
+				for (int i = 0; i < count; i++) {
+					ids[i] = generator.nextId();
+					// 单线程内生成的结果是递增的
+					assertTrue(i == 0 || ids[i] > ids[i - 1]);
+				}
+				return ids;
+			}
+		};
+
+		List<Future<long[]>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			futures.add(executor.submit(task));
+		}
+
+		Set<Long> totalSet = CollectionUtils.newHashSet(threadSize * count);
+		for (Future<long[]> future : futures) {
+			for (long id : future.get()) {
+				totalSet.add(id);
+			}
+		}
+		executor.shutdown();
+
+		assertEquals(threadSize * count, totalSet.size());
+	}
+
+	/**
+	 * 时钟回退测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void clockBackwardsTest() {
+		final long[] clock = new long[] { System.currentTimeMillis() };
+		AtomicSnowflakeGenerator generator = new AtomicSnowflakeGenerator() {
+
+			@Override
+			protected long currentTimestamp() {
+				return clock[0];
+			}
+		};
+
+		long previous = generator.nextId();
+		// 容忍范围内的回退继续在最近生成的时间戳上累加序列
+		clock[0] -= generator.getMaxBackwardMillis();
+		long next = generator.nextId();
+		assertTrue(next > previous);
+
+		// 超出容忍范围的回退抛出异常
+		clock[0] -= 1;
+		try {
+			generator.nextId();
+			fail("Clock moved backwards beyond tolerance");
+		} catch (RuntimeException e) {
+			System.out.println(e.getMessage());
+		}
+
+		// 同一毫秒内的序列用完后借用未来毫秒的序列，而不是等待时钟前进
+		clock[0] += generator.getMaxBackwardMillis() + 1;
+		long[] ids = new long[8192];
+		generator.nextIds(ids);
+		for (int i = 1; i < ids.length; i++) {
+			assertTrue(ids[i] > ids[i - 1]);
+		}
+	}
+
+	@Override
+	protected void doPerformanceTest() {
+		final SnowflakeGenerator snowflakeGenerator = new SnowflakeGenerator();
+		final AtomicSnowflakeGenerator atomicGenerator = new AtomicSnowflakeGenerator();
+		try {
+			benchmark("Snowflake", new Runnable() {
+
+				@Override
+				public void run() {
+					snowflakeGenerator.generate();
+				}
+			});
+			benchmark("AtomicSnowflake", new Runnable() {
+
+				@Override
+				public void run() {
+					atomicGenerator.nextId();
+				}
+			});
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void benchmark(String name, final Runnable generate) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		Callable<Void> task = new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				for (int i = 0; i < count; i++) {
+					generate.run();
+				}
+				return null;
+			}
+		};
+
+		long start = System.nanoTime();
+		List<Future<Void>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			futures.add(executor.submit(task));
+		}
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		executor.shutdown();
+
+		System.out.println(String.format("%s: %d threads x %d ids, %d ms", name, threadSize, count, elapsed / 1000000));
+	}
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-4
+ */
+
+package org.sniper.generator.test;
+
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Set;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.generator.LongBatchParameterizeGenerator;
+import org.sniper.generator.ParameterizeGenerator;
+import org.sniper.generator.application.UUIDGenerator;
+import org.sniper.generator.redis.CacheableRedisNumberGenerator;
+import org.sniper.generator.redis.CounterCacheRedisNumberGenerator;
+import org.sniper.generator.redis.QueueCacheRedisNumberGenerator;
+import org.sniper.generator.redis.RedisNumberGenerator;
+import org.sniper.generator.redis.SegmentCacheRedisNumberGenerator;
+import org.sniper.generator.snowflake.AtomicSnowflakeGenerator;
+import org.sniper.generator.snowflake.ParameterizeSequenceNode;
+import org.sniper.generator.snowflake.ParameterizeSnowflakeGenerator;
+import org.sniper.generator.snowflake.SnowflakeGenerator;
+
+/**
+ * 批量生成单元测试类，对比批量生成与逐个生成的性能
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class BatchGenerateTest extends GeneratorTest {
+
+	private final int batchSize = 50000;
+
+	private final String parameter = "import";
+
+	@Override
+	public void init() {
+		uniquenessTest = true;
+		performanceTest = true;
+	}
+
+	@Override
+	protected void doUniquenessTest() throws Exception {
+		assertIncreasing(new SnowflakeGenerator().batchGenerate(batchSize));
+		assertIncreasing(new ParameterizeSnowflakeGenerator().batchGenerate(parameter, batchSize));
+		assertIncreasing(new RedisNumberGenerator<String>(new LocalRedisCommandsDao().create()).batchGenerate(parameter, batchSize));
+
+		SegmentCacheRedisNumberGenerator<String, String> generator = new SegmentCacheRedisNumberGenerator<String, String>(
+				new LocalRedisCommandsDao().create());
+		generator.setCacheSize(1000);
+		List<Long> list = CollectionUtils.newArrayList();
+		list.add(generator.generate(parameter));
+		list.addAll(generator.batchGenerate(parameter, batchSize));
+		list.add(generator.generate(parameter));
+		assertIncreasing(list);
+		
+		// 原始类型的批量生成结果与之前生成的结果之间仍然是趋势递增的
+		long[] values = new long[batchSize];
+		generator.batchGenerate(parameter, values);
+		assertTrue(values[0] > list.get(list.size() - 1));
+		assertIncreasing(values);
+		
+		new AtomicSnowflakeGenerator().batchGenerate(values);
+		assertIncreasing(values);
+		
+		assertContinuous(new QueueCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()));
+		assertContinuous(new CounterCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()));
+		
+		assertEquals(batchSize, CollectionUtils.newHashSet(new UUIDGenerator().batchGenerate(batchSize)).size());
+	}
+	
+	/**
+	 * 单线程环境中先消耗缓存再截取区间的批量生成结果与前后逐个生成的结果是连续递增的
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param generator
+	 */
+	private void assertContinuous(CacheableRedisNumberGenerator<?, ?, String> generator) {
+		generator.setCacheSize(1000);
+		List<Long> list = CollectionUtils.newArrayList();
+		list.add(generator.generate(parameter));
+		list.addAll(generator.batchGenerate(parameter, 10));
+		list.addAll(generator.batchGenerate(parameter, batchSize));
+		list.add(generator.generate(parameter));
+		list.addAll(generator.batchGenerate(parameter, 999));
+		list.add(generator.generate(parameter));
+		
+		for (int i = 1; i < list.size(); i++) {
+			assertEquals(list.get(i - 1) + 1, list.get(i).longValue());
+		}
+	}
+	
+	private void assertIncreasing(long[] values) {
+		for (int i = 1; i < values.length; i++) {
+			assertTrue(values[i] > values[i - 1]);
+		}
+	}
+
+	private void assertIncreasing(List<? extends Number> list) {
+		Set<Number> set = CollectionUtils.newHashSet(list);
+		assertEquals(list.size(), set.size());
+
+		BigInteger previous = null;
+		for (Number number : list) {
+			BigInteger current = new BigInteger(number.toString());
+			assertTrue(previous == null || current.compareTo(previous) > 0);
+			previous = current;
+		}
+	}
+
+	@Override
+	protected void doPerformanceTest() {
+		final SnowflakeGenerator snowflakeGenerator = new SnowflakeGenerator();
+		benchmark("Snowflake", new ParameterizeGenerator<String, Number>() {
+
+			@Override
+			public Number generate() {
+				return snowflakeGenerator.generate();
+			}
+
+			@Override
+			public List<Number> batchGenerate(int count) {
+				return snowflakeGenerator.batchGenerate(count);
+			}
+
+			@Override
+			public Number generate(String parameter) {
+				return generate();
+			}
+
+			@Override
+			public List<Number> batchGenerate(String parameter, int count) {
+				return batchGenerate(count);
+			}
+		});
+
+		ParameterizeSequenceNode sequenceNode = new ParameterizeSequenceNode();
+		sequenceNode.setParameterAsResult(false);
+		benchmark("ParameterizeSnowflake", new ParameterizeSnowflakeGenerator(sequenceNode));
+
+		LocalRedisCommandsDao redisCommandsDao = new LocalRedisCommandsDao();
+		benchmark("RedisNumber", new RedisNumberGenerator<String>(redisCommandsDao.create()));
+		System.out.println("RedisNumber round trips: " + redisCommandsDao.getRoundTrips());
+
+		redisCommandsDao = new LocalRedisCommandsDao();
+		benchmark("SegmentCache", new SegmentCacheRedisNumberGenerator<String, String>(redisCommandsDao.create()));
+		System.out.println("SegmentCache round trips: " + redisCommandsDao.getRoundTrips());
+	}
+
+	private <T> void benchmark(String name, ParameterizeGenerator<? super String, T> generator) {
+		// 预热
+		for (int i = 0; i < 10; i++) {
+			generator.batchGenerate(parameter, batchSize);
+		}
+
+		long start = System.nanoTime();
+		List<T> list = CollectionUtils.newArrayList(batchSize);
+		for (int i = 0; i < batchSize; i++) {
+			list.add(generator.generate(parameter));
+		}
+		long loop = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		list = generator.batchGenerate(parameter, batchSize);
+		long batch = System.nanoTime() - start;
+
+		System.out.println(String.format("%s: %d ids, loop %d us, batch %d us", name, list.size(), loop / 1000, batch / 1000));
+		
+		if (generator instanceof LongBatchParameterizeGenerator) {
+			@SuppressWarnings("unchecked")
+			LongBatchParameterizeGenerator<String> longGenerator = (LongBatchParameterizeGenerator<String>) generator;
+			long[] values = new long[batchSize];
+			start = System.nanoTime();
+			longGenerator.batchGenerate(parameter, values);
+			System.out.println(String.format("%s: %d ids, batch long[] %d us", name, values.length, (System.nanoTime() - start) / 1000));
+		}
+	}
+
+}
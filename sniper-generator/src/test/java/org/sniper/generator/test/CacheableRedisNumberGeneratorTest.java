@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-2
+ */
+
+package org.sniper.generator.test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.generator.redis.CacheableRedisNumberGenerator;
+import org.sniper.generator.redis.CounterCacheRedisNumberGenerator;
+import org.sniper.generator.redis.PrefetchCacheRedisNumberGenerator;
+import org.sniper.generator.redis.QueueCacheRedisNumberGenerator;
+import org.sniper.generator.redis.SegmentCacheRedisNumberGenerator;
+
+/**
+ * 可缓存的Redis数字生成器单元测试类，基于内存中的RedisCommandsDao代理对比各缓存实现的吞吐量
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class CacheableRedisNumberGeneratorTest extends GeneratorTest {
+
+	private final int threadSize = 16;
+
+	private final int cacheSize = 1000;
+
+	private final String parameter = "order";
+
+	@Override
+	public void init() {
+		uniquenessTest = true;
+		performanceTest = true;
+	}
+
+	@Override
+	protected void doUniquenessTest() throws Exception {
+		doUniquenessTest(new SegmentCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()));
+		
+		PrefetchCacheRedisNumberGenerator<String, String> prefetchGenerator = new PrefetchCacheRedisNumberGenerator<String, String>(
+				new LocalRedisCommandsDao().create());
+		doUniquenessTest(prefetchGenerator);
+		System.out.println(String.format("PrefetchCache: hit=%d, miss=%d, prefetch=%d, prefetchWait=%d", prefetchGenerator.getHitCount(),
+				prefetchGenerator.getMissCount(), prefetchGenerator.getPrefetchCount(), prefetchGenerator.getPrefetchWaitCount()));
+		// 每次生成调用要么命中已有号段，要么经历了一次号段更换
+		assertTrue(prefetchGenerator.getHitCount() > 0);
+		assertTrue(prefetchGenerator.getHitCount() <= threadSize * 1000);
+		prefetchGenerator.destroy();
+	}
+	
+	private void doUniquenessTest(CacheableRedisNumberGenerator<String, ?, String> generator) throws Exception {
+		generator.setCacheSize(10);
+
+		List<Set<Long>> sets = execute(generator, 1000, true);
+		Set<Long> totalSet = CollectionUtils.newHashSet();
+		for (Set<Long> set : sets) {
+			// 单线程内生成的数字是递增的
+			long previous = 0;
+			for (Long value : set) {
+				assertTrue(value > previous);
+				previous = value;
+			}
+			totalSet.addAll(set);
+		}
+
+		assertEquals(threadSize * 1000, totalSet.size());
+	}
+
+	@Override
+	protected void doPerformanceTest() {
+		int count = 200000;
+		try {
+			benchmark("QueueCache", new QueueCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()), count);
+			benchmark("CounterCache", new CounterCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()), count);
+			benchmark("SegmentCache", new SegmentCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()), count);
+			benchmark("PrefetchCache", new PrefetchCacheRedisNumberGenerator<String, String>(new LocalRedisCommandsDao().create()), count);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void benchmark(String name, CacheableRedisNumberGenerator<String, ?, String> generator, int count) throws Exception {
+		generator.setCacheSize(cacheSize);
+
+		// 预热
+		execute(generator, count / 10, false);
+
+		long start = System.nanoTime();
+		execute(generator, count, false);
+		long elapsed = System.nanoTime() - start;
+
+		System.out.println(String.format("%s: %d threads x %d numbers, %d ms, %d ops/ms", name, threadSize, count,
+				elapsed / 1000000, (long) threadSize * count * 1000000 / Math.max(elapsed, 1)));
+	}
+
+	private List<Set<Long>> execute(final CacheableRedisNumberGenerator<String, ?, String> generator, 
+			final int count, final boolean collect) throws Exception {
+
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		Callable<Set<Long>> task = new Callable<Set<Long>>() {
+
+			@Override
+			public Set<Long> call() throws Exception {
+				Set<Long> set = CollectionUtils.newLinkedHashSet(collect ? count : 0);
+				for (int i = 0; i < count; i++) {
+					Long value = generator.generate(parameter);
+					if (collect)
+						set.add(value);
+				}
+				return set;
+			}
+		};
+
+		List<Future<Set<Long>>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			futures.add(executor.submit(task));
+		}
+
+		List<Set<Long>> sets = CollectionUtils.newArrayList(threadSize);
+		for (Future<Set<Long>> future : futures) {
+			sets.add(future.get());
+		}
+
+		executor.shutdown();
+		return sets;
+	}
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-2
+ */
+
+package org.sniper.generator.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.dao.RedisCommandsDao;
+
+/**
+ * 基于JVM内存的RedisCommandsDao代理，只实现生成器所需的incr/incrBy指令，
+ * 用于在没有Redis服务的环境中对生成器进行唯一性和性能测试
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LocalRedisCommandsDao implements InvocationHandler {
+
+	private final ConcurrentMap<Object, AtomicLong> counters = MapUtils.newConcurrentHashMap();
+
+	/** incr/incrBy指令的调用次数，用于统计网络往返次数 */
+	private final AtomicLong roundTrips = new AtomicLong();
+
+	/**
+	 * 创建RedisCommandsDao代理对象
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public RedisCommandsDao create() {
+		return (RedisCommandsDao) Proxy.newProxyInstance(RedisCommandsDao.class.getClassLoader(),
+				new Class<?>[] { RedisCommandsDao.class }, this);
+	}
+
+	public long getRoundTrips() {
+		return roundTrips.get();
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if ("incr".equals(name))
+			return increment(args[args.length - 1], 1);
+
+		if ("incrBy".equals(name))
+			return increment(args[args.length - 2], (Long) args[args.length - 1]);
+
+		throw new UnsupportedOperationException(name);
+	}
+
+	private Long increment(Object key, long value) {
+		roundTrips.incrementAndGet();
+		AtomicLong counter = counters.get(key);
+		if (counter == null) {
+			AtomicLong newCounter = new AtomicLong();
+			counter = counters.putIfAbsent(key, newCounter);
+			if (counter == null)
+				counter = newCounter;
+		}
+		return counter.addAndGet(value);
+	}
+
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http;
+
+import java.util.Map;
+
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * 已映射的HTTP异步请求发送器接口，请求提交后立即返回，响应处理结果通过ListenableFuture获取
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface AsyncMappedHttpSender {
+	
+	/**
+	 * 异步执行指定名称且未带参数的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @return
+	 */
+	public <T> ListenableFuture<T> request(String name);
+	
+	/**
+	 * 异步执行指定名称且带参数的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param parameters
+	 * @return
+	 */
+	public <V, T> ListenableFuture<T> request(String name, Map<String, V> parameters);
+	
+	/**
+	 * 异步执行指定名称且带参数的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param parameter
+	 * @return
+	 */
+	public <T> ListenableFuture<T> request(String name, Object parameter);
+	
+	/**
+	 * 异步执行指定名称且带RequestBody的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param requestBody
+	 * @return
+	 */
+	public <T> ListenableFuture<T> requestByBody(String name, Object requestBody);
+	
+	/**
+	 * 异步执行指定名称且带RequestBody和参数的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param requestBody
+	 * @param parameters
+	 * @return
+	 */
+	public <V, T> ListenableFuture<T> requestByBody(String name, Object requestBody, Map<String, V> parameters);
+	
+	/**
+	 * 异步执行指定名称且带RequestBody和参数的HTTP表单请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param requestBody
+	 * @param parameter
+	 * @return
+	 */
+	public <T> ListenableFuture<T> requestByBody(String name, Object requestBody, Object parameter);
+
+}
@@ -20,104 +20,14 @@ package org.sniper.http;
 
 import java.util.Map;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.sniper.codec.encoder.RawURLEncoder;
-import org.sniper.codec.encoder.StringEncoder;
-import org.sniper.commons.util.MapUtils;
-import org.sniper.commons.util.ReflectionUtils;
-import org.sniper.commons.util.StringUtils;
-import org.sniper.http.exception.HttpFormNotFoundException;
 import org.sniper.http.exception.NoSuchHttpMethodException;
-import org.sniper.http.form.HttpForm;
-import org.sniper.http.form.HttpFormRegister;
-import org.sniper.http.handler.response.ResponseHandler;
-import org.sniper.http.handler.response.typed.TypedNestedResponseHandler;
-import org.sniper.http.handler.response.typed.TypedResponseHandler;
-import org.sniper.spring.beans.CheckableInitializingBeanAdapter;
-import org.sniper.templet.message.formatter.MessageFormatter;
 
 /**
- * 已映射的HTTP访问器抽象类
+ * 已映射的HTTP访问器抽象类，请求时直接按请求计划中的请求方法分派，并同步返回处理后的响应结果
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public abstract class MappedHttpAccessor extends CheckableInitializingBeanAdapter implements MappedHttpSender {
-	
-	protected final transient Logger logger;
-	
-	protected HttpFormRegister formRegister;
-	
-	protected MessageFormatter<Object> urlFormatter;
-	
-	protected StringEncoder urlEncoder;
-		
-	/** 模板所支持的请求方法映射集 */
-	private static final Map<String, String> SUPPORT_REQUEST_METHOD;
-	
-	static {
-		SUPPORT_REQUEST_METHOD = MapUtils.newHashMap();
-		SUPPORT_REQUEST_METHOD.put("get", "doGetRequest");
-		SUPPORT_REQUEST_METHOD.put("post", "doPostRequest");
-		SUPPORT_REQUEST_METHOD.put("put", "doPutRequest");
-		SUPPORT_REQUEST_METHOD.put("delete", "doDeleteRequest");
-	}
-	
-	protected MappedHttpAccessor() {
-		this.logger = LoggerFactory.getLogger(getClass());
-	}
-	
-	public void setFormRegister(HttpFormRegister formRegister) {
-		this.formRegister = formRegister;
-	}
-	
-	public HttpFormRegister getFormRegister() {
-		return formRegister;
-	}
-	
-	public void setUrlFormatter(MessageFormatter<Object> urlFormatter) {
-		this.urlFormatter = urlFormatter;
-	}
-	
-	public MessageFormatter<Object> getUrlFormatter() {
-		return urlFormatter;
-	}
-	
-	public StringEncoder getUrlEncoder() {
-		return urlEncoder;
-	}
-
-	public void setUrlEncoder(StringEncoder urlEncoder) {
-		this.urlEncoder = urlEncoder;
-	}
-	
-	@Override
-	protected void checkProperties() {
-		if (formRegister == null)
-			throw new IllegalArgumentException("Property 'formRegister' is required");
-	}
-	
-	@Override
-	protected void init() throws Exception {
-		if (this.urlFormatter == null) 
-			this.urlFormatter = new AdaptiveURLFormatter();
-		
-		if (this.urlEncoder == null)
-			this.urlEncoder = new RawURLEncoder();
-	}
-		
-	/**
-	 * 将指定名称对应的表单对象加上请求参数后格式化成完整的URL
-	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
-	 * @param param
-	 * @return
-	 * @throws Exception
-	 */
-	protected String format(String name, Object param) {
-		String url = formRegister.findURL(name);
-		return urlFormatter.format(url, param);
-	}
+public abstract class MappedHttpAccessor extends MappedHttpSupport implements MappedHttpSender {
 	
 	@Override
 	public <T> T request(String name) throws Exception {
@@ -150,7 +60,7 @@ public abstract class MappedHttpAccessor extends CheckableInitializingBeanAdapte
 	}
 	
 	/**
-	 * 执行指定名称对应的表单的请求方法
+	 * 执行指定名称对应的表单的请求方法，解析出的请求计划直接传给各请求方法
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
 	 * @param name
 	 * @param requestBody
@@ -158,125 +68,91 @@ public abstract class MappedHttpAccessor extends CheckableInitializingBeanAdapte
 	 * @return
 	 * @throws Exception
 	 */
-	@SuppressWarnings("unchecked")
 	protected <T> T requestByName(String name, Object requestBody, Object param) throws Exception {
-		HttpForm form = formRegister.find(name);
-		if (form == null)
-			throw new HttpFormNotFoundException("Form [name=" + name +"] not found in register");
-		
-		String methodName = form.getMethod().name();
-		if (StringUtils.isBlank(methodName))
-			methodName = "get";
-		
-		String executedMethod = SUPPORT_REQUEST_METHOD.get(methodName.trim().toLowerCase());
-		if (StringUtils.isNotBlank(methodName)) {
-			try {
-				return (T) ReflectionUtils.invokeMethod(this, executedMethod,
-						new Class<?>[] { String.class, Object.class, Object.class }, new Object[] { name, requestBody, param });
-			} catch (NoSuchMethodException e) {
-				throw new NoSuchHttpMethodException("No such http method ["
-						+ methodName + "] in current version of sniper-http framework");
-			}
-		} else
+		RequestPlan plan = getPlan(name);
+		switch (plan.getMethod()) {
+		case GET:
+			return doGetRequest(plan, requestBody, param);
+		case POST:
+			return doPostRequest(plan, requestBody, param);
+		case PUT:
+			return doPutRequest(plan, requestBody, param);
+		case DELETE:
+			return doDeleteRequest(plan, requestBody, param);
+		default:
 			throw new NoSuchHttpMethodException("No such http method ["
-					+ methodName + "] in current version of sniper-http framework");
-	}
-	
-	/**
-	 * 根据表单所绑定的响应处理器处理字符串响应后返回最终结果
-	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param form
-	 * @param response
-	 * @return
-	 * @throws Exception
-	 */
-	@SuppressWarnings("unchecked")
-	protected <T> T handleResponse(HttpForm form, String response) throws Exception {
-		logger.debug("Http string response:{}", response);
-		
-		ResponseHandler handler = form.getResponseHandler();
-		
-		if (handler == null)
-			return (T) response;
-		
-		if (handler instanceof TypedResponseHandler) {
-			if (handler instanceof TypedNestedResponseHandler) 
-				return (T) ((TypedNestedResponseHandler) handler).handleNestedResponse(response, form.getTargetType(), form.getNestedType());
-			
-			return (T) ((TypedResponseHandler) handler).handleResponse(response, form.getTargetType());
+					+ plan.getMethod().name().toLowerCase() + "] in current version of sniper-http framework");
 		}
-			
-		return handler.handleResponse(response);
 	}
 	
 	/**
 	 * 执行HTTP GET方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param requestBody
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doGetRequest(String name, Object requestBody, Object param) throws Exception {
+	protected <T> T doGetRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
 		// HTTP Get不能设置RequestBody，因此忽略掉
-		return doGetRequest(name, param);
+		return doGetRequest(plan, param);
 	}
 	
 	/**
 	 * 执行HTTP DELETE方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param requestBody
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doDeleteRequest(String name, Object requestBody, Object param) throws Exception {
+	protected <T> T doDeleteRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
 		// HTTP Delete不能设置RequestBody，因此忽略掉
-		return doDeleteRequest(name, param);
+		return doDeleteRequest(plan, param);
 	}
 		
 	/**
 	 * 执行HTTP GET方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected abstract <T> T doGetRequest(String name, Object param) throws Exception;
+	protected abstract <T> T doGetRequest(RequestPlan plan, Object param) throws Exception;
 	
 	/**
 	 * 执行HTTP POST方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param requestBody
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected abstract <T> T doPostRequest(String name, Object requestBody, Object param) throws Exception;
+	protected abstract <T> T doPostRequest(RequestPlan plan, Object requestBody, Object param) throws Exception;
 	
 	/**
 	 * 执行HTTP PUT方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param requestBody
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected abstract <T> T doPutRequest(String name, Object requestBody, Object param) throws Exception;
+	protected abstract <T> T doPutRequest(RequestPlan plan, Object requestBody, Object param) throws Exception;
 	
 	/**
 	 * 执行HTTP DELETE方法后返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan 已解析的请求计划
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected abstract <T> T doDeleteRequest(String name, Object param) throws Exception;
+	protected abstract <T> T doDeleteRequest(RequestPlan plan, Object param) throws Exception;
 
 }
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http;
+
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.codec.encoder.RawURLEncoder;
+import org.sniper.codec.encoder.StringEncoder;
+import org.sniper.commons.util.ClassUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.http.exception.HttpFormNotFoundException;
+import org.sniper.http.form.HttpForm;
+import org.sniper.http.form.HttpFormRegister;
+import org.sniper.http.handler.response.ResponseHandler;
+import org.sniper.http.handler.response.typed.TypedNestedResponseHandler;
+import org.sniper.http.handler.response.typed.TypedResponseHandler;
+import org.sniper.spring.beans.CheckableInitializingBeanAdapter;
+import org.sniper.templet.message.formatter.MapMessageFormatter;
+import org.sniper.templet.message.formatter.MessageFormatter;
+
+/**
+ * 已映射的HTTP访问支持抽象类，初始化时将已注册的表单预编译成请求计划，
+ * 请求时只需填充URL模板中的占位符，同步和异步的发送器共用表单查找、URL格式化和响应处理
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public abstract class MappedHttpSupport extends CheckableInitializingBeanAdapter {
+	
+	protected final transient Logger logger;
+	
+	protected HttpFormRegister formRegister;
+	
+	protected MessageFormatter<Object> urlFormatter;
+	
+	protected StringEncoder urlEncoder;
+	
+	/** 名称-请求计划映射集 */
+	private final ConcurrentMap<String, RequestPlan> plans = MapUtils.newConcurrentHashMap();
+	
+	protected MappedHttpSupport() {
+		this.logger = LoggerFactory.getLogger(getClass());
+	}
+	
+	public void setFormRegister(HttpFormRegister formRegister) {
+		this.formRegister = formRegister;
+	}
+	
+	public HttpFormRegister getFormRegister() {
+		return formRegister;
+	}
+	
+	public void setUrlFormatter(MessageFormatter<Object> urlFormatter) {
+		this.urlFormatter = urlFormatter;
+	}
+	
+	public MessageFormatter<Object> getUrlFormatter() {
+		return urlFormatter;
+	}
+	
+	public StringEncoder getUrlEncoder() {
+		return urlEncoder;
+	}
+
+	public void setUrlEncoder(StringEncoder urlEncoder) {
+		this.urlEncoder = urlEncoder;
+	}
+	
+	@Override
+	protected void checkProperties() {
+		if (formRegister == null)
+			throw new IllegalArgumentException("Property 'formRegister' is required");
+	}
+	
+	@Override
+	protected void init() throws Exception {
+		if (this.urlFormatter == null) 
+			this.urlFormatter = new AdaptiveURLFormatter();
+		
+		if (this.urlEncoder == null)
+			this.urlEncoder = new RawURLEncoder();
+		
+		Map<String, HttpForm> formMap = formRegister.getFormMap();
+		if (formMap != null) {
+			for (Entry<String, HttpForm> entry : formMap.entrySet()) {
+				plans.put(entry.getKey(), compile(entry.getKey(), entry.getValue()));
+			}
+		}
+	}
+	
+	/**
+	 * 获取指定名称对应表单的请求计划，表单未在初始化时注册或已被重新注册时重新生成
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	protected RequestPlan getPlan(String name) {
+		HttpForm form = formRegister.find(name);
+		if (form == null)
+			throw new HttpFormNotFoundException("Form [name=" + name +"] not found in register");
+		
+		RequestPlan plan = plans.get(name);
+		if (plan == null || plan.getForm() != form) {
+			plan = compile(name, form);
+			plans.put(name, plan);
+		}
+		return plan;
+	}
+	
+	/**
+	 * 将表单编译成请求计划，只有URL格式化处理器为默认的自适应格式化处理器时才预编译URL模板，
+	 * 否则仍由URL格式化处理器格式化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param form
+	 * @return
+	 */
+	private RequestPlan compile(String name, HttpForm form) {
+		String url = formRegister.findURL(name);
+		URLTemplate urlTemplate = null;
+		if (url != null && urlFormatter.getClass() == AdaptiveURLFormatter.class) {
+			AdaptiveURLFormatter formatter = (AdaptiveURLFormatter) urlFormatter;
+			if (formatter.getMapMessageFormatter().getClass() == MapMessageFormatter.class)
+				urlTemplate = URLTemplate.compile(url, formatter.getPrefix(), formatter.getSuffix());
+		}
+		
+		return new RequestPlan(name, form, url, urlTemplate);
+	}
+		
+	/**
+	 * 将指定名称对应的表单对象加上请求参数后格式化成完整的URL
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param param
+	 * @return
+	 * @throws Exception
+	 */
+	protected String format(String name, Object param) {
+		return format(getPlan(name), param);
+	}
+	
+	/**
+	 * 按请求计划将请求参数格式化成完整的URL，参数为Map或者为空时直接填充预编译的URL模板
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param plan
+	 * @param param
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	protected String format(RequestPlan plan, Object param) {
+		URLTemplate urlTemplate = plan.getUrlTemplate();
+		if (urlTemplate != null) {
+			if (param instanceof Map && ClassUtils.isJavaTypeObject(param))
+				return urlTemplate.format((Map<String, Object>) param);
+			
+			if (param == null && !urlTemplate.hasPlaceholder())
+				return plan.getUrl();
+		}
+		
+		return urlFormatter.format(plan.getUrl(), param);
+	}
+	
+	/**
+	 * 根据表单所绑定的响应处理器处理字符串响应后返回最终结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param form
+	 * @param response
+	 * @return
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T handleResponse(HttpForm form, String response) throws Exception {
+		logger.debug("Http string response:{}", response);
+		
+		ResponseHandler handler = form.getResponseHandler();
+		
+		if (handler == null)
+			return (T) response;
+		
+		if (handler instanceof TypedResponseHandler) {
+			if (handler instanceof TypedNestedResponseHandler) 
+				return (T) ((TypedNestedResponseHandler) handler).handleNestedResponse(response, form.getTargetType(), form.getNestedType());
+			
+			return (T) ((TypedResponseHandler) handler).handleResponse(response, form.getTargetType());
+		}
+			
+		return handler.handleResponse(response);
+	}
+	
+}
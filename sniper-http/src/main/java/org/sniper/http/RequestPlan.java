@@ -0,0 +1,72 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http;
+
+import org.sniper.commons.enums.http.HttpMethod;
+import org.sniper.http.form.HttpForm;
+
+/**
+ * 表单的请求计划，在注册表单后预先确定请求方法和URL模板，请求时不再反射查找执行方法和解析URL。</P>
+ * 计划对象不可变，表单被重新注册后需重新生成。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public final class RequestPlan {
+	
+	private final String name;
+	
+	private final HttpForm form;
+	
+	private final HttpMethod method;
+	
+	private final String url;
+	
+	/** 预编译的URL模板，URL格式化处理器不支持预编译时为null */
+	private final URLTemplate urlTemplate;
+	
+	public RequestPlan(String name, HttpForm form, String url, URLTemplate urlTemplate) {
+		this.name = name;
+		this.form = form;
+		// 未指定请求方法时默认为GET
+		this.method = (form.getMethod() != null ? form.getMethod() : HttpMethod.GET);
+		this.url = url;
+		this.urlTemplate = urlTemplate;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public HttpForm getForm() {
+		return form;
+	}
+
+	public HttpMethod getMethod() {
+		return method;
+	}
+
+	public String getUrl() {
+		return url;
+	}
+
+	public URLTemplate getUrlTemplate() {
+		return urlTemplate;
+	}
+	
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.NetUtils;
+import org.sniper.commons.util.StringUtils;
+
+/**
+ * 预编译的URL模板，将URL拆分成字面量片段和占位符槽位，并预先计算出不需要追加到查询字符串的参数名称集。</P>
+ * 用Map参数格式化时的结果与AdaptiveURLFormatter一致，但每次格式化只需按顺序填充槽位，
+ * 不再重复解析模板、查询字符串以及计算参数名称的差集。</P>
+ * 模板对象不可变，可被多个线程共享。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public final class URLTemplate {
+	
+	/** 原始的URL模板 */
+	private final String url;
+	
+	/** 字面量片段，与占位符槽位交替排列，个数比槽位多1 */
+	private final String[] literals;
+	
+	/** 占位符槽位对应的参数名称 */
+	private final String[] slots;
+	
+	/** 未被填充时保留在URL中的占位符原文 */
+	private final String[] marks;
+	
+	/** 不需要追加到查询字符串的参数名称，包括查询字符串中的参数名称以及请求地址中的占位符名称 */
+	private final Set<String> excludedNames;
+	
+	/** URL模板是否已包含查询字符串 */
+	private final boolean hasQuery;
+	
+	private URLTemplate(String url, List<String> literals, List<String> slots, String prefix, String suffix) {
+		this.url = url;
+		this.literals = literals.toArray(new String[literals.size()]);
+		this.slots = slots.toArray(new String[slots.size()]);
+		this.marks = new String[this.slots.length];
+		for (int i = 0; i < this.slots.length; i++) {
+			this.marks[i] = prefix + this.slots[i] + suffix;
+		}
+		
+		Set<String> excludedNames = CollectionUtils.newHashSet();
+		Map<String, String> parameterMap = NetUtils.getParameterMap(url);
+		if (parameterMap != null)
+			excludedNames.addAll(parameterMap.keySet());
+		excludedNames.addAll(NetUtils.getAddressParameterNames(NetUtils.getAddress(url), prefix, suffix));
+		this.excludedNames = excludedNames;
+		this.hasQuery = url.indexOf("?") > -1;
+	}
+	
+	/**
+	 * 将URL编译成模板对象
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param url
+	 * @param prefix 占位符前缀
+	 * @param suffix 占位符后缀
+	 * @return
+	 */
+	public static URLTemplate compile(String url, String prefix, String suffix) {
+		List<String> literals = CollectionUtils.newArrayList();
+		List<String> slots = CollectionUtils.newArrayList();
+		
+		int position = 0;
+		int start;
+		while ((start = url.indexOf(prefix, position)) > -1) {
+			int end = url.indexOf(suffix, start + prefix.length());
+			if (end < 0)
+				break;
+			
+			literals.add(url.substring(position, start));
+			slots.add(url.substring(start + prefix.length(), end));
+			position = end + suffix.length();
+		}
+		literals.add(url.substring(position));
+		
+		return new URLTemplate(url, literals, slots, prefix, suffix);
+	}
+	
+	/**
+	 * 获取原始的URL模板
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public String getUrl() {
+		return url;
+	}
+	
+	/**
+	 * 判断模板中是否包含占位符
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public boolean hasPlaceholder() {
+		return slots.length > 0;
+	}
+	
+	/**
+	 * 用Map参数填充占位符后返回完整的URL，参数中没有的占位符原样保留，
+	 * 既不在查询字符串中也不在请求地址占位符中的参数则按顺序追加到查询字符串后面
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param param
+	 * @return
+	 */
+	public String format(Map<String, ?> param) {
+		if (MapUtils.isEmpty(param))
+			return url;
+		
+		StringBuilder formatedUrl = new StringBuilder(url.length() + 16 * (slots.length + 1));
+		for (int i = 0; i < slots.length; i++) {
+			formatedUrl.append(literals[i]);
+			Object value = param.get(slots[i]);
+			if (value != null || param.containsKey(slots[i]))
+				formatedUrl.append(StringUtils.toString(value));
+			else
+				formatedUrl.append(marks[i]);
+		}
+		formatedUrl.append(literals[slots.length]);
+		
+		boolean first = true;
+		for (Entry<String, ?> entry : param.entrySet()) {
+			if (excludedNames.contains(entry.getKey()))
+				continue;
+			
+			if (first) {
+				formatedUrl.append(hasQuery ? "&" : "?");
+				first = false;
+			} else
+				formatedUrl.append("&");
+			
+			formatedUrl.append(entry.getKey()).append("=").append(StringUtils.toString(entry.getValue()));
+		}
+		
+		return formatedUrl.toString();
+	}
+	
+	@Override
+	public String toString() {
+		return url;
+	}
+	
+}
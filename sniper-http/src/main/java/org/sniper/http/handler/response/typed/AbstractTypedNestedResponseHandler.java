@@ -18,6 +18,8 @@
 
 package org.sniper.http.handler.response.typed;
 
+import java.io.InputStream;
+
 import org.sniper.serialization.TypedSerializer;
 
 /**
@@ -46,6 +48,11 @@ public abstract class AbstractTypedNestedResponseHandler extends AbstractTypedRe
 		return doResponse(handleResponse(response, targetType), nestedType);
 	}
 	
+	@Override
+	public <T> T handleResponse(InputStream response, String encoding, Class<T> targetType, Class<?> nestedType) throws Exception {
+		return doResponse(super.handleResponse(response, encoding, targetType, nestedType), nestedType);
+	}
+	
 	/**
 	 * 处理响应实体后返回最终结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
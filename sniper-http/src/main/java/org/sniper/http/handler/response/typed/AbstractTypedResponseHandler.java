@@ -18,15 +18,24 @@
 
 package org.sniper.http.handler.response.typed;
 
+import java.io.InputStream;
+import java.util.Collection;
+
 import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CodecUtils;
+import org.sniper.commons.util.IOUtils;
+import org.sniper.commons.util.StringUtils;
+import org.sniper.serialization.ElementHandler;
+import org.sniper.serialization.StreamingTypedSerializer;
 import org.sniper.serialization.TypedSerializer;
 
 /**
- * 类型化响应处理器抽象类
+ * 类型化响应处理器抽象类，类型化序列器支持流式反序列化时直接从响应内容的输入流中反序列化，
+ * 否则先将输入流读取成字符串后再处理
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public abstract class AbstractTypedResponseHandler implements TypedResponseHandler {
+public abstract class AbstractTypedResponseHandler implements StreamingResponseHandler {
 	
 	protected final TypedSerializer typedSerializer;
 	
@@ -60,4 +69,46 @@ public abstract class AbstractTypedResponseHandler implements TypedResponseHandl
 		return typedSerializer.deserialize(response, targetType);
 	}
 	
+	@Override
+	public <T> T handleResponse(InputStream response, String encoding, Class<T> targetType, Class<?> nestedType) throws Exception {
+		if (typedSerializer instanceof StreamingTypedSerializer)
+			return ((StreamingTypedSerializer) typedSerializer).deserialize(response, encoding, targetType);
+		
+		return handleResponse(read(response, encoding), targetType);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public <E> long handleElements(InputStream response, String encoding, Class<E> elementType, ElementHandler<E> handler) throws Exception {
+		if (typedSerializer instanceof StreamingTypedSerializer)
+			return ((StreamingTypedSerializer) typedSerializer).deserializeElements(response, encoding, elementType, handler);
+		
+		// 不支持流式反序列化时，先整体反序列化后再逐个处理
+		Object result = typedSerializer.deserialize(read(response, encoding), elementType);
+		if (!(result instanceof Collection)) {
+			handler.handle((E) result);
+			return 1;
+		}
+		
+		long count = 0;
+		for (Object element : (Collection<?>) result) {
+			count++;
+			if (!handler.handle((E) element))
+				break;
+		}
+		return count;
+	}
+	
+	/**
+	 * 按字符集编码将响应内容的输入流读取成字符串
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @param encoding
+	 * @return
+	 * @throws Exception
+	 */
+	protected String read(InputStream response, String encoding) throws Exception {
+		return IOUtils.read(response, StringUtils.isNotBlank(encoding) ? encoding : CodecUtils.DEFAULT_ENCODING);
+	}
+	
 }
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.handler.response.typed;
+
+import java.io.InputStream;
+
+import org.sniper.serialization.ElementHandler;
+
+/**
+ * 流式响应处理器接口，直接从响应内容的输入流中处理，不需要先将全部响应内容读取成字符串
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface StreamingResponseHandler extends TypedResponseHandler {
+	
+	/**
+	 * 处理响应内容的输入流后返回指定类型的最终结果，结果与处理相同内容的字符串响应一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @param encoding 响应内容的字符集编码
+	 * @param targetType 最终结果的类型
+	 * @param nestedType 最终结果的内部嵌套类型，处理器不支持嵌套类型时忽略
+	 * @return
+	 * @throws Exception
+	 */
+	public <T> T handleResponse(InputStream response, String encoding, Class<T> targetType, Class<?> nestedType) throws Exception;
+	
+	/**
+	 * 将响应内容中的数组逐个处理成指定类型的元素并交给元素处理器，内容不是数组时作为单个元素处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @param encoding 响应内容的字符集编码
+	 * @param elementType 元素的类型
+	 * @param handler
+	 * @return 已处理的元素个数
+	 * @throws Exception
+	 */
+	public <E> long handleElements(InputStream response, String encoding, Class<E> elementType, ElementHandler<E> handler) throws Exception;
+
+}
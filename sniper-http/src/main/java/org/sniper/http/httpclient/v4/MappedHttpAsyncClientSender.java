@@ -0,0 +1,596 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.httpclient.v4;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.nio.client.methods.HttpAsyncMethods;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.http.AsyncMappedHttpSender;
+import org.sniper.http.MappedHttpSupport;
+import org.sniper.http.RequestPlan;
+import org.sniper.http.form.HttpForm;
+import org.sniper.http.handler.response.typed.StreamingResponseHandler;
+import org.sniper.http.httpclient.v4.factory.HttpClientFactoryBean;
+import org.sniper.http.httpclient.v4.handler.request.DefualtRequestHandler;
+import org.sniper.http.httpclient.v4.handler.request.RequestHandler;
+import org.sniper.http.httpclient.v4.handler.response.DefaultResponseHandler;
+import org.sniper.http.httpclient.v4.handler.response.SizeLimitedAsyncResponseConsumer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * 已映射的 HttpAsyncClient4.x发送器实现类，请求由非阻塞的I/O线程收发，等待响应期间不占用任何线程。</P>
+ * 1.请求的创建、URL格式化和响应处理与MappedHttpClientSender一致，两者的响应结果完全相同。</P>
+ * 2.可按表单名称设置并发数上限，超出上限的请求在表单各自的队列中等待，一个慢的下游服务不会占满其它表单所需的连接。</P>
+ * 3.可按表单名称设置超时毫秒数，从提交请求时开始计时，超时后结果以TimeoutException结束，并中止请求、关闭其连接。</P>
+ * 4.响应内容在I/O线程中接收完后交给响应处理线程池，由表单的响应处理器处理，线程池饱和时在I/O线程中处理，大小限制由全局的DefaultResponseHandler控制。</P>
+ * 5.未指定客户端时创建基于连接池的客户端，并在销毁时关闭，外部指定的客户端由调用方负责启动和关闭。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class MappedHttpAsyncClientSender extends MappedHttpSupport implements AsyncMappedHttpSender, DisposableBean {
+	
+	/** 内部创建的响应处理线程池的队列容量 */
+	private static final int RESPONSE_QUEUE_CAPACITY = 1000;
+	
+	private CloseableHttpAsyncClient httpAsyncClient;
+	
+	/** 客户端是否为内部创建的 */
+	private boolean internalHttpAsyncClient;
+	
+	/** 内部创建的客户端的最大连接数 */
+	private int maxTotal = HttpClientFactoryBean.DEFAULT_MAX_TOTAL;
+	
+	/** 内部创建的客户端的每个主机的最大连接数 */
+	private int defaultMaxPerRoute = HttpClientFactoryBean.DEFAULT_MAX_PER_ROUTE;
+	
+	/** 全局的请求处理器 */
+	private RequestHandler requestHandler;
+	
+	/** 全局的响应处理器 */
+	private org.apache.http.client.ResponseHandler<String> responseHandler;
+	
+	/** 默认的超时毫秒数，小于等于0时不限制 */
+	private long defaultTimeout;
+	
+	/** 各表单的超时毫秒数，键为表单名称 */
+	private Map<String, Long> timeouts;
+	
+	/** 默认的并发数上限，小于等于0时不限制 */
+	private int defaultConcurrencyLimit;
+	
+	/** 各表单的并发数上限，键为表单名称 */
+	private Map<String, Integer> concurrencyLimits;
+	
+	/** 各表单的并发限制器 */
+	private final ConcurrentMap<String, ConcurrencyLimiter> limiters = MapUtils.newConcurrentHashMap();
+	
+	/** 超时计时器，已取消的计时任务会立即从队列中移除 */
+	private ScheduledThreadPoolExecutor timer;
+	
+	/** 响应处理线程池，避免在I/O线程中反序列化响应内容 */
+	private Executor responseExecutor;
+	
+	/** 响应处理线程池是否为内部创建的 */
+	private boolean internalResponseExecutor;
+	
+	public CloseableHttpAsyncClient getHttpAsyncClient() {
+		return httpAsyncClient;
+	}
+	
+	public void setHttpAsyncClient(CloseableHttpAsyncClient httpAsyncClient) {
+		this.httpAsyncClient = httpAsyncClient;
+	}
+	
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+	
+	public void setMaxTotal(int maxTotal) {
+		this.maxTotal = maxTotal;
+	}
+	
+	public int getDefaultMaxPerRoute() {
+		return defaultMaxPerRoute;
+	}
+	
+	public void setDefaultMaxPerRoute(int defaultMaxPerRoute) {
+		this.defaultMaxPerRoute = defaultMaxPerRoute;
+	}
+	
+	public void setRequestHandler(RequestHandler requestHandler) {
+		this.requestHandler = requestHandler;
+	}
+	
+	public void setResponseHandler(org.apache.http.client.ResponseHandler<String> responseHandler) {
+		this.responseHandler = responseHandler;
+	}
+	
+	public long getDefaultTimeout() {
+		return defaultTimeout;
+	}
+	
+	public void setDefaultTimeout(long defaultTimeout) {
+		this.defaultTimeout = defaultTimeout;
+	}
+	
+	public Map<String, Long> getTimeouts() {
+		return timeouts;
+	}
+	
+	public void setTimeouts(Map<String, Long> timeouts) {
+		this.timeouts = timeouts;
+	}
+	
+	public int getDefaultConcurrencyLimit() {
+		return defaultConcurrencyLimit;
+	}
+	
+	public void setDefaultConcurrencyLimit(int defaultConcurrencyLimit) {
+		this.defaultConcurrencyLimit = defaultConcurrencyLimit;
+	}
+	
+	public Map<String, Integer> getConcurrencyLimits() {
+		return concurrencyLimits;
+	}
+	
+	public void setConcurrencyLimits(Map<String, Integer> concurrencyLimits) {
+		this.concurrencyLimits = concurrencyLimits;
+	}
+	
+	public Executor getResponseExecutor() {
+		return responseExecutor;
+	}
+	
+	public void setResponseExecutor(Executor responseExecutor) {
+		this.responseExecutor = responseExecutor;
+	}
+	
+	@Override
+	protected void init() throws Exception {
+		super.init();
+		
+		if (this.httpAsyncClient == null) {
+			this.httpAsyncClient = HttpAsyncClients.custom()
+					.setMaxConnTotal(maxTotal).setMaxConnPerRoute(defaultMaxPerRoute).build();
+			this.httpAsyncClient.start();
+			this.internalHttpAsyncClient = true;
+		}
+		
+		if (this.requestHandler == null)
+			this.requestHandler = new DefualtRequestHandler();
+		
+		if (this.responseHandler == null)
+			this.responseHandler = new DefaultResponseHandler();
+		
+		this.timer = new ScheduledThreadPoolExecutor(1, newThreadFactory("http-async-timer"));
+		// 大部分请求在超时前完成，取消后不再留在队列中等到期
+		this.timer.setRemoveOnCancelPolicy(true);
+		
+		if (this.responseExecutor == null) {
+			int poolSize = Runtime.getRuntime().availableProcessors();
+			this.responseExecutor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, 
+					new ArrayBlockingQueue<Runnable>(RESPONSE_QUEUE_CAPACITY), newThreadFactory("http-async-response-"));
+			this.internalResponseExecutor = true;
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		this.timer.shutdownNow();
+		
+		if (internalResponseExecutor)
+			((ExecutorService) this.responseExecutor).shutdown();
+		
+		// 外部注入的客户端由其所在的容器负责关闭
+		if (internalHttpAsyncClient)
+			this.httpAsyncClient.close();
+	}
+	
+	@Override
+	public <T> ListenableFuture<T> request(String name) {
+		return submit(name, null, null);
+	}
+	
+	@Override
+	public <V, T> ListenableFuture<T> request(String name, Map<String, V> parameters) {
+		return submit(name, null, parameters);
+	}
+	
+	@Override
+	public <T> ListenableFuture<T> request(String name, Object parameter) {
+		return submit(name, null, parameter);
+	}
+	
+	@Override
+	public <T> ListenableFuture<T> requestByBody(String name, Object requestBody) {
+		return submit(name, requestBody, null);
+	}
+	
+	@Override
+	public <V, T> ListenableFuture<T> requestByBody(String name, Object requestBody, Map<String, V> parameters) {
+		return submit(name, requestBody, parameters);
+	}
+	
+	@Override
+	public <T> ListenableFuture<T> requestByBody(String name, Object requestBody, Object parameter) {
+		return submit(name, requestBody, parameter);
+	}
+	
+	/**
+	 * 获取指定表单当前执行中的请求数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	public int getActiveCount(String name) {
+		ConcurrencyLimiter limiter = limiters.get(name);
+		return limiter != null ? limiter.limit - limiter.permits.availablePermits() : 0;
+	}
+	
+	/**
+	 * 获取指定表单因超出并发数上限而等待中的请求数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	public int getPendingCount(String name) {
+		ConcurrencyLimiter limiter = limiters.get(name);
+		return limiter != null ? limiter.pending.size() : 0;
+	}
+	
+	/**
+	 * 提交指定表单的请求，按表单的并发数上限执行，并在超时后中止请求
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param requestBody
+	 * @param param
+	 * @return
+	 */
+	protected <T> ListenableFuture<T> submit(String name, Object requestBody, Object param) {
+		RequestTask<T> task = new RequestTask<T>(name, requestBody, param);
+		long timeout = getTimeout(name);
+		if (timeout > 0)
+			task.timeoutFuture = timer.schedule(new TimeoutTask(task, name, timeout), timeout, TimeUnit.MILLISECONDS);
+		
+		ConcurrencyLimiter limiter = getLimiter(name);
+		if (limiter != null)
+			limiter.submit(task);
+		else
+			task.start();
+		
+		return task.result;
+	}
+	
+	/**
+	 * 创建守护线程的工厂，名称前缀以"-"结尾时在其后追加线程序号
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	private static ThreadFactory newThreadFactory(final String name) {
+		return new ThreadFactory() {
+			
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, name.endsWith("-") ? name + threadNumber.incrementAndGet() : name);
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+	}
+	
+	/**
+	 * 判断表单的响应是否按流式处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param form
+	 * @return
+	 */
+	private boolean isStreaming(HttpForm form) {
+		return form.getResponseHandler() instanceof StreamingResponseHandler && responseHandler instanceof DefaultResponseHandler;
+	}
+	
+	/**
+	 * 处理已接收完的响应，流式响应处理器直接读取已缓存的响应内容，不再先转换成字符串
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param form
+	 * @param response
+	 * @return
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T handleResponse(HttpForm form, HttpResponse response) throws Exception {
+		if (!isStreaming(form))
+			return handleResponse(form, responseHandler.handleResponse(response));
+		
+		DefaultResponseHandler defaultResponseHandler = (DefaultResponseHandler) responseHandler;
+		InputStream content = defaultResponseHandler.getContent(response);
+		if (content == null)
+			return null;
+		
+		try {
+			return (T) ((StreamingResponseHandler) form.getResponseHandler()).handleResponse(content,
+					defaultResponseHandler.getCharset(response), form.getTargetType(), form.getNestedType());
+		} finally {
+			content.close();
+		}
+	}
+	
+	/**
+	 * 获取接收响应内容时允许的最大字节数，全局的响应处理器不是DefaultResponseHandler时不限制
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private long getMaxResponseSize() {
+		return responseHandler instanceof DefaultResponseHandler ? ((DefaultResponseHandler) responseHandler).getMaxResponseSize() : 0;
+	}
+	
+	/**
+	 * 获取指定表单的超时毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	private long getTimeout(String name) {
+		Long timeout = timeouts != null ? timeouts.get(name) : null;
+		return timeout != null ? timeout : defaultTimeout;
+	}
+	
+	/**
+	 * 获取指定表单的并发限制器，未限制并发数时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @return
+	 */
+	private ConcurrencyLimiter getLimiter(String name) {
+		ConcurrencyLimiter limiter = limiters.get(name);
+		if (limiter != null)
+			return limiter;
+		
+		Integer limit = concurrencyLimits != null ? concurrencyLimits.get(name) : null;
+		if (limit == null)
+			limit = defaultConcurrencyLimit;
+		
+		if (limit <= 0)
+			return null;
+		
+		limiter = new ConcurrencyLimiter(limit);
+		ConcurrencyLimiter existing = limiters.putIfAbsent(name, limiter);
+		return existing != null ? existing : limiter;
+	}
+	
+	/**
+	 * 请求任务，响应结果和超时结果谁先到达以谁为准
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class RequestTask<T> implements FutureCallback<HttpResponse> {
+		
+		private final String name;
+		
+		private final Object requestBody;
+		
+		private final Object param;
+		
+		private final SettableListenableFuture<T> result = new SettableListenableFuture<T>();
+		
+		private HttpForm form;
+		
+		/** 已提交给客户端的请求，超时后被中止 */
+		private HttpRequestBase httpRequest;
+		
+		private volatile ScheduledFuture<?> timeoutFuture;
+		
+		/** 请求结束后的回调，用于归还并发许可 */
+		private volatile Runnable completion;
+		
+		private RequestTask(String name, Object requestBody, Object param) {
+			this.name = name;
+			this.requestBody = requestBody;
+			this.param = param;
+		}
+		
+		/**
+		 * 创建请求并提交给客户端，客户端在提交时将请求与连接绑定，因此与中止请求互斥执行
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 */
+		private synchronized void start() {
+			// 在等待期间已超时或被取消的请求不再执行
+			if (result.isDone()) {
+				finish();
+				return;
+			}
+			
+			try {
+				RequestPlan plan = getPlan(name);
+				String url = format(plan, param);
+				form = plan.getForm();
+				httpRequest = MappedHttpClientSender.createRequest(plan.getMethod(), url, form, requestBody, urlEncoder, requestHandler);
+				logger.debug("Execute async {} request [{}] by form [{}]", httpRequest.getMethod(), url, name);
+				httpAsyncClient.execute(HttpAsyncMethods.create(httpRequest),
+						new SizeLimitedAsyncResponseConsumer(getMaxResponseSize()), this);
+			} catch (Exception e) {
+				failed(e);
+			}
+		}
+		
+		/**
+		 * 中止已提交的请求，客户端随后关闭其连接并回调cancelled方法
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 */
+		private synchronized void abort() {
+			if (httpRequest != null)
+				httpRequest.abort();
+		}
+		
+		@Override
+		public void completed(final HttpResponse response) {
+			finish();
+			Runnable handling = new Runnable() {
+
+				@Override
+				public void run() {
+					try {
+						T value = handleResponse(form, response);
+						result.set(value);
+					} catch (Exception e) {
+						result.setException(e);
+					}
+				}
+			};
+			
+			try {
+				responseExecutor.execute(handling);
+			} catch (RejectedExecutionException e) {
+				// 线程池饱和或已关闭时在I/O线程中处理，同时减缓接收新响应的速度
+				handling.run();
+			}
+		}
+		
+		@Override
+		public void failed(Exception e) {
+			finish();
+			result.setException(e);
+		}
+		
+		@Override
+		public void cancelled() {
+			// 超时中止时结果已经以TimeoutException结束
+			finish();
+			result.cancel(false);
+		}
+		
+		/**
+		 * 先归还并发许可再结束结果，使结果回调中提交的同一表单的请求能立即获得许可
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 */
+		private void finish() {
+			if (timeoutFuture != null)
+				timeoutFuture.cancel(false);
+			
+			if (completion != null)
+				completion.run();
+		}
+	}
+	
+	/**
+	 * 超时任务，以TimeoutException结束请求结果，并中止已提交的请求
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class TimeoutTask implements Runnable {
+		
+		private final RequestTask<?> task;
+		
+		private final String name;
+		
+		private final long timeout;
+		
+		private TimeoutTask(RequestTask<?> task, String name, long timeout) {
+			this.task = task;
+			this.name = name;
+			this.timeout = timeout;
+		}
+		
+		@Override
+		public void run() {
+			if (task.result.setException(new TimeoutException("Form [name=" + name + "] request timed out after " + timeout + " ms")))
+				task.abort();
+		}
+	}
+	
+	/**
+	 * 表单的并发限制器，获取不到许可的请求进入队列，由完成的请求归还许可时继续执行。
+	 * 请求可能在提交时就结束并归还许可，因此重入的drain只登记待处理的次数，由最外层的调用循环处理
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class ConcurrencyLimiter {
+		
+		private final int limit;
+		
+		private final Semaphore permits;
+		
+		private final Queue<RequestTask<?>> pending = new ConcurrentLinkedQueue<RequestTask<?>>();
+		
+		/** 待处理的drain次数 */
+		private final AtomicInteger drains = new AtomicInteger();
+		
+		private final Runnable release = new Runnable() {
+
+			@Override
+			public void run() {
+				permits.release();
+				drain();
+			}
+		};
+		
+		private ConcurrencyLimiter(int limit) {
+			this.limit = limit;
+			this.permits = new Semaphore(limit);
+		}
+		
+		private void submit(RequestTask<?> task) {
+			task.completion = release;
+			pending.offer(task);
+			drain();
+		}
+		
+		private void drain() {
+			if (drains.getAndIncrement() != 0)
+				return;
+			
+			do {
+				while (!pending.isEmpty() && permits.tryAcquire()) {
+					RequestTask<?> task = pending.poll();
+					if (task == null)
+						permits.release();
+					else
+						task.start();
+				}
+			} while (drains.decrementAndGet() != 0);
+		}
+	}
+
+}
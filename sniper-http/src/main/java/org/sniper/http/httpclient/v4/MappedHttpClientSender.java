@@ -19,27 +19,49 @@
 package org.sniper.http.httpclient.v4;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpDelete;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.sniper.codec.encoder.StringEncoder;
+import org.sniper.commons.enums.http.HttpMethod;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CodecUtils;
 import org.sniper.commons.util.NetUtils;
 import org.sniper.http.MappedHttpAccessor;
+import org.sniper.http.RequestPlan;
+import org.sniper.http.exception.NoSuchHttpMethodException;
+import org.sniper.http.exception.ResponseSizeExceededException;
 import org.sniper.http.form.HttpForm;
+import org.sniper.http.handler.response.ResponseHandler;
+import org.sniper.http.handler.response.typed.StreamingResponseHandler;
 import org.sniper.http.httpclient.v4.factory.HttpClientFactory;
-import org.sniper.http.httpclient.v4.factory.HttpClientFactoryBean;
+import org.sniper.http.httpclient.v4.factory.PoolingHttpClientFactoryBean;
 import org.sniper.http.httpclient.v4.handler.request.DefualtRequestHandler;
 import org.sniper.http.httpclient.v4.handler.request.RequestHandler;
 import org.sniper.http.httpclient.v4.handler.response.DefaultResponseHandler;
+import org.sniper.serialization.ElementHandler;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
- * 已映射的 HttpClient4.x发送器实现类
+ * 已映射的 HttpClient4.x发送器实现类，未指定客户端工厂时，所有表单共用一个基于连接池的客户端，并在销毁时关闭。</P>
+ * 表单的响应处理器为StreamingResponseHandler，并且全局的响应处理器为DefaultResponseHandler时，
+ * 响应内容的输入流直接交给表单的响应处理器反序列化，不再先读取成字符串，大小限制由全局的响应处理器控制
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public final class MappedHttpClientSender extends MappedHttpAccessor {
+public final class MappedHttpClientSender extends MappedHttpAccessor implements DisposableBean {
 		
 	private HttpClientFactory httpClientFactory;
+	
+	/** 客户端工厂是否为内部创建的 */
+	private boolean internalHttpClientFactory;
 		
 	/** 全局的请求处理器 */
 	private RequestHandler requestHandler;
@@ -63,8 +85,12 @@ public final class MappedHttpClientSender extends MappedHttpAccessor {
 	protected void init() throws Exception {
 		super.init();
 		
-		if (this.httpClientFactory == null) 
-			this.httpClientFactory = new HttpClientFactoryBean();
+		if (this.httpClientFactory == null) {
+			PoolingHttpClientFactoryBean httpClientFactory = new PoolingHttpClientFactoryBean();
+			httpClientFactory.afterPropertiesSet();
+			this.httpClientFactory = httpClientFactory;
+			this.internalHttpClientFactory = true;
+		}
 				
 		if (this.requestHandler == null)
 			this.requestHandler = new DefualtRequestHandler();
@@ -72,109 +98,227 @@ public final class MappedHttpClientSender extends MappedHttpAccessor {
 		if (this.responseHandler == null)
 			this.responseHandler = new DefaultResponseHandler();
 	}
+	
+	@Override
+	public void destroy() throws Exception {
+		// 外部注入的客户端工厂由其所在的容器负责销毁
+		if (internalHttpClientFactory)
+			((DisposableBean) httpClientFactory).destroy();
+	}
 		
 	/**
-	 * 执行指定名称对应的表单GET请求，并返回结果
+	 * 按请求计划执行表单GET请求，并返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doGetRequest(String name, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = formRegister.find(name);
-		
-		// 已进行编码后的URL，包含查询字符串部分
-		String encodedUrl = urlEncoder.encode(url, form.getEncoding());
-		HttpGet httpGet = new HttpGet(encodedUrl);
-		
-		try {
-			logger.debug("Execute {} request [{}] by form [{}]", HttpGet.METHOD_NAME, url, name);
-			String response = httpClientFactory.create().execute(httpGet, responseHandler);
-			return handleResponse(form, response);
-		} finally {
-			if (httpGet != null) 
-				httpGet.releaseConnection();
-		}
+	protected <T> T doGetRequest(RequestPlan plan, Object param) throws Exception {
+		return execute(HttpMethod.GET, plan, null, param, null);
 	}
 	
 	/**
-	 * 执行指定名称对应的表单POST请求，并返回结果
+	 * 按请求计划执行表单POST请求，并返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
+	 * @param plan
 	 * @param param
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doPostRequest(String name, Object requestBody, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = formRegister.find(name);
-		
-		// 已进行编码后的请求地址，不包含查询字符串部分
-		String encodedAddress = urlEncoder.encode(NetUtils.getAddress(url), form.getEncoding());
-		HttpPost httpPost = new HttpPost(encodedAddress);
-		
-		try {
-			requestHandler.handle(httpPost, url, form.getHeaders(), requestBody, form.getEncoding());
-			logger.debug("Execute {} request [{}] by form [{}]", HttpPost.METHOD_NAME, url, name);
-			String response = httpClientFactory.create().execute(httpPost, responseHandler);
-			return handleResponse(form, response);
-		}  finally {
-			if (httpPost != null) 
-				httpPost.releaseConnection();
-		}
+	protected <T> T doPostRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+		return execute(HttpMethod.POST, plan, requestBody, param, null);
 	}
 		
 	/**
-	 * 执行指定名称对应的表单PUT请求，并返回结果
+	 * 按请求计划执行表单PUT请求，并返回结果
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param plan
+	 * @param param
+	 * @return
+	 * @throws Exception
+	 */
+	protected <T> T doPutRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+		return execute(HttpMethod.PUT, plan, requestBody, param, null);
+	}
+	
+	/**
+	 * 按请求计划执行表单DELETE请求，并返回结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param plan
+	 * @param param
+	 * @return
+	 * @throws Exception
+	 */
+	protected <T> T doDeleteRequest(RequestPlan plan, Object param) throws Exception {
+		return execute(HttpMethod.DELETE, plan, null, param, null);
+	}
+	
+	/**
+	 * 执行指定名称且带参数的表单请求，将响应内容中的数组逐个反序列化成表单目标类型的元素后交给元素处理器，
+	 * 任何时刻只有一个元素驻留在内存中。表单的响应处理器必须为StreamingResponseHandler
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
 	 * @param name
+	 * @param parameter
+	 * @param handler
+	 * @return 已处理的元素个数
+	 * @throws Exception
+	 */
+	public <E> long requestElements(String name, Object parameter, ElementHandler<E> handler) throws Exception {
+		return requestElementsByBody(name, null, parameter, handler);
+	}
+	
+	/**
+	 * 执行指定名称且带RequestBody和参数的表单请求，将响应内容中的数组逐个反序列化成表单目标类型的元素后交给元素处理器，
+	 * 任何时刻只有一个元素驻留在内存中。表单的响应处理器必须为StreamingResponseHandler
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param requestBody
+	 * @param parameter
+	 * @param handler
+	 * @return 已处理的元素个数
+	 * @throws Exception
+	 */
+	public <E> long requestElementsByBody(String name, Object requestBody, Object parameter, ElementHandler<E> handler) throws Exception {
+		AssertUtils.assertNotNull(handler, "Element handler must not be null");
+		RequestPlan plan = getPlan(name);
+		Long count = execute(plan.getMethod(), plan, requestBody, parameter, handler);
+		return count != null ? count : 0;
+	}
+	
+	/**
+	 * 按请求计划执行表单请求，并返回结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param method
+	 * @param plan
+	 * @param requestBody
 	 * @param param
+	 * @param elementHandler 不为空时逐个处理响应内容中的数组元素，并返回已处理的元素个数
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doPutRequest(String name, Object requestBody, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = formRegister.find(name);
-		
-		// 已进行编码后的请求地址，不包含查询字符串部分
-		String encodedAddress = urlEncoder.encode(NetUtils.getAddress(url), form.getEncoding());
-		HttpPut httpPut = new HttpPut(encodedAddress);
+	private <T> T execute(HttpMethod method, RequestPlan plan, Object requestBody, Object param, ElementHandler<?> elementHandler) throws Exception {
+		String url = format(plan, param);
+		HttpForm form = plan.getForm();
+		HttpRequestBase httpRequest = createRequest(method, url, form, requestBody, urlEncoder, requestHandler);
 		
 		try {
-			requestHandler.handle(httpPut, url, form.getHeaders(), requestBody, form.getEncoding());
-			logger.debug("Execute {} request [{}] by form [{}]", HttpPut.METHOD_NAME, url, name);
-			String response = httpClientFactory.create().execute(httpPut, responseHandler);
-			return handleResponse(form, response);
-		}  finally {
-			if (httpPut != null)
-				httpPut.releaseConnection();
+			logger.debug("Execute {} request [{}] by form [{}]", httpRequest.getMethod(), url, plan.getName());
+			if (elementHandler == null && !isStreaming(form)) {
+				String response = httpClientFactory.create().execute(httpRequest, responseHandler);
+				return handleResponse(form, response);
+			}
+			
+			return handleStreamingResponse(httpRequest, form, elementHandler);
+		} finally {
+			httpRequest.releaseConnection();
 		}
 	}
 	
 	/**
-	 * 执行指定名称对应的表单DELETE请求，并返回结果
-	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param name
-	 * @param param
+	 * 创建指定方法的请求对象，同步和异步发送器共用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param method
+	 * @param url
+	 * @param form
+	 * @param requestBody GET和DELETE请求不能设置RequestBody，因此忽略掉
+	 * @param urlEncoder
+	 * @param requestHandler
+	 * @return
+	 * @throws Exception
+	 */
+	static HttpRequestBase createRequest(HttpMethod method, String url, HttpForm form, Object requestBody, 
+			StringEncoder urlEncoder, RequestHandler requestHandler) throws Exception {
+		HttpEntityEnclosingRequestBase httpRequest;
+		switch (method) {
+		case GET:
+			// 已进行编码后的URL，包含查询字符串部分
+			return new HttpGet(urlEncoder.encode(url, form.getEncoding()));
+		case DELETE:
+			return new HttpDelete(urlEncoder.encode(url, form.getEncoding()));
+		case POST:
+			// 已进行编码后的请求地址，不包含查询字符串部分
+			httpRequest = new HttpPost(urlEncoder.encode(NetUtils.getAddress(url), form.getEncoding()));
+			break;
+		case PUT:
+			httpRequest = new HttpPut(urlEncoder.encode(NetUtils.getAddress(url), form.getEncoding()));
+			break;
+		default:
+			throw new NoSuchHttpMethodException("No such http method ["
+					+ method.name().toLowerCase() + "] in current version of sniper-http framework");
+		}
+		
+		requestHandler.handle(httpRequest, url, form.getHeaders(), requestBody, form.getEncoding());
+		return httpRequest;
+	}
+	
+	/**
+	 * 判断表单的响应是否按流式处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param form
+	 * @return
+	 */
+	private boolean isStreaming(HttpForm form) {
+		return form.getResponseHandler() instanceof StreamingResponseHandler && responseHandler instanceof DefaultResponseHandler;
+	}
+	
+	/**
+	 * 将响应内容的输入流交给表单的流式响应处理器处理，并返回结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param httpRequest
+	 * @param form
+	 * @param elementHandler
 	 * @return
 	 * @throws Exception
 	 */
-	protected <T> T doDeleteRequest(String name, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = formRegister.find(name);
+	@SuppressWarnings("unchecked")
+	private <T> T handleStreamingResponse(HttpRequestBase httpRequest, HttpForm form, ElementHandler<?> elementHandler) throws Exception {
+		ResponseHandler handler = form.getResponseHandler();
+		if (!(handler instanceof StreamingResponseHandler))
+			throw new IllegalArgumentException("Response handler of form must be a StreamingResponseHandler");
 		
-		// 已进行编码后的URL
-		String encodedUrl = urlEncoder.encode(url, form.getEncoding());
-		HttpDelete httpDelete = new HttpDelete(encodedUrl);
+		InputStream content;
+		String charset;
+		if (responseHandler instanceof DefaultResponseHandler) {
+			DefaultResponseHandler defaultResponseHandler = (DefaultResponseHandler) responseHandler;
+			HttpResponse response = httpClientFactory.create().execute(httpRequest);
+			content = defaultResponseHandler.getContent(response);
+			charset = defaultResponseHandler.getCharset(response);
+		} else {
+			// 自定义的全局响应处理器只能处理成字符串
+			String response = httpClientFactory.create().execute(httpRequest, responseHandler);
+			content = response != null ? new ByteArrayInputStream(response.getBytes(CodecUtils.UTF8_ENCODING)) : null;
+			charset = CodecUtils.UTF8_ENCODING;
+		}
+		
+		if (content == null)
+			return null;
+		
+		boolean exhausted = false;
 		try {
-			logger.debug("Execute {} request [{}] by form [{}]", HttpDelete.METHOD_NAME, url, name);
-			String response = httpClientFactory.create().execute(httpDelete, responseHandler);
-			return handleResponse(form, response);
-		}  finally {
-			if (httpDelete != null)
-				httpDelete.releaseConnection();
+			StreamingResponseHandler streamingHandler = (StreamingResponseHandler) handler;
+			Object result;
+			if (elementHandler != null)
+				result = streamingHandler.handleElements(content, charset, 
+						(Class<Object>) form.getTargetType(), (ElementHandler<Object>) elementHandler);
+			else
+				result = streamingHandler.handleResponse(content, charset, form.getTargetType(), form.getNestedType());
+			
+			// 内容已全部读完时归还连接，提前结束处理时中断连接，避免读取剩余的内容
+			exhausted = content.read() < 0;
+			return (T) result;
+		} catch (RuntimeException e) {
+			// 反序列化时读取超出大小限制的异常会被包装，需还原成原始的异常
+			for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+				if (cause instanceof ResponseSizeExceededException)
+					throw (ResponseSizeExceededException) cause;
+			}
+			throw e;
+		} finally {
+			if (exhausted)
+				content.close();
+			else
+				httpRequest.abort();
 		}
 	}
 							
@@ -18,19 +18,35 @@
 
 package org.sniper.http.httpclient.v4.factory;
 
+import java.io.Closeable;
+
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
- * HttpClient4.x工厂对象实现类
+ * HttpClient4.x工厂对象实现类，由构建器只构建一次客户端，所有请求共用该客户端及其连接池，
+ * 工厂销毁时关闭客户端。构建时以本工厂的连接数上限覆盖构建器的设置，避免共用的连接池沿用每个主机2个连接的默认值
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public class HttpClientFactoryBean implements HttpClientFactory {
+public class HttpClientFactoryBean implements HttpClientFactory, DisposableBean {
+	
+	/** 默认的最大连接数 */
+	public static final int DEFAULT_MAX_TOTAL = 200;
+	
+	/** 默认的每个主机的最大连接数 */
+	public static final int DEFAULT_MAX_PER_ROUTE = 20;
 	
 	private HttpClientBuilder builder;
 	
+	private int maxTotal = DEFAULT_MAX_TOTAL;
+	
+	private int defaultMaxPerRoute = DEFAULT_MAX_PER_ROUTE;
+	
+	private volatile HttpClient httpClient;
+	
 	public HttpClientFactoryBean() {
 		this(null);
 	}
@@ -38,10 +54,48 @@ public class HttpClientFactoryBean implements HttpClientFactory {
 	public HttpClientFactoryBean(HttpClientBuilder builder) {
 		this.builder = (builder != null ? builder : HttpClients.custom());
 	}
+	
+	protected HttpClientBuilder getBuilder() {
+		return builder;
+	}
+	
+	public int getMaxTotal() {
+		return maxTotal;
+	}
+
+	public void setMaxTotal(int maxTotal) {
+		this.maxTotal = maxTotal;
+	}
+
+	public int getDefaultMaxPerRoute() {
+		return defaultMaxPerRoute;
+	}
+
+	public void setDefaultMaxPerRoute(int defaultMaxPerRoute) {
+		this.defaultMaxPerRoute = defaultMaxPerRoute;
+	}
 
 	@Override
 	public HttpClient create() {
-		return this.builder.build();
+		HttpClient client = this.httpClient;
+		if (client == null) {
+			synchronized (this) {
+				client = this.httpClient;
+				if (client == null) {
+					// 构建器已设置连接管理器时这两个上限不生效，由连接管理器自身控制
+					this.builder.setMaxConnTotal(maxTotal).setMaxConnPerRoute(defaultMaxPerRoute);
+					this.httpClient = client = this.builder.build();
+				}
+			}
+		}
+		return client;
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		HttpClient client = this.httpClient;
+		if (client instanceof Closeable)
+			((Closeable) client).close();
 	}
 		
 }
@@ -0,0 +1,352 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.httpclient.v4.factory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.springframework.beans.factory.InitializingBean;
+
+/**
+ * 基于连接池的HttpClient4.x工厂对象实现类，所有请求共用一个客户端及其连接池。</P>
+ * 1.连接池的总连接数和每个主机的连接数可配置，主机之间通过各自的连接数上限相互隔离。</P>
+ * 2.服务端未返回Keep-Alive超时时间时，连接按默认的保持时间复用，而不是一直保持。</P>
+ * 3.后台线程定期关闭过期和空闲过久的连接，避免复用已被服务端关闭的连接。</P>
+ * 4.提供连接池的租用、等待和租用超时统计。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class PoolingHttpClientFactoryBean extends HttpClientFactoryBean implements InitializingBean {
+	
+	/** 默认的连接保持毫秒数 */
+	public static final long DEFAULT_KEEP_ALIVE_TIME = 30000;
+	
+	/** 默认的空闲连接关闭毫秒数 */
+	public static final long DEFAULT_IDLE_TIMEOUT = 60000;
+	
+	/** 默认的空闲连接检查间隔毫秒数 */
+	public static final long DEFAULT_EVICT_INTERVAL = 5000;
+	
+	/** 各主机的最大连接数，键为主机地址，例如https://www.sniper.org:8443 */
+	private Map<String, Integer> maxPerRoute;
+	
+	/** 建立连接的超时毫秒数，小于0时使用系统默认值 */
+	private int connectTimeout = -1;
+	
+	/** 读取数据的超时毫秒数，小于0时使用系统默认值 */
+	private int socketTimeout = -1;
+	
+	/** 从连接池获取连接的超时毫秒数，小于0时一直等待 */
+	private int connectionRequestTimeout = -1;
+	
+	/** 服务端未返回Keep-Alive超时时间时连接的保持毫秒数 */
+	private long keepAliveTime = DEFAULT_KEEP_ALIVE_TIME;
+	
+	/** 连接空闲多久后被关闭 */
+	private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+	
+	/** 空闲连接的检查间隔毫秒数，小于等于0时不检查 */
+	private long evictInterval = DEFAULT_EVICT_INTERVAL;
+	
+	private PoolingHttpClientConnectionManager connectionManager;
+	
+	private ScheduledExecutorService evictor;
+	
+	private final AtomicLong leaseCount = new AtomicLong();
+	
+	private final AtomicLong leaseTimeoutCount = new AtomicLong();
+	
+	/** 获取连接的总等待纳秒数 */
+	private final AtomicLong totalLeaseWaitTime = new AtomicLong();
+	
+	/** 获取连接的最大等待纳秒数 */
+	private final AtomicLong maxLeaseWaitTime = new AtomicLong();
+	
+	public PoolingHttpClientFactoryBean() {
+		super();
+	}
+	
+	public PoolingHttpClientFactoryBean(HttpClientBuilder builder) {
+		super(builder);
+	}
+
+	public Map<String, Integer> getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	public void setMaxPerRoute(Map<String, Integer> maxPerRoute) {
+		this.maxPerRoute = maxPerRoute;
+	}
+
+	public int getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public void setConnectTimeout(int connectTimeout) {
+		this.connectTimeout = connectTimeout;
+	}
+
+	public int getSocketTimeout() {
+		return socketTimeout;
+	}
+
+	public void setSocketTimeout(int socketTimeout) {
+		this.socketTimeout = socketTimeout;
+	}
+
+	public int getConnectionRequestTimeout() {
+		return connectionRequestTimeout;
+	}
+
+	public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+		this.connectionRequestTimeout = connectionRequestTimeout;
+	}
+
+	public long getKeepAliveTime() {
+		return keepAliveTime;
+	}
+
+	public void setKeepAliveTime(long keepAliveTime) {
+		this.keepAliveTime = keepAliveTime;
+	}
+
+	public long getIdleTimeout() {
+		return idleTimeout;
+	}
+
+	public void setIdleTimeout(long idleTimeout) {
+		this.idleTimeout = idleTimeout;
+	}
+
+	public long getEvictInterval() {
+		return evictInterval;
+	}
+
+	public void setEvictInterval(long evictInterval) {
+		this.evictInterval = evictInterval;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (getMaxTotal() <= 0)
+			throw new IllegalArgumentException("Property 'maxTotal' must greater than 0");
+		
+		if (getDefaultMaxPerRoute() <= 0)
+			throw new IllegalArgumentException("Property 'defaultMaxPerRoute' must greater than 0");
+		
+		connectionManager = new MeteredConnectionManager();
+		connectionManager.setMaxTotal(getMaxTotal());
+		connectionManager.setDefaultMaxPerRoute(getDefaultMaxPerRoute());
+		if (maxPerRoute != null) {
+			for (Entry<String, Integer> entry : maxPerRoute.entrySet()) {
+				connectionManager.setMaxPerRoute(toRoute(entry.getKey()), entry.getValue());
+			}
+		}
+		
+		getBuilder().setConnectionManager(connectionManager)
+			.setKeepAliveStrategy(new KeepAliveStrategy())
+			.setDefaultRequestConfig(RequestConfig.custom()
+					.setConnectTimeout(connectTimeout)
+					.setSocketTimeout(socketTimeout)
+					.setConnectionRequestTimeout(connectionRequestTimeout).build());
+		
+		if (evictInterval > 0) {
+			evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+				
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "http-connection-evictor");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			
+			evictor.scheduleWithFixedDelay(new Runnable() {
+				
+				@Override
+				public void run() {
+					connectionManager.closeExpiredConnections();
+					connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+				}
+			}, evictInterval, evictInterval, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if (evictor != null)
+			evictor.shutdownNow();
+		
+		super.destroy();
+		
+		// 客户端未被创建过时，连接池需要单独关闭
+		if (connectionManager != null)
+			connectionManager.shutdown();
+	}
+	
+	/**
+	 * 获取连接池的总体状态，包括租用中、等待中和可用的连接数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public PoolStats getTotalStats() {
+		return connectionManager.getTotalStats();
+	}
+	
+	/**
+	 * 获取指定主机的连接池状态
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param host 主机地址，例如https://www.sniper.org:8443
+	 * @return
+	 */
+	public PoolStats getStats(String host) {
+		return connectionManager.getStats(toRoute(host));
+	}
+	
+	/**
+	 * 获取从连接池获取到连接的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getLeaseCount() {
+		return leaseCount.get();
+	}
+	
+	/**
+	 * 获取从连接池获取连接超时的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getLeaseTimeoutCount() {
+		return leaseTimeoutCount.get();
+	}
+	
+	/**
+	 * 获取从连接池获取连接的平均等待毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public double getAverageLeaseWaitTime() {
+		long count = leaseCount.get();
+		return count > 0 ? totalLeaseWaitTime.get() / 1000000.0 / count : 0;
+	}
+	
+	/**
+	 * 获取从连接池获取连接的最大等待毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getMaxLeaseWaitTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxLeaseWaitTime.get());
+	}
+	
+	/**
+	 * 将主机地址转换为连接池的路由，未指定端口时使用协议的默认端口，与客户端计算出的路由保持一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param host
+	 * @return
+	 */
+	private HttpRoute toRoute(String host) {
+		URI uri = URI.create(host.contains("://") ? host : "http://" + host);
+		String scheme = uri.getScheme().toLowerCase();
+		boolean secure = "https".equals(scheme);
+		int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+		return new HttpRoute(new HttpHost(uri.getHost(), port, scheme), null, secure);
+	}
+	
+	private void recordLease(long waitTime) {
+		leaseCount.incrementAndGet();
+		totalLeaseWaitTime.addAndGet(waitTime);
+		long max;
+		while (waitTime > (max = maxLeaseWaitTime.get())) {
+			if (maxLeaseWaitTime.compareAndSet(max, waitTime))
+				break;
+		}
+	}
+	
+	/**
+	 * 统计连接获取情况的连接池
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+		
+		@Override
+		public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+			final ConnectionRequest request = super.requestConnection(route, state);
+			return new ConnectionRequest() {
+				
+				@Override
+				public boolean cancel() {
+					return request.cancel();
+				}
+				
+				@Override
+				public HttpClientConnection get(long timeout, TimeUnit tunit)
+						throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+					
+					long start = System.nanoTime();
+					try {
+						HttpClientConnection connection = request.get(timeout, tunit);
+						recordLease(System.nanoTime() - start);
+						return connection;
+					} catch (ConnectionPoolTimeoutException e) {
+						leaseTimeoutCount.incrementAndGet();
+						throw e;
+					}
+				}
+			};
+		}
+	}
+	
+	/**
+	 * 优先使用服务端返回的Keep-Alive超时时间，未返回时使用默认的保持时间
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class KeepAliveStrategy implements ConnectionKeepAliveStrategy {
+
+		@Override
+		public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+			long duration = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+			return duration > 0 ? duration : keepAliveTime;
+		}
+	}
+	
+}
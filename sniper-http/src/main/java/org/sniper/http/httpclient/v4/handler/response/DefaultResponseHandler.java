@@ -19,6 +19,8 @@
 package org.sniper.http.httpclient.v4.handler.response;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
 
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
@@ -26,18 +28,82 @@ import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.HttpResponseException;
 import org.apache.http.client.ResponseHandler;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.HttpEntityWrapper;
 import org.apache.http.util.EntityUtils;
 import org.sniper.codec.CodecSupport;
+import org.sniper.http.exception.ResponseSizeExceededException;
 
 /**
- * 响应处理器默认实现类
+ * 响应处理器默认实现类，响应内容超出大小限制时抛出ResponseSizeExceededException，
+ * 同时也为流式处理提供经过状态检查和大小限制的响应内容输入流
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
 public class DefaultResponseHandler extends CodecSupport implements ResponseHandler<String> {
 	
+	/** 默认的响应内容最大字节数 */
+	public static final long DEFAULT_MAX_RESPONSE_SIZE = 64 * 1024 * 1024;
+	
+	/** 响应内容最大字节数，小于等于0时不限制 */
+	private long maxResponseSize = DEFAULT_MAX_RESPONSE_SIZE;
+	
+	public long getMaxResponseSize() {
+		return maxResponseSize;
+	}
+
+	public void setMaxResponseSize(long maxResponseSize) {
+		this.maxResponseSize = maxResponseSize;
+	}
+
 	@Override
 	public String handleResponse(HttpResponse response) throws ClientProtocolException, IOException {
+		final HttpEntity entity = checkResponse(response);
+		if (entity == null)
+			return null;
+		
+		return EntityUtils.toString(new HttpEntityWrapper(entity) {
+			
+			@Override
+			public InputStream getContent() throws IOException {
+				return DefaultResponseHandler.this.getContent(wrappedEntity);
+			}
+		}, getEncoding());
+	}
+	
+	/**
+	 * 获取经过状态检查和大小限制的响应内容输入流，没有响应内容时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @return
+	 * @throws IOException
+	 */
+	public InputStream getContent(HttpResponse response) throws IOException {
+		final HttpEntity entity = checkResponse(response);
+		return entity != null ? getContent(entity) : null;
+	}
+	
+	/**
+	 * 获取响应内容的字符集编码，响应头中未指定时使用当前处理器的编码
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @return
+	 */
+	public String getCharset(HttpResponse response) {
+		HttpEntity entity = response.getEntity();
+		ContentType contentType = entity != null ? ContentType.get(entity) : null;
+		Charset charset = contentType != null ? contentType.getCharset() : null;
+		return charset != null ? charset.name() : getEncoding();
+	}
+	
+	/**
+	 * 检查响应状态，状态码不小于300时丢弃响应内容并抛出HttpResponseException
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param response
+	 * @return
+	 * @throws IOException
+	 */
+	protected HttpEntity checkResponse(HttpResponse response) throws IOException {
 		final StatusLine statusLine = response.getStatusLine();
 		final HttpEntity entity = response.getEntity();
 		if (statusLine.getStatusCode() >= 300) {
@@ -45,7 +111,26 @@ public class DefaultResponseHandler extends CodecSupport implements ResponseHand
 			throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
 		}
 		
-		return entity != null ? EntityUtils.toString(entity, getEncoding()) : null;
+		return entity;
+	}
+	
+	/**
+	 * 获取受大小限制的响应内容输入流，响应头中声明的长度已超出限制时直接抛出异常，不再读取内容
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param entity
+	 * @return
+	 * @throws IOException
+	 */
+	protected InputStream getContent(HttpEntity entity) throws IOException {
+		if (maxResponseSize <= 0)
+			return entity.getContent();
+		
+		if (entity.getContentLength() > maxResponseSize)
+			throw new ResponseSizeExceededException("Response size " + entity.getContentLength()
+					+ " exceeds the limit of " + maxResponseSize + " bytes");
+		
+		InputStream content = entity.getContent();
+		return content != null ? new SizeLimitedInputStream(content, maxResponseSize) : null;
 	}
 
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.httpclient.v4.handler.response;
+
+import java.io.IOException;
+
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.entity.ContentBufferEntity;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.util.HeapByteBufferAllocator;
+import org.apache.http.nio.util.SimpleInputBuffer;
+import org.apache.http.protocol.HttpContext;
+import org.sniper.http.exception.ResponseSizeExceededException;
+
+/**
+ * 限制接收字节数的异步响应消费者，将响应内容缓存在内存中，
+ * 响应头中声明的长度或已接收的字节数超出限制时抛出ResponseSizeExceededException，并中断连接
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class SizeLimitedAsyncResponseConsumer extends AbstractAsyncResponseConsumer<HttpResponse> {
+	
+	/** 未声明响应内容长度时缓冲区的初始字节数 */
+	private static final int DEFAULT_BUFFER_SIZE = 4096;
+	
+	/** 最多允许接收的字节数，小于等于0时不限制 */
+	private final long limit;
+	
+	private volatile HttpResponse response;
+	
+	private volatile SimpleInputBuffer buffer;
+	
+	/** 已接收的字节数 */
+	private long count;
+	
+	public SizeLimitedAsyncResponseConsumer(long limit) {
+		this.limit = limit;
+	}
+	
+	@Override
+	protected void onResponseReceived(HttpResponse response) {
+		this.response = response;
+	}
+	
+	@Override
+	protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+		long length = entity.getContentLength();
+		if (limit > 0 && length > limit)
+			throw new ResponseSizeExceededException("Response size " + length
+					+ " exceeds the limit of " + limit + " bytes");
+		
+		this.buffer = new SimpleInputBuffer(length > 0 ? (int) length : DEFAULT_BUFFER_SIZE, HeapByteBufferAllocator.INSTANCE);
+		this.response.setEntity(new ContentBufferEntity(entity, buffer));
+	}
+	
+	@Override
+	protected void onContentReceived(ContentDecoder decoder, IOControl ioctrl) throws IOException {
+		int length = buffer.consumeContent(decoder);
+		if (length > 0) {
+			count += length;
+			if (limit > 0 && count > limit)
+				throw new ResponseSizeExceededException("Response size exceeds the limit of " + limit + " bytes");
+		}
+	}
+	
+	@Override
+	protected HttpResponse buildResult(HttpContext context) {
+		return response;
+	}
+	
+	@Override
+	protected void releaseResources() {
+		this.response = null;
+		this.buffer = null;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.httpclient.v4.handler.response;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.sniper.http.exception.ResponseSizeExceededException;
+
+/**
+ * 限制读取字节数的输入流，读取的字节数超出限制时抛出ResponseSizeExceededException
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class SizeLimitedInputStream extends FilterInputStream {
+	
+	/** 最多允许读取的字节数 */
+	private final long limit;
+	
+	/** 已读取的字节数 */
+	private long count;
+	
+	public SizeLimitedInputStream(InputStream in, long limit) {
+		super(in);
+		this.limit = limit;
+	}
+	
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b > -1)
+			increase(1);
+		return b;
+	}
+	
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int length = super.read(b, off, len);
+		if (length > 0)
+			increase(length);
+		return length;
+	}
+	
+	@Override
+	public long skip(long n) throws IOException {
+		long length = super.skip(n);
+		if (length > 0)
+			increase(length);
+		return length;
+	}
+	
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+	
+	@Override
+	public synchronized void mark(int readlimit) {
+		// 不支持标记，避免重置后重复计数
+	}
+	
+	@Override
+	public synchronized void reset() throws IOException {
+		throw new IOException("Mark/reset not supported");
+	}
+	
+	/**
+	 * 获取已读取的字节数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getCount() {
+		return count;
+	}
+	
+	private void increase(long length) throws ResponseSizeExceededException {
+		count += length;
+		if (count > limit)
+			throw new ResponseSizeExceededException("Response size exceeds the limit of " + limit + " bytes");
+	}
+
+}
@@ -22,6 +22,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpMethod;
 import org.springframework.web.client.RestTemplate;
 import org.sniper.http.MappedHttpAccessor;
+import org.sniper.http.RequestPlan;
 import org.sniper.http.form.HttpForm;
 
 /**
@@ -51,39 +52,39 @@ public final class MappedRestSender extends MappedHttpAccessor {
 	}
 	
 	@Override
-	protected <T> T doGetRequest(String name, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = getFormRegister().find(name);
+	protected <T> T doGetRequest(RequestPlan plan, Object param) throws Exception {
+		String url = format(plan, param);
+		HttpForm form = plan.getForm();
 		
-		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.GET, url, name);
+		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.GET, url, plan.getName());
 		String response = restTemplate.getForObject(url, String.class);
 		return handleResponse(form, response);
 	}
 
 	@Override
-	protected <T> T doPostRequest(String name, Object requestBody, Object param) throws Exception {
-		String url = format(name, param);
-		HttpForm form = getFormRegister().find(name);
+	protected <T> T doPostRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+		String url = format(plan, param);
+		HttpForm form = plan.getForm();
 		
-		logger.info("Execute {} request [{}] from form [{}]", HttpMethod.POST, url, name);
+		logger.info("Execute {} request [{}] from form [{}]", HttpMethod.POST, url, plan.getName());
 		String response = restTemplate.postForObject(url, requestBody, String.class);
 		return handleResponse(form, response);
 	}
 
 	@Override
-	protected <T> T doPutRequest(String name, Object requestBody, Object param) throws Exception {
-		String url = format(name, param);
+	protected <T> T doPutRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+		String url = format(plan, param);
 		
-		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.PUT, url, name);
+		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.PUT, url, plan.getName());
 		restTemplate.put(url, requestBody, (Object) null);
 		return null;
 	}
 
 	@Override
-	protected <T> T doDeleteRequest(String name, Object param) throws Exception {
-		String url = format(name, param);
+	protected <T> T doDeleteRequest(RequestPlan plan, Object param) throws Exception {
+		String url = format(plan, param);
 		
-		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.DELETE, url, name);
+		logger.debug("Execute {} request [{}] from form [{}]", HttpMethod.DELETE, url, plan.getName());
 		restTemplate.delete(url, (Object) null);
 		return null;
 	}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.test.factory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.BasicResponseHandler;
+import org.apache.http.pool.PoolStats;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.http.httpclient.v4.factory.PoolingHttpClientFactoryBean;
+import org.sniper.test.junit.BaseTestCase;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 基于连接池的HttpClient工厂单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class PoolingHttpClientFactoryBeanTest extends BaseTestCase {
+	
+	private HttpServer server;
+	
+	private String host;
+	
+	private PoolingHttpClientFactoryBean factory;
+	
+	@Before
+	public void init() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+			
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				byte[] body = "ok".getBytes();
+				exchange.sendResponseHeaders(200, body.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(body);
+				out.close();
+			}
+		});
+		server.start();
+		host = "http://127.0.0.1:" + server.getAddress().getPort();
+		
+		factory = new PoolingHttpClientFactoryBean();
+		Map<String, Integer> maxPerRoute = MapUtils.newHashMap();
+		maxPerRoute.put(host, 5);
+		factory.setMaxPerRoute(maxPerRoute);
+		factory.afterPropertiesSet();
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		factory.destroy();
+		server.stop(0);
+	}
+	
+	/**
+	 * 多次获取的是同一个客户端，顺序请求复用同一个连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testReuse() throws Exception {
+		HttpClient client = factory.create();
+		assertSame(client, factory.create());
+		
+		int count = 100;
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			assertEquals("ok", client.execute(new HttpGet(host + "/test"), new BasicResponseHandler()));
+		}
+		System.out.println(String.format("%d requests, %d ms, average lease wait %.3f ms, max lease wait %d ms", 
+				count, (System.nanoTime() - start) / 1000000, factory.getAverageLeaseWaitTime(), factory.getMaxLeaseWaitTime()));
+		
+		assertEquals(count, factory.getLeaseCount());
+		assertEquals(0, factory.getLeaseTimeoutCount());
+		
+		PoolStats stats = factory.getStats(host);
+		assertEquals(5, stats.getMax());
+		assertEquals(0, stats.getLeased());
+		assertEquals(1, stats.getAvailable());
+		assertEquals(1, factory.getTotalStats().getAvailable());
+	}
+	
+	/**
+	 * 销毁后连接池被关闭，客户端不能再使用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testDestroy() throws Exception {
+		HttpClient client = factory.create();
+		assertEquals("ok", client.execute(new HttpGet(host), new BasicResponseHandler()));
+		factory.destroy();
+		
+		try {
+			client.execute(new HttpGet(host), new BasicResponseHandler());
+			fail("Client must be closed after destroy");
+		} catch (IllegalStateException e) {
+			// 连接池已被关闭
+		}
+	}
+
+}
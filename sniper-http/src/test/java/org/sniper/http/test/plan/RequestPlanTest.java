@@ -0,0 +1,215 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.test.plan;
+
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.enums.http.HttpMethod;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.ReflectionUtils;
+import org.sniper.http.AdaptiveURLFormatter;
+import org.sniper.http.MappedHttpAccessor;
+import org.sniper.http.RequestPlan;
+import org.sniper.http.URLTemplate;
+import org.sniper.http.exception.NoSuchHttpMethodException;
+import org.sniper.http.form.DefaultHttpFormRegister;
+import org.sniper.http.form.HttpForm;
+import org.sniper.http.form.SimpleHttpForm;
+import org.sniper.test.junit.BaseTestCase;
+
+/**
+ * 请求计划及预编译URL模板单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RequestPlanTest extends BaseTestCase {
+	
+	private static final String[] URLS = new String[] {
+		"http://www.sniper.org/user/{id}",
+		"http://www.sniper.org/user/{id}/order/{orderId}?type={type}&page=1",
+		"http://www.sniper.org/search?q={keyword}",
+		"http://www.sniper.org/static/index.html",
+		"http://www.sniper.org/user/{id}?"
+	};
+	
+	private final int count = 200000;
+	
+	private AdaptiveURLFormatter urlFormatter;
+	
+	private Map<String, Object> parameters;
+	
+	@Before
+	public void init() {
+		urlFormatter = new AdaptiveURLFormatter();
+		
+		parameters = MapUtils.newLinkedHashMap();
+		parameters.put("id", 9527);
+		parameters.put("orderId", "A001");
+		parameters.put("type", null);
+		parameters.put("name", "杜斌");
+		parameters.put("page", 2);
+		parameters.put("size", 20);
+	}
+	
+	/**
+	 * 预编译模板的格式化结果与AdaptiveURLFormatter一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testFormat() {
+		Map<String, Object> empty = MapUtils.newHashMap();
+		Map<String, Object> partial = MapUtils.newLinkedHashMap();
+		partial.put("keyword", "sniper");
+		partial.put("lang", "zh");
+		
+		for (String url : URLS) {
+			URLTemplate template = URLTemplate.compile(url, urlFormatter.getPrefix(), urlFormatter.getSuffix());
+			assertEquals(urlFormatter.format(url, parameters), template.format(parameters));
+			assertEquals(urlFormatter.format(url, partial), template.format(partial));
+			assertEquals(urlFormatter.format(url, empty), template.format(empty));
+		}
+		
+		URLTemplate template = URLTemplate.compile(URLS[1], "{", "}");
+		assertEquals("http://www.sniper.org/user/9527/order/A001?type=&page=1&name=杜斌&size=20", template.format(parameters));
+	}
+	
+	/**
+	 * 按请求计划分派请求方法，未支持的请求方法抛出异常
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testDispatch() throws Exception {
+		RecordingHttpAccessor accessor = createAccessor(HttpMethod.POST);
+		assertEquals("POST " + urlFormatter.format(URLS[1], parameters), accessor.request("form", parameters));
+		
+		accessor = createAccessor(HttpMethod.DELETE);
+		assertEquals("DELETE " + urlFormatter.format(URLS[1], parameters), accessor.request("form", parameters));
+		
+		// 非Map参数仍由URL格式化处理器格式化
+		Developer developer = new Developer();
+		assertEquals("DELETE " + urlFormatter.format(URLS[1], developer), accessor.request("form", developer));
+		
+		accessor = createAccessor(HttpMethod.PATCH);
+		try {
+			accessor.request("form", parameters);
+			fail("PATCH is not supported");
+		} catch (NoSuchHttpMethodException e) {
+			// 不支持的请求方法
+		}
+	}
+	
+	/**
+	 * 性能对比测试，分别比较反射分派加模板解析与预编译请求计划的耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		RecordingHttpAccessor accessor = createAccessor(HttpMethod.GET);
+		String url = URLS[1];
+		
+		// 预热
+		for (int i = 0; i < count; i++) {
+			ReflectionUtils.invokeMethod(accessor, "doGetRequest", new Class<?>[] { RequestPlan.class, Object.class }, new Object[] { ReflectionUtils.invokeMethod(accessor, "getPlan", new Class<?>[] { String.class }, new Object[] { "form" }), null });
+			urlFormatter.format(url, parameters);
+			accessor.request("form", parameters);
+		}
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			ReflectionUtils.invokeMethod(accessor, "doGetRequest", new Class<?>[] { RequestPlan.class, Object.class }, new Object[] { ReflectionUtils.invokeMethod(accessor, "getPlan", new Class<?>[] { String.class }, new Object[] { "form" }), null });
+			urlFormatter.format(url, parameters);
+		}
+		long reflectiveTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			accessor.request("form", parameters);
+		}
+		long plannedTime = System.nanoTime() - start;
+		
+		System.out.println(String.format("Reflective dispatch and template parsing: %d ns/op", reflectiveTime / count));
+		System.out.println(String.format("Precompiled request plan: %d ns/op", plannedTime / count));
+	}
+	
+	private RecordingHttpAccessor createAccessor(HttpMethod method) throws Exception {
+		SimpleHttpForm form = new SimpleHttpForm();
+		form.setAddress(URLS[1]);
+		form.setMethod(method);
+		
+		Map<String, HttpForm> formMap = MapUtils.newHashMap();
+		formMap.put("form", form);
+		DefaultHttpFormRegister formRegister = new DefaultHttpFormRegister();
+		formRegister.setFormMap(formMap);
+		
+		RecordingHttpAccessor accessor = new RecordingHttpAccessor();
+		accessor.setFormRegister(formRegister);
+		accessor.afterPropertiesSet();
+		return accessor;
+	}
+	
+	public static class Developer {
+		
+		private Integer id = 9527;
+
+		public Integer getId() {
+			return id;
+		}
+
+		public void setId(Integer id) {
+			this.id = id;
+		}
+	}
+	
+	/**
+	 * 不发送请求，直接返回"请求方法 URL"的访问器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class RecordingHttpAccessor extends MappedHttpAccessor {
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <T> T doGetRequest(RequestPlan plan, Object param) throws Exception {
+			return (T) ("GET " + format(plan, param));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <T> T doPostRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+			return (T) ("POST " + format(plan, param));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <T> T doPutRequest(RequestPlan plan, Object requestBody, Object param) throws Exception {
+			return (T) ("PUT " + format(plan, param));
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		protected <T> T doDeleteRequest(RequestPlan plan, Object param) throws Exception {
+			return (T) ("DELETE " + format(plan, param));
+		}
+	}
+
+}
@@ -0,0 +1,247 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.test.sender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.http.form.DefaultHttpFormRegister;
+import org.sniper.http.form.HttpForm;
+import org.sniper.http.form.SimpleHttpForm;
+import org.sniper.http.httpclient.v4.MappedHttpAsyncClientSender;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 已映射的HTTP异步请求发送器单元测试类，请求发送到本地按固定延时响应的HTTP服务
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class AsyncMappedHttpSenderTest extends BaseTestCase {
+	
+	/** 每个请求的响应毫秒数 */
+	private static final long LATENCY = 50;
+	
+	/** 慢表单的响应毫秒数 */
+	private static final long SLOW_LATENCY = 1000;
+	
+	private static final String[] FORM_NAMES = new String[] {
+		"form0", "form1", "form2", "form3", "form4", "form5", "form6", "form7", "form8", "form9",
+		"slow", "normal", "limited", "other" };
+	
+	private HttpServer server;
+	
+	private ExecutorService serverExecutor;
+	
+	/** 受并发数限制的表单执行中的请求数 */
+	private final AtomicInteger active = new AtomicInteger();
+	
+	private final AtomicInteger maxActive = new AtomicInteger();
+	
+	private MappedHttpAsyncClientSender asyncMappedHttpSender;
+	
+	@Before
+	public void init() throws Exception {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/", new HttpHandler() {
+
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				// 响应内容为"表单名称:参数"
+				String name = exchange.getRequestURI().getPath().substring(1);
+				String query = exchange.getRequestURI().getQuery();
+				byte[] response = (name + ":" + (query != null ? query.substring(query.indexOf('=') + 1) : null)).getBytes("UTF-8");
+				
+				// 只统计受并发数限制的表单
+				boolean limited = "limited".equals(name);
+				if (limited) {
+					int current = active.incrementAndGet();
+					int max;
+					while (current > (max = maxActive.get()) && !maxActive.compareAndSet(max, current));
+				}
+				
+				try {
+					Thread.sleep("slow".equals(name) ? SLOW_LATENCY : LATENCY);
+					exchange.sendResponseHeaders(200, response.length);
+					OutputStream out = exchange.getResponseBody();
+					out.write(response);
+					out.close();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} catch (IOException e) {
+					// 客户端已中止请求
+				} finally {
+					if (limited)
+						active.decrementAndGet();
+					exchange.close();
+				}
+			}
+		});
+		serverExecutor = Executors.newCachedThreadPool();
+		server.setExecutor(serverExecutor);
+		server.start();
+		
+		asyncMappedHttpSender = createSender(16);
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		asyncMappedHttpSender.destroy();
+		server.stop(0);
+		serverExecutor.shutdownNow();
+	}
+	
+	private MappedHttpAsyncClientSender createSender(int maxPerRoute) throws Exception {
+		Map<String, HttpForm> formMap = MapUtils.newHashMap();
+		for (String name : FORM_NAMES) {
+			SimpleHttpForm form = new SimpleHttpForm();
+			form.setAddress("http://127.0.0.1:" + server.getAddress().getPort() + "/" + name);
+			formMap.put(name, form);
+		}
+		DefaultHttpFormRegister formRegister = new DefaultHttpFormRegister();
+		formRegister.setFormMap(formMap);
+		
+		MappedHttpAsyncClientSender sender = new MappedHttpAsyncClientSender();
+		sender.setFormRegister(formRegister);
+		sender.setDefaultMaxPerRoute(maxPerRoute);
+		
+		Map<String, Long> timeouts = MapUtils.newHashMap();
+		timeouts.put("slow", 20L);
+		sender.setTimeouts(timeouts);
+		
+		Map<String, Integer> concurrencyLimits = MapUtils.newHashMap();
+		concurrencyLimits.put("limited", 2);
+		sender.setConcurrencyLimits(concurrencyLimits);
+		sender.afterPropertiesSet();
+		return sender;
+	}
+	
+	private Map<String, Object> parameters(Object value) {
+		Map<String, Object> parameters = MapUtils.newHashMap();
+		parameters.put("value", value);
+		return parameters;
+	}
+	
+	/**
+	 * 并行请求多个表单，总耗时接近单个请求的耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testFanOut() throws Exception {
+		int formSize = 10;
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < formSize; i++) {
+			ListenableFuture<String> future = asyncMappedHttpSender.request("form" + i, parameters(i));
+			assertEquals("form" + i + ":" + i, future.get());
+		}
+		long serialTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		start = System.nanoTime();
+		List<ListenableFuture<String>> futures = CollectionUtils.newArrayList(formSize);
+		for (int i = 0; i < formSize; i++) {
+			ListenableFuture<String> future = asyncMappedHttpSender.request("form" + i, parameters(i));
+			futures.add(future);
+		}
+		for (int i = 0; i < formSize; i++) {
+			assertEquals("form" + i + ":" + i, futures.get(i).get());
+		}
+		long asyncTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		System.out.println(String.format("%d forms, serial %d ms, fan-out %d ms", formSize, serialTime, asyncTime));
+		assertTrue(asyncTime < serialTime / 2);
+	}
+	
+	/**
+	 * 超时的请求以TimeoutException结束，并中止请求、释放其连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testTimeout() throws Exception {
+		// 每个主机只有一个连接，超时的请求未释放连接时后续请求需等待慢表单响应
+		MappedHttpAsyncClientSender singleConnectionSender = createSender(1);
+		try {
+			ListenableFuture<String> future = singleConnectionSender.request("slow");
+			try {
+				future.get();
+				fail("Request of form 'slow' must time out");
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof TimeoutException);
+			}
+			
+			// 未设置超时的表单不受影响
+			long start = System.nanoTime();
+			ListenableFuture<String> normal = singleConnectionSender.request("normal");
+			assertEquals("normal:null", normal.get());
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < SLOW_LATENCY / 2);
+		} finally {
+			singleConnectionSender.destroy();
+		}
+	}
+	
+	/**
+	 * 超出并发数上限的请求等待执行，不影响其它表单
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testConcurrencyLimit() throws Exception {
+		int size = 6;
+		List<ListenableFuture<String>> futures = CollectionUtils.newArrayList(size);
+		for (int i = 0; i < size; i++) {
+			ListenableFuture<String> future = asyncMappedHttpSender.request("limited", parameters(i));
+			futures.add(future);
+		}
+		assertEquals(2, asyncMappedHttpSender.getActiveCount("limited"));
+		assertEquals(size - 2, asyncMappedHttpSender.getPendingCount("limited"));
+		
+		long start = System.nanoTime();
+		ListenableFuture<String> other = asyncMappedHttpSender.request("other");
+		assertEquals("other:null", other.get());
+		assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < LATENCY * 2);
+		
+		for (int i = 0; i < size; i++) {
+			assertEquals("limited:" + i, futures.get(i).get());
+		}
+		assertEquals(2, maxActive.get());
+		assertEquals(0, asyncMappedHttpSender.getActiveCount("limited"));
+		assertEquals(0, asyncMappedHttpSender.getPendingCount("limited"));
+	}
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.http.test.sender;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.http.exception.ResponseSizeExceededException;
+import org.sniper.http.form.DefaultHttpFormRegister;
+import org.sniper.http.form.HttpForm;
+import org.sniper.http.form.SimpleHttpForm;
+import org.sniper.http.handler.response.typed.JsonResponseHandler;
+import org.sniper.http.httpclient.v4.MappedHttpClientSender;
+import org.sniper.http.httpclient.v4.handler.response.DefaultResponseHandler;
+import org.sniper.serialization.ElementHandler;
+import org.sniper.test.junit.BaseTestCase;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * 流式响应处理单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class StreamingResponseTest extends BaseTestCase {
+	
+	private static final int ITEM_SIZE = 20000;
+	
+	private HttpServer server;
+	
+	private byte[] items;
+	
+	private MappedHttpClientSender streamingSender;
+	
+	private MappedHttpClientSender stringSender;
+	
+	private DefaultResponseHandler responseHandler;
+	
+	@Before
+	public void init() throws Exception {
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < ITEM_SIZE; i++) {
+			if (i > 0)
+				json.append(",");
+			json.append("{\"id\":").append(i).append(",\"name\":\"item-").append(i).append("\"}");
+		}
+		items = json.append("]").toString().getBytes("UTF-8");
+		
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/items", new HttpHandler() {
+			
+			@Override
+			public void handle(HttpExchange exchange) throws IOException {
+				exchange.getResponseHeaders().set("Content-Type", "application/json;charset=UTF-8");
+				// 请求参数中包含chunked时不声明响应内容的长度
+				boolean chunked = exchange.getRequestURI().toString().contains("chunked");
+				exchange.sendResponseHeaders(200, chunked ? 0 : items.length);
+				OutputStream out = exchange.getResponseBody();
+				out.write(items);
+				out.close();
+			}
+		});
+		server.start();
+		
+		String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/items";
+		responseHandler = new DefaultResponseHandler();
+		streamingSender = createSender(url, responseHandler);
+		
+		// 自定义的全局响应处理器只能按字符串处理
+		stringSender = createSender(url, new org.apache.http.impl.client.BasicResponseHandler());
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		streamingSender.destroy();
+		stringSender.destroy();
+		server.stop(0);
+	}
+	
+	/**
+	 * 流式处理与字符串处理的结果一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testStreaming() throws Exception {
+		List<Item> streamed = streamingSender.request("items");
+		List<Item> buffered = stringSender.request("items");
+		assertEquals(ITEM_SIZE, streamed.size());
+		assertEquals(buffered.size(), streamed.size());
+		for (int i = 0; i < ITEM_SIZE; i++) {
+			assertEquals(buffered.get(i).getId(), streamed.get(i).getId());
+			assertEquals(buffered.get(i).getName(), streamed.get(i).getName());
+		}
+	}
+	
+	/**
+	 * 增量处理数组元素，以及提前结束处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testElements() throws Exception {
+		final int[] sum = new int[1];
+		long count = streamingSender.requestElements("items", null, new ElementHandler<Item>() {
+
+			@Override
+			public boolean handle(Item element) throws Exception {
+				sum[0] += element.getId();
+				return true;
+			}
+		});
+		assertEquals(ITEM_SIZE, count);
+		assertEquals((ITEM_SIZE - 1) * ITEM_SIZE / 2, sum[0]);
+		
+		count = streamingSender.requestElements("items", null, new ElementHandler<Item>() {
+
+			@Override
+			public boolean handle(Item element) throws Exception {
+				return element.getId() < 99;
+			}
+		});
+		assertEquals(100, count);
+		
+		// 提前结束处理后连接被中断，后续请求仍然正常
+		assertEquals(ITEM_SIZE, ((List<?>) streamingSender.request("items")).size());
+	}
+	
+	/**
+	 * 响应内容超出大小限制时抛出异常，无论是否声明了响应内容的长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testSizeLimit() throws Exception {
+		responseHandler.setMaxResponseSize(items.length - 1);
+		
+		try {
+			streamingSender.request("items");
+			fail("Response size must exceed the limit");
+		} catch (ResponseSizeExceededException e) {
+			// 响应头中声明的长度超出限制
+		}
+		
+		Map<String, Object> parameters = MapUtils.newHashMap();
+		parameters.put("chunked", true);
+		try {
+			streamingSender.request("items", parameters);
+			fail("Response size must exceed the limit");
+		} catch (ResponseSizeExceededException e) {
+			// 读取的内容超出限制
+		}
+		
+		responseHandler.setMaxResponseSize(items.length);
+		assertEquals(ITEM_SIZE, ((List<?>) streamingSender.request("items", parameters)).size());
+	}
+	
+	/**
+	 * 性能对比测试，分别比较字符串处理和流式处理的耗时和当前线程分配的内存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		int times = 20;
+		for (int i = 0; i < times; i++) {
+			stringSender.request("items");
+			streamingSender.request("items");
+		}
+		
+		benchmark("String", stringSender, times);
+		benchmark("Streaming", streamingSender, times);
+	}
+	
+	private void benchmark(String name, MappedHttpClientSender sender, int times) throws Exception {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		long allocated = threadMXBean.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			sender.request("items");
+		}
+		long elapsed = System.nanoTime() - start;
+		allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocated;
+		System.out.println(String.format("%s: %d bytes response, %d ms/op, %d KB allocated/op", 
+				name, items.length, elapsed / times / 1000000, allocated / times / 1024));
+	}
+	
+	private MappedHttpClientSender createSender(String url, org.apache.http.client.ResponseHandler<String> responseHandler) throws Exception {
+		SimpleHttpForm form = new SimpleHttpForm();
+		form.setAddress(url);
+		form.setTargetType(Item.class);
+		form.setResponseHandler(new JsonResponseHandler());
+		
+		Map<String, HttpForm> formMap = MapUtils.newHashMap();
+		formMap.put("items", form);
+		DefaultHttpFormRegister formRegister = new DefaultHttpFormRegister();
+		formRegister.setFormMap(formMap);
+		
+		MappedHttpClientSender sender = new MappedHttpClientSender();
+		sender.setFormRegister(formRegister);
+		sender.setResponseHandler(responseHandler);
+		sender.afterPropertiesSet();
+		return sender;
+	}
+	
+	public static class Item {
+		
+		private int id;
+		
+		private String name;
+
+		public int getId() {
+			return id;
+		}
+
+		public void setId(int id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+	
+}
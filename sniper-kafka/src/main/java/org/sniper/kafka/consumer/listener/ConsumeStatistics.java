@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.consumer.listener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 消费处理的统计指标，记录处理次数、失败次数和处理耗时
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class ConsumeStatistics {
+	
+	private final AtomicLong count = new AtomicLong();
+	
+	private final AtomicLong failedCount = new AtomicLong();
+	
+	/** 总耗时纳秒数 */
+	private final AtomicLong totalTime = new AtomicLong();
+	
+	/** 最大耗时纳秒数 */
+	private final AtomicLong maxTime = new AtomicLong();
+	
+	/**
+	 * 记录一次处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param elapsed 处理耗时纳秒数
+	 * @param success 是否处理成功
+	 */
+	void record(long elapsed, boolean success) {
+		count.incrementAndGet();
+		if (!success)
+			failedCount.incrementAndGet();
+		
+		totalTime.addAndGet(elapsed);
+		long max;
+		while (elapsed > (max = maxTime.get())) {
+			if (maxTime.compareAndSet(max, elapsed))
+				break;
+		}
+	}
+	
+	/**
+	 * 获取处理次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getCount() {
+		return count.get();
+	}
+	
+	/**
+	 * 获取处理失败的次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * 获取总耗时毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getTotalTime() {
+		return TimeUnit.NANOSECONDS.toMillis(totalTime.get());
+	}
+	
+	/**
+	 * 获取平均耗时毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public double getAverageTime() {
+		long times = count.get();
+		return times > 0 ? totalTime.get() / 1000000.0 / times : 0;
+	}
+	
+	/**
+	 * 获取最大耗时毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getMaxTime() {
+		return TimeUnit.NANOSECONDS.toMillis(maxTime.get());
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("count=%d, failed=%d, total=%dms, average=%.3fms, max=%dms", 
+				getCount(), getFailedCount(), getTotalTime(), getAverageTime(), getMaxTime());
+	}
+
+}
@@ -0,0 +1,386 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.consumer.listener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.kafka.consumer.ConsumerOrderPolicy;
+import org.sniper.kafka.exception.ConsumerException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * 并行消费者监听实现类，将容器拉取到的记录分发到多个工作线程上交给被委派的监听处理。</P>
+ * 1.每个工作线程有独立的队列，相同键（或相同分区）的记录总是分发到同一个工作线程，因此处理顺序与拉取顺序一致。</P>
+ * 2.每个分区只确认从最小偏移量开始连续处理完成的记录，容器需配置为手动确认模式(AckMode.MANUAL)，
+ *   其它确认模式下容器在分发后即提交偏移量，无法保证提交位置之前的记录都已处理完成。</P>
+ * 3.积压的记录数达到上限时阻塞容器的监听线程，容器在监听线程处理不过来时会暂停拉取(pauseEnabled)，
+ *   直到积压的记录被处理。单个分区跟踪的未提交记录数达到上限时同样阻塞，直到最小偏移量的记录处理完成。</P>
+ * 4.同时作为容器的分区再均衡监听(ContainerProperties.setConsumerRebalanceListener)，分区被撤销时丢弃其跟踪器，
+ *   之后完成的记录不再确认，重新分配后从已提交的偏移量开始跟踪。</P>
+ * 5.提供各分区已分发但尚未提交的记录数，以及各Topic的处理耗时统计。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class ParallelConsumerListener<K, V> implements ConsumerListener<K, V>, ConsumerRebalanceListener, 
+		InitializingBean, DisposableBean {
+	
+	private static final Logger logger = LoggerFactory.getLogger(ParallelConsumerListener.class);
+	
+	/** 默认的最大积压记录数 */
+	protected static final int DEFAULT_MAX_BACKLOG = 1000;
+	
+	/** 默认的每个分区最多跟踪的未提交记录数 */
+	protected static final int DEFAULT_MAX_PENDINGS = 10000;
+	
+	/** 默认的关闭等待毫秒数 */
+	protected static final long DEFAULT_SHUTDOWN_TIMEOUT = 10000;
+	
+	/** 被委派用于处理记录的监听 */
+	private ConsumerListener<K, V> delegate;
+	
+	/** 工作线程数 */
+	private int concurrency = Runtime.getRuntime().availableProcessors();
+	
+	/** 已分发但尚未处理完成的最大记录数 */
+	private int maxBacklog = DEFAULT_MAX_BACKLOG;
+	
+	/** 每个分区最多跟踪的未提交记录数 */
+	private int maxPendings = DEFAULT_MAX_PENDINGS;
+	
+	/** 记录的顺序策略 */
+	private String orderPolicy = ConsumerOrderPolicy.KEY.name();
+	
+	/** 处理失败的记录是否也被确认，为false时该记录之后的偏移量都不会再提交 */
+	private boolean ackOnError = true;
+	
+	private long shutdownTimeout = DEFAULT_SHUTDOWN_TIMEOUT;
+	
+	private ExecutorService[] workers;
+	
+	private Semaphore backlog;
+	
+	private boolean orderByKey;
+	
+	private final ConcurrentMap<TopicPartition, PartitionOffsetTracker> trackers = MapUtils.newConcurrentHashMap();
+	
+	private final ConcurrentMap<String, ConsumeStatistics> statistics = MapUtils.newConcurrentHashMap();
+	
+	public ConsumerListener<K, V> getDelegate() {
+		return delegate;
+	}
+
+	public void setDelegate(ConsumerListener<K, V> delegate) {
+		this.delegate = delegate;
+	}
+
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+
+	public int getMaxBacklog() {
+		return maxBacklog;
+	}
+
+	public void setMaxBacklog(int maxBacklog) {
+		this.maxBacklog = maxBacklog;
+	}
+
+	public int getMaxPendings() {
+		return maxPendings;
+	}
+
+	public void setMaxPendings(int maxPendings) {
+		this.maxPendings = maxPendings;
+	}
+
+	public String getOrderPolicy() {
+		return orderPolicy;
+	}
+
+	public void setOrderPolicy(String orderPolicy) {
+		this.orderPolicy = orderPolicy;
+	}
+
+	public boolean isAckOnError() {
+		return ackOnError;
+	}
+
+	public void setAckOnError(boolean ackOnError) {
+		this.ackOnError = ackOnError;
+	}
+
+	public long getShutdownTimeout() {
+		return shutdownTimeout;
+	}
+
+	public void setShutdownTimeout(long shutdownTimeout) {
+		this.shutdownTimeout = shutdownTimeout;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (delegate == null)
+			throw new IllegalArgumentException("Property 'delegate' is required");
+		
+		if (concurrency <= 0)
+			throw new IllegalArgumentException("Property 'concurrency' must greater than 0");
+		
+		if (maxBacklog <= 0)
+			throw new IllegalArgumentException("Property 'maxBacklog' must greater than 0");
+		
+		if (maxPendings <= 0)
+			throw new IllegalArgumentException("Property 'maxPendings' must greater than 0");
+		
+		orderByKey = !ConsumerOrderPolicy.PARTITION.name().equalsIgnoreCase(orderPolicy);
+		backlog = new Semaphore(maxBacklog);
+		workers = new ExecutorService[concurrency];
+		ThreadFactory threadFactory = new ThreadFactory() {
+			
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "kafka-consumer-worker-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		};
+		
+		for (int i = 0; i < concurrency; i++) {
+			// 每个工作线程只有一个线程，保证同一个队列中的记录按顺序处理
+			workers[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, 
+					new LinkedBlockingQueue<Runnable>(), threadFactory);
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		for (ExecutorService worker : workers) {
+			worker.shutdown();
+		}
+		
+		long deadline = System.currentTimeMillis() + shutdownTimeout;
+		for (ExecutorService worker : workers) {
+			worker.awaitTermination(Math.max(deadline - System.currentTimeMillis(), 0), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public void onMessage(ConsumerRecord<K, V> record) {
+		onMessage(record, null);
+	}
+
+	@Override
+	public void onMessage(final ConsumerRecord<K, V> record, Acknowledgment acknowledgment) {
+		try {
+			// 积压的记录数达到上限时阻塞容器的监听线程
+			backlog.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ConsumerException("Interrupted while waiting for consumer workers", e);
+		}
+		
+		final PartitionOffsetTracker tracker = getTracker(new TopicPartition(record.topic(), record.partition()));
+		try {
+			// 未提交的记录数达到上限时阻塞容器的监听线程
+			tracker.dispatch(record.offset(), acknowledgment);
+		} catch (InterruptedException e) {
+			backlog.release();
+			Thread.currentThread().interrupt();
+			throw new ConsumerException("Interrupted while waiting for pending records to be committed", e);
+		}
+		
+		try {
+			workers[selectWorker(record)].execute(new Runnable() {
+
+				@Override
+				public void run() {
+					process(record, tracker);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			backlog.release();
+			throw new ConsumerException("Consumer workers have been shut down", e);
+		}
+	}
+	
+	/**
+	 * 在工作线程中处理记录
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param record
+	 * @param tracker
+	 */
+	private void process(ConsumerRecord<K, V> record, PartitionOffsetTracker tracker) {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			delegate.onMessage(record);
+			success = true;
+		} catch (RuntimeException e) {
+			logger.error("Consumer failed to process record of topic [" + record.topic() 
+					+ "] partition [" + record.partition() + "] offset [" + record.offset() + "]", e);
+		} finally {
+			statisticsFor(record.topic()).record(System.nanoTime() - start, success);
+			if (success || ackOnError)
+				tracker.complete(record.offset());
+			else
+				tracker.fail(record.offset());
+			
+			backlog.release();
+		}
+	}
+	
+	@Override
+	public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+		for (TopicPartition partition : partitions) {
+			PartitionOffsetTracker tracker = trackers.remove(partition);
+			if (tracker != null)
+				tracker.revoke();
+		}
+	}
+
+	@Override
+	public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+		// 分配后拉取到记录时再创建跟踪器
+	}
+	
+	/**
+	 * 根据顺序策略选择处理记录的工作线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param record
+	 * @return
+	 */
+	protected int selectWorker(ConsumerRecord<K, V> record) {
+		int hash = (orderByKey && record.key() != null) ? record.key().hashCode() 
+				: 31 * record.topic().hashCode() + record.partition();
+		hash ^= (hash >>> 16);
+		return (hash & Integer.MAX_VALUE) % workers.length;
+	}
+	
+	/**
+	 * 获取已分发但尚未处理完成的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getBacklog() {
+		return maxBacklog - backlog.availablePermits();
+	}
+	
+	/**
+	 * 获取指定分区已分发但尚未提交的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param topic
+	 * @param partition
+	 * @return
+	 */
+	public long getLag(String topic, int partition) {
+		PartitionOffsetTracker tracker = trackers.get(new TopicPartition(topic, partition));
+		return tracker != null ? tracker.getLag() : 0;
+	}
+	
+	/**
+	 * 获取所有分区已分发但尚未提交的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getLag() {
+		long lag = 0;
+		for (PartitionOffsetTracker tracker : trackers.values()) {
+			lag += tracker.getLag();
+		}
+		return lag;
+	}
+	
+	/**
+	 * 获取指定分区下一个待提交的偏移量，还没有提交过时返回-1
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param topic
+	 * @param partition
+	 * @return
+	 */
+	public long getCommittedOffset(String topic, int partition) {
+		PartitionOffsetTracker tracker = trackers.get(new TopicPartition(topic, partition));
+		return tracker != null ? tracker.getCommittedOffset() : -1;
+	}
+	
+	/**
+	 * 获取指定Topic的处理统计指标，还没有处理过该Topic的记录时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param topic
+	 * @return
+	 */
+	public ConsumeStatistics getStatistics(String topic) {
+		return statistics.get(topic);
+	}
+	
+	/**
+	 * 获取所有Topic的处理统计指标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public Map<String, ConsumeStatistics> getStatistics() {
+		return Collections.unmodifiableMap(statistics);
+	}
+	
+	private ConsumeStatistics statisticsFor(String topic) {
+		ConsumeStatistics topicStatistics = statistics.get(topic);
+		if (topicStatistics == null) {
+			ConsumeStatistics newStatistics = new ConsumeStatistics();
+			topicStatistics = statistics.putIfAbsent(topic, newStatistics);
+			if (topicStatistics == null)
+				topicStatistics = newStatistics;
+		}
+		return topicStatistics;
+	}
+	
+	private PartitionOffsetTracker getTracker(TopicPartition topicPartition) {
+		PartitionOffsetTracker tracker = trackers.get(topicPartition);
+		if (tracker == null) {
+			PartitionOffsetTracker newTracker = new PartitionOffsetTracker(maxPendings);
+			tracker = trackers.putIfAbsent(topicPartition, newTracker);
+			if (tracker == null)
+				tracker = newTracker;
+		}
+		return tracker;
+	}
+
+}
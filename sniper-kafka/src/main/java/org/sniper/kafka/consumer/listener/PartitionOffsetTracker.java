@@ -0,0 +1,179 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.consumer.listener;
+
+import java.util.Iterator;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * 分区偏移量跟踪器，记录已分发但尚未提交的记录，只有从最小偏移量开始连续处理完成的记录才会被确认，
+ * 因此提交的偏移量之前不会有未处理完成的记录。</P>
+ * 1.跟踪的记录数达到上限时阻塞分发，直到最小偏移量的记录处理完成，避免一条慢记录之后已完成的记录无限堆积。</P>
+ * 2.记录失败且不确认时，之后的偏移量都不会再提交，因此不再跟踪之后的记录，只累计其个数。</P>
+ * 3.分区被撤销后跟踪器失效，之后完成的记录不再确认。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class PartitionOffsetTracker {
+	
+	/** 尚未提交的记录，按偏移量排序 */
+	private final TreeMap<Long, Pending> pendings = new TreeMap<Long, Pending>();
+	
+	/** 最多跟踪的记录数 */
+	private final int maxPendings;
+	
+	/** 下一个待提交的偏移量，-1表示还没有提交过 */
+	private long committedOffset = -1;
+	
+	/** 失败且不确认的最小偏移量，-1表示没有 */
+	private long failedOffset = -1;
+	
+	/** 失败偏移量之后不再跟踪的记录数 */
+	private long skipped;
+	
+	/** 分区是否已被撤销 */
+	private boolean revoked;
+	
+	PartitionOffsetTracker(int maxPendings) {
+		this.maxPendings = maxPendings;
+	}
+	
+	/**
+	 * 记录已分发的记录，跟踪的记录数达到上限时等待
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param offset
+	 * @param acknowledgment 容器提供的确认对象，非手动确认模式下为空
+	 * @throws InterruptedException
+	 */
+	synchronized void dispatch(long offset, Acknowledgment acknowledgment) throws InterruptedException {
+		while (!revoked && pendings.size() >= maxPendings && !isSkipped(offset)) {
+			wait();
+		}
+		
+		if (revoked)
+			return;
+		
+		if (isSkipped(offset))
+			skipped++;
+		else
+			pendings.put(offset, new Pending(acknowledgment));
+	}
+	
+	/**
+	 * 标记记录已处理完成，并确认从最小偏移量开始连续完成的最后一条记录。</P>
+	 * 确认在锁内进行，保证多个工作线程确认的偏移量是递增的
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param offset
+	 */
+	synchronized void complete(long offset) {
+		Pending pending = pendings.get(offset);
+		if (pending == null)
+			return;
+		
+		pending.completed = true;
+		Pending last = null;
+		Iterator<Entry<Long, Pending>> iterator = pendings.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<Long, Pending> entry = iterator.next();
+			if (!entry.getValue().completed)
+				break;
+			
+			last = entry.getValue();
+			committedOffset = entry.getKey() + 1;
+			iterator.remove();
+		}
+		
+		if (last == null)
+			return;
+		
+		notifyAll();
+		if (last.acknowledgment != null)
+			last.acknowledgment.acknowledge();
+	}
+	
+	/**
+	 * 标记记录处理失败且不确认，该偏移量之后的记录不再跟踪
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param offset
+	 */
+	synchronized void fail(long offset) {
+		if (!pendings.containsKey(offset))
+			return;
+		
+		failedOffset = offset;
+		SortedMap<Long, Pending> after = pendings.tailMap(offset + 1);
+		skipped += after.size();
+		after.clear();
+		notifyAll();
+	}
+	
+	/**
+	 * 分区被撤销时清空跟踪的记录，并唤醒等待分发的线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	synchronized void revoke() {
+		revoked = true;
+		pendings.clear();
+		notifyAll();
+	}
+	
+	/**
+	 * 获取已分发但尚未提交的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	synchronized long getLag() {
+		return pendings.size() + skipped;
+	}
+	
+	/**
+	 * 获取下一个待提交的偏移量
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	synchronized long getCommittedOffset() {
+		return committedOffset;
+	}
+	
+	/**
+	 * 判断偏移量是否在失败的偏移量之后，这样的记录不会再被提交
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param offset
+	 * @return
+	 */
+	private boolean isSkipped(long offset) {
+		return failedOffset >= 0 && offset > failedOffset;
+	}
+	
+	private static class Pending {
+		
+		private final Acknowledgment acknowledgment;
+		
+		private boolean completed;
+		
+		private Pending(Acknowledgment acknowledgment) {
+			this.acknowledgment = acknowledgment;
+		}
+	}
+
+}
@@ -18,6 +18,8 @@
 
 package org.sniper.kafka.producer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.Future;
 
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -179,6 +181,24 @@ public interface KafkaProducer extends KafkaProducerOperations {
 	 */
 	public <K, V> ProduceResult<K, V> sendAndWait(String name, MessagePacket<K, V> packet) throws Exception;
 	
+	/**
+	 * 将多个数据包批量发送到默认Topic
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param packets
+	 * @return 按数据包顺序排列的生产结果，任意一个数据包发送失败时以该异常结束
+	 */
+	public <K, V> Future<List<ProduceResult<K, V>>> sendDefaultBatch(Collection<MessagePacket<K, V>> packets);
+	
+	/**
+	 * 将多个数据包批量发送到指定的Topic实例，Topic节点只解析一次，所有数据包共用一个生产者。</P>
+	 * 在途的消息字节数达到上限时阻塞调用线程，直到之前发送的消息被确认
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param name
+	 * @param packets
+	 * @return 按数据包顺序排列的生产结果，任意一个数据包发送失败时以该异常结束
+	 */
+	public <K, V> Future<List<ProduceResult<K, V>>> sendBatch(String name, Collection<MessagePacket<K, V>> packets);
+	
 	/**
 	 * 发送生产记录
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
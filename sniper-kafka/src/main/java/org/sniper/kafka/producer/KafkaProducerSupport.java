@@ -151,7 +151,34 @@ public abstract class KafkaProducerSupport extends CheckableInitializingBean {
 		// 先根据注册名称找到节点真实的名称，否则就按注册名称作为默认名称
 		String topicName = getTopicName(getTopicNode(name), name);
 		// topicName有可能返回的是全局默认名称，因此这里再找一次节点
-		TopicNode topicNode = getTopicNode(topicName);
+		return createProducerRecord(getTopicNode(topicName), topicName, key, value, partition, timestamp);
+	}
+	
+	/**
+	 * 根据已解析出的Topic节点创建原生Kafka生产记录，批量发送时节点只需解析一次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param topicNode 可为空的Topic节点
+	 * @param topicName 节点为空时使用的Topic名称
+	 * @param packet
+	 * @return
+	 */
+	protected <K, V> ProducerRecord<K, V> createProducerRecord(TopicNode topicNode, String topicName, MessagePacket<K, V> packet) {
+		return createProducerRecord(topicNode, topicName, packet.getKey(), packet.getValue(), packet.getPartition(), packet.getTimestamp());
+	}
+	
+	/**
+	 * 根据已解析出的Topic节点创建原生Kafka生产记录
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param topicNode 可为空的Topic节点
+	 * @param topicName 节点为空时使用的Topic名称
+	 * @param key
+	 * @param value
+	 * @param partition 未找到节点或节点注册的分区索引为空时传入的自定义分区索引
+	 * @param timestamp 未找到节点或节点注册的时间戳为空时传入的自定义时间戳
+	 * @return
+	 */
+	protected <K, V> ProducerRecord<K, V> createProducerRecord(TopicNode topicNode, String topicName, 
+			K key, V value, Integer partition, Long timestamp) {
 		
 		if (topicNode != null) {
 			Integer recordPartition = (topicNode.getPartition() != null ? topicNode.getPartition() : partition);
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.producer.spring;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sniper.kafka.support.ProduceResult;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * 批量生产的聚合结果，所有记录都被确认后按发送顺序设置生产结果，任意一条记录失败时以该异常结束
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class BatchProduceFuture<K, V> extends SettableListenableFuture<List<ProduceResult<K, V>>> {
+	
+	private final Object[] results;
+	
+	/** 未被确认的记录数 */
+	private final AtomicInteger remaining;
+	
+	BatchProduceFuture(int size) {
+		this.results = new Object[size];
+		this.remaining = new AtomicInteger(size);
+		if (size == 0)
+			complete();
+	}
+	
+	/**
+	 * 设置指定位置记录的生产结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param index
+	 * @param result
+	 */
+	void setResult(int index, ProduceResult<K, V> result) {
+		results[index] = result;
+	}
+	
+	/**
+	 * 一条记录被确认后减少未确认的记录数，全部确认时设置聚合结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return 是否所有记录都已被确认
+	 */
+	boolean countDown() {
+		if (remaining.decrementAndGet() > 0)
+			return false;
+		
+		// 之前已有记录失败时，结果不会再被设置
+		complete();
+		return true;
+	}
+	
+	@SuppressWarnings("unchecked")
+	private void complete() {
+		set((List<ProduceResult<K, V>>) (List<?>) Arrays.asList(results));
+	}
+
+}
@@ -18,6 +18,7 @@
 
 package org.sniper.kafka.producer.spring;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
@@ -34,6 +35,7 @@ import org.sniper.kafka.exception.ProducerException;
 import org.sniper.kafka.producer.KafkaProducer;
 import org.sniper.kafka.producer.MessagePacket;
 import org.sniper.kafka.support.ProduceResult;
+import org.sniper.kafka.topic.TopicNode;
 
 /**
  * SpringKafka生产者实现类
@@ -122,6 +124,51 @@ public class SpringKafkaProducer extends SpringKafkaProducerSupport implements K
 		return sendAndWait(createProducerRecord(name, packet));
 	}
 	
+	@Override
+	public <K, V> Future<List<ProduceResult<K, V>>> sendDefaultBatch(Collection<MessagePacket<K, V>> packets) {
+		return sendBatch(getKafkaTemplate().getDefaultTopic(), packets);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <K, V> Future<List<ProduceResult<K, V>>> sendBatch(String name, final Collection<MessagePacket<K, V>> packets) {
+		final BatchProduceFuture<K, V> future = new BatchProduceFuture<K, V>(packets.size());
+		if (packets.isEmpty())
+			return future;
+		
+		// 整个批次只解析一次Topic节点
+		final String topicName = getTopicName(getTopicNode(name), name);
+		final TopicNode topicNode = getTopicNode(topicName);
+		
+		KafkaTemplate<K, V> kafkaTemplate = (KafkaTemplate<K, V>) getKafkaTemplate();
+		kafkaTemplate.execute(new ProducerCallback<K, V, Void>() {
+
+			@Override
+			public Void doInKafka(Producer<K, V> producer) {
+				int index = 0;
+				for (MessagePacket<K, V> packet : packets) {
+					ProducerRecord<K, V> producerRecord = createProducerRecord(topicNode, topicName, packet);
+					int bytes = 0;
+					try {
+						bytes = acquireInFlightBytes(producerRecord);
+						producer.send(producerRecord, createBatchProduceCallback(future, index++, producer, producerRecord, bytes));
+					} catch (RuntimeException e) {
+						// 序列化失败或等待在途字节数时被中断，剩余的数据包不再发送
+						releaseInFlightBytes(bytes);
+						future.setException(e);
+						throw e;
+					}
+				}
+				return null;
+			}
+		});
+		
+		if (isAutoFlush())
+			flush();
+		
+		return future;
+	}
+	
 	@SuppressWarnings("unchecked")
 	@Override
 	public <K, V> Future<ProduceResult<K, V>> send(final ProducerRecord<K, V> producerRecord) {
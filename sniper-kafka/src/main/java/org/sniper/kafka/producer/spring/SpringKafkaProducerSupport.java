@@ -18,6 +18,9 @@
 
 package org.sniper.kafka.producer.spring;
 
+import java.nio.ByteBuffer;
+import java.util.concurrent.Semaphore;
+
 import org.apache.kafka.clients.producer.Callback;
 import org.apache.kafka.clients.producer.Producer;
 import org.apache.kafka.clients.producer.ProducerRecord;
@@ -28,6 +31,7 @@ import org.springframework.kafka.support.ProducerListener;
 import org.springframework.util.concurrent.ListenableFutureCallback;
 import org.springframework.util.concurrent.SettableListenableFuture;
 import org.sniper.commons.util.ReflectionUtils;
+import org.sniper.kafka.exception.ProducerException;
 import org.sniper.kafka.producer.KafkaProducerSupport;
 import org.sniper.kafka.support.MQFactory;
 import org.sniper.kafka.support.ProduceResult;
@@ -40,6 +44,12 @@ import org.sniper.kafka.topic.TopicNode;
  */
 public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 	
+	/** 默认的批量发送在途字节数上限，与生产者默认的缓冲区大小(buffer.memory)一致 */
+	protected static final int DEFAULT_MAX_IN_FLIGHT_BYTES = 32 * 1024 * 1024;
+	
+	/** 无法估算大小的消息键值按此字节数计算 */
+	protected static final int DEFAULT_ESTIMATED_SIZE = 1024;
+	
     private KafkaTemplate<?, ?> kafkaTemplate;
     
     /** 全局的生产者监听 */
@@ -50,6 +60,12 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
     /** 全局的生产者回调 */
     protected ListenableFutureCallback<?> producerCallback;
     
+    /** 批量发送时在途消息的字节数上限 */
+    private int maxInFlightBytes = DEFAULT_MAX_IN_FLIGHT_BYTES;
+    
+    /** 批量发送时剩余可用的在途字节数 */
+    private Semaphore inFlightBytes;
+    
 	public KafkaTemplate<?, ?> getKafkaTemplate() {
 		return kafkaTemplate;
 	}
@@ -69,11 +85,22 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 	public boolean isAutoFlush() {
 		return autoFlush;
 	}
+	
+	public int getMaxInFlightBytes() {
+		return maxInFlightBytes;
+	}
+
+	public void setMaxInFlightBytes(int maxInFlightBytes) {
+		this.maxInFlightBytes = maxInFlightBytes;
+	}
 
 	@Override
 	protected void checkProperties() {		
 		if (kafkaTemplate == null)
 			throw new IllegalArgumentException("Property 'kafkaTemplate' is required");
+		
+		if (maxInFlightBytes <= 0)
+			throw new IllegalArgumentException("Property 'maxInFlightBytes' must greater than 0");
 	}
 	
 	@Override
@@ -85,6 +112,7 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 		
 		producerListener = ReflectionUtils.getFieldValue(kafkaTemplate, "producerListener");
 		autoFlush = ReflectionUtils.getFieldValue(kafkaTemplate, "autoFlush");
+		inFlightBytes = new Semaphore(maxInFlightBytes);
 	}
 	
 	/**
@@ -109,7 +137,6 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 	 * @param producerRecord
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	protected <K, V> Callback createProduceCallback(final SettableListenableFuture<ProduceResult<K, V>> future, 
 			final Producer<K, V> producer, final ProducerRecord<K, V> producerRecord) {
 			
@@ -120,18 +147,10 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 				try {
 					if (exception == null) {
 						future.set(MQFactory.buildProduceResult(producerRecord, metadata));
-						if (producerListener != null && producerListener.isInterestedInSuccess()) {
-							// 触发生产者对发送成功（Success）后的监听
-							((ProducerListener<K, V>) producerListener).onSuccess(producerRecord.topic(),
-									producerRecord.partition(), producerRecord.key(), producerRecord.value(), metadata);
-						}
+						notifySuccess(producerRecord, metadata);
 					} else {
 						future.setException(new KafkaProducerException(producerRecord, "Failed to send", exception));
-						if (producerListener != null) {
-							// 触发生产者对发送失败（Error）后的监听
-							((ProducerListener<K, V>) producerListener).onError(producerRecord.topic(),
-									producerRecord.partition(), producerRecord.key(), producerRecord.value(), exception);
-						}
+						notifyError(producerRecord, exception);
 					}
 				} finally {
 					producer.close();
@@ -139,5 +158,125 @@ public abstract class SpringKafkaProducerSupport extends KafkaProducerSupport {
 			}
 		};
 	}
+	
+	/**
+	 * 创建批量生产中单条记录的回调，记录被确认后释放占用的在途字节数，并将生产结果设置到聚合结果的对应位置
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param future
+	 * @param index 记录在批次中的位置
+	 * @param producer
+	 * @param producerRecord
+	 * @param bytes 记录占用的在途字节数
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	<K, V> Callback createBatchProduceCallback(final BatchProduceFuture<K, V> future, final int index,
+			final Producer<K, V> producer, final ProducerRecord<K, V> producerRecord, final int bytes) {
+		
+		return new Callback() {
+			
+			@Override
+			public void onCompletion(RecordMetadata metadata, Exception exception) {
+				releaseInFlightBytes(bytes);
+				try {
+					if (exception == null) {
+						ProduceResult<K, V> result = MQFactory.buildProduceResult(producerRecord, metadata);
+						future.setResult(index, result);
+						notifySuccess(producerRecord, metadata);
+						if (producerCallback != null)
+							((ListenableFutureCallback<ProduceResult<K, V>>) producerCallback).onSuccess(result);
+					} else {
+						KafkaProducerException producerException = new KafkaProducerException(producerRecord, "Failed to send", exception);
+						future.setException(producerException);
+						notifyError(producerRecord, exception);
+						if (producerCallback != null)
+							producerCallback.onFailure(producerException);
+					}
+				} finally {
+					// 批次中的记录全部被确认后才关闭生产者
+					if (future.countDown())
+						producer.close();
+				}
+			}
+		};
+	}
+	
+	/**
+	 * 触发生产者对发送成功（Success）后的监听
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param producerRecord
+	 * @param metadata
+	 */
+	@SuppressWarnings("unchecked")
+	protected <K, V> void notifySuccess(ProducerRecord<K, V> producerRecord, RecordMetadata metadata) {
+		if (producerListener != null && producerListener.isInterestedInSuccess()) 
+			((ProducerListener<K, V>) producerListener).onSuccess(producerRecord.topic(),
+					producerRecord.partition(), producerRecord.key(), producerRecord.value(), metadata);
+	}
+	
+	/**
+	 * 触发生产者对发送失败（Error）后的监听
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param producerRecord
+	 * @param exception
+	 */
+	@SuppressWarnings("unchecked")
+	protected <K, V> void notifyError(ProducerRecord<K, V> producerRecord, Exception exception) {
+		if (producerListener != null) 
+			((ProducerListener<K, V>) producerListener).onError(producerRecord.topic(),
+					producerRecord.partition(), producerRecord.key(), producerRecord.value(), exception);
+	}
+	
+	/**
+	 * 在发送记录前占用记录估算大小的在途字节数，剩余字节数不足时阻塞，直到之前发送的记录被确认
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param producerRecord
+	 * @return 占用的在途字节数
+	 */
+	protected int acquireInFlightBytes(ProducerRecord<?, ?> producerRecord) {
+		// 超过上限的单条记录按上限计算，否则永远无法发送
+		int bytes = (int) Math.min(estimateSize(producerRecord.key()) + estimateSize(producerRecord.value()), maxInFlightBytes);
+		try {
+			inFlightBytes.acquire(bytes);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ProducerException("Interrupted while waiting for in-flight bytes", e);
+		}
+		return bytes;
+	}
+	
+	/**
+	 * 释放记录占用的在途字节数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param bytes
+	 */
+	protected void releaseInFlightBytes(int bytes) {
+		inFlightBytes.release(bytes);
+	}
+	
+	/**
+	 * 估算消息键或值序列化后的字节数，字节数组、字符串和字节缓冲区按长度计算，数字按8字节计算，其它对象按默认大小计算
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param object
+	 * @return
+	 */
+	protected long estimateSize(Object object) {
+		if (object == null)
+			return 0;
+		
+		if (object instanceof byte[])
+			return ((byte[]) object).length;
+		
+		if (object instanceof CharSequence)
+			return ((CharSequence) object).length();
+		
+		if (object instanceof ByteBuffer)
+			return ((ByteBuffer) object).remaining();
+		
+		if (object instanceof Number)
+			return 8;
+		
+		return DEFAULT_ESTIMATED_SIZE;
+	}
 
 }
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.IntegerSerializer;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.kafka.producer.MessagePacket;
+import org.sniper.kafka.producer.spring.SpringKafkaProducer;
+import org.sniper.kafka.support.ProduceResult;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.kafka.core.KafkaProducerException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+
+/**
+ * 批量生产单元测试类，使用Kafka提供的模拟生产者控制记录的确认时机
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class BatchProducerTest extends BaseTestCase {
+	
+	private static final String TOPIC = "batch";
+	
+	private MockProducer<Integer, byte[]> mockProducer;
+	
+	private SpringKafkaProducer kafkaProducer;
+	
+	@Before
+	public void init() throws Exception {
+		init(true, 1024 * 1024);
+	}
+	
+	private void init(boolean autoComplete, int maxInFlightBytes) throws Exception {
+		mockProducer = new MockProducer<Integer, byte[]>(autoComplete, new IntegerSerializer(), new ByteArraySerializer());
+		KafkaTemplate<Integer, byte[]> kafkaTemplate = new KafkaTemplate<Integer, byte[]>(new ProducerFactory<Integer, byte[]>() {
+
+			@Override
+			public Producer<Integer, byte[]> createProducer() {
+				return mockProducer;
+			}
+		});
+		
+		kafkaProducer = new SpringKafkaProducer();
+		kafkaProducer.setKafkaTemplate(kafkaTemplate);
+		kafkaProducer.setMaxInFlightBytes(maxInFlightBytes);
+		kafkaProducer.afterPropertiesSet();
+	}
+	
+	private List<MessagePacket<Integer, byte[]>> createPackets(int size, int valueSize) {
+		List<MessagePacket<Integer, byte[]>> packets = CollectionUtils.newArrayList(size);
+		for (int i = 0; i < size; i++) {
+			packets.add(new MessagePacket<Integer, byte[]>(i, new byte[valueSize]));
+		}
+		return packets;
+	}
+	
+	/**
+	 * 批量发送的结果按数据包顺序排列
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendBatch() throws Exception {
+		List<ProduceResult<Integer, byte[]>> results = kafkaProducer.sendBatch(TOPIC, createPackets(100, 10)).get(5, TimeUnit.SECONDS);
+		assertEquals(100, results.size());
+		assertEquals(100, mockProducer.history().size());
+		for (int i = 0; i < results.size(); i++) {
+			assertEquals(TOPIC, mockProducer.history().get(i).topic());
+			assertEquals(Integer.valueOf(i), results.get(i).getMessage().getKey());
+		}
+		
+		List<MessagePacket<Integer, byte[]>> empty = CollectionUtils.newArrayList();
+		assertTrue(kafkaProducer.sendBatch(TOPIC, empty).get().isEmpty());
+	}
+	
+	/**
+	 * 在途字节数达到上限时阻塞发送线程，之前的记录被确认后继续发送
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testBackpressure() throws Exception {
+		init(false, 100);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Future<List<ProduceResult<Integer, byte[]>>>> sending = executor.submit(new Callable<Future<List<ProduceResult<Integer, byte[]>>>>() {
+
+			@Override
+			public Future<List<ProduceResult<Integer, byte[]>>> call() throws Exception {
+				return kafkaProducer.sendBatch(TOPIC, createPackets(5, 40));
+			}
+		});
+		
+		// 每条记录按48字节计算，上限100字节时只能有2条记录在途
+		Thread.sleep(200);
+		assertFalse(sending.isDone());
+		assertEquals(2, mockProducer.history().size());
+		
+		while (!sending.isDone()) {
+			mockProducer.completeNext();
+			Thread.sleep(10);
+		}
+		Future<List<ProduceResult<Integer, byte[]>>> future = sending.get();
+		while (mockProducer.completeNext());
+		assertEquals(5, future.get(5, TimeUnit.SECONDS).size());
+		executor.shutdown();
+	}
+	
+	/**
+	 * 任意一条记录发送失败时聚合结果以该异常结束
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testSendBatchError() throws Exception {
+		init(false, 1024 * 1024);
+		Future<List<ProduceResult<Integer, byte[]>>> future = kafkaProducer.sendBatch(TOPIC, createPackets(3, 10));
+		mockProducer.completeNext();
+		mockProducer.errorNext(new RuntimeException("broker unavailable"));
+		mockProducer.completeNext();
+		
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof KafkaProducerException);
+		}
+	}
+
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.kafka.test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.After;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.kafka.consumer.ConsumerOrderPolicy;
+import org.sniper.kafka.consumer.listener.ConsumerListener;
+import org.sniper.kafka.consumer.listener.ParallelConsumerListener;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * 并行消费者监听单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class ParallelConsumerListenerTest extends BaseTestCase {
+	
+	private static final String TOPIC = "parallel";
+	
+	private ParallelConsumerListener<Integer, String> listener;
+	
+	/** 各分区被确认的偏移量 */
+	private final Map<Integer, List<Long>> acknowledged = MapUtils.newHashMap();
+	
+	@After
+	public void destroy() throws Exception {
+		listener.destroy();
+	}
+	
+	private void init(ConsumerListener<Integer, String> delegate, int concurrency, int maxBacklog) throws Exception {
+		init(delegate, concurrency, maxBacklog, maxBacklog * 10);
+	}
+	
+	private void init(ConsumerListener<Integer, String> delegate, int concurrency, int maxBacklog, int maxPendings) throws Exception {
+		listener = new ParallelConsumerListener<Integer, String>();
+		listener.setDelegate(delegate);
+		listener.setConcurrency(concurrency);
+		listener.setMaxBacklog(maxBacklog);
+		listener.setMaxPendings(maxPendings);
+		listener.setOrderPolicy(ConsumerOrderPolicy.KEY.name());
+		listener.afterPropertiesSet();
+	}
+	
+	private void dispatch(int partition, final long offset, int key) {
+		final List<Long> offsets;
+		synchronized (acknowledged) {
+			List<Long> partitionOffsets = acknowledged.get(partition);
+			if (partitionOffsets == null) {
+				partitionOffsets = CollectionUtils.newArrayList();
+				acknowledged.put(partition, partitionOffsets);
+			}
+			offsets = partitionOffsets;
+		}
+		
+		listener.onMessage(new ConsumerRecord<Integer, String>(TOPIC, partition, offset, key, "value" + offset), new Acknowledgment() {
+
+			@Override
+			public void acknowledge() {
+				synchronized (offsets) {
+					offsets.add(offset);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * 相同键的记录按顺序处理，各分区确认的偏移量递增
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testKeyOrder() throws Exception {
+		final Map<Integer, List<Long>> processed = MapUtils.newConcurrentHashMap();
+		init(new OrderRecordingListener(processed), 4, 100);
+		
+		int partitions = 4, keys = 16, size = 2000;
+		for (int i = 0; i < size; i++) {
+			int key = i % keys;
+			dispatch(key % partitions, i / partitions, key);
+		}
+		
+		long deadline = System.currentTimeMillis() + 10000;
+		while ((listener.getLag() > 0 || listener.getBacklog() > 0) && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		assertEquals(0, listener.getLag());
+		assertEquals(0, listener.getBacklog());
+		assertEquals(size, listener.getStatistics(TOPIC).getCount());
+		for (List<Long> offsets : processed.values()) {
+			for (int i = 1; i < offsets.size(); i++) {
+				assertTrue(offsets.get(i - 1) < offsets.get(i));
+			}
+		}
+		
+		for (int partition = 0; partition < partitions; partition++) {
+			List<Long> offsets = acknowledged.get(partition);
+			for (int i = 1; i < offsets.size(); i++) {
+				assertTrue(offsets.get(i - 1) < offsets.get(i));
+			}
+			assertEquals(Long.valueOf(size / partitions - 1), offsets.get(offsets.size() - 1));
+			assertEquals(size / partitions, listener.getCommittedOffset(TOPIC, partition));
+		}
+		System.out.println("Statistics of topic [" + TOPIC + "]: " + listener.getStatistics(TOPIC));
+	}
+	
+	/**
+	 * 较小偏移量的记录未处理完成时，之后已完成的记录不会被确认
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testContiguousCommit() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		init(new BlockingListener(0, latch), 4, 100);
+		for (int i = 0; i < 5; i++) {
+			dispatch(0, i, i);
+		}
+		
+		Thread.sleep(200);
+		assertEquals(5, listener.getLag(TOPIC, 0));
+		assertEquals(-1, listener.getCommittedOffset(TOPIC, 0));
+		assertTrue(acknowledged.get(0).isEmpty());
+		
+		latch.countDown();
+		Thread.sleep(200);
+		assertEquals(0, listener.getLag(TOPIC, 0));
+		assertEquals(5, listener.getCommittedOffset(TOPIC, 0));
+		assertEquals(Long.valueOf(4), acknowledged.get(0).get(acknowledged.get(0).size() - 1));
+	}
+	
+	/**
+	 * 积压的记录数达到上限时阻塞分发线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testBacklog() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		init(new BlockingListener(-1, latch), 2, 2);
+		dispatch(0, 0, 0);
+		dispatch(0, 1, 1);
+		
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<?> future = executor.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				dispatch(0, 2, 2);
+			}
+		});
+		
+		Thread.sleep(200);
+		assertFalse(future.isDone());
+		assertEquals(2, listener.getBacklog());
+		
+		latch.countDown();
+		future.get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+	}
+	
+	/**
+	 * 分区跟踪的未提交记录数达到上限时阻塞分发线程，直到最小偏移量的记录处理完成
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testMaxPendings() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		init(new BlockingListener(0, latch), 4, 100, 3);
+		for (int i = 0; i < 3; i++) {
+			dispatch(0, i, i);
+		}
+		
+		Future<?> future = dispatchAsync(0, 3, 3);
+		Thread.sleep(200);
+		assertFalse(future.isDone());
+		assertEquals(3, listener.getLag(TOPIC, 0));
+		
+		latch.countDown();
+		future.get(5, TimeUnit.SECONDS);
+		Thread.sleep(200);
+		assertEquals(4, listener.getCommittedOffset(TOPIC, 0));
+	}
+	
+	/**
+	 * 失败且不确认的记录之后的记录不再被跟踪，分发不会因跟踪的记录数达到上限而一直阻塞
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testFailureWithoutAck() throws Exception {
+		init(new FailingListener(1), 1, 100, 3);
+		listener.setAckOnError(false);
+		
+		final int size = 10;
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				for (int i = 0; i < size; i++) {
+					dispatch(0, i, i);
+				}
+			}
+		}).get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+		
+		long deadline = System.currentTimeMillis() + 5000;
+		while (listener.getBacklog() > 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		assertEquals(1, listener.getCommittedOffset(TOPIC, 0));
+		assertEquals(size - 1, listener.getLag(TOPIC, 0));
+	}
+	
+	/**
+	 * 分区被撤销时唤醒等待分发的线程，之后完成的记录不再确认
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testRevoke() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		init(new BlockingListener(0, latch), 4, 100, 2);
+		dispatch(0, 0, 0);
+		dispatch(0, 1, 1);
+		
+		Future<?> future = dispatchAsync(0, 2, 2);
+		Thread.sleep(200);
+		assertFalse(future.isDone());
+		
+		listener.onPartitionsRevoked(Collections.singletonList(new TopicPartition(TOPIC, 0)));
+		future.get(5, TimeUnit.SECONDS);
+		assertEquals(0, listener.getLag(TOPIC, 0));
+		
+		latch.countDown();
+		Thread.sleep(200);
+		assertTrue(acknowledged.get(0).isEmpty());
+	}
+	
+	private Future<?> dispatchAsync(final int partition, final long offset, final int key) {
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<?> future = executor.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				dispatch(partition, offset, key);
+			}
+		});
+		executor.shutdown();
+		return future;
+	}
+	
+	/**
+	 * 处理指定偏移量的记录时抛出异常
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class FailingListener implements ConsumerListener<Integer, String> {
+		
+		private final long offset;
+		
+		private FailingListener(long offset) {
+			this.offset = offset;
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record) {
+			if (record.offset() == offset)
+				throw new IllegalStateException("Failed to process offset " + offset);
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record, Acknowledgment acknowledgment) {
+			onMessage(record);
+		}
+	}
+	
+	/**
+	 * 记录各键处理的偏移量顺序
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class OrderRecordingListener implements ConsumerListener<Integer, String> {
+		
+		private final Map<Integer, List<Long>> processed;
+		
+		private OrderRecordingListener(Map<Integer, List<Long>> processed) {
+			this.processed = processed;
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record) {
+			// 同一个键的记录只会在同一个工作线程中处理
+			List<Long> offsets = processed.get(record.key());
+			if (offsets == null) {
+				offsets = CollectionUtils.newArrayList();
+				processed.put(record.key(), offsets);
+			}
+			offsets.add(record.offset());
+			if (record.offset() % 100 == 0)
+				Thread.yield();
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record, Acknowledgment acknowledgment) {
+			onMessage(record);
+		}
+	}
+	
+	/**
+	 * 处理指定偏移量的记录时等待，偏移量为负数时处理所有记录都等待
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class BlockingListener implements ConsumerListener<Integer, String> {
+		
+		private final long offset;
+		
+		private final CountDownLatch latch;
+		
+		private BlockingListener(long offset, CountDownLatch latch) {
+			this.offset = offset;
+			this.latch = latch;
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record) {
+			if (offset < 0 || record.offset() == offset) {
+				try {
+					latch.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		public void onMessage(ConsumerRecord<Integer, String> record, Acknowledgment acknowledgment) {
+			onMessage(record);
+		}
+	}
+
+}
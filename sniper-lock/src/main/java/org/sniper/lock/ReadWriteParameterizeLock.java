@@ -0,0 +1,68 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock;
+
+/**
+ * 参数化读写锁接口，继承自ParameterizeLock的加解锁方法操作的是写锁
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface ReadWriteParameterizeLock<P> extends ParameterizeLock<P> {
+
+	/**
+	 * 对指定参数加读锁
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 */
+	public void readLock(P parameter);
+
+	/**
+	 * 对指定参数加读锁后返回是否加锁成功
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	public boolean tryReadLock(P parameter);
+
+	/**
+	 * 对指定参数解读锁
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 */
+	public void readUnlock(P parameter);
+
+	/**
+	 * 获取指定参数的乐观读戳，有写锁被持有时返回0。</P>
+	 * 乐观读不加锁，读取完成后需调用validate方法校验期间是否有写操作，校验失败时再加读锁重读
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	public long tryOptimisticRead(P parameter);
+
+	/**
+	 * 校验获取乐观读戳之后是否有写锁被获取过
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param stamp
+	 * @return
+	 */
+	public boolean validate(P parameter, long stamp);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.exception;
+
+/**
+ * 锁运行时异常类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LockException extends RuntimeException {
+
+	private static final long serialVersionUID = -2213740516128360512L;
+
+	public LockException() {
+		super();
+	}
+
+	public LockException(String messgae) {
+		super(messgae);
+	}
+
+	public LockException(Throwable throwable) {
+		super(throwable);
+	}
+
+	public LockException(String message, Throwable throwable) {
+		super(message, throwable);
+	}
+
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.jdk;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.sniper.commons.timer.DefaultExpiredTimer;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.lock.ParameterizeLock;
+
+/**
+ * 按参数独立加锁的JDK参数化锁实现类，每个参数对应一个独立的重入锁，不同参数之间不会相互阻塞。</P>
+ * 锁对象按引用计数管理，第一个加锁者创建，最后一个解锁者或放弃等待者移除，因此锁表的大小只与同时使用中的参数个数有关
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public final class JdkKeyedParameterizeLock<P> extends DefaultExpiredTimer implements ParameterizeLock<P> {
+
+	private final ConcurrentMap<P, Entry> entries = MapUtils.newConcurrentHashMap();
+
+	public JdkKeyedParameterizeLock() {
+		this(0);
+	}
+
+	public JdkKeyedParameterizeLock(long expireTime) {
+		this(expireTime, TimeUnit.SECONDS);
+	}
+
+	public JdkKeyedParameterizeLock(long expireTime, TimeUnit timeUnit) {
+		super(expireTime, timeUnit);
+	}
+
+	@Override
+	public void lock(P parameter) {
+		retain(parameter).lock.lock();
+	}
+
+	@Override
+	public boolean tryLock(P parameter) {
+		Entry entry = retain(parameter);
+		boolean locked;
+		if (expireTime > 0) {
+			try {
+				// 在超时的时间单位内获取锁
+				locked = entry.lock.tryLock(expireTime, timeUnit);
+			} catch (InterruptedException e) {
+				locked = false;
+			}
+		} else
+			locked = entry.lock.tryLock();
+
+		if (!locked)
+			release(parameter, entry);
+
+		return locked;
+	}
+
+	@Override
+	public void unlock(P parameter) {
+		Entry entry = entries.get(parameter);
+		if (entry != null && entry.lock.isHeldByCurrentThread()) {
+			entry.lock.unlock();
+			release(parameter, entry);
+		}
+	}
+
+	@Override
+	public boolean tryUnlock(P parameter) {
+		unlock(parameter);
+		return !isLocked(parameter);
+	}
+
+	@Override
+	public boolean isLocked(P parameter) {
+		Entry entry = entries.get(parameter);
+		return entry != null && entry.lock.isLocked();
+	}
+
+	/**
+	 * 获取当前使用中的参数个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int size() {
+		return entries.size();
+	}
+
+	/**
+	 * 获取参数对应的锁对象并增加引用计数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	private Entry retain(P parameter) {
+		AssertUtils.assertNotNull(parameter, "Lock parameter must not be null");
+		while (true) {
+			Entry entry = entries.get(parameter);
+			if (entry == null) {
+				Entry newEntry = new Entry();
+				entry = entries.putIfAbsent(parameter, newEntry);
+				if (entry == null)
+					return newEntry;
+			}
+
+			if (entry.retain())
+				return entry;
+
+			// 锁对象的引用计数已归零并正在被移除，等移除后重新创建
+			Thread.yield();
+		}
+	}
+
+	/**
+	 * 减少锁对象的引用计数，归零时从锁表中移除
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param entry
+	 */
+	private void release(P parameter, Entry entry) {
+		if (entry.references.decrementAndGet() == 0)
+			entries.remove(parameter, entry);
+	}
+
+	/**
+	 * 锁表中的锁对象
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Entry {
+
+		private final ReentrantLock lock = new ReentrantLock();
+
+		/** 加锁者和等待者的引用计数，归零后不能再被引用 */
+		private final AtomicInteger references = new AtomicInteger(1);
+
+		private boolean retain() {
+			int count;
+			while ((count = references.get()) > 0) {
+				if (references.compareAndSet(count, count + 1))
+					return true;
+			}
+			return false;
+		}
+	}
+
+}
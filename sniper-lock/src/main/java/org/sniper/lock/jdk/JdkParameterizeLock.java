@@ -20,6 +20,7 @@ package org.sniper.lock.jdk;
 
 import java.text.MessageFormat;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import org.sniper.commons.timer.DefaultExpiredTimer;
 import org.sniper.commons.util.AssertUtils;
@@ -28,7 +29,8 @@ import org.sniper.lock.Lock;
 import org.sniper.lock.ParameterizeLock;
 
 /**
- * JDK参数化锁实现类
+ * JDK参数化锁实现类，将参数按哈希值映射到固定个数的分段锁上，未指定分段数时按CPU核数计算。</P>
+ * 不同参数可能映射到同一分段而相互阻塞，可通过分段的竞争次数观察热点，需要完全隔离时使用JdkKeyedParameterizeLock
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
@@ -36,7 +38,10 @@ public final class JdkParameterizeLock<P> extends DefaultExpiredTimer implements
 	
 	private final Lock[] locks;
 	
-	private static final int DEFAULT_LOCKSIZE = 16;
+	/** 各分段加锁时已被锁定的次数 */
+	private final AtomicLongArray contentions;
+	
+	private static final int DEFAULT_LOCKSIZE = LockStripes.defaultSize();
 	
 	public JdkParameterizeLock() {
 		this(DEFAULT_LOCKSIZE);
@@ -64,6 +69,7 @@ public final class JdkParameterizeLock<P> extends DefaultExpiredTimer implements
 		for (int i = 0; i < lockSize; i++) {
 			this.locks[i] = new JdkReentrantLock(expireTime, timeUnit);
 		}
+		this.contentions = new AtomicLongArray(lockSize);
 	}
 	
 	public JdkParameterizeLock(Lock lock) {
@@ -73,20 +79,28 @@ public final class JdkParameterizeLock<P> extends DefaultExpiredTimer implements
 	public JdkParameterizeLock(Lock[] locks) {
 		AssertUtils.assertNotEmpty(locks, "Locks must not be empty");
 		this.locks = locks;
+		this.contentions = new AtomicLongArray(locks.length);
 	}
 
 	@Override
 	public void lock(P parameter) {
-		Lock lock = getLockByParameter(parameter);
+		int index = LockStripes.indexFor(parameter, locks.length);
+		Lock lock = locks[index];
 		AssertUtils.assertNotNull(lock, MessageFormat.format("Lock fail by parameter {0}", 
 				ObjectUtils.toSafeNullString(parameter)));
+		countContention(index, lock);
 		lock.lock();
 	}
 	
 	@Override
 	public boolean tryLock(P parameter) {
-		Lock lock = getLockByParameter(parameter);
-		return lock != null && lock.tryLock();
+		int index = LockStripes.indexFor(parameter, locks.length);
+		Lock lock = locks[index];
+		if (lock == null)
+			return false;
+		
+		countContention(index, lock);
+		return lock.tryLock();
 	}
 
 	@Override
@@ -109,6 +123,35 @@ public final class JdkParameterizeLock<P> extends DefaultExpiredTimer implements
 		return lock != null && lock.isLocked();
 	}
 	
+	/**
+	 * 获取分段数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @return
+	 */
+	public int getLockSize() {
+		return locks.length;
+	}
+	
+	/**
+	 * 获取参数所在的分段下标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param parameter
+	 * @return
+	 */
+	public int getLockIndex(P parameter) {
+		return LockStripes.indexFor(parameter, locks.length);
+	}
+	
+	/**
+	 * 获取指定分段在加锁时已被锁定的次数，次数越多表示映射到此分段的参数越热
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param index
+	 * @return
+	 */
+	public long getContentionCount(int index) {
+		return contentions.get(index);
+	}
+	
 	/**
 	 * 根据参数获取对应的锁对象
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -116,8 +159,18 @@ public final class JdkParameterizeLock<P> extends DefaultExpiredTimer implements
 	 * @return
 	 */
 	private Lock getLockByParameter(P parameter) {
-		int hashCode = ObjectUtils.hashCode(parameter);
-		return locks[Math.abs(hashCode % locks.length)];
+		return locks[LockStripes.indexFor(parameter, locks.length)];
+	}
+	
+	/**
+	 * 加锁前分段已被锁定时累加竞争次数，锁定状态只是一个快照，因此统计结果是近似值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param index
+	 * @param lock
+	 */
+	private void countContention(int index, Lock lock) {
+		if (lock.isLocked())
+			contentions.incrementAndGet(index);
 	}
 	
 }
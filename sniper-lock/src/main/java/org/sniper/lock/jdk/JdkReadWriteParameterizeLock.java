@@ -0,0 +1,218 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.jdk;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.sniper.commons.timer.DefaultExpiredTimer;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.lock.ReadWriteParameterizeLock;
+
+/**
+ * JDK参数化读写锁实现类，将参数按哈希值映射到固定个数的分段读写锁上，未指定分段数时按CPU核数计算。</P>
+ * 每个分段维护一个版本号，获取和释放最外层写锁时各加1，因此版本号为奇数时表示有写锁被持有，
+ * 乐观读以偶数版本号作为读戳，校验时版本号未变即表示期间没有写操作
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public final class JdkReadWriteParameterizeLock<P> extends DefaultExpiredTimer implements ReadWriteParameterizeLock<P> {
+
+	private final ReentrantReadWriteLock[] locks;
+
+	/** 各分段的版本号，初始值为2，使0可作为无效的读戳 */
+	private final AtomicLongArray versions;
+
+	/** 各分段加锁时已被互斥锁定的次数 */
+	private final AtomicLongArray contentions;
+
+	public JdkReadWriteParameterizeLock() {
+		this(LockStripes.defaultSize());
+	}
+
+	public JdkReadWriteParameterizeLock(int lockSize) {
+		this(0, TimeUnit.SECONDS, lockSize);
+	}
+
+	public JdkReadWriteParameterizeLock(long expireTime, TimeUnit timeUnit) {
+		this(expireTime, timeUnit, LockStripes.defaultSize());
+	}
+
+	public JdkReadWriteParameterizeLock(long expireTime, TimeUnit timeUnit, int lockSize) {
+		super(expireTime, timeUnit);
+		AssertUtils.assertTrue(lockSize > 0, "lock size must greater than 0");
+		this.locks = new ReentrantReadWriteLock[lockSize];
+		this.versions = new AtomicLongArray(lockSize);
+		for (int i = 0; i < lockSize; i++) {
+			this.locks[i] = new ReentrantReadWriteLock();
+			this.versions.set(i, 2);
+		}
+		this.contentions = new AtomicLongArray(lockSize);
+	}
+
+	@Override
+	public void lock(P parameter) {
+		int index = LockStripes.indexFor(parameter, locks.length);
+		ReentrantReadWriteLock lock = locks[index];
+		if (lock.isWriteLocked() || lock.getReadLockCount() > 0)
+			contentions.incrementAndGet(index);
+
+		lock.writeLock().lock();
+		afterWriteLock(index, lock);
+	}
+
+	@Override
+	public boolean tryLock(P parameter) {
+		int index = LockStripes.indexFor(parameter, locks.length);
+		ReentrantReadWriteLock lock = locks[index];
+		if (lock.isWriteLocked() || lock.getReadLockCount() > 0)
+			contentions.incrementAndGet(index);
+
+		boolean locked;
+		if (expireTime > 0) {
+			try {
+				// 在超时的时间单位内获取锁
+				locked = lock.writeLock().tryLock(expireTime, timeUnit);
+			} catch (InterruptedException e) {
+				locked = false;
+			}
+		} else
+			locked = lock.writeLock().tryLock();
+
+		if (locked)
+			afterWriteLock(index, lock);
+
+		return locked;
+	}
+
+	@Override
+	public void unlock(P parameter) {
+		int index = LockStripes.indexFor(parameter, locks.length);
+		ReentrantReadWriteLock lock = locks[index];
+		if (!lock.isWriteLockedByCurrentThread())
+			return;
+
+		// 释放最外层写锁前将版本号变为偶数
+		if (lock.getWriteHoldCount() == 1)
+			versions.incrementAndGet(index);
+
+		lock.writeLock().unlock();
+	}
+
+	@Override
+	public boolean tryUnlock(P parameter) {
+		unlock(parameter);
+		return !locks[LockStripes.indexFor(parameter, locks.length)].isWriteLocked();
+	}
+
+	@Override
+	public boolean isLocked(P parameter) {
+		ReentrantReadWriteLock lock = locks[LockStripes.indexFor(parameter, locks.length)];
+		return lock.isWriteLocked() || lock.getReadLockCount() > 0;
+	}
+
+	@Override
+	public void readLock(P parameter) {
+		int index = LockStripes.indexFor(parameter, locks.length);
+		ReentrantReadWriteLock lock = locks[index];
+		if (lock.isWriteLocked())
+			contentions.incrementAndGet(index);
+
+		lock.readLock().lock();
+	}
+
+	@Override
+	public boolean tryReadLock(P parameter) {
+		int index = LockStripes.indexFor(parameter, locks.length);
+		ReentrantReadWriteLock lock = locks[index];
+		if (lock.isWriteLocked())
+			contentions.incrementAndGet(index);
+
+		if (expireTime > 0) {
+			try {
+				return lock.readLock().tryLock(expireTime, timeUnit);
+			} catch (InterruptedException e) {
+				return false;
+			}
+		}
+		return lock.readLock().tryLock();
+	}
+
+	@Override
+	public void readUnlock(P parameter) {
+		ReentrantReadWriteLock lock = locks[LockStripes.indexFor(parameter, locks.length)];
+		if (lock.getReadHoldCount() > 0)
+			lock.readLock().unlock();
+	}
+
+	@Override
+	public long tryOptimisticRead(P parameter) {
+		long version = versions.get(LockStripes.indexFor(parameter, locks.length));
+		return (version & 1) == 0 ? version : 0;
+	}
+
+	@Override
+	public boolean validate(P parameter, long stamp) {
+		/* 用值不变的CAS代替单纯的读取，CAS具有完整的内存屏障语义，
+		 * 保证乐观读期间对共享数据的读取不会被重排序到校验之后 */
+		return stamp != 0 && versions.compareAndSet(LockStripes.indexFor(parameter, locks.length), stamp, stamp);
+	}
+
+	/**
+	 * 获取分段数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getLockSize() {
+		return locks.length;
+	}
+
+	/**
+	 * 获取参数所在的分段下标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	public int getLockIndex(P parameter) {
+		return LockStripes.indexFor(parameter, locks.length);
+	}
+
+	/**
+	 * 获取指定分段在加锁时已被互斥锁定的次数，锁定状态只是一个快照，因此统计结果是近似值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param index
+	 * @return
+	 */
+	public long getContentionCount(int index) {
+		return contentions.get(index);
+	}
+
+	/**
+	 * 获取最外层写锁后将版本号变为奇数，使进行中的乐观读校验失败
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param index
+	 * @param lock
+	 */
+	private void afterWriteLock(int index, ReentrantReadWriteLock lock) {
+		if (lock.getWriteHoldCount() == 1)
+			versions.incrementAndGet(index);
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.jdk;
+
+import org.sniper.commons.util.ObjectUtils;
+
+/**
+ * 分段锁工具类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class LockStripes {
+
+	/** 最小的分段数 */
+	private static final int MIN_SIZE = 16;
+
+	/** 最大的分段数 */
+	private static final int MAX_SIZE = 1 << 16;
+
+	private LockStripes() {}
+
+	/**
+	 * 根据CPU核数计算默认的分段数，取不小于核数4倍的2的幂，使并发线程落在同一分段上的概率足够低
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	static int defaultSize() {
+		int size = Runtime.getRuntime().availableProcessors() * 4;
+		size = Integer.highestOneBit(size - 1) << 1;
+		return Math.min(Math.max(size, MIN_SIZE), MAX_SIZE);
+	}
+
+	/**
+	 * 计算参数所在的分段下标，先对哈希值做扰动，避免低位相同的哈希值都集中在少数分段上
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param size
+	 * @return
+	 */
+	static int indexFor(Object parameter, int size) {
+		int hash = ObjectUtils.hashCode(parameter);
+		hash ^= (hash >>> 16);
+		return (hash & Integer.MAX_VALUE) % size;
+	}
+
+}
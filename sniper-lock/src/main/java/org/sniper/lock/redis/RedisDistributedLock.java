@@ -18,43 +18,519 @@
 
 package org.sniper.lock.redis;
 
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.sniper.commons.timer.DefaultExpiredTimer;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.MapUtils;
 import org.sniper.lock.ParameterizeLock;
+import org.sniper.nosql.redis.dao.RedisCommandsDao;
+import org.sniper.nosql.redis.dao.RedisMessageListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
 
 /**
- * Redis分布式锁实现类
+ * Redis分布式锁实现类</P>
+ * 1)通过set key token NX PX命令加锁，锁键在租约时间(expireTime)后自动过期，持有者宕机时不会造成死锁；</P>
+ * 2)通过Lua脚本校验持有者令牌后才删除锁键，因此不会误删其它持有者在租约过期后重新获取的锁；</P>
+ * 3)持有期间由看门狗按三分之一租约时间的周期为锁键续约，长时间持有锁的线程不会因租约过期而失去锁；</P>
+ * 4)解锁后在释放频道上发布锁键，等待者订阅此频道被唤醒后再重新竞争，消息丢失时最多等待maxRetryMillis后重试；</P>
+ * 5)同一线程可重入，重入计数只在本地按锁键和持有线程维护。</P>
+ * 初始化时即订阅释放频道，避免首个等待者订阅生效前发布的释放消息丢失；容器关闭时停止看门狗并取消订阅。
+ * 当未指定过期时间时，默认租约时间为30秒
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public class RedisDistributedLock<P> implements ParameterizeLock<P> {
+public class RedisDistributedLock<P> extends DefaultExpiredTimer
+		implements ParameterizeLock<P>, InitializingBean, DisposableBean {
+
+	private static final Logger logger = LoggerFactory.getLogger(RedisDistributedLock.class);
+
+	/** 默认的租约毫秒数 */
+	private static final long DEFAULT_LEASE_MILLIS = 30000L;
+
+	/** 默认的等待者最长重试间隔毫秒数 */
+	private static final long DEFAULT_MAX_RETRY_MILLIS = 100L;
+
+	/** 默认的锁键前缀 */
+	public static final String DEFAULT_KEY_PREFIX = "lock:";
+
+	/** 默认的锁释放频道 */
+	public static final String DEFAULT_CHANNEL = "lock:released";
+
+	/** 锁值与持有者令牌相同时才删除锁键的脚本 */
+	public static final String RELEASE_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+			+ "return redis.call('del', KEYS[1]) else return 0 end";
+
+	/** 
+	 * 锁值与持有者令牌相同时才续约的脚本，租约毫秒数以ARGV[2]传入，脚本内容固定，服务端只需缓存一份。
+	 * 参数经过值序列化器处理，因此取其中最后一段数字作为租约毫秒数
+	 */
+	public static final String RENEW_SCRIPT = "if redis.call('get', KEYS[1]) == ARGV[1] then "
+			+ "return redis.call('pexpire', KEYS[1], string.match(ARGV[2], '(%d+)%D*$')) else return 0 end";
+
+	private final RedisCommandsDao redisCommandsDao;
+
+	/** 锁键所在的库名称 */
+	private String dbName;
+
+	private String keyPrefix = DEFAULT_KEY_PREFIX;
+
+	private String channel = DEFAULT_CHANNEL;
+
+	/** 等待者在两次重试之间的最长等待毫秒数，释放消息丢失时等待者最多等待这么久后重试 */
+	private long maxRetryMillis = DEFAULT_MAX_RETRY_MILLIS;
+
+	/** 当前锁对象的唯一标识，与线程ID组成持有者令牌 */
+	private final String id = UUID.randomUUID().toString();
+
+	/** 当前JVM内持有的锁，以锁键和持有线程组成的键进行索引 */
+	private final ConcurrentMap<String, Holder> holders = MapUtils.newConcurrentHashMap();
+
+	/** 当前JVM内等待的锁 */
+	private final ConcurrentMap<String, Waiter> waiters = MapUtils.newConcurrentHashMap();
+
+	/** 锁释放频道的消息监听器 */
+	private final RedisMessageListener<String> releasedListener = new RedisMessageListener<String>() {
+
+		@Override
+		public void onMessage(String channel, String key) {
+			Waiter waiter = waiters.get(key);
+			if (waiter != null)
+				waiter.semaphore.release();
+		}
+	};
+
+	/** 是否已订阅锁释放频道 */
+	private volatile boolean subscribed;
+
+	/** 续约看门狗 */
+	private volatile ScheduledExecutorService watchdog;
+
+	public RedisDistributedLock(RedisCommandsDao redisCommandsDao) {
+		this(redisCommandsDao, 0);
+	}
+
+	public RedisDistributedLock(RedisCommandsDao redisCommandsDao, long expireTime) {
+		this(redisCommandsDao, expireTime, TimeUnit.SECONDS);
+	}
+
+	public RedisDistributedLock(RedisCommandsDao redisCommandsDao, long expireTime, TimeUnit timeUnit) {
+		super(expireTime, timeUnit);
+		AssertUtils.assertNotNull(redisCommandsDao, "Redis commands dao must not be null");
+		this.redisCommandsDao = redisCommandsDao;
+	}
+
+	public String getDbName() {
+		return dbName;
+	}
+
+	public void setDbName(String dbName) {
+		this.dbName = dbName;
+	}
+
+	public String getKeyPrefix() {
+		return keyPrefix;
+	}
+
+	public void setKeyPrefix(String keyPrefix) {
+		AssertUtils.assertNotNull(keyPrefix, "Lock key prefix must not be null");
+		this.keyPrefix = keyPrefix;
+	}
+
+	public String getChannel() {
+		return channel;
+	}
+
+	public void setChannel(String channel) {
+		AssertUtils.assertNotBlank(channel, "Lock released channel must not be blank");
+		this.channel = channel;
+	}
+
+	public long getMaxRetryMillis() {
+		return maxRetryMillis;
+	}
+
+	public void setMaxRetryMillis(long maxRetryMillis) {
+		AssertUtils.assertTrue(maxRetryMillis > 0, "Max retry millis must greater than 0");
+		this.maxRetryMillis = maxRetryMillis;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		subscribe();
+	}
+
+	@Override
+	public void destroy() throws Exception {
+		shutdown();
+	}
 
 	@Override
 	public void lock(P parameter) {
-		// TODO Auto-generated method stub
-		
+		String key = toKey(parameter);
+		if (reenter(key) || acquire(key))
+			return;
+
+		Waiter waiter = await(key);
+		boolean interrupted = false;
+		try {
+			while (!drainAndAcquire(key, waiter)) {
+				try {
+					// 等待释放消息，超时后再重试一次，以防消息丢失或持有者宕机后锁键自然过期
+					waiter.semaphore.tryAcquire(getRetryMillis(), TimeUnit.MILLISECONDS);
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		} finally {
+			leave(key, waiter);
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
 	}
 
 	@Override
 	public boolean tryLock(P parameter) {
-		// TODO Auto-generated method stub
-		return false;
+		String key = toKey(parameter);
+		return reenter(key) || acquire(key);
+	}
+
+	/**
+	 * 在指定的等待时间内对指定参数进行加锁操作后返回是否加锁成功
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param waitTime
+	 * @param unit
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public boolean tryLock(P parameter, long waitTime, TimeUnit unit) throws InterruptedException {
+		String key = toKey(parameter);
+		if (reenter(key) || acquire(key))
+			return true;
+
+		long deadline = System.nanoTime() + unit.toNanos(waitTime);
+		Waiter waiter = await(key);
+		try {
+			long remaining;
+			while ((remaining = deadline - System.nanoTime()) > 0) {
+				waiter.semaphore.tryAcquire(Math.min(remaining,
+						TimeUnit.MILLISECONDS.toNanos(getRetryMillis())), TimeUnit.NANOSECONDS);
+				if (drainAndAcquire(key, waiter))
+					return true;
+			}
+			return false;
+		} finally {
+			leave(key, waiter);
+		}
 	}
 
 	@Override
 	public void unlock(P parameter) {
-		// TODO Auto-generated method stub
-		
+		release(toKey(parameter));
 	}
 
+	/**
+	 * 对指定参数进行解锁操作，只有当前线程持有锁并且这次调用真正删除了锁键时才返回true
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
 	@Override
 	public boolean tryUnlock(P parameter) {
-		// TODO Auto-generated method stub
-		return false;
+		return release(toKey(parameter));
 	}
 
 	@Override
 	public boolean isLocked(P parameter) {
-		// TODO Auto-generated method stub
+		return Boolean.TRUE.equals(redisCommandsDao.exists(dbName, toKey(parameter)));
+	}
+
+	/**
+	 * 停止续约看门狗并取消对锁释放频道的订阅
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void shutdown() {
+		synchronized (waiters) {
+			if (subscribed) {
+				redisCommandsDao.unsubscribe(releasedListener, new String[] { channel });
+				subscribed = false;
+			}
+		}
+
+		if (watchdog != null)
+			watchdog.shutdownNow();
+	}
+
+	/**
+	 * 将参数转换为锁键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	protected String toKey(P parameter) {
+		return keyPrefix + parameter;
+	}
+
+	/**
+	 * 获取租约毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected long getLeaseMillis() {
+		return expireTime > 0 ? toMillis() : DEFAULT_LEASE_MILLIS;
+	}
+
+	/**
+	 * 获取续约周期毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected long getRenewMillis() {
+		return Math.max(getLeaseMillis() / 3, 1);
+	}
+
+	/**
+	 * 获取等待者的重试间隔毫秒数，不超过续约周期和最长重试间隔
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected long getRetryMillis() {
+		return Math.min(getRenewMillis(), maxRetryMillis);
+	}
+
+	/**
+	 * 当前线程已持有锁时增加重入次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @return
+	 */
+	private boolean reenter(String key) {
+		Holder holder = holders.get(toHolderKey(key, Thread.currentThread()));
+		if (holder != null && holder.owner == Thread.currentThread()) {
+			holder.holdCount++;
+			return true;
+		}
 		return false;
 	}
 
+	/**
+	 * 尝试一次获取锁，成功后开始续约
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @return
+	 */
+	private boolean acquire(String key) {
+		Thread current = Thread.currentThread();
+		String token = id + ":" + current.getId();
+		if (!Boolean.TRUE.equals(redisCommandsDao.pSetNX2(dbName, key, token, getLeaseMillis())))
+			return false;
+
+		Holder holder = new Holder(current, token);
+		holders.put(toHolderKey(key, current), holder);
+		long renewMillis = getRenewMillis();
+		holder.renewal = getWatchdog().scheduleAtFixedRate(new Renewal(key, holder),
+				renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+		return true;
+	}
+
+	/**
+	 * 清空等待期间积累的多余许可后尝试获取锁，之后到达的释放消息才会唤醒下一次等待，
+	 * 多余的许可不会使后续的等待立即返回而变成空转
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param waiter
+	 * @return
+	 */
+	private boolean drainAndAcquire(String key, Waiter waiter) {
+		waiter.semaphore.drainPermits();
+		return acquire(key);
+	}
+
+	/**
+	 * 释放当前线程持有的锁，重入次数减为0时才删除锁键并发布释放消息
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @return
+	 */
+	private boolean release(String key) {
+		String holderKey = toHolderKey(key, Thread.currentThread());
+		Holder holder = holders.get(holderKey);
+		if (holder == null || holder.owner != Thread.currentThread() || --holder.holdCount > 0)
+			return false;
+
+		holders.remove(holderKey);
+		holder.renewal.cancel(false);
+		Long released = redisCommandsDao.eval(dbName, RELEASE_SCRIPT, Long.class,
+				new String[] { key }, new String[] { holder.token });
+		if (released == null || released == 0) {
+			logger.warn("Lock [{}] was already expired before released", key);
+			return false;
+		}
+
+		redisCommandsDao.publish(dbName, channel, key);
+		return true;
+	}
+
+	/**
+	 * 将锁键和持有线程组合成本地持有者的索引键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param owner
+	 * @return
+	 */
+	private String toHolderKey(String key, Thread owner) {
+		return key + "@" + owner.getId();
+	}
+
+	/**
+	 * 订阅锁释放频道，已订阅时直接忽略
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	private void subscribe() {
+		synchronized (waiters) {
+			if (!subscribed) {
+				redisCommandsDao.subscribe(dbName, releasedListener, new String[] { channel });
+				subscribed = true;
+			}
+		}
+	}
+
+	/**
+	 * 登记当前线程对锁键的等待，未经容器初始化而尚未订阅锁释放频道时补充订阅
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @return
+	 */
+	private Waiter await(String key) {
+		subscribe();
+		synchronized (waiters) {
+			Waiter waiter = waiters.get(key);
+			if (waiter == null) {
+				waiter = new Waiter();
+				waiters.put(key, waiter);
+			}
+			waiter.count++;
+			return waiter;
+		}
+	}
+
+	/**
+	 * 撤销当前线程对锁键的等待，没有等待者时移除等待对象
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param waiter
+	 */
+	private void leave(String key, Waiter waiter) {
+		synchronized (waiters) {
+			if (--waiter.count == 0)
+				waiters.remove(key);
+		}
+	}
+
+	/**
+	 * 获取续约看门狗，不存在时创建
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private ScheduledExecutorService getWatchdog() {
+		ScheduledExecutorService executor = watchdog;
+		if (executor == null) {
+			synchronized (holders) {
+				executor = watchdog;
+				if (executor == null) {
+					executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+						@Override
+						public Thread newThread(Runnable r) {
+							Thread thread = new Thread(r, "redis-lock-watchdog");
+							thread.setDaemon(true);
+							return thread;
+						}
+					});
+					watchdog = executor;
+				}
+			}
+		}
+		return executor;
+	}
+
+	/**
+	 * 锁的持有者
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Holder {
+
+		private final Thread owner;
+
+		private final String token;
+
+		/** 重入次数，只被持有线程修改 */
+		private int holdCount = 1;
+
+		private volatile ScheduledFuture<?> renewal;
+
+		private Holder(Thread owner, String token) {
+			this.owner = owner;
+			this.token = token;
+		}
+	}
+
+	/**
+	 * 锁的等待者
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Waiter {
+
+		/** 每收到一次释放消息就唤醒一个等待线程 */
+		private final Semaphore semaphore = new Semaphore(0);
+
+		/** 等待线程个数，只在同步块中修改 */
+		private int count;
+	}
+
+	/**
+	 * 锁的续约任务
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class Renewal implements Runnable {
+
+		private final String key;
+
+		private final Holder holder;
+
+		private Renewal(String key, Holder holder) {
+			this.key = key;
+			this.holder = holder;
+		}
+
+		@Override
+		public void run() {
+			try {
+				Long renewed = redisCommandsDao.eval(dbName, RENEW_SCRIPT, Long.class, new String[] { key },
+						new String[] { holder.token, String.valueOf(getLeaseMillis()) });
+				if (renewed == null || renewed == 0) {
+					logger.warn("Lock [{}] lease was lost, stop renewing", key);
+					holder.renewal.cancel(false);
+				}
+			} catch (Exception e) {
+				// 单次续约失败不影响后续的续约，只要在租约过期前成功即可
+				logger.error("Renew lock [" + key + "] lease error", e);
+			}
+		}
+	}
+
 }
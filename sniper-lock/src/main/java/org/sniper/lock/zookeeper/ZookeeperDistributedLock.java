@@ -12,48 +12,469 @@
  * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
  * See the License for the specific language governing permissions and
  * limitations under the License.
- * 
+ *
  * Create Date : 2018-6-26
  */
 
 package org.sniper.lock.zookeeper;
 
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zookeeper.AsyncCallback.VoidCallback;
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.KeeperException;
+import org.apache.zookeeper.KeeperException.Code;
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.ZooDefs.Ids;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.data.Stat;
+import org.sniper.commons.timer.DefaultExpiredTimer;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
 import org.sniper.lock.ParameterizeLock;
+import org.sniper.lock.exception.LockException;
 
 /**
- * Zookeeper分布式锁实现类
+ * Zookeeper分布式锁实现类，每个参数对应基础路径下的一个锁路径</P>
+ * 1)加锁时在锁路径下创建临时顺序节点，序号最小的节点持有锁，持有者会话断开后节点自动删除，不会造成死锁；</P>
+ * 2)每个等待者只监听序号紧邻的前一个节点，前一个节点删除时只唤醒一个等待者，避免大量等待者同时被唤醒的羊群效应；</P>
+ * 3)等待者按节点序号先后获得锁，因此是公平锁；</P>
+ * 4)锁路径创建后被缓存，之后的加锁操作直接创建顺序节点，不再重复检查和创建锁路径；
+ *   释放锁或放弃等待后异步删除已没有顺序节点的锁路径并移出缓存，持久节点不会随参数的个数无限增长；</P>
+ * 5)同一线程可重入，重入时不访问Zookeeper；</P>
+ * 6)等待者通过getData监听前一个节点，节点已不存在时不会留下监听，同一个节点上的多次等待共用一个监听器，
+ *   超时放弃的等待不会在客户端堆积监听器。</P>
+ * 当过期时间大于0时，tryLock方法在过期时间内等待获取锁，否则只尝试一次
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public class ZookeeperDistributedLock<P> implements ParameterizeLock<P> {
+public class ZookeeperDistributedLock<P> extends DefaultExpiredTimer implements ParameterizeLock<P> {
+
+	/** 默认的锁基础路径 */
+	public static final String DEFAULT_BASE_PATH = "/locks";
+
+	/** 顺序节点名称前缀 */
+	private static final String NODE_PREFIX = "lock-";
+
+	private static final byte[] EMPTY_DATA = new byte[0];
+
+	private final ZooKeeper zooKeeper;
+
+	private String basePath = DEFAULT_BASE_PATH;
+
+	/** 已创建的参数锁路径 */
+	private final ConcurrentMap<P, String> lockPaths = MapUtils.newConcurrentHashMap();
+
+	/** 当前JVM内持有的锁 */
+	private final ConcurrentMap<String, Holder> holders = MapUtils.newConcurrentHashMap();
+	
+	/** 被等待者监听的节点及其监听器，节点删除或变更后移除 */
+	private final ConcurrentMap<String, NodeWatcher> nodeWatchers = MapUtils.newConcurrentHashMap();
+	
+	/** 异步删除锁路径的回调，删除成功或锁路径已不存在时将其移出缓存 */
+	private final VoidCallback lockPathDeletion = new VoidCallback() {
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public void processResult(int rc, String path, Object ctx) {
+			if (rc == Code.OK.intValue() || rc == Code.NONODE.intValue())
+				lockPaths.remove((P) ctx, path);
+		}
+	};
+
+	public ZookeeperDistributedLock(ZooKeeper zooKeeper) {
+		this(zooKeeper, 0);
+	}
+
+	public ZookeeperDistributedLock(ZooKeeper zooKeeper, long expireTime) {
+		this(zooKeeper, expireTime, TimeUnit.SECONDS);
+	}
+
+	public ZookeeperDistributedLock(ZooKeeper zooKeeper, long expireTime, TimeUnit timeUnit) {
+		super(expireTime, timeUnit);
+		AssertUtils.assertNotNull(zooKeeper, "ZooKeeper must not be null");
+		this.zooKeeper = zooKeeper;
+	}
+
+	public String getBasePath() {
+		return basePath;
+	}
+
+	public void setBasePath(String basePath) {
+		AssertUtils.assertTrue(basePath != null && basePath.startsWith("/") && !basePath.endsWith("/"),
+				"Lock base path must start with '/' and can not end with '/'");
+		this.basePath = basePath;
+		this.lockPaths.clear();
+	}
 
 	@Override
 	public void lock(P parameter) {
-		// TODO Auto-generated method stub
+		try {
+			acquire(parameter, -1);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LockException("Interrupted while waiting for lock " + parameter, e);
+		}
 	}
 
 	@Override
 	public boolean tryLock(P parameter) {
-		// TODO Auto-generated method stub
-		return false;
+		try {
+			return acquire(parameter, expireTime > 0 ? toNanos() : 0);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+
+	/**
+	 * 在指定的等待时间内对指定参数进行加锁操作后返回是否加锁成功
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param waitTime
+	 * @param unit
+	 * @return
+	 * @throws InterruptedException
+	 */
+	public boolean tryLock(P parameter, long waitTime, TimeUnit unit) throws InterruptedException {
+		return acquire(parameter, Math.max(unit.toNanos(waitTime), 0));
 	}
 
 	@Override
 	public void unlock(P parameter) {
-		// TODO Auto-generated method stub
-		
+		release(parameter);
 	}
 
+	/**
+	 * 对指定参数进行解锁操作，只有当前线程持有锁并且这次调用真正删除了锁节点时才返回true
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
 	@Override
 	public boolean tryUnlock(P parameter) {
-		// TODO Auto-generated method stub
-		return false;
+		return release(parameter);
 	}
 
 	@Override
 	public boolean isLocked(P parameter) {
-		// TODO Auto-generated method stub
-		return false;
+		try {
+			return !getSortedNodes(toLockPath(parameter)).isEmpty();
+		} catch (KeeperException.NoNodeException e) {
+			return false;
+		} catch (KeeperException e) {
+			throw new LockException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LockException(e);
+		}
+	}
+
+	/**
+	 * 获取锁，等待纳秒数小于0时一直等待到获取锁为止
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param waitNanos
+	 * @return
+	 * @throws InterruptedException
+	 */
+	private boolean acquire(P parameter, long waitNanos) throws InterruptedException {
+		long deadline = System.nanoTime() + waitNanos;
+		String lockPath = getLockPath(parameter);
+		Holder holder = holders.get(lockPath);
+		if (holder != null && holder.owner == Thread.currentThread()) {
+			holder.holdCount++;
+			return true;
+		}
+
+		String node = null;
+		boolean acquired = false;
+		try {
+			node = createNode(lockPath);
+			acquired = awaitTurn(lockPath, node, waitNanos < 0 ? -1 : deadline);
+			if (acquired)
+				holders.put(lockPath, new Holder(Thread.currentThread(), node));
+
+			return acquired;
+		} catch (KeeperException e) {
+			throw new LockException("Acquire lock " + lockPath + " error", e);
+		} finally {
+			// 超时、中断或异常时删除自己的节点，否则后一个等待者会一直等待
+			if (!acquired && node != null) {
+				deleteQuietly(node);
+				deleteLockPath(parameter, lockPath);
+			}
+		}
+	}
+
+	/**
+	 * 释放当前线程持有的锁，重入次数减为0时才删除锁节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	private boolean release(P parameter) {
+		// 缓存的锁路径可能已在锁路径被删除后移除，因此直接计算
+		String lockPath = (parameter != null ? toLockPath(parameter) : null);
+		Holder holder = (lockPath != null ? holders.get(lockPath) : null);
+		if (holder == null || holder.owner != Thread.currentThread() || --holder.holdCount > 0)
+			return false;
+
+		holders.remove(lockPath);
+		try {
+			zooKeeper.delete(holder.node, -1);
+			deleteLockPath(parameter, lockPath);
+			return true;
+		} catch (KeeperException.NoNodeException e) {
+			// 会话过期后临时节点已被删除
+			return false;
+		} catch (KeeperException e) {
+			throw new LockException("Release lock " + lockPath + " error", e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LockException("Interrupted while releasing lock " + lockPath, e);
+		}
+	}
+
+	/**
+	 * 获取参数对应的锁路径，首次获取时创建锁路径
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 * @throws InterruptedException
+	 */
+	private String getLockPath(P parameter) throws InterruptedException {
+		AssertUtils.assertNotNull(parameter, "Lock parameter must not be null");
+		String lockPath = lockPaths.get(parameter);
+		if (lockPath == null) {
+			lockPath = toLockPath(parameter);
+			createPath(lockPath);
+			lockPaths.put(parameter, lockPath);
+		}
+		return lockPath;
+	}
+
+	/**
+	 * 异步删除锁路径，锁路径下还有顺序节点时删除失败，由之后释放锁的节点再次删除
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param lockPath
+	 */
+	private void deleteLockPath(P parameter, String lockPath) {
+		// 当前JVM内仍有线程持有锁时不必删除
+		if (!holders.containsKey(lockPath))
+			zooKeeper.delete(lockPath, -1, lockPathDeletion, parameter);
+	}
+	
+	/**
+	 * 在锁路径下创建临时顺序节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lockPath
+	 * @return
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	private String createNode(String lockPath) throws KeeperException, InterruptedException {
+		while (true) {
+			try {
+				return zooKeeper.create(lockPath + "/" + NODE_PREFIX, EMPTY_DATA, Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL_SEQUENTIAL);
+			} catch (KeeperException.NoNodeException e) {
+				// 缓存的锁路径已被空闲时的删除操作删除，重新创建后再试
+				createPath(lockPath);
+			}
+		}
+	}
+
+	/**
+	 * 等待自己的节点成为序号最小的节点，截止时间小于0时一直等待
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lockPath
+	 * @param node
+	 * @param deadline
+	 * @return
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	private boolean awaitTurn(String lockPath, String node, long deadline) throws KeeperException, InterruptedException {
+		String nodeName = node.substring(lockPath.length() + 1);
+		while (true) {
+			List<String> nodes = getSortedNodes(lockPath);
+			int index = nodes.indexOf(nodeName);
+			if (index < 0)
+				throw new LockException("Lock node " + node + " was lost, maybe the session was expired");
+
+			if (index == 0)
+				return true;
+
+			// 只监听前一个节点
+			String previous = lockPath + "/" + nodes.get(index - 1);
+			NodeWatcher watcher = getWatcher(previous);
+			try {
+				zooKeeper.getData(previous, watcher, new Stat());
+			} catch (KeeperException.NoNodeException e) {
+				// 前一个节点在获取子节点列表后已被删除，getData不会在不存在的节点上留下监听
+				nodeWatchers.remove(previous, watcher);
+				continue;
+			}
+
+			if (deadline < 0)
+				watcher.latch.await();
+			else {
+				long remaining = deadline - System.nanoTime();
+				if (remaining <= 0 || !watcher.latch.await(remaining, TimeUnit.NANOSECONDS))
+					return false;
+			}
+		}
+	}
+	
+	/**
+	 * 获取节点的监听器，同一个节点上的等待共用一个监听器，Zookeeper客户端对同一个监听器只登记一次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param node
+	 * @return
+	 */
+	private NodeWatcher getWatcher(String node) {
+		NodeWatcher watcher = nodeWatchers.get(node);
+		if (watcher == null) {
+			NodeWatcher newWatcher = new NodeWatcher(node);
+			watcher = nodeWatchers.putIfAbsent(node, newWatcher);
+			if (watcher == null)
+				watcher = newWatcher;
+		}
+		return watcher;
+	}
+
+	/**
+	 * 获取锁路径下按序号排列的顺序节点名称列表
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lockPath
+	 * @return
+	 * @throws KeeperException
+	 * @throws InterruptedException
+	 */
+	private List<String> getSortedNodes(String lockPath) throws KeeperException, InterruptedException {
+		List<String> children = zooKeeper.getChildren(lockPath, false);
+		List<String> nodes = CollectionUtils.newArrayList(children.size());
+		for (String child : children) {
+			if (child.startsWith(NODE_PREFIX))
+				nodes.add(child);
+		}
+
+		// 顺序节点的序号是定长的，因此可直接按名称排序
+		Collections.sort(nodes);
+		return nodes;
+	}
+
+	/**
+	 * 创建持久化的锁路径，上级路径不存在时逐级创建
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lockPath
+	 * @throws InterruptedException
+	 */
+	private void createPath(String lockPath) throws InterruptedException {
+		try {
+			// 通常只有锁路径本身被删除，先直接创建以减少请求次数
+			zooKeeper.create(lockPath, EMPTY_DATA, Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT);
+			return;
+		} catch (KeeperException.NodeExistsException e) {
+			return;
+		} catch (KeeperException.NoNodeException e) {
+			// 上级路径不存在
+		} catch (KeeperException e) {
+			throw new LockException("Create lock path " + lockPath + " error", e);
+		}
+		
+		int index = 0;
+		do {
+			index = lockPath.indexOf('/', index + 1);
+			String path = (index != -1 ? lockPath.substring(0, index) : lockPath);
+			try {
+				zooKeeper.create(path, EMPTY_DATA, Ids.OPEN_ACL_UNSAFE, CreateMode.PERSISTENT);
+			} catch (KeeperException.NodeExistsException e) {
+				// 路径已存在
+			} catch (KeeperException e) {
+				throw new LockException("Create lock path " + path + " error", e);
+			}
+		} while (index != -1);
+	}
+
+	/**
+	 * 将参数转换为锁路径
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	protected String toLockPath(P parameter) {
+		return basePath + "/" + parameter;
+	}
+
+	/**
+	 * 删除节点，忽略所有异常
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param node
+	 */
+	private void deleteQuietly(String node) {
+		// 先清除中断状态，否则被中断的线程无法完成删除请求
+		boolean interrupted = Thread.interrupted();
+		try {
+			zooKeeper.delete(node, -1);
+		} catch (KeeperException e) {
+			// 节点已不存在或会话已过期时临时节点会被自动删除
+		} catch (InterruptedException e) {
+			interrupted = true;
+		} finally {
+			if (interrupted)
+				Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * 节点的监听器，节点被删除或变更时唤醒所有等待该节点的线程
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class NodeWatcher implements Watcher {
+		
+		private final String node;
+		
+		private final CountDownLatch latch = new CountDownLatch(1);
+		
+		private NodeWatcher(String node) {
+			this.node = node;
+		}
+
+		@Override
+		public void process(WatchedEvent event) {
+			nodeWatchers.remove(node, this);
+			latch.countDown();
+		}
+	}
+	
+	/**
+	 * 锁的持有者
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Holder {
+
+		private final Thread owner;
+
+		/** 持有锁的顺序节点路径 */
+		private final String node;
+
+		/** 重入次数，只被持有线程修改 */
+		private int holdCount = 1;
+
+		private Holder(Thread owner, String node) {
+			this.owner = owner;
+			this.node = node;
+		}
 	}
 
 }
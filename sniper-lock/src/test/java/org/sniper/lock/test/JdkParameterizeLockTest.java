@@ -0,0 +1,193 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.lock.ParameterizeLock;
+import org.sniper.lock.jdk.JdkKeyedParameterizeLock;
+import org.sniper.lock.jdk.JdkParameterizeLock;
+import org.sniper.lock.jdk.JdkReadWriteParameterizeLock;
+import org.sniper.test.junit.BaseTestCase;
+
+/**
+ * JDK参数化锁单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class JdkParameterizeLockTest extends BaseTestCase {
+
+	private final int threadSize = 16;
+
+	private final int count = 100000;
+
+	/**
+	 * 分段数按CPU核数计算，并统计各分段的竞争次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void stripedTest() throws Exception {
+		JdkParameterizeLock<Integer> lock = new JdkParameterizeLock<Integer>();
+		assertTrue(lock.getLockSize() >= Runtime.getRuntime().availableProcessors() * 4);
+
+		// 所有线程都竞争同一个热点参数
+		assertEquals(threadSize * 10000, benchmark("Striped hot key", lock, true, 10000));
+		long contentions = lock.getContentionCount(lock.getLockIndex(0));
+		System.out.println("Contentions of hot key stripe: " + contentions);
+		assertTrue(contentions > 0);
+	}
+
+	/**
+	 * 每个参数独立加锁，锁对象在不被引用后被移除
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void keyedTest() throws Exception {
+		final JdkKeyedParameterizeLock<Integer> lock = new JdkKeyedParameterizeLock<Integer>();
+		lock.lock(1);
+		assertTrue(lock.tryLock(1));
+
+		// 其它线程可以锁定不同的参数，但不能锁定当前线程已锁定的参数
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Boolean[]> future = executor.submit(new Callable<Boolean[]>() {
+
+			@Override
+			public Boolean[] call() throws Exception {
+				Boolean[] result = new Boolean[] { lock.tryLock(1), lock.tryLock(2) };
+				lock.unlock(2);
+				return result;
+			}
+		});
+		Boolean[] result = future.get(5, TimeUnit.SECONDS);
+		executor.shutdown();
+		assertFalse(result[0]);
+		assertTrue(result[1]);
+
+		assertFalse(lock.tryUnlock(1));
+		assertTrue(lock.tryUnlock(1));
+		assertEquals(0, lock.size());
+
+		assertEquals(threadSize * count, benchmark("Keyed distinct keys", lock, false, count));
+		assertEquals(threadSize * 10000, benchmark("Keyed hot key", lock, true, 10000));
+		assertEquals(0, lock.size());
+	}
+
+	/**
+	 * 读写锁及乐观读测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void readWriteTest() {
+		JdkReadWriteParameterizeLock<String> lock = new JdkReadWriteParameterizeLock<String>();
+		String parameter = "config";
+
+		long stamp = lock.tryOptimisticRead(parameter);
+		assertTrue(lock.validate(parameter, stamp));
+
+		lock.readLock(parameter);
+		assertTrue(lock.tryReadLock(parameter));
+		assertTrue(lock.validate(parameter, stamp));
+		lock.readUnlock(parameter);
+		lock.readUnlock(parameter);
+
+		// 写锁被持有时无法获取乐观读戳，之前的读戳也会失效
+		lock.lock(parameter);
+		assertEquals(0, lock.tryOptimisticRead(parameter));
+		assertFalse(lock.validate(parameter, stamp));
+		lock.unlock(parameter);
+		assertFalse(lock.validate(parameter, stamp));
+
+		stamp = lock.tryOptimisticRead(parameter);
+		assertTrue(stamp != 0);
+		assertTrue(lock.validate(parameter, stamp));
+		assertFalse(lock.isLocked(parameter));
+	}
+
+	/**
+	 * 性能对比测试，分别比较分段锁和按参数独立加锁在不同参数上的表现
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		benchmark("Fixed 16 stripes", new JdkParameterizeLock<Integer>(16), false, count);
+		benchmark("Adaptive stripes", new JdkParameterizeLock<Integer>(), false, count);
+		benchmark("Keyed", new JdkKeyedParameterizeLock<Integer>(), false, count);
+		benchmark("ReadWrite", new JdkReadWriteParameterizeLock<Integer>(), false, count);
+	}
+
+	/**
+	 * 多线程对参数加锁后累加计数，返回累加结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param lock
+	 * @param hotKey 为true时所有线程使用同一个参数，否则各线程使用不同的参数
+	 * @param times
+	 * @return
+	 * @throws Exception
+	 */
+	private int benchmark(String name, final ParameterizeLock<Integer> lock, final boolean hotKey, final int times) throws Exception {
+		final int[] counters = new int[threadSize];
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		List<Future<Void>> futures = CollectionUtils.newArrayList(threadSize);
+		long start = System.nanoTime();
+		for (int i = 0; i < threadSize; i++) {
+			final int parameter = i;
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					int key = hotKey ? 0 : parameter;
+					for (int j = 0; j < times; j++) {
+						lock.lock(key);
+						try {
+							counters[key]++;
+						} finally {
+							lock.unlock(key);
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		long elapsed = System.nanoTime() - start;
+		executor.shutdown();
+
+		System.out.println(String.format("%s: %d threads x %d locks, %d ms", name, threadSize, times, elapsed / 1000000));
+		int total = 0;
+		for (int counter : counters) {
+			total += counter;
+		}
+		return total;
+	}
+
+}
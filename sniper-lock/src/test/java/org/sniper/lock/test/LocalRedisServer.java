@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.dao.RedisCommandsDao;
+import org.sniper.nosql.redis.dao.RedisMessageListener;
+
+/**
+ * 基于JVM内存的Redis服务替身，只实现分布式锁所需的pSetNX/exists/eval/publish/subscribe指令。</P>
+ * eval指令只识别分布式锁的释放和续约脚本，消息在单独的订阅线程中投递，与真实的订阅连接一致
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LocalRedisServer implements InvocationHandler {
+
+	/** 续约脚本从ARGV[2]中取最后一段数字作为租约毫秒数 */
+	private static final Pattern LEASE = Pattern.compile("(\\d+)\\D*$");
+
+	/** 键值对及其过期时间 */
+	private final Map<Object, Object[]> entries = MapUtils.newHashMap();
+
+	private final List<RedisMessageListener<Object>> listeners = new CopyOnWriteArrayList<RedisMessageListener<Object>>();
+
+	private final ExecutorService subscription = Executors.newSingleThreadExecutor();
+
+	/**
+	 * 创建连接当前服务的RedisCommandsDao代理对象，多个代理对象可模拟多个节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public RedisCommandsDao create() {
+		return (RedisCommandsDao) Proxy.newProxyInstance(RedisCommandsDao.class.getClassLoader(),
+				new Class<?>[] { RedisCommandsDao.class }, this);
+	}
+
+	/**
+	 * 使指定的键立即过期，模拟持有者宕机后租约到期
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 */
+	public synchronized void expire(Object key) {
+		entries.remove(key);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+		String name = method.getName();
+		if ("pSetNX2".equals(name))
+			return setIfAbsent(args[1], args[2], (Long) args[3]);
+
+		if ("exists".equals(name))
+			return exists(args[args.length - 1]);
+
+		if ("eval".equals(name))
+			return eval((String) args[1], ((Object[]) args[3])[0], (Object[]) args[4]);
+
+		if ("publish".equals(name)) {
+			publish((String) args[1], args[2]);
+			return 1L;
+		}
+
+		if ("subscribe".equals(name)) {
+			listeners.add((RedisMessageListener<Object>) args[1]);
+			return null;
+		}
+
+		if ("unsubscribe".equals(name)) {
+			listeners.remove(args[0]);
+			return null;
+		}
+
+		throw new UnsupportedOperationException(name);
+	}
+
+	private synchronized Boolean setIfAbsent(Object key, Object value, long expireMillis) {
+		if (get(key) != null)
+			return false;
+
+		entries.put(key, new Object[] { value, System.currentTimeMillis() + expireMillis });
+		return true;
+	}
+
+	private synchronized Boolean exists(Object key) {
+		return get(key) != null;
+	}
+
+	private synchronized Long eval(String script, Object key, Object[] values) {
+		if (!values[0].equals(get(key)))
+			return 0L;
+
+		if (script.contains("'del'")) {
+			entries.remove(key);
+			return 1L;
+		}
+
+		Matcher matcher = LEASE.matcher(String.valueOf(values[values.length - 1]));
+		if (script.contains("'pexpire'") && matcher.find()) {
+			entries.get(key)[1] = System.currentTimeMillis() + Long.parseLong(matcher.group(1));
+			return 1L;
+		}
+
+		throw new UnsupportedOperationException(script);
+	}
+
+	private Object get(Object key) {
+		Object[] entry = entries.get(key);
+		if (entry == null)
+			return null;
+
+		if ((Long) entry[1] <= System.currentTimeMillis()) {
+			entries.remove(key);
+			return null;
+		}
+		return entry[0];
+	}
+
+	private void publish(final String channel, final Object message) {
+		subscription.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				for (RedisMessageListener<Object> listener : listeners) {
+					listener.onMessage(channel, message);
+				}
+			}
+		});
+	}
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.lock.redis.RedisDistributedLock;
+import org.sniper.test.junit.BaseTestCase;
+
+/**
+ * Redis分布式锁单元测试类，用同一个Redis服务替身上的两个锁对象模拟两个节点
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisDistributedLockTest extends BaseTestCase {
+
+	private final String parameter = "order";
+
+	private LocalRedisServer server;
+
+	private RedisDistributedLock<String> node1;
+
+	private RedisDistributedLock<String> node2;
+
+	@Before
+	public void init() throws Exception {
+		server = new LocalRedisServer();
+		node1 = new RedisDistributedLock<String>(server.create());
+		node1.afterPropertiesSet();
+		node2 = new RedisDistributedLock<String>(server.create());
+		node2.afterPropertiesSet();
+	}
+
+	@After
+	public void destroy() throws Exception {
+		node1.destroy();
+		node2.destroy();
+	}
+
+	/**
+	 * 多个节点的多个线程竞争同一把锁时的互斥性测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void mutualExclusionTest() throws Exception {
+		final int threadSize = 8;
+		final int count = 200;
+		final int[] counter = new int[1];
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		List<Future<Void>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			final RedisDistributedLock<String> lock = (i % 2 == 0 ? node1 : node2);
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					for (int j = 0; j < count; j++) {
+						lock.lock(parameter);
+						try {
+							counter[0]++;
+						} finally {
+							lock.unlock(parameter);
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		for (Future<Void> future : futures) {
+			future.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(threadSize * count, counter[0]);
+		assertFalse(node1.isLocked(parameter));
+	}
+
+	/**
+	 * 可重入测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void reentrantTest() {
+		node1.lock(parameter);
+		assertTrue(node1.tryLock(parameter));
+		assertFalse(node2.tryLock(parameter));
+
+		assertFalse(node1.tryUnlock(parameter));
+		assertTrue(node1.isLocked(parameter));
+		assertTrue(node1.tryUnlock(parameter));
+		assertFalse(node1.isLocked(parameter));
+	}
+
+	/**
+	 * 看门狗续约测试，持有时间超过租约后锁仍然有效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void renewalTest() {
+		node1.setExpireTime(300);
+		node1.setTimeUnit(TimeUnit.MILLISECONDS);
+		node1.lock(parameter);
+		sleep(1000);
+		assertTrue(node1.isLocked(parameter));
+		assertFalse(node2.tryLock(parameter));
+		assertTrue(node1.tryUnlock(parameter));
+	}
+
+	/**
+	 * 租约过期后被其它节点获取的锁不会被原持有者误删
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void tokenCheckTest() {
+		node1.lock(parameter);
+		server.expire(RedisDistributedLock.DEFAULT_KEY_PREFIX + parameter);
+		assertTrue(node2.tryLock(parameter));
+
+		assertFalse(node1.tryUnlock(parameter));
+		assertTrue(node2.isLocked(parameter));
+		assertTrue(node2.tryUnlock(parameter));
+	}
+
+	/**
+	 * 等待者被释放消息唤醒的测试，重试间隔设为5秒，唤醒时间应远小于重试间隔
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void wakeupTest() throws Exception {
+		node2.setMaxRetryMillis(5000);
+		node1.lock(parameter);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		Future<Long> future = executor.submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				node2.lock(parameter);
+				long acquired = System.nanoTime();
+				node2.unlock(parameter);
+				return acquired;
+			}
+		});
+
+		sleep(200);
+		long released = System.nanoTime();
+		node1.unlock(parameter);
+		long elapsed = TimeUnit.NANOSECONDS.toMillis(future.get(5, TimeUnit.SECONDS) - released);
+		executor.shutdown();
+
+		System.out.println("Waiter woken up after " + elapsed + " ms");
+		assertTrue(elapsed < 1000);
+	}
+
+}
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.lock.test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
+import org.apache.zookeeper.Watcher.Event.KeeperState;
+import org.apache.zookeeper.ZooKeeper;
+import org.apache.zookeeper.server.ServerCnxnFactory;
+import org.apache.zookeeper.server.ZooKeeperServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.lock.zookeeper.ZookeeperDistributedLock;
+import org.sniper.test.junit.BaseTestCase;
+
+/**
+ * Zookeeper分布式锁单元测试类，在进程内启动Zookeeper服务，用两个会话模拟两个节点
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class ZookeeperDistributedLockTest extends BaseTestCase {
+
+	private final String parameter = "order";
+
+	private final String lockPath = ZookeeperDistributedLock.DEFAULT_BASE_PATH + "/" + parameter;
+
+	private ServerCnxnFactory serverFactory;
+
+	private ZooKeeper zooKeeper1;
+
+	private ZooKeeper zooKeeper2;
+
+	private ZookeeperDistributedLock<String> node1;
+
+	private ZookeeperDistributedLock<String> node2;
+
+	@Before
+	public void init() throws Exception {
+		File dataDir = Files.createTempDirectory("zookeeper").toFile();
+		serverFactory = ServerCnxnFactory.createFactory(0, 100);
+		serverFactory.startup(new ZooKeeperServer(dataDir, dataDir, 2000));
+
+		zooKeeper1 = connect();
+		zooKeeper2 = connect();
+		node1 = new ZookeeperDistributedLock<String>(zooKeeper1);
+		node2 = new ZookeeperDistributedLock<String>(zooKeeper2);
+	}
+
+	@After
+	public void destroy() throws Exception {
+		zooKeeper1.close();
+		zooKeeper2.close();
+		serverFactory.shutdown();
+	}
+
+	private ZooKeeper connect() throws Exception {
+		final CountDownLatch connected = new CountDownLatch(1);
+		ZooKeeper zooKeeper = new ZooKeeper("127.0.0.1:" + serverFactory.getLocalPort(), 30000, new Watcher() {
+
+			@Override
+			public void process(WatchedEvent event) {
+				if (event.getState() == KeeperState.SyncConnected)
+					connected.countDown();
+			}
+		});
+		assertTrue(connected.await(10, TimeUnit.SECONDS));
+		return zooKeeper;
+	}
+
+	/**
+	 * 多个节点的多个线程竞争同一把锁时的互斥性测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void mutualExclusionTest() throws Exception {
+		final int threadSize = 8;
+		final int count = 50;
+		final int[] counter = new int[1];
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		List<Future<Void>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			final ZookeeperDistributedLock<String> lock = (i % 2 == 0 ? node1 : node2);
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					for (int j = 0; j < count; j++) {
+						lock.lock(parameter);
+						try {
+							counter[0]++;
+						} finally {
+							lock.unlock(parameter);
+						}
+					}
+					return null;
+				}
+			}));
+		}
+
+		for (Future<Void> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+
+		assertEquals(threadSize * count, counter[0]);
+		assertFalse(node1.isLocked(parameter));
+	}
+
+	/**
+	 * 公平性测试，等待者按排队的先后顺序获得锁
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void fairnessTest() throws Exception {
+		final int waiterSize = 5;
+		node1.lock(parameter);
+
+		final List<Integer> order = new CopyOnWriteArrayList<Integer>();
+		ExecutorService executor = Executors.newFixedThreadPool(waiterSize);
+		for (int i = 0; i < waiterSize; i++) {
+			final int index = i;
+			final ZookeeperDistributedLock<String> lock = (i % 2 == 0 ? node1 : node2);
+			executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					lock.lock(parameter);
+					order.add(index);
+					lock.unlock(parameter);
+					return null;
+				}
+			});
+
+			// 等待当前等待者创建好顺序节点后再启动下一个
+			while (zooKeeper1.getChildren(lockPath, false).size() < i + 2) {
+				sleep(5);
+			}
+		}
+
+		node1.unlock(parameter);
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+		for (int i = 0; i < waiterSize; i++) {
+			assertEquals(i, order.get(i).intValue());
+		}
+	}
+
+	/**
+	 * 可重入测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void reentrantTest() throws Exception {
+		node1.lock(parameter);
+		assertTrue(node1.tryLock(parameter));
+		assertFalse(node2.tryLock(parameter));
+
+		assertFalse(node1.tryUnlock(parameter));
+		assertTrue(node1.isLocked(parameter));
+		assertTrue(node1.tryUnlock(parameter));
+		assertFalse(node1.isLocked(parameter));
+	}
+
+	/**
+	 * 等待超时后删除自己的节点，并且持有者会话关闭后锁被自动释放
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void timeoutAndSessionCloseTest() throws Exception {
+		node1.lock(parameter);
+		assertFalse(node2.tryLock(parameter, 100, TimeUnit.MILLISECONDS));
+		assertEquals(1, zooKeeper2.getChildren(lockPath, false).size());
+
+		zooKeeper1.close();
+		assertTrue(node2.tryLock(parameter, 5, TimeUnit.SECONDS));
+		assertTrue(node2.tryUnlock(parameter));
+	}
+	
+	/**
+	 * 释放锁后没有其它顺序节点的锁路径被删除，被删除后仍能正常加锁
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void idleLockPathDeletionTest() throws Exception {
+		node1.lock(parameter);
+		assertFalse(node2.tryLock(parameter, 100, TimeUnit.MILLISECONDS));
+		// 还有持有者时锁路径不会被删除
+		assertNotNull(zooKeeper1.exists(lockPath, false));
+		
+		node1.unlock(parameter);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (zooKeeper1.exists(lockPath, false) != null && System.currentTimeMillis() < deadline) {
+			sleep(5);
+		}
+		assertNull(zooKeeper1.exists(lockPath, false));
+		
+		assertTrue(node1.tryLock(parameter));
+		assertFalse(node2.tryLock(parameter, 100, TimeUnit.MILLISECONDS));
+		assertTrue(node1.tryUnlock(parameter));
+	}
+
+}
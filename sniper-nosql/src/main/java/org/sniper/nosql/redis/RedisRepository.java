@@ -42,6 +42,18 @@ public class RedisRepository extends DefaultExpiredTimer {
 	
 	/** 哈希值序列化器 */
 	private Serializer hashValueSerializer; 
+	
+	/** 近端缓存的最大键个数，大于0时开启近端缓存 */
+	private int nearCacheSize;
+	
+	/** 近端缓存项的有效秒数 */
+	private long nearCacheExpireSeconds = 60;
+	
+	/** 近端缓存中每个键最多缓存的哈希域个数 */
+	private int nearCacheFieldSize = 128;
+	
+	/** 未开启近端缓存时，写操作后是否也发布近端缓存的失效消息，供其它开启了近端缓存的客户端使用 */
+	private boolean nearCacheNotify;
 
 	public int getDbIndex() {
 		return dbIndex;
@@ -83,4 +95,36 @@ public class RedisRepository extends DefaultExpiredTimer {
 		this.hashValueSerializer = hashValueSerializer;
 	}
 
+	public int getNearCacheSize() {
+		return nearCacheSize;
+	}
+
+	public void setNearCacheSize(int nearCacheSize) {
+		this.nearCacheSize = nearCacheSize;
+	}
+
+	public long getNearCacheExpireSeconds() {
+		return nearCacheExpireSeconds;
+	}
+
+	public void setNearCacheExpireSeconds(long nearCacheExpireSeconds) {
+		this.nearCacheExpireSeconds = nearCacheExpireSeconds;
+	}
+
+	public int getNearCacheFieldSize() {
+		return nearCacheFieldSize;
+	}
+
+	public void setNearCacheFieldSize(int nearCacheFieldSize) {
+		this.nearCacheFieldSize = nearCacheFieldSize;
+	}
+
+	public boolean isNearCacheNotify() {
+		return nearCacheNotify;
+	}
+
+	public void setNearCacheNotify(boolean nearCacheNotify) {
+		this.nearCacheNotify = nearCacheNotify;
+	}
+
 }
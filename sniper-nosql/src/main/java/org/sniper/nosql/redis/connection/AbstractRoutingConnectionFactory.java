@@ -18,8 +18,11 @@
 
 package org.sniper.nosql.redis.connection;
 
+import java.util.Collection;
 import java.util.Map;
+import java.util.Set;
 
+import org.sniper.commons.util.CollectionUtils;
 import org.springframework.beans.factory.InitializingBean;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.RedisConnection;
@@ -94,6 +97,22 @@ public abstract class AbstractRoutingConnectionFactory implements InitializingBe
 		return this.determineTargetConnectionFactory().getConvertPipelineAndTxResults();
 	}
 	
+	/**
+	 * 获取所有可路由的RedisConnectionFactory对象，包括默认的对象，相同的对象只返回一次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public Collection<RedisConnectionFactory> getAllConnectionFactories() {
+		Set<RedisConnectionFactory> connectionFactories = CollectionUtils.newLinkedHashSet();
+		if (this.targetConnectionFactories != null)
+			connectionFactories.addAll(this.targetConnectionFactories.values());
+		
+		if (this.resolvedDefaultConnectionFactory != null)
+			connectionFactories.add(this.resolvedDefaultConnectionFactory);
+		
+		return connectionFactories;
+	}
+	
 	/**
 	 * 获取目标RedisConnectionFactory对象
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.connection;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.sniper.commons.util.MapUtils;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+
+/**
+ * 按库索引路由的RedisConnectionFactory实现类，将非默认库上的命令路由到该库专用的连接池，避免DAO在这些库上发送select命令。</P>
+ * 1.每个库索引可配置一个专用的连接工厂(如database属性为对应库索引的JedisConnectionFactory)，
+ *   其连接池中的连接在借出时已处于对应的库，未配置专用连接工厂的库使用默认连接工厂。</P>
+ * 2.DAO在获取连接后才通过select命令指定库，因此返回的连接在第一个命令执行时才从目标连接工厂获取：
+ *   第一个命令为select且该库有专用连接工厂时直接从该工厂获取，不发送select命令；否则从默认连接工厂获取。</P>
+ * 3.绑定目标连接后的select命令都原样发送。使用默认连接工厂访问其它库时仍需发送select命令，
+ *   并且JedisPool在借出连接时会将其切换回默认库，这部分select命令不会减少。</P>
+ * 4.dbIndex属性须与默认连接工厂所连接的库一致，DAO初始化时会读取该属性作为默认库索引。</P>
+ * 5.集群环境下不会执行select命令，无需使用本工厂。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class DbIndexRoutingConnectionFactory implements InitializingBean, RedisConnectionFactory {
+	
+	/** 默认连接工厂所连接的库索引 */
+	private int dbIndex;
+	
+	/** 默认的RedisConnectionFactory对象 */
+	private RedisConnectionFactory defaultConnectionFactory;
+	
+	/** 各库索引对应的专用RedisConnectionFactory对象映射集 */
+	private Map<Integer, RedisConnectionFactory> dbConnectionFactories = MapUtils.newHashMap();
+	
+	/** 路由到专用连接工厂而未发送的select命令次数 */
+	private final AtomicLong routedSelectCount = new AtomicLong();
+	
+	public int getDbIndex() {
+		return dbIndex;
+	}
+
+	public void setDbIndex(int dbIndex) {
+		this.dbIndex = dbIndex;
+	}
+
+	public RedisConnectionFactory getDefaultConnectionFactory() {
+		return defaultConnectionFactory;
+	}
+
+	public void setDefaultConnectionFactory(RedisConnectionFactory defaultConnectionFactory) {
+		this.defaultConnectionFactory = defaultConnectionFactory;
+	}
+
+	public Map<Integer, RedisConnectionFactory> getDbConnectionFactories() {
+		return dbConnectionFactories;
+	}
+
+	public void setDbConnectionFactories(Map<Integer, RedisConnectionFactory> dbConnectionFactories) {
+		this.dbConnectionFactories = dbConnectionFactories;
+	}
+	
+	/**
+	 * 获取路由到专用连接工厂而未发送的select命令次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getRoutedSelectCount() {
+		return routedSelectCount.get();
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (this.defaultConnectionFactory == null) {
+			throw new IllegalArgumentException("Property 'defaultConnectionFactory' is required");
+		}
+	}
+
+	@Override
+	public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+		return this.defaultConnectionFactory.translateExceptionIfPossible(ex);
+	}
+
+	/**
+	 * 获取延迟绑定目标连接的RedisConnection对象
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @return 
+	 */
+	@Override
+	public RedisConnection getConnection() {
+		return (RedisConnection) Proxy.newProxyInstance(RedisConnection.class.getClassLoader(), 
+				new Class<?>[] { RedisConnection.class }, new RoutingConnection());
+	}
+
+	@Override
+	public boolean getConvertPipelineAndTxResults() {
+		return this.defaultConnectionFactory.getConvertPipelineAndTxResults();
+	}
+
+	@Override
+	public RedisSentinelConnection getSentinelConnection() {
+		return this.defaultConnectionFactory.getSentinelConnection();
+	}
+	
+	/**
+	 * 按第一个命令路由的连接，第一个命令执行时才从目标连接工厂获取连接，之后所有命令原样委派给目标连接
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class RoutingConnection implements InvocationHandler {
+		
+		/** 目标连接，为null时表示还未获取 */
+		private RedisConnection target;
+		
+		private boolean closed;
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			switch (method.getName()) {
+			case "select":
+				if (target == null && route((Integer) args[0]))
+					return null;
+				
+				break;
+			case "close":
+				if (target != null)
+					target.close();
+				
+				closed = true;
+				return null;
+			case "isClosed":
+				return target != null ? target.isClosed() : closed;
+			case "isPipelined":
+			case "isQueueing":
+			case "isSubscribed":
+				// 未获取目标连接时不会处于管道、事务或订阅中
+				if (target == null)
+					return false;
+				
+				break;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "RoutingConnection [target=" + target + "]";
+			default:
+				break;
+			}
+			
+			if (target == null)
+				target = defaultConnectionFactory.getConnection();
+			
+			try {
+				return method.invoke(target, args);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+		
+		/**
+		 * 从库索引对应的专用连接工厂获取目标连接
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param index
+		 * @return 库索引没有专用连接工厂时返回false，由调用方从默认连接工厂获取连接后发送select命令
+		 */
+		private boolean route(int index) {
+			RedisConnectionFactory connectionFactory = dbConnectionFactories != null ? dbConnectionFactories.get(index) : null;
+			if (connectionFactory == null)
+				return false;
+			
+			target = connectionFactory.getConnection();
+			routedSelectCount.incrementAndGet();
+			return true;
+		}
+	}
+
+}
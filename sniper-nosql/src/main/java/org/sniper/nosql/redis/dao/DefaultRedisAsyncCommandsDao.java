@@ -0,0 +1,510 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sniper.commons.util.AssertUtils;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+/**
+ * Redis异步命令接口默认实现类，将命令委派给同步的RedisCommandsDao并在执行器中执行。</P>
+ * 这是对阻塞调用的包装，每个命令在整个网络往返期间都占用一个执行线程和一个连接，只是不阻塞调用线程；
+ * 需要非阻塞的实现时应使用基于Lettuce的LettuceAsyncCommandsDaoImpl。</P>
+ * 1.序列化器、库索引和近端缓存等配置均沿用被委派的DAO及其Redis仓库管理器的配置。</P>
+ * 2.未指定执行器时创建固定大小的守护线程池，大小默认为CPU核数的4倍，应不大于连接池的最大连接数，
+ *   等待执行的命令数受队列容量限制。</P>
+ * 3.执行器拒绝命令时不抛出异常，返回的Future以RejectedExecutionException失败，调用方可据此降级或重试。</P>
+ * 4.自行创建的线程池在销毁时关闭，外部指定的执行器由调用方负责关闭。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class DefaultRedisAsyncCommandsDao implements RedisAsyncCommandsDao, InitializingBean, DisposableBean {
+	
+	private RedisCommandsDao redisCommandsDao;
+	
+	/** 默认的等待队列容量 */
+	private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+	
+	/** 执行命令的线程池大小 */
+	private int poolSize = Runtime.getRuntime().availableProcessors() * 4;
+	
+	/** 线程池中等待执行的命令队列容量 */
+	private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+	
+	private ExecutorService executor;
+	
+	/** 执行器是否由当前对象创建 */
+	private boolean internalExecutor;
+	
+	public DefaultRedisAsyncCommandsDao() {}
+	
+	public DefaultRedisAsyncCommandsDao(RedisCommandsDao redisCommandsDao) {
+		this.redisCommandsDao = redisCommandsDao;
+	}
+
+	public RedisCommandsDao getRedisCommandsDao() {
+		return redisCommandsDao;
+	}
+
+	public void setRedisCommandsDao(RedisCommandsDao redisCommandsDao) {
+		this.redisCommandsDao = redisCommandsDao;
+	}
+
+	public int getPoolSize() {
+		return poolSize;
+	}
+
+	public void setPoolSize(int poolSize) {
+		AssertUtils.assertTrue(poolSize > 0, "Async redis pool size must greater than 0");
+		this.poolSize = poolSize;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		AssertUtils.assertTrue(queueCapacity > 0, "Async redis queue capacity must greater than 0");
+		this.queueCapacity = queueCapacity;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	public void setExecutor(ExecutorService executor) {
+		this.executor = executor;
+	}
+
+	@Override
+	public void afterPropertiesSet() throws Exception {
+		if (this.redisCommandsDao == null)
+			throw new IllegalArgumentException("Property 'redisCommandsDao' is required");
+		
+		if (this.executor == null) {
+			this.executor = createDefaultExecutor(this.poolSize, this.queueCapacity);
+			this.internalExecutor = true;
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if (this.internalExecutor)
+			this.executor.shutdown();
+	}
+	
+	/**
+	 * 创建默认的执行器，执行线程均为守护线程，不会阻止JVM退出，队列已满时拒绝新的命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param poolSize
+	 * @param queueCapacity
+	 * @return
+	 */
+	private static ExecutorService createDefaultExecutor(int poolSize, int queueCapacity) {
+		return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, 
+				new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "redis-async-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, new ThreadPoolExecutor.AbortPolicy());
+	}
+	
+	/**
+	 * 提交命令到执行器中执行，被拒绝时返回以RejectedExecutionException失败的Future
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param command
+	 * @return
+	 */
+	protected <T> ListenableFuture<T> submit(Callable<T> command) {
+		ListenableFutureTask<T> task = new ListenableFutureTask<T>(command);
+		try {
+			executor.execute(task);
+			return task;
+		} catch (RejectedExecutionException e) {
+			SettableListenableFuture<T> rejected = new SettableListenableFuture<T>();
+			rejected.setException(e);
+			return rejected;
+		}
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Void> set2(final String dbName, final K key, final V value) {
+		return submit(new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				redisCommandsDao.set2(dbName, key, value);
+				return null;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Void> set2(final String dbName, final K key, final V value, final long expireSeconds) {
+		return submit(new Callable<Void>() {
+
+			@Override
+			public Void call() throws Exception {
+				redisCommandsDao.set2(dbName, key, value, expireSeconds);
+				return null;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<V> get2(final String dbName, final K key) {
+		return submit(new Callable<V>() {
+
+			@Override
+			public V call() throws Exception {
+				return redisCommandsDao.get2(dbName, key);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<V> get2(final String dbName, final K key, final Class<V> valueType) {
+		return submit(new Callable<V>() {
+
+			@Override
+			public V call() throws Exception {
+				return redisCommandsDao.get2(dbName, key, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> mGet(final String dbName, final Collection<K> keys) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.mGet(dbName, keys);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> mGet(final String dbName, final Collection<K> keys, final Class<V> valueType) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.mGet(dbName, keys, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> incrBy(final String dbName, final K key, final long value) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.incrBy(dbName, key, value);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Boolean> hSet2(final String dbName, final K key, final H hashKey, final V value) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.hSet2(dbName, key, hashKey, value);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Boolean> hSet2(final String dbName, final K key, final H hashKey, final V value, final long expireSeconds) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.hSet2(dbName, key, hashKey, value, expireSeconds);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<V> hGet2(final String dbName, final K key, final H hashKey) {
+		return submit(new Callable<V>() {
+
+			@Override
+			public V call() throws Exception {
+				return redisCommandsDao.hGet2(dbName, key, hashKey);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<V> hGet2(final String dbName, final K key, final H hashKey, final Class<V> valueType) {
+		return submit(new Callable<V>() {
+
+			@Override
+			public V call() throws Exception {
+				return redisCommandsDao.hGet2(dbName, key, hashKey, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<List<V>> hMGet(final String dbName, final K key, final Collection<H> hashKeys) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.hMGet(dbName, key, hashKeys);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<List<V>> hMGet(final String dbName, final K key, final Collection<H> hashKeys, final Class<V> valueType) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.hMGet(dbName, key, hashKeys, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(final String dbName, final K key) {
+		return submit(new Callable<Map<H, V>>() {
+
+			@Override
+			public Map<H, V> call() throws Exception {
+				return redisCommandsDao.hGetAll2(dbName, key);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(final String dbName, final K key, final Class<V> valueType) {
+		return submit(new Callable<Map<H, V>>() {
+
+			@Override
+			public Map<H, V> call() throws Exception {
+				return redisCommandsDao.hGetAll2(dbName, key, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H> ListenableFuture<Long> hDel(final String dbName, final K key, final Collection<H> hashKeys) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.hDel(dbName, key, hashKeys);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Long> rPush(final String dbName, final K key, final Collection<V> values) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.rPush(dbName, key, values);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> lRange(final String dbName, final K key, final long begin, final long end) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.lRange(dbName, key, begin, end);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> lRange(final String dbName, final K key, final long begin, final long end, final Class<V> valueType) {
+		return submit(new Callable<List<V>>() {
+
+			@Override
+			public List<V> call() throws Exception {
+				return redisCommandsDao.lRange(dbName, key, begin, end, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Long> sAdd2(final String dbName, final K key, final V member) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.sAdd2(dbName, key, member);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Boolean> sIsMember(final String dbName, final K key, final V member) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.sIsMember(dbName, key, member);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> sMembers2(final String dbName, final K key) {
+		return submit(new Callable<Set<V>>() {
+
+			@Override
+			public Set<V> call() throws Exception {
+				return redisCommandsDao.sMembers2(dbName, key);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> sMembers2(final String dbName, final K key, final Class<V> valueType) {
+		return submit(new Callable<Set<V>>() {
+
+			@Override
+			public Set<V> call() throws Exception {
+				return redisCommandsDao.sMembers2(dbName, key, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Boolean> zAdd2(final String dbName, final K key, final double score, final V member) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.zAdd2(dbName, key, score, member);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> zRange(final String dbName, final K key, final long begin, final long end) {
+		return submit(new Callable<Set<V>>() {
+
+			@Override
+			public Set<V> call() throws Exception {
+				return redisCommandsDao.zRange(dbName, key, begin, end);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> zRange(final String dbName, final K key, final long begin, final long end, final Class<V> valueType) {
+		return submit(new Callable<Set<V>>() {
+
+			@Override
+			public Set<V> call() throws Exception {
+				return redisCommandsDao.zRange(dbName, key, begin, end, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Double> zScore(final String dbName, final K key, final V member) {
+		return submit(new Callable<Double>() {
+
+			@Override
+			public Double call() throws Exception {
+				return redisCommandsDao.zScore(dbName, key, member);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Boolean> exists(final String dbName, final K key) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.exists(dbName, key);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> del(final String dbName, final Collection<K> keys) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.del(dbName, keys);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Boolean> expire(final String dbName, final K key, final long seconds) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() throws Exception {
+				return redisCommandsDao.expire(dbName, key, seconds);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> ttl(final String dbName, final K key) {
+		return submit(new Callable<Long>() {
+
+			@Override
+			public Long call() throws Exception {
+				return redisCommandsDao.ttl(dbName, key);
+			}
+		});
+	}
+
+}
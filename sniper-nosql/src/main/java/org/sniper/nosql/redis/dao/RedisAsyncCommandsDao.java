@@ -0,0 +1,352 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.dao;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * Redis异步命令接口，镜像字符串、哈希、列表、集合、有序集合和键命令组中常用的指定库方法，
+ * 各方法立即返回ListenableFuture，使一次请求中相互独立的多个读写可以并发执行，而不必逐个等待网络往返。</P>
+ * dbName为null时在默认库中执行，键和值的序列化与同步DAO一样由库对应的Redis仓库配置决定
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisAsyncCommandsDao {
+	
+	/**
+	 * 在指定库中异步执行set命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Void> set2(String dbName, K key, V value);
+	
+	/**
+	 * 在指定库中异步执行set命令，并设置过期秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param value
+	 * @param expireSeconds
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Void> set2(String dbName, K key, V value, long expireSeconds);
+	
+	/**
+	 * 在指定库中异步执行get命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @return
+	 */
+	public <K, V> ListenableFuture<V> get2(String dbName, K key);
+	
+	/**
+	 * 在指定库中异步执行get命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param valueType
+	 * @return
+	 */
+	public <K, V> ListenableFuture<V> get2(String dbName, K key, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行mGet命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param keys
+	 * @return
+	 */
+	public <K, V> ListenableFuture<List<V>> mGet(String dbName, Collection<K> keys);
+	
+	/**
+	 * 在指定库中异步执行mGet命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param keys
+	 * @param valueType
+	 * @return
+	 */
+	public <K, V> ListenableFuture<List<V>> mGet(String dbName, Collection<K> keys, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行incrBy命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param value
+	 * @return
+	 */
+	public <K> ListenableFuture<Long> incrBy(String dbName, K key, long value);
+	
+	/**
+	 * 在指定库中异步执行hSet命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKey
+	 * @param value
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<Boolean> hSet2(String dbName, K key, H hashKey, V value);
+	
+	/**
+	 * 在指定库中异步执行hSet命令，并设置过期秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKey
+	 * @param value
+	 * @param expireSeconds
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<Boolean> hSet2(String dbName, K key, H hashKey, V value, long expireSeconds);
+	
+	/**
+	 * 在指定库中异步执行hGet命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKey
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<V> hGet2(String dbName, K key, H hashKey);
+	
+	/**
+	 * 在指定库中异步执行hGet命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKey
+	 * @param valueType
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<V> hGet2(String dbName, K key, H hashKey, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行hMGet命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKeys
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<List<V>> hMGet(String dbName, K key, Collection<H> hashKeys);
+	
+	/**
+	 * 在指定库中异步执行hMGet命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKeys
+	 * @param valueType
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<List<V>> hMGet(String dbName, K key, Collection<H> hashKeys, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行hGetAll命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(String dbName, K key);
+	
+	/**
+	 * 在指定库中异步执行hGetAll命令，并将值转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param valueType
+	 * @return
+	 */
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(String dbName, K key, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行hDel命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param hashKeys
+	 * @return
+	 */
+	public <K, H> ListenableFuture<Long> hDel(String dbName, K key, Collection<H> hashKeys);
+	
+	/**
+	 * 在指定库中异步执行rPush命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param values
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Long> rPush(String dbName, K key, Collection<V> values);
+	
+	/**
+	 * 在指定库中异步执行lRange命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param begin
+	 * @param end
+	 * @return
+	 */
+	public <K, V> ListenableFuture<List<V>> lRange(String dbName, K key, long begin, long end);
+	
+	/**
+	 * 在指定库中异步执行lRange命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param begin
+	 * @param end
+	 * @param valueType
+	 * @return
+	 */
+	public <K, V> ListenableFuture<List<V>> lRange(String dbName, K key, long begin, long end, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行sAdd命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param member
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Long> sAdd2(String dbName, K key, V member);
+	
+	/**
+	 * 在指定库中异步执行sIsMember命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param member
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Boolean> sIsMember(String dbName, K key, V member);
+	
+	/**
+	 * 在指定库中异步执行sMembers命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Set<V>> sMembers2(String dbName, K key);
+	
+	/**
+	 * 在指定库中异步执行sMembers命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param valueType
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Set<V>> sMembers2(String dbName, K key, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行zAdd命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param score
+	 * @param member
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Boolean> zAdd2(String dbName, K key, double score, V member);
+	
+	/**
+	 * 在指定库中异步执行zRange命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param begin
+	 * @param end
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Set<V>> zRange(String dbName, K key, long begin, long end);
+	
+	/**
+	 * 在指定库中异步执行zRange命令，并将结果转换为指定的类型
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param begin
+	 * @param end
+	 * @param valueType
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Set<V>> zRange(String dbName, K key, long begin, long end, Class<V> valueType);
+	
+	/**
+	 * 在指定库中异步执行zScore命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param member
+	 * @return
+	 */
+	public <K, V> ListenableFuture<Double> zScore(String dbName, K key, V member);
+	
+	/**
+	 * 在指定库中异步执行exists命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @return
+	 */
+	public <K> ListenableFuture<Boolean> exists(String dbName, K key);
+	
+	/**
+	 * 在指定库中异步执行del命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param keys
+	 * @return
+	 */
+	public <K> ListenableFuture<Long> del(String dbName, Collection<K> keys);
+	
+	/**
+	 * 在指定库中异步执行expire命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param seconds
+	 * @return
+	 */
+	public <K> ListenableFuture<Boolean> expire(String dbName, K key, long seconds);
+	
+	/**
+	 * 在指定库中异步执行ttl命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @return
+	 */
+	public <K> ListenableFuture<Long> ttl(String dbName, K key);
+
+}
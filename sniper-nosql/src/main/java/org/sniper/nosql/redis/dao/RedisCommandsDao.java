@@ -25,6 +25,7 @@ package org.sniper.nosql.redis.dao;
  */
 public interface RedisCommandsDao extends RedisStringCommands,
 		RedisHashCommands, RedisListCommands, RedisSetCommands,
-		RedisSortedSetCommands, RedisKeyCommands, RedisServerCommands {
+		RedisSortedSetCommands, RedisKeyCommands, RedisServerCommands,
+		RedisScriptingCommands, RedisPubSubCommands, RedisPipelineCommands, RedisScanCommands {
 
 }
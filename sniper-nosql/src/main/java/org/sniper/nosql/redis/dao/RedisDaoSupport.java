@@ -19,14 +19,22 @@
 package org.sniper.nosql.redis.dao;
 
 import java.beans.PropertyEditor;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.sniper.beans.PropertyConverter;
 import org.sniper.commons.util.ArrayUtils;
 import org.sniper.commons.util.CollectionUtils;
@@ -45,6 +53,37 @@ import org.sniper.spring.beans.CheckableInitializingBean;
  */
 public abstract class RedisDaoSupport extends CheckableInitializingBean {
 	
+	private static final Logger logger = LoggerFactory.getLogger(RedisDaoSupport.class);
+	
+	/** 默认每批扫描的个数 */
+	protected static final int DEFAULT_SCAN_BATCH_SIZE = 1000;
+	
+	/** 脚本中unpack函数能展开的最大参数个数，超过时Lua会抛出栈溢出错误 */
+	protected static final int MAX_SCRIPT_ARGS = 7000;
+	
+	/** 
+	 * 写入并设置过期时间的脚本源码，KEYS[1]为写入的键，ARGV依次为写命令、过期秒数、
+	 * 是否只在写命令返回正数时设置过期时间以及写命令的其余参数 
+	 */
+	protected static final String WRITE_AND_EXPIRE_LUA = 
+			"local result = redis.call(ARGV[1], KEYS[1], unpack(ARGV, 4)) "
+			+ "if ARGV[3] == '0' or (type(result) == 'number' and result > 0) then "
+			+ "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+			+ "end "
+			+ "return result";
+	
+	/** 近端缓存失效频道的前缀，完整格式为前缀加库索引，消息内容为发布者标识加失效的键 */
+	protected static final String NEAR_CACHE_CHANNEL_PREFIX = "sniper:near-cache@";
+	
+	/** 等待后台发布的近端缓存失效消息的最大个数，队列已满时由写操作的线程直接发布 */
+	private static final int MAX_PENDING_INVALIDATIONS = 10000;
+	
+	/** 后台线程每次合并发布的最大失效消息个数 */
+	private static final int INVALIDATION_BATCH_SIZE = 512;
+	
+	/** 结束后台发布线程时等待的最大毫秒数 */
+	private static final long PUBLISHER_JOIN_MILLIS = 1000;
+	
 	/** Redis库管理 */
 	protected RedisRepositoryManager repositoryManager;
 	
@@ -72,6 +111,25 @@ public abstract class RedisDaoSupport extends CheckableInitializingBean {
 	/** 全局哈希值序列化器 */
 	private Serializer globalHashValueSerializer;
 	
+	/** 库名称与近端缓存的映射集 */
+	private Map<String, RedisNearCache> nearCaches = MapUtils.newHashMap();
+	
+	/** 库索引与近端缓存的映射集，多个库名称可以对应同一个库索引 */
+	private Map<Integer, List<RedisNearCache>> indexedNearCaches = MapUtils.newHashMap();
+	
+	/** 写操作后需发布近端缓存失效消息的库索引 */
+	private Set<Integer> notifiedDbIndexes = CollectionUtils.newHashSet();
+	
+	/** 当前DAO发布近端缓存失效消息时的标识，用于忽略自己发布的消息 */
+	protected final byte[] publisherId = UUID.randomUUID().toString().getBytes();
+	
+	/** 等待后台线程发布的近端缓存失效消息 */
+	private final BlockingQueue<NearCacheInvalidation> pendingInvalidations = 
+			new LinkedBlockingQueue<NearCacheInvalidation>(MAX_PENDING_INVALIDATIONS);
+	
+	/** 批量发布近端缓存失效消息的后台线程，有需发布失效消息的库时才启动 */
+	private volatile Thread invalidationPublisher;
+	
 	public RedisRepositoryManager getRepositoryManager() {
 		return repositoryManager;
 	}
@@ -132,6 +190,283 @@ public abstract class RedisDaoSupport extends CheckableInitializingBean {
 	protected void init() throws Exception {
 		initializeDefaultDbIndex();
 		initializeGlobalSerializers();
+		initializeNearCaches();
+	}
+	
+	/**
+	 * 为开启了近端缓存的库创建缓存，有需发布失效消息的库时启动后台发布线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	protected void initializeNearCaches() {
+		Map<String, RedisRepository> repositories = repositoryManager != null ? repositoryManager.getRepositories() : null;
+		if (MapUtils.isEmpty(repositories))
+			return;
+		
+		for (Entry<String, RedisRepository> entry : repositories.entrySet()) {
+			RedisRepository repository = entry.getValue();
+			if (repository.isNearCacheNotify())
+				notifiedDbIndexes.add(repository.getDbIndex());
+			
+			if (repository.getNearCacheSize() <= 0)
+				continue;
+			
+			notifiedDbIndexes.add(repository.getDbIndex());
+			RedisNearCache nearCache = new RedisNearCache(repository.getNearCacheSize(), 
+					repository.getNearCacheFieldSize(), repository.getNearCacheExpireSeconds(), TimeUnit.SECONDS);
+			nearCaches.put(entry.getKey(), nearCache);
+			
+			List<RedisNearCache> indexed = indexedNearCaches.get(repository.getDbIndex());
+			if (indexed == null) {
+				indexed = CollectionUtils.newArrayList();
+				indexedNearCaches.put(repository.getDbIndex(), indexed);
+			}
+			indexed.add(nearCache);
+		}
+		
+		if (!notifiedDbIndexes.isEmpty() && isBlockingInvalidationPublish())
+			startInvalidationPublisher();
+	}
+	
+	/**
+	 * 发布近端缓存失效消息时是否会阻塞写操作的线程，为true时由后台线程批量发布
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected boolean isBlockingInvalidationPublish() {
+		return true;
+	}
+	
+	/**
+	 * 启动后台发布线程，每次取出队列中所有待发布的失效消息后按库合并发布，
+	 * 写操作只需入队，不必等待发布的网络往返
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	private void startInvalidationPublisher() {
+		Thread publisher = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				List<NearCacheInvalidation> batch = CollectionUtils.newArrayList(INVALIDATION_BATCH_SIZE);
+				try {
+					while (!Thread.currentThread().isInterrupted()) {
+						batch.add(pendingInvalidations.take());
+						pendingInvalidations.drainTo(batch, INVALIDATION_BATCH_SIZE - 1);
+						publishNearCacheInvalidations(batch);
+						batch.clear();
+					}
+				} catch (InterruptedException e) {
+					// DAO销毁时结束，剩余的消息由destroyNearCaches方法发布
+				}
+			}
+		}, "redis-near-cache-publisher");
+		publisher.setDaemon(true);
+		publisher.start();
+		this.invalidationPublisher = publisher;
+	}
+	
+	/**
+	 * 结束后台发布线程，并直接发布队列中剩余的失效消息，在DAO销毁时调用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws InterruptedException
+	 */
+	protected void destroyNearCaches() throws InterruptedException {
+		Thread publisher = this.invalidationPublisher;
+		if (publisher == null)
+			return;
+		
+		this.invalidationPublisher = null;
+		publisher.interrupt();
+		publisher.join(PUBLISHER_JOIN_MILLIS);
+		
+		List<NearCacheInvalidation> remaining = CollectionUtils.newArrayList();
+		pendingInvalidations.drainTo(remaining);
+		if (!remaining.isEmpty())
+			publishNearCacheInvalidations(remaining);
+	}
+	
+	/**
+	 * 按库索引合并失效消息后发布，每个库的消息通过一次publishNearCacheInvalidation调用发送
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param invalidations
+	 */
+	private void publishNearCacheInvalidations(List<NearCacheInvalidation> invalidations) {
+		Map<Integer, List<byte[]>> indexedKeyBytes = MapUtils.newLinkedHashMap();
+		for (NearCacheInvalidation invalidation : invalidations) {
+			List<byte[]> keyBytes = indexedKeyBytes.get(invalidation.dbIndex);
+			if (keyBytes == null) {
+				keyBytes = CollectionUtils.newArrayList();
+				indexedKeyBytes.put(invalidation.dbIndex, keyBytes);
+			}
+			Collections.addAll(keyBytes, invalidation.keyBytes);
+		}
+		
+		for (Entry<Integer, List<byte[]>> entry : indexedKeyBytes.entrySet()) {
+			try {
+				publishNearCacheInvalidation(entry.getKey(), CollectionUtils.toArray(entry.getValue(), byte[].class));
+			} catch (RuntimeException e) {
+				// 发布失败时其它客户端近端缓存中的键只能依靠过期时间失效
+				logger.warn("Failed to publish near cache invalidation of db " + entry.getKey(), e);
+			}
+		}
+	}
+	
+	/**
+	 * 获取指定库的近端缓存，可用于查看命中率等统计信息，未开启时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @return
+	 */
+	public RedisNearCache getNearCache(String dbName) {
+		return nearCaches.get(dbName);
+	}
+	
+	/**
+	 * 获取开启了近端缓存的库索引
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected Set<Integer> getNearCacheDbIndexes() {
+		return indexedNearCaches.keySet();
+	}
+	
+	/**
+	 * 使指定库索引下所有近端缓存中的键失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	protected void invalidateNearCache(int dbIndex, byte[]... keyBytes) {
+		List<RedisNearCache> indexed = indexedNearCaches.get(dbIndex);
+		if (indexed == null)
+			return;
+		
+		for (RedisNearCache nearCache : indexed) {
+			for (byte[] keyByte : keyBytes) {
+				nearCache.invalidate(keyByte);
+			}
+		}
+	}
+	
+	/**
+	 * 使指定库对应库索引下所有近端缓存中的键失效，并向其它客户端发布失效消息，在写操作完成后调用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param keyBytes
+	 */
+	protected void invalidateNearCache(String dbName, byte[]... keyBytes) {
+		if (notifiedDbIndexes.isEmpty())
+			return;
+		
+		RedisRepository repository = repositoryManager.getRepository(dbName);
+		notifyNearCacheInvalidation(repository != null ? repository.getDbIndex() : getDefaultDbIndex(), keyBytes);
+	}
+	
+	/**
+	 * 使指定库索引下所有近端缓存中的键失效，并将失效消息交给后台线程发布，
+	 * 未启动后台线程或队列已满时在当前线程直接发布，不丢弃消息
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	protected void notifyNearCacheInvalidation(int dbIndex, byte[]... keyBytes) {
+		if (!notifiedDbIndexes.contains(dbIndex))
+			return;
+		
+		invalidateNearCache(dbIndex, keyBytes);
+		if (invalidationPublisher == null || !pendingInvalidations.offer(new NearCacheInvalidation(dbIndex, keyBytes)))
+			publishNearCacheInvalidation(dbIndex, keyBytes);
+	}
+	
+	/**
+	 * 向其它客户端发布指定库索引下键的近端缓存失效消息，由后台线程批量调用，默认不发布
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	protected void publishNearCacheInvalidation(int dbIndex, byte[]... keyBytes) {
+	}
+	
+	/**
+	 * 判断近端缓存失效消息是否由其它DAO发布，直接比较消息开头的发布者标识，不复制消息内容
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param message
+	 * @return 由当前DAO发布或格式不正确时返回false
+	 */
+	protected boolean isForeignNearCacheInvalidation(byte[] message) {
+		if (message.length < publisherId.length)
+			return false;
+		
+		for (int i = 0; i < publisherId.length; i++) {
+			if (message[i] != publisherId[i])
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 创建键的近端缓存失效消息，内容为当前DAO的发布者标识加键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @return
+	 */
+	protected byte[] toNearCacheInvalidationMessage(byte[] keyByte) {
+		byte[] message = Arrays.copyOf(publisherId, publisherId.length + keyByte.length);
+		System.arraycopy(keyByte, 0, message, publisherId.length, keyByte.length);
+		return message;
+	}
+	
+	/**
+	 * 获取写操作后需发布近端缓存失效消息的库索引
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	protected Set<Integer> getNearCacheNotifiedDbIndexes() {
+		return notifiedDbIndexes;
+	}
+	
+	/**
+	 * 序列化键后使其在指定库的近端缓存中失效，未开启近端缓存时不做序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param key
+	 */
+	protected <K> void invalidateNearCacheKey(String dbName, K key) {
+		if (!notifiedDbIndexes.isEmpty())
+			invalidateNearCache(dbName, selectKeySerializer(dbName).serialize(key));
+	}
+	
+	/**
+	 * 序列化多个键后使其在指定库的近端缓存中失效，未开启近端缓存时不做序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param keys
+	 */
+	protected <K> void invalidateNearCacheKeys(String dbName, Collection<K> keys) {
+		if (notifiedDbIndexes.isEmpty())
+			return;
+		
+		Serializer keySerializer = selectKeySerializer(dbName);
+		byte[][] keyBytes = new byte[keys.size()][];
+		int index = 0;
+		for (K key : keys) {
+			keyBytes[index++] = keySerializer.serialize(key);
+		}
+		invalidateNearCache(dbName, keyBytes);
+	}
+	
+	/**
+	 * 清空指定库索引下的所有近端缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex 为null时清空所有库的近端缓存
+	 */
+	protected void clearNearCaches(Integer dbIndex) {
+		for (Entry<Integer, List<RedisNearCache>> entry : indexedNearCaches.entrySet()) {
+			if (dbIndex == null || dbIndex.equals(entry.getKey())) {
+				for (RedisNearCache nearCache : entry.getValue()) {
+					nearCache.clear();
+				}
+			}
+		}
 	}
 	
 	/**
@@ -170,6 +505,33 @@ public abstract class RedisDaoSupport extends CheckableInitializingBean {
 		return repository != null ? repository.toSeconds() : 0L;
 	}
 	
+	/**
+	 * 获取写入键时实际使用的过期秒数。当参数expireSeconds小于等于0时，则使用当前库设置的过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param repository
+	 * @param expireSeconds
+	 * @return 小于等于0时表示不设置过期时间
+	 */
+	protected long resolveExpireSeconds(RedisRepository repository, long expireSeconds) {
+		if (expireSeconds > 0)
+			return expireSeconds;
+		
+		return repository != null ? repository.toSeconds() : 0;
+	}
+	
+	/**
+	 * 将有序集合成员的分值转换为Redis命令可识别的字符串
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param score
+	 * @return
+	 */
+	protected String toScoreString(double score) {
+		if (Double.isInfinite(score))
+			return score > 0 ? "+inf" : "-inf";
+		
+		return String.valueOf(score);
+	}
+	
 	/**
 	 * 选择指定库的键序列化器
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -652,4 +1014,21 @@ public abstract class RedisDaoSupport extends CheckableInitializingBean {
 		return set;
 	}
 
+	/**
+	 * 等待发布的近端缓存失效消息
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class NearCacheInvalidation {
+		
+		private final int dbIndex;
+		
+		private final byte[][] keyBytes;
+		
+		private NearCacheInvalidation(int dbIndex, byte[][] keyBytes) {
+			this.dbIndex = dbIndex;
+			this.keyBytes = keyBytes;
+		}
+	}
+
 }
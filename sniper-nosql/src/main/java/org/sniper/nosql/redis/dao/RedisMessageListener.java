@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+/**
+ * Redis频道消息监听器
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisMessageListener<V> {
+
+	/**
+	 * 接收到已订阅频道的消息
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param channel 频道名称
+	 * @param message 反序列化后的消息
+	 */
+	public void onMessage(String channel, V message);
+
+}
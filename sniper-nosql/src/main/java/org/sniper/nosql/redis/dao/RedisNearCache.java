@@ -0,0 +1,506 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.dao;
+
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.ObjectUtils;
+
+/**
+ * Redis近端缓存，在进程内缓存反序列化后的键值和哈希域值，省去读取时的网络往返和反序列化开销。</P>
+ * 1.缓存按键的哈希值分为多个分段，每个分段独立加锁并按最近访问顺序淘汰，不同分段的读写互不阻塞。</P>
+ * 2.键的总个数不超过最大容量，每个键缓存的哈希域个数不超过最大域个数，键及其哈希域在写入缓存后的指定时间内有效。</P>
+ * 3.键被修改后需调用invalidate方法使其失效，失效时递增键所在槽位的版本号，读取前后版本号不一致时放弃缓存读到的旧值。
+ *   版本号按键的哈希值分槽维护，只有同一槽位的写操作才会使进行中的读取放弃缓存。</P>
+ * 4.缓存的值会被多个调用者共享，调用者不应修改返回的对象。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisNearCache {
+	
+	/** 将键字节无损转换为字符串时使用的字符集 */
+	private static final Charset KEY_CHARSET = Charset.forName("ISO-8859-1");
+	
+	/** 默认每个键最多缓存的哈希域个数 */
+	public static final int DEFAULT_MAX_FIELD_SIZE = 128;
+	
+	/** 最大分段个数 */
+	private static final int MAX_SEGMENTS = 16;
+	
+	/** 每个分段的最小容量，容量较小时减少分段个数，使淘汰顺序尽量接近全局的访问顺序 */
+	private static final int MIN_SEGMENT_SIZE = 16;
+	
+	/** 版本号槽位的最大个数 */
+	private static final int MAX_VERSION_SLOTS = 1 << 16;
+	
+	/** 最大缓存的键个数 */
+	private final int maxSize;
+	
+	/** 每个键最多缓存的哈希域个数 */
+	private final int maxFieldSize;
+	
+	/** 缓存项的有效毫秒数 */
+	private final long expireMillis;
+	
+	/** 缓存分段 */
+	private final Segment[] segments;
+	
+	/** 键所在槽位的版本号 */
+	private final AtomicLongArray versions;
+	
+	/** 失效次数 */
+	private final AtomicLong invalidations = new AtomicLong();
+	
+	public RedisNearCache(int maxSize, long expireTime, TimeUnit timeUnit) {
+		this(maxSize, DEFAULT_MAX_FIELD_SIZE, expireTime, timeUnit);
+	}
+	
+	public RedisNearCache(int maxSize, int maxFieldSize, long expireTime, TimeUnit timeUnit) {
+		AssertUtils.assertTrue(maxSize > 0, "Near cache max size must greater than 0");
+		AssertUtils.assertTrue(maxFieldSize > 0, "Near cache max field size must greater than 0");
+		AssertUtils.assertTrue(expireTime > 0, "Near cache expire time must greater than 0");
+		
+		this.maxSize = maxSize;
+		this.maxFieldSize = maxFieldSize;
+		this.expireMillis = timeUnit.toMillis(expireTime);
+		
+		int segmentSize = 1;
+		while (segmentSize < MAX_SEGMENTS && segmentSize * 2 * MIN_SEGMENT_SIZE <= maxSize)
+			segmentSize <<= 1;
+		
+		this.segments = new Segment[segmentSize];
+		int capacity = maxSize / segmentSize;
+		int remainder = maxSize % segmentSize;
+		for (int i = 0; i < segmentSize; i++) {
+			this.segments[i] = new Segment(i < remainder ? capacity + 1 : capacity);
+		}
+		
+		int slotSize = 1;
+		while (slotSize < MAX_VERSION_SLOTS && slotSize < maxSize * 4)
+			slotSize <<= 1;
+		
+		this.versions = new AtomicLongArray(slotSize);
+	}
+	
+	/**
+	 * 获取最大缓存的键个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+	
+	/**
+	 * 获取每个键最多缓存的哈希域个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getMaxFieldSize() {
+		return maxFieldSize;
+	}
+	
+	/**
+	 * 获取当前缓存的键个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * 获取键所在槽位的当前版本号，在读取Redis之前获取，写入缓存时传入
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @return
+	 */
+	public long stamp(byte[] keyByte) {
+		return versions.get(versionSlot(hash(toCacheKey(keyByte))));
+	}
+	
+	/**
+	 * 获取键对应的缓存值，未命中或已过期时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @param valueType
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V get(byte[] keyByte, Class<V> valueType) {
+		String cacheKey = toCacheKey(keyByte);
+		Segment segment = segmentFor(hash(cacheKey));
+		synchronized (segment) {
+			Object value = null;
+			CacheEntry entry = segment.liveEntry(cacheKey);
+			if (entry != null && entry.value != null && ObjectUtils.equals(entry.value.type, valueType))
+				value = entry.value.value;
+			
+			segment.count(value != null);
+			return (V) value;
+		}
+	}
+	
+	/**
+	 * 缓存键值，键所在槽位的版本号与读取前获取的不一致时放弃缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param stamp
+	 * @param keyByte
+	 * @param valueType
+	 * @param value
+	 */
+	public void put(long stamp, byte[] keyByte, Class<?> valueType, Object value) {
+		if (value == null)
+			return;
+		
+		String cacheKey = toCacheKey(keyByte);
+		int hash = hash(cacheKey);
+		Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			if (stamp == versions.get(versionSlot(hash)))
+				segment.entry(cacheKey).value = new Value(valueType, value);
+		}
+	}
+	
+	/**
+	 * 获取键中哈希域对应的缓存值，未命中或已过期时返回null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @param hashKeyByte
+	 * @param valueType
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	public <V> V hGet(byte[] keyByte, byte[] hashKeyByte, Class<V> valueType) {
+		String cacheKey = toCacheKey(keyByte);
+		Segment segment = segmentFor(hash(cacheKey));
+		synchronized (segment) {
+			Object value = null;
+			CacheEntry entry = segment.liveEntry(cacheKey);
+			if (entry != null && entry.fields != null) {
+				Value field = entry.fields.get(toCacheKey(hashKeyByte));
+				if (field != null && ObjectUtils.equals(field.type, valueType))
+					value = field.value;
+			}
+			
+			segment.count(value != null);
+			return (V) value;
+		}
+	}
+	
+	/**
+	 * 缓存键中哈希域的值，键所在槽位的版本号与读取前获取的不一致时放弃缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param stamp
+	 * @param keyByte
+	 * @param hashKeyByte
+	 * @param valueType
+	 * @param value
+	 */
+	public void hPut(long stamp, byte[] keyByte, byte[] hashKeyByte, Class<?> valueType, Object value) {
+		if (value == null)
+			return;
+		
+		String cacheKey = toCacheKey(keyByte);
+		int hash = hash(cacheKey);
+		Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			if (stamp != versions.get(versionSlot(hash)))
+				return;
+			
+			CacheEntry entry = segment.entry(cacheKey);
+			if (entry.fields == null)
+				entry.fields = new LruMap<Value>(maxFieldSize);
+			
+			entry.fields.put(toCacheKey(hashKeyByte), new Value(valueType, value));
+		}
+	}
+	
+	/**
+	 * 使键及其所有哈希域的缓存失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 */
+	public void invalidate(byte[] keyByte) {
+		String cacheKey = toCacheKey(keyByte);
+		int hash = hash(cacheKey);
+		
+		// 先递增版本号再移除缓存项，在此之后开始写入的读取结果都会被放弃
+		versions.incrementAndGet(versionSlot(hash));
+		invalidations.incrementAndGet();
+		Segment segment = segmentFor(hash);
+		synchronized (segment) {
+			segment.remove(cacheKey);
+		}
+	}
+	
+	/**
+	 * 清空所有缓存
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void clear() {
+		for (int i = 0; i < versions.length(); i++) {
+			versions.incrementAndGet(i);
+		}
+		invalidations.incrementAndGet();
+		
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+	
+	/**
+	 * 获取失效次数，包括单个键的失效和清空
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getInvalidationCount() {
+		return invalidations.get();
+	}
+	
+	/**
+	 * 获取命中次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getHitCount() {
+		long hitCount = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				hitCount += segment.hits;
+			}
+		}
+		return hitCount;
+	}
+	
+	/**
+	 * 获取未命中次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getMissCount() {
+		long missCount = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				missCount += segment.misses;
+			}
+		}
+		return missCount;
+	}
+	
+	/**
+	 * 获取命中率，还未读取过时返回0
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public double getHitRatio() {
+		long hitCount = 0;
+		long total = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				hitCount += segment.hits;
+				total += segment.hits + segment.misses;
+			}
+		}
+		return total > 0 ? (double) hitCount / total : 0;
+	}
+	
+	/**
+	 * 重置命中统计
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void resetStatistics() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.hits = 0;
+				segment.misses = 0;
+			}
+		}
+	}
+	
+	/**
+	 * 获取哈希值对应的分段
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hash
+	 * @return
+	 */
+	private Segment segmentFor(int hash) {
+		return segments[(hash >>> 16) & (segments.length - 1)];
+	}
+	
+	/**
+	 * 获取哈希值对应的版本号槽位
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hash
+	 * @return
+	 */
+	private int versionSlot(int hash) {
+		return hash & (versions.length() - 1);
+	}
+	
+	/**
+	 * 计算缓存键的哈希值，将高位扩散到低位以减少分段和槽位的冲突
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param cacheKey
+	 * @return
+	 */
+	private static int hash(String cacheKey) {
+		int h = cacheKey.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	/**
+	 * 将键字节转换为缓存键，ISO-8859-1字符集可保证任意字节都能一一对应
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @return
+	 */
+	private static String toCacheKey(byte[] keyByte) {
+		return new String(keyByte, KEY_CHARSET);
+	}
+	
+	/**
+	 * 按访问顺序淘汰的有界映射
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class LruMap<V> extends LinkedHashMap<String, V> {
+		
+		private static final long serialVersionUID = 2920853208373389254L;
+		
+		private final int capacity;
+		
+		private LruMap(int capacity) {
+			super(16, 0.75f, true);
+			this.capacity = capacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+			return size() > capacity;
+		}
+	}
+	
+	/**
+	 * 缓存分段，所有操作都在分段对象的同步块中执行
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class Segment extends LruMap<CacheEntry> {
+		
+		private static final long serialVersionUID = -4263538104935738720L;
+		
+		/** 命中次数 */
+		private long hits;
+		
+		/** 未命中次数 */
+		private long misses;
+		
+		private Segment(int capacity) {
+			super(capacity);
+		}
+		
+		/**
+		 * 获取未过期的缓存项，已过期的直接移除
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param cacheKey
+		 * @return
+		 */
+		private CacheEntry liveEntry(String cacheKey) {
+			CacheEntry entry = get(cacheKey);
+			if (entry != null && entry.expireAt <= System.currentTimeMillis()) {
+				remove(cacheKey);
+				return null;
+			}
+			return entry;
+		}
+		
+		/**
+		 * 获取未过期的缓存项，不存在时创建
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param cacheKey
+		 * @return
+		 */
+		private CacheEntry entry(String cacheKey) {
+			CacheEntry entry = liveEntry(cacheKey);
+			if (entry == null) {
+				entry = new CacheEntry(System.currentTimeMillis() + expireMillis);
+				put(cacheKey, entry);
+			}
+			return entry;
+		}
+		
+		private void count(boolean hit) {
+			if (hit)
+				hits++;
+			else
+				misses++;
+		}
+	}
+	
+	/**
+	 * 缓存项，包括键值以及已缓存的哈希域值
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class CacheEntry {
+		
+		/** 过期时间戳 */
+		private final long expireAt;
+		
+		private Value value;
+		
+		private LruMap<Value> fields;
+		
+		private CacheEntry(long expireAt) {
+			this.expireAt = expireAt;
+		}
+	}
+	
+	/**
+	 * 缓存值及其读取时指定的类型，只有以相同类型读取时才命中
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Value {
+		
+		private final Class<?> type;
+		
+		private final Object value;
+		
+		private Value(Class<?> type, Object value) {
+			this.type = type;
+			this.value = value;
+		}
+	}
+
+}
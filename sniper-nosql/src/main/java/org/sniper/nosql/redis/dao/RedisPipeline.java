@@ -0,0 +1,158 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+/**
+ * Redis管道接口，管道中的命令只在客户端排队，所有命令在回调结束后一次性发送并读取结果。</P>
+ * 命令的键和值使用管道所在库的序列化器进行序列化，不带过期时间的写命令使用所在库设置的过期时间
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisPipeline {
+	
+	/**
+	 * 排队get命令，结果为反序列化后的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 */
+	public <K> void get(K key);
+	
+	/**
+	 * 排队get命令，结果为按指定类型反序列化后的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param valueType
+	 */
+	public <K, V> void get(K key, Class<V> valueType);
+	
+	/**
+	 * 排队set命令，所在库设置了过期时间时同时设置过期时间，结果为null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param value
+	 */
+	public <K, V> void set(K key, V value);
+	
+	/**
+	 * 排队带过期秒数的set命令，结果为null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param value
+	 * @param expireSeconds
+	 */
+	public <K, V> void set(K key, V value, long expireSeconds);
+	
+	/**
+	 * 排队del命令，结果为删除的键个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 */
+	public <K> void del(K key);
+	
+	/**
+	 * 排队exists命令，结果为键是否存在
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 */
+	public <K> void exists(K key);
+	
+	/**
+	 * 排队expire命令，结果为是否设置成功
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param seconds
+	 */
+	public <K> void expire(K key, long seconds);
+	
+	/**
+	 * 排队incrBy命令，结果为增加后的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param value
+	 */
+	public <K> void incrBy(K key, long value);
+	
+	/**
+	 * 排队hGet命令，结果为反序列化后的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param hashKey
+	 */
+	public <K, H> void hGet(K key, H hashKey);
+	
+	/**
+	 * 排队hGet命令，结果为按指定类型反序列化后的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param hashKey
+	 * @param hashValueType
+	 */
+	public <K, H, V> void hGet(K key, H hashKey, Class<V> hashValueType);
+	
+	/**
+	 * 排队hSet命令，结果为是否新增了域
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param hashKey
+	 * @param value
+	 */
+	public <K, H, V> void hSet(K key, H hashKey, V value);
+	
+	/**
+	 * 排队hDel命令，结果为删除的域个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param hashKey
+	 */
+	public <K, H> void hDel(K key, H hashKey);
+	
+	/**
+	 * 排队lPush命令，结果为列表长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param value
+	 */
+	public <K, V> void lPush(K key, V value);
+	
+	/**
+	 * 排队rPush命令，结果为列表长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param value
+	 */
+	public <K, V> void rPush(K key, V value);
+	
+	/**
+	 * 排队sAdd命令，结果为新增的成员个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param member
+	 */
+	public <K, V> void sAdd(K key, V member);
+	
+	/**
+	 * 排队zAdd命令，结果为是否新增了成员
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param score
+	 * @param member
+	 */
+	public <K, V> void zAdd(K key, double score, V member);
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+import java.util.List;
+
+/**
+ * Redis管道命令接口
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisPipelineCommands {
+	
+	/**
+	 * 在当前库中以管道方式执行回调排队的所有命令，整批命令只有一次网络往返。</P>
+	 * 返回结果与命令一一对应，没有返回值的命令对应的结果为null。集群环境不支持管道时逐个执行命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param callback
+	 * @return
+	 */
+	public List<Object> executePipelined(RedisPipelineCallback callback);
+	
+	/**
+	 * 在指定库中以管道方式执行回调排队的所有命令，整批命令只有一次网络往返。</P>
+	 * 返回结果与命令一一对应，没有返回值的命令对应的结果为null。集群环境不支持管道时逐个执行命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param callback
+	 * @return
+	 */
+	public List<Object> executePipelined(String dbName, RedisPipelineCallback callback);
+
+}
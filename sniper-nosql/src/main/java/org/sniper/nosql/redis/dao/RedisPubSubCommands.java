@@ -0,0 +1,73 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+/**
+ * Redis发布/订阅命令接口，频道名称统一按字符串序列化，消息用对应库的值序列化器进行序列化
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisPubSubCommands {
+
+	/**
+	 * 执行publish命令，用当前库的值序列化器序列化消息后发布到指定频道
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param channel
+	 * @param message
+	 * @return 接收到消息的订阅者个数
+	 */
+	public <V> Long publish(String channel, V message);
+
+	/**
+	 * 执行publish命令，用指定库的值序列化器序列化消息后发布到指定频道
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param channel
+	 * @param message
+	 * @return 接收到消息的订阅者个数
+	 */
+	public <V> Long publish(String dbName, String channel, V message);
+
+	/**
+	 * 订阅指定的频道，接收到的消息用当前库的值序列化器反序列化后交给监听器处理。</P>
+	 * 所有订阅共享一个后台订阅连接，监听器在后台线程中被回调
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param listener
+	 * @param channels
+	 */
+	public <V> void subscribe(RedisMessageListener<V> listener, String[] channels);
+
+	/**
+	 * 订阅指定的频道，接收到的消息用指定库的值序列化器反序列化后交给监听器处理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param listener
+	 * @param channels
+	 */
+	public <V> void subscribe(String dbName, RedisMessageListener<V> listener, String[] channels);
+
+	/**
+	 * 取消监听器对指定频道的订阅
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param listener
+	 * @param channels
+	 */
+	public <V> void unsubscribe(RedisMessageListener<V> listener, String[] channels);
+
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+/**
+ * Redis游标扫描回调接口，每扫描到一批元素后回调一次
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisScanCallback<B> {
+	
+	/**
+	 * 处理扫描到的一批元素，元素在回调前才反序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param batch
+	 * @return 是否继续扫描，返回false时结束扫描
+	 */
+	public boolean doInBatch(B batch);
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis游标扫描命令接口。</P>
+ * 1.基于scan、hScan、sScan和zScan命令分批遍历元素，每批只在服务端执行一次很短的迭代，不会像keys命令一样长时间阻塞服务端。</P>
+ * 2.客户端每次只持有一批元素，并在回调前才反序列化，遍历大数据集时不会占用与数据集成正比的内存。</P>
+ * 3.由Redis游标的语义决定，遍历期间被修改的元素可能被重复返回或遗漏。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisScanCommands {
+	
+	/**
+	 * 在当前库中分批扫描匹配模式的键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param pattern 匹配模式，为空时匹配所有键
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K> void scan(String pattern, int batchSize, RedisScanCallback<List<K>> callback);
+	
+	/**
+	 * 在指定库中分批扫描匹配模式的键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param pattern 匹配模式，为空时匹配所有键
+	 * @param keyType 键类型
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K> void scan(String dbName, String pattern, Class<K> keyType, int batchSize, RedisScanCallback<List<K>> callback);
+	
+	/**
+	 * 在指定库中分批扫描匹配模式的键。</P>
+	 * 连接工厂路由到多个节点且parallel为true时，各节点同时扫描，回调依次执行，不需要考虑线程安全
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param pattern 匹配模式，为空时匹配所有键
+	 * @param keyType 键类型
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param parallel 是否并行扫描所有节点
+	 * @param callback
+	 */
+	public <K> void scan(String dbName, String pattern, Class<K> keyType, int batchSize, boolean parallel, RedisScanCallback<List<K>> callback);
+	
+	/**
+	 * 在当前库中分批扫描哈希键中匹配模式的域和值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param pattern 域的匹配模式，为空时匹配所有域
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, H, V> void hScan(K key, String pattern, int batchSize, RedisScanCallback<Map<H, V>> callback);
+	
+	/**
+	 * 在指定库中分批扫描哈希键中匹配模式的域和值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param key
+	 * @param pattern 域的匹配模式，为空时匹配所有域
+	 * @param hashKeyType 域类型
+	 * @param valueType 值类型
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, H, V> void hScan2(String dbName, K key, String pattern, Class<H> hashKeyType, 
+			Class<V> valueType, int batchSize, RedisScanCallback<Map<H, V>> callback);
+	
+	/**
+	 * 在当前库中分批扫描集合键中匹配模式的成员
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param pattern 成员的匹配模式，为空时匹配所有成员
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, V> void sScan(K key, String pattern, int batchSize, RedisScanCallback<List<V>> callback);
+	
+	/**
+	 * 在指定库中分批扫描集合键中匹配模式的成员
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param key
+	 * @param pattern 成员的匹配模式，为空时匹配所有成员
+	 * @param valueType 成员类型
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, V> void sScan2(String dbName, K key, String pattern, Class<V> valueType, 
+			int batchSize, RedisScanCallback<List<V>> callback);
+	
+	/**
+	 * 在当前库中分批扫描有序集合键中匹配模式的成员及其分值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @param pattern 成员的匹配模式，为空时匹配所有成员
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, V> void zScan(K key, String pattern, int batchSize, RedisScanCallback<Map<V, Double>> callback);
+	
+	/**
+	 * 在指定库中分批扫描有序集合键中匹配模式的成员及其分值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param key
+	 * @param pattern 成员的匹配模式，为空时匹配所有成员
+	 * @param valueType 成员类型
+	 * @param batchSize 每批扫描的个数，服务端只将其作为参考值
+	 * @param callback
+	 */
+	public <K, V> void zScan2(String dbName, K key, String pattern, Class<V> valueType, 
+			int batchSize, RedisScanCallback<Map<V, Double>> callback);
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.dao;
+
+/**
+ * Redis脚本命令接口
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface RedisScriptingCommands {
+
+	/**
+	 * 在当前库中执行eval命令，其中keys参数用当前库的键序列化器序列化，args参数用值序列化器序列化。</P>
+	 * 结果类型为Long或Boolean时按整数或布尔类型返回，否则将脚本返回的字节用当前库的值序列化器反序列化后返回
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param script Lua脚本
+	 * @param resultType 结果类型
+	 * @param keys 脚本中KEYS数组对应的键
+	 * @param args 脚本中ARGV数组对应的参数
+	 * @return
+	 */
+	public <K, V, T> T eval(String script, Class<T> resultType, K[] keys, V[] args);
+
+	/**
+	 * 在指定库中执行eval命令，其中keys参数用指定库的键序列化器序列化，args参数用值序列化器序列化。</P>
+	 * 结果类型为Long或Boolean时按整数或布尔类型返回，否则将脚本返回的字节用指定库的值序列化器反序列化后返回
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param script Lua脚本
+	 * @param resultType 结果类型
+	 * @param keys 脚本中KEYS数组对应的键
+	 * @param args 脚本中ARGV数组对应的参数
+	 * @return
+	 */
+	public <K, V, T> T eval(String dbName, String script, Class<T> resultType, K[] keys, V[] args);
+
+}
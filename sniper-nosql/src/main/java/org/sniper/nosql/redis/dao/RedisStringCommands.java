@@ -103,6 +103,27 @@ public interface RedisStringCommands {
 	 */
 	public <K, V> Boolean setNX2(String dbName, K key, V value, long expireSeconds);
 	
+	/**
+	 * 在当前库中原子性的执行set key value NX PX命令，键不存在时设置值并同时设置过期毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param key
+	 * @param value
+	 * @param expireMillis
+	 * @return
+	 */
+	public <K, V> Boolean pSetNX(K key, V value, long expireMillis);
+	
+	/**
+	 * 在指定库中原子性的执行set key value NX PX命令，键不存在时设置值并同时设置过期毫秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param dbName
+	 * @param key
+	 * @param value
+	 * @param expireMillis
+	 * @return
+	 */
+	public <K, V> Boolean pSetNX2(String dbName, K key, V value, long expireMillis);
+	
 	/**
 	 * 在当前库中执行setEx命令，并设置当前库全局过期秒数
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
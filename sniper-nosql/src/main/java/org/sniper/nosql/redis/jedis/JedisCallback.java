@@ -0,0 +1,39 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import redis.clients.jedis.Jedis;
+
+/**
+ * Jedis连接回调接口，在单个节点的连接上执行操作。</P>
+ * 单机模式下连接从连接池借出，集群模式下为各节点连接池中的连接
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface JedisCallback<T> {
+	
+	/**
+	 * 在Jedis连接上执行操作
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedis
+	 * @return
+	 */
+	public T doInJedis(Jedis jedis);
+
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import redis.clients.jedis.JedisCluster;
+
+/**
+ * 同时支持单机与集群模式的Jedis回调接口。</P>
+ * 单机模式下回调doInJedis方法，集群模式下回调doInCluster方法，
+ * 多键、脚本和发布订阅等两种模式下行为不同的命令由实现类分别处理
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface JedisClusterCallback<T> extends JedisCallback<T> {
+	
+	/**
+	 * 在JedisCluster上执行操作
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedisCluster
+	 * @return
+	 */
+	public T doInCluster(JedisCluster jedisCluster);
+
+}
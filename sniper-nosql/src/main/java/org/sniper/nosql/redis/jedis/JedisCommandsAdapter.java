@@ -0,0 +1,661 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import redis.clients.jedis.BinaryClient.LIST_POSITION;
+import redis.clients.jedis.BinaryJedisClusterCommands;
+import redis.clients.jedis.GeoCoordinate;
+import redis.clients.jedis.GeoRadiusResponse;
+import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.SortingParams;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.params.geo.GeoRadiusParam;
+import redis.clients.jedis.params.sortedset.ZAddParams;
+import redis.clients.jedis.params.sortedset.ZIncrByParams;
+
+/**
+ * 将单机的Jedis适配为JedisCluster实现的单键二进制命令接口，所有命令直接委派给Jedis
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+class JedisCommandsAdapter implements BinaryJedisClusterCommands {
+	
+	private final Jedis jedis;
+	
+	JedisCommandsAdapter(Jedis jedis) {
+		this.jedis = jedis;
+	}
+
+	@Override
+	public String set(byte[] key, byte[] value) {
+		return jedis.set(key, value);
+	}
+
+	@Override
+	public String set(byte[] key, byte[] value, byte[] nxxx, byte[] expx, long time) {
+		return jedis.set(key, value, nxxx, expx, time);
+	}
+
+	@Override
+	public byte[] get(byte[] key) {
+		return jedis.get(key);
+	}
+
+	@Override
+	public Boolean exists(byte[] key) {
+		return jedis.exists(key);
+	}
+
+	@Override
+	public Long persist(byte[] key) {
+		return jedis.persist(key);
+	}
+
+	@Override
+	public String type(byte[] key) {
+		return jedis.type(key);
+	}
+
+	@Override
+	public Long expire(byte[] key, int seconds) {
+		return jedis.expire(key, seconds);
+	}
+
+	@Override
+	public Long pexpire(byte[] key, long milliseconds) {
+		return jedis.pexpire(key, milliseconds);
+	}
+
+	@Override
+	public Long expireAt(byte[] key, long unixTime) {
+		return jedis.expireAt(key, unixTime);
+	}
+
+	@Override
+	public Long pexpireAt(byte[] key, long millisecondsTimestamp) {
+		return jedis.pexpireAt(key, millisecondsTimestamp);
+	}
+
+	@Override
+	public Long ttl(byte[] key) {
+		return jedis.ttl(key);
+	}
+
+	@Override
+	public Boolean setbit(byte[] key, long offset, boolean value) {
+		return jedis.setbit(key, offset, value);
+	}
+
+	@Override
+	public Boolean setbit(byte[] key, long offset, byte[] value) {
+		return jedis.setbit(key, offset, value);
+	}
+
+	@Override
+	public Boolean getbit(byte[] key, long offset) {
+		return jedis.getbit(key, offset);
+	}
+
+	@Override
+	public Long setrange(byte[] key, long offset, byte[] value) {
+		return jedis.setrange(key, offset, value);
+	}
+
+	@Override
+	public byte[] getrange(byte[] key, long startOffset, long endOffset) {
+		return jedis.getrange(key, startOffset, endOffset);
+	}
+
+	@Override
+	public byte[] getSet(byte[] key, byte[] value) {
+		return jedis.getSet(key, value);
+	}
+
+	@Override
+	public Long setnx(byte[] key, byte[] value) {
+		return jedis.setnx(key, value);
+	}
+
+	@Override
+	public String setex(byte[] key, int seconds, byte[] value) {
+		return jedis.setex(key, seconds, value);
+	}
+
+	@Override
+	public Long decrBy(byte[] key, long integer) {
+		return jedis.decrBy(key, integer);
+	}
+
+	@Override
+	public Long decr(byte[] key) {
+		return jedis.decr(key);
+	}
+
+	@Override
+	public Long incrBy(byte[] key, long integer) {
+		return jedis.incrBy(key, integer);
+	}
+
+	@Override
+	public Double incrByFloat(byte[] key, double value) {
+		return jedis.incrByFloat(key, value);
+	}
+
+	@Override
+	public Long incr(byte[] key) {
+		return jedis.incr(key);
+	}
+
+	@Override
+	public Long append(byte[] key, byte[] value) {
+		return jedis.append(key, value);
+	}
+
+	@Override
+	public byte[] substr(byte[] key, int start, int end) {
+		return jedis.substr(key, start, end);
+	}
+
+	@Override
+	public Long hset(byte[] key, byte[] field, byte[] value) {
+		return jedis.hset(key, field, value);
+	}
+
+	@Override
+	public byte[] hget(byte[] key, byte[] field) {
+		return jedis.hget(key, field);
+	}
+
+	@Override
+	public Long hsetnx(byte[] key, byte[] field, byte[] value) {
+		return jedis.hsetnx(key, field, value);
+	}
+
+	@Override
+	public String hmset(byte[] key, Map<byte[], byte[]> hash) {
+		return jedis.hmset(key, hash);
+	}
+
+	@Override
+	public List<byte[]> hmget(byte[] key, byte[]...  fields) {
+		return jedis.hmget(key, fields);
+	}
+
+	@Override
+	public Long hincrBy(byte[] key, byte[] field, long value) {
+		return jedis.hincrBy(key, field, value);
+	}
+
+	@Override
+	public Double hincrByFloat(byte[] key, byte[] field, double value) {
+		return jedis.hincrByFloat(key, field, value);
+	}
+
+	@Override
+	public Boolean hexists(byte[] key, byte[] field) {
+		return jedis.hexists(key, field);
+	}
+
+	@Override
+	public Long hdel(byte[] key, byte[]...  field) {
+		return jedis.hdel(key, field);
+	}
+
+	@Override
+	public Long hlen(byte[] key) {
+		return jedis.hlen(key);
+	}
+
+	@Override
+	public Set<byte[]> hkeys(byte[] key) {
+		return jedis.hkeys(key);
+	}
+
+	@Override
+	public Collection<byte[]> hvals(byte[] key) {
+		return jedis.hvals(key);
+	}
+
+	@Override
+	public Map<byte[], byte[]> hgetAll(byte[] key) {
+		return jedis.hgetAll(key);
+	}
+
+	@Override
+	public Long rpush(byte[] key, byte[]...  args) {
+		return jedis.rpush(key, args);
+	}
+
+	@Override
+	public Long lpush(byte[] key, byte[]...  args) {
+		return jedis.lpush(key, args);
+	}
+
+	@Override
+	public Long llen(byte[] key) {
+		return jedis.llen(key);
+	}
+
+	@Override
+	public List<byte[]> lrange(byte[] key, long start, long end) {
+		return jedis.lrange(key, start, end);
+	}
+
+	@Override
+	public String ltrim(byte[] key, long start, long end) {
+		return jedis.ltrim(key, start, end);
+	}
+
+	@Override
+	public byte[] lindex(byte[] key, long index) {
+		return jedis.lindex(key, index);
+	}
+
+	@Override
+	public String lset(byte[] key, long index, byte[] value) {
+		return jedis.lset(key, index, value);
+	}
+
+	@Override
+	public Long lrem(byte[] key, long count, byte[] value) {
+		return jedis.lrem(key, count, value);
+	}
+
+	@Override
+	public byte[] lpop(byte[] key) {
+		return jedis.lpop(key);
+	}
+
+	@Override
+	public byte[] rpop(byte[] key) {
+		return jedis.rpop(key);
+	}
+
+	@Override
+	public Long sadd(byte[] key, byte[]...  member) {
+		return jedis.sadd(key, member);
+	}
+
+	@Override
+	public Set<byte[]> smembers(byte[] key) {
+		return jedis.smembers(key);
+	}
+
+	@Override
+	public Long srem(byte[] key, byte[]...  member) {
+		return jedis.srem(key, member);
+	}
+
+	@Override
+	public byte[] spop(byte[] key) {
+		return jedis.spop(key);
+	}
+
+	@Override
+	public Set<byte[]> spop(byte[] key, long count) {
+		return jedis.spop(key, count);
+	}
+
+	@Override
+	public Long scard(byte[] key) {
+		return jedis.scard(key);
+	}
+
+	@Override
+	public Boolean sismember(byte[] key, byte[] member) {
+		return jedis.sismember(key, member);
+	}
+
+	@Override
+	public byte[] srandmember(byte[] key) {
+		return jedis.srandmember(key);
+	}
+
+	@Override
+	public List<byte[]> srandmember(byte[] key, int count) {
+		return jedis.srandmember(key, count);
+	}
+
+	@Override
+	public Long strlen(byte[] key) {
+		return jedis.strlen(key);
+	}
+
+	@Override
+	public Long zadd(byte[] key, double score, byte[] member) {
+		return jedis.zadd(key, score, member);
+	}
+
+	@Override
+	public Long zadd(byte[] key, Map<byte[], Double> scoreMembers) {
+		return jedis.zadd(key, scoreMembers);
+	}
+
+	@Override
+	public Long zadd(byte[] key, double score, byte[] member, ZAddParams params) {
+		return jedis.zadd(key, score, member, params);
+	}
+
+	@Override
+	public Long zadd(byte[] key, Map<byte[], Double> scoreMembers, ZAddParams params) {
+		return jedis.zadd(key, scoreMembers, params);
+	}
+
+	@Override
+	public Set<byte[]> zrange(byte[] key, long start, long end) {
+		return jedis.zrange(key, start, end);
+	}
+
+	@Override
+	public Long zrem(byte[] key, byte[]...  member) {
+		return jedis.zrem(key, member);
+	}
+
+	@Override
+	public Double zincrby(byte[] key, double score, byte[] member) {
+		return jedis.zincrby(key, score, member);
+	}
+
+	@Override
+	public Double zincrby(byte[] key, double score, byte[] member, ZIncrByParams params) {
+		return jedis.zincrby(key, score, member, params);
+	}
+
+	@Override
+	public Long zrank(byte[] key, byte[] member) {
+		return jedis.zrank(key, member);
+	}
+
+	@Override
+	public Long zrevrank(byte[] key, byte[] member) {
+		return jedis.zrevrank(key, member);
+	}
+
+	@Override
+	public Set<byte[]> zrevrange(byte[] key, long start, long end) {
+		return jedis.zrevrange(key, start, end);
+	}
+
+	@Override
+	public Set<Tuple> zrangeWithScores(byte[] key, long start, long end) {
+		return jedis.zrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeWithScores(byte[] key, long start, long end) {
+		return jedis.zrevrangeWithScores(key, start, end);
+	}
+
+	@Override
+	public Long zcard(byte[] key) {
+		return jedis.zcard(key);
+	}
+
+	@Override
+	public Double zscore(byte[] key, byte[] member) {
+		return jedis.zscore(key, member);
+	}
+
+	@Override
+	public List<byte[]> sort(byte[] key) {
+		return jedis.sort(key);
+	}
+
+	@Override
+	public List<byte[]> sort(byte[] key, SortingParams sortingParameters) {
+		return jedis.sort(key, sortingParameters);
+	}
+
+	@Override
+	public Long zcount(byte[] key, double min, double max) {
+		return jedis.zcount(key, min, max);
+	}
+
+	@Override
+	public Long zcount(byte[] key, byte[] min, byte[] max) {
+		return jedis.zcount(key, min, max);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByScore(byte[] key, double min, double max) {
+		return jedis.zrangeByScore(key, min, max);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByScore(byte[] key, byte[] min, byte[] max) {
+		return jedis.zrangeByScore(key, min, max);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByScore(byte[] key, double max, double min) {
+		return jedis.zrevrangeByScore(key, max, min);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByScore(byte[] key, double min, double max, int offset, int count) {
+		return jedis.zrangeByScore(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByScore(byte[] key, byte[] max, byte[] min) {
+		return jedis.zrevrangeByScore(key, max, min);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByScore(byte[] key, byte[] min, byte[] max, int offset, int count) {
+		return jedis.zrangeByScore(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByScore(byte[] key, double max, double min, int offset, int count) {
+		return jedis.zrevrangeByScore(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(byte[] key, double min, double max) {
+		return jedis.zrangeByScoreWithScores(key, min, max);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(byte[] key, double max, double min) {
+		return jedis.zrevrangeByScoreWithScores(key, max, min);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(byte[] key, double min, double max, int offset, int count) {
+		return jedis.zrangeByScoreWithScores(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByScore(byte[] key, byte[] max, byte[] min, int offset, int count) {
+		return jedis.zrevrangeByScore(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(byte[] key, byte[] min, byte[] max) {
+		return jedis.zrangeByScoreWithScores(key, min, max);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(byte[] key, byte[] max, byte[] min) {
+		return jedis.zrevrangeByScoreWithScores(key, max, min);
+	}
+
+	@Override
+	public Set<Tuple> zrangeByScoreWithScores(byte[] key, byte[] min, byte[] max, int offset, int count) {
+		return jedis.zrangeByScoreWithScores(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(byte[] key, double max, double min, int offset, int count) {
+		return jedis.zrevrangeByScoreWithScores(key, max, min, offset, count);
+	}
+
+	@Override
+	public Set<Tuple> zrevrangeByScoreWithScores(byte[] key, byte[] max, byte[] min, int offset, int count) {
+		return jedis.zrevrangeByScoreWithScores(key, max, min, offset, count);
+	}
+
+	@Override
+	public Long zremrangeByRank(byte[] key, long start, long end) {
+		return jedis.zremrangeByRank(key, start, end);
+	}
+
+	@Override
+	public Long zremrangeByScore(byte[] key, double start, double end) {
+		return jedis.zremrangeByScore(key, start, end);
+	}
+
+	@Override
+	public Long zremrangeByScore(byte[] key, byte[] start, byte[] end) {
+		return jedis.zremrangeByScore(key, start, end);
+	}
+
+	@Override
+	public Long zlexcount(byte[] key, byte[] min, byte[] max) {
+		return jedis.zlexcount(key, min, max);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByLex(byte[] key, byte[] min, byte[] max) {
+		return jedis.zrangeByLex(key, min, max);
+	}
+
+	@Override
+	public Set<byte[]> zrangeByLex(byte[] key, byte[] min, byte[] max, int offset, int count) {
+		return jedis.zrangeByLex(key, min, max, offset, count);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByLex(byte[] key, byte[] max, byte[] min) {
+		return jedis.zrevrangeByLex(key, max, min);
+	}
+
+	@Override
+	public Set<byte[]> zrevrangeByLex(byte[] key, byte[] max, byte[] min, int offset, int count) {
+		return jedis.zrevrangeByLex(key, max, min, offset, count);
+	}
+
+	@Override
+	public Long zremrangeByLex(byte[] key, byte[] min, byte[] max) {
+		return jedis.zremrangeByLex(key, min, max);
+	}
+
+	@Override
+	public Long linsert(byte[] key, LIST_POSITION where, byte[] pivot, byte[] value) {
+		return jedis.linsert(key, where, pivot, value);
+	}
+
+	@Override
+	public Long lpushx(byte[] key, byte[]...  arg) {
+		return jedis.lpushx(key, arg);
+	}
+
+	@Override
+	public Long rpushx(byte[] key, byte[]...  arg) {
+		return jedis.rpushx(key, arg);
+	}
+
+	@Override
+	public Long del(byte[] key) {
+		return jedis.del(key);
+	}
+
+	@Override
+	public byte[] echo(byte[] arg) {
+		return jedis.echo(arg);
+	}
+
+	@Override
+	public Long bitcount(byte[] key) {
+		return jedis.bitcount(key);
+	}
+
+	@Override
+	public Long bitcount(byte[] key, long start, long end) {
+		return jedis.bitcount(key, start, end);
+	}
+
+	@Override
+	public Long pfadd(byte[] key, byte[]...  elements) {
+		return jedis.pfadd(key, elements);
+	}
+
+	@Override
+	public long pfcount(byte[] key) {
+		return jedis.pfcount(key);
+	}
+
+	@Override
+	public Long geoadd(byte[] key, double longitude, double latitude, byte[] member) {
+		return jedis.geoadd(key, longitude, latitude, member);
+	}
+
+	@Override
+	public Long geoadd(byte[] key, Map<byte[], GeoCoordinate> memberCoordinateMap) {
+		return jedis.geoadd(key, memberCoordinateMap);
+	}
+
+	@Override
+	public Double geodist(byte[] key, byte[] member1, byte[] member2) {
+		return jedis.geodist(key, member1, member2);
+	}
+
+	@Override
+	public Double geodist(byte[] key, byte[] member1, byte[] member2, GeoUnit unit) {
+		return jedis.geodist(key, member1, member2, unit);
+	}
+
+	@Override
+	public List<byte[]> geohash(byte[] key, byte[]... members) {
+		return jedis.geohash(key, members);
+	}
+
+	@Override
+	public List<GeoCoordinate> geopos(byte[] key, byte[]... members) {
+		return jedis.geopos(key, members);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadius(byte[] key, double longitude, double latitude, double radius, GeoUnit unit) {
+		return jedis.georadius(key, longitude, latitude, radius, unit);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadius(byte[] key, double longitude, double latitude, double radius, GeoUnit unit, GeoRadiusParam param) {
+		return jedis.georadius(key, longitude, latitude, radius, unit, param);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(byte[] key, byte[] member, double radius, GeoUnit unit) {
+		return jedis.georadiusByMember(key, member, radius, unit);
+	}
+
+	@Override
+	public List<GeoRadiusResponse> georadiusByMember(byte[] key, byte[] member, double radius, GeoUnit unit, GeoRadiusParam param) {
+		return jedis.georadiusByMember(key, member, radius, unit, param);
+	}
+
+}
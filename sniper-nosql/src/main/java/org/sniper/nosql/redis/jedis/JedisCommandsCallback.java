@@ -0,0 +1,52 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import redis.clients.jedis.BinaryJedisClusterCommands;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+
+/**
+ * Jedis单键命令回调抽象类。</P>
+ * 只使用单机与集群模式都支持的单键二进制命令，单机模式下的Jedis被适配为与JedisCluster相同的命令接口，
+ * 两种模式共用一份回调实现
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public abstract class JedisCommandsCallback<T> implements JedisClusterCallback<T> {
+	
+	@Override
+	public T doInJedis(Jedis jedis) {
+		return doInCommands(new JedisCommandsAdapter(jedis));
+	}
+
+	@Override
+	public T doInCluster(JedisCluster jedisCluster) {
+		return doInCommands(jedisCluster);
+	}
+	
+	/**
+	 * 在单键二进制命令对象上执行操作
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param commands
+	 * @return
+	 */
+	public abstract T doInCommands(BinaryJedisClusterCommands commands);
+
+}
@@ -1,4769 +1,4399 @@
-///*
-// * Copyright 2016 the original author or authors.
-// *
-// * Licensed under the Apache License, Version 2.0 (the "License");
-// * you may not use this file except in compliance with the License.
-// * You may obtain a copy of the License at
-// *
-// *      http://www.apache.org/licenses/LICENSE-2.0
-// *
-// * Unless required by applicable law or agreed to in writing, software
-// * distributed under the License is distributed on an "AS IS" BASIS,
-// * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
-// * See the License for the specific language governing permissions and
-// * limitations under the License.
-// * 
-// * Create Date : 2016-8-24
-// */
-//
-//package org.sniper.nosql.redis.jedis;
-//
-//import java.util.Collection;
-//import java.util.Date;
-//import java.util.List;
-//import java.util.Map;
-//import java.util.Set;
-//
-//import org.sniper.commons.KeyValuePair;
-//
-//import redis.clients.jedis.BinaryClient.LIST_POSITION;
-//import redis.clients.jedis.SortingParams;
-//import redis.clients.jedis.ZParams;
-//
-///**
-// * Jedis命令行数据访问实现类
-// * @author  <a href="mailto:code727@gmail.com">杜斌</a>
-// * @version 1.0
-// */
-//public class JedisCommandsDaoImpl extends JedisDaoSupport implements JedisCommandsDao {
-//
-//	@Override
-//	public <K, V> void set(K key, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void set(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void set2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void set2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> Boolean setNX(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Boolean setNX(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Boolean setNX2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Boolean setNX2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> void setEx(K key, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setEx(K key, long seconds, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setEx2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setEx2(String dbName, K key, long seconds, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSet(Map<K, V> kValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSet(Map<K, V> kValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSet(String dbName, Map<K, V> kValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSet(String dbName, Map<K, V> kValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSetNX(Map<K, V> kValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSetNX(Map<K, V> kValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSetNX(String dbName, Map<K, V> kValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void mSetNX(String dbName, Map<K, V> kValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setRange(K key, long offset, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setRange(K key, long offset, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setRange2(String dbName, K key, long offset, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> void setRange2(String dbName, K key, long offset, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	@Override
-//	public <K, V> Long append(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Long append(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Long append2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> Long append2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V get(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V get(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V get2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V get2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V getRange(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V getRange(K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V getRange(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> V getRange(String dbName, K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet(K key, V value, Class<O> oldValueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet(K key, V value, long expireSeconds, Class<O> oldValueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet2(String dbName, K key, V value, Class<O> oldValueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V, O> O getSet2(String dbName, K key, V value, long expireSeconds, Class<O> oldValueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> List<V> mGet(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> List<V> mGet(Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> List<V> mGet(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	@Override
-//	public <K, V> List<V> mGet(String dbName, Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> mGet(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> mGet(K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> mGet(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> mGet(String dbName, K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long strLen(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long strLen(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long decr(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long decr(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long decrBy(K key, long value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long decrBy(String dbName, K key, long value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long incr(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long incr(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long incrBy(K key, long value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long incrBy(String dbName, K key, long value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSet(K key, H hashKey, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSet(K key, H hashKey, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSet2(String dbName, K key, H hashKey, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSet2(String dbName, K key, H hashKey, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSetNX(K key, H hashKey, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSetNX(K key, H hashKey, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSetNX2(String dbName, K key, H hashKey, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Boolean hSetNX2(String dbName, K key, H hashKey, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeyValues 
-//	 */
-//	@Override
-//	public <K, H, V> void hMSet(K key, Map<H, V> hashKeyValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeyValues
-//	 * @param expireSeconds 
-//	 */
-//	@Override
-//	public <K, H, V> void hMSet(K key, Map<H, V> hashKeyValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeyValues 
-//	 */
-//	@Override
-//	public <K, H, V> void hMSet(String dbName, K key, Map<H, V> hashKeyValues) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeyValues
-//	 * @param expireSeconds 
-//	 */
-//	@Override
-//	public <K, H, V> void hMSet(String dbName, K key, Map<H, V> hashKeyValues, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(String dbName, K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(K key, H[] hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(String dbName, K key, H[] hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(K key, Collection<H> hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Long hDel(String dbName, K key, Collection<H> hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Boolean hExists(K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Boolean hExists(String dbName, K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> V hGet(K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKey
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> V hGet(K key, H hashKey, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> V hGet2(String dbName, K key, H hashKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKey
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> V hGet2(String dbName, K key, H hashKey, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeyType
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll(K key, Class<H> hashKeyType, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeyType
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> Map<H, V> hGetAll2(String dbName, K key, Class<H> hashKeyType, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Set<H> hKeys(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Set<H> hKeys(K key, Class<H> hashKeyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Set<H> hKeys2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H> Set<H> hKeys2(String dbName, K key, Class<H> hashKeyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long hLen(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long hLen(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(K key, Collection<H> hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(K key, Collection<H> hashKeys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(String dbName, K key, Collection<H> hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(String dbName, K key, Collection<H> hashKeys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(K key, H[] hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param hashKeys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(K key, H[] hashKeys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(String dbName, K key, H[] hashKeys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param hashKeys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, H, V> List<V> hMGet(String dbName, K key, H[] hashKeys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> hVals(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> hVals(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> hVals2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> hVals2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param posttion
-//	 * @param value 
-//	 */
-//	@Override
-//	public <K, V> void lSet(K key, long posttion, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param posttion
-//	 * @param value
-//	 * @param expireSeconds 
-//	 */
-//	@Override
-//	public <K, V> void lSet(K key, long posttion, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param posttion
-//	 * @param value 
-//	 */
-//	@Override
-//	public <K, V> void lSet2(String dbName, K key, long posttion, V value) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param posttion
-//	 * @param value
-//	 * @param expireSeconds 
-//	 */
-//	@Override
-//	public <K, V> void lSet2(String dbName, K key, long posttion, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, V[] values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, V[] values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(String dbName, K key, V[] values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(String dbName, K key, V[] values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, Collection<V> values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(K key, Collection<V> values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(String dbName, K key, Collection<V> values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPush(String dbName, K key, Collection<V> values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPushX(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPushX(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPushX2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lPushX2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param index
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lIndex(K key, long index) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param index
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lIndex(K key, long index, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param index
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lIndex(String dbName, K key, long index) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param index
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lIndex(String dbName, K key, long index, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long lLen(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long lLen(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lPop(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lPop(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lPop2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V lPop2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRange(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRange(K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRange(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRange(String dbName, K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRangeAll(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRangeAll(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRangeAll2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> lRangeAll2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param count
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lRem(K key, long count, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param count
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lRem(String dbName, K key, long count, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lRemAll(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lRemAll(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end 
-//	 */
-//	@Override
-//	public <K> void lTrim(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end 
-//	 */
-//	@Override
-//	public <K> void lTrim(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, V[] values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, V[] values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(String dbName, K key, V[] values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(String dbName, K key, V[] values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, Collection<V> values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(K key, Collection<V> values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(String dbName, K key, Collection<V> values) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param values
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPush(String dbName, K key, Collection<V> values, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPushX(K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPushX(K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPushX2(String dbName, K key, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long rPushX2(String dbName, K key, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush(S srcKey, T destKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush(S srcKey, T destKey, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush(S srcKey, T destKey, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param expireSeconds
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush(S srcKey, T destKey, long expireSeconds, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param expireSeconds
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey, long expireSeconds, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V rPop(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V rPop(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V rPop2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V rPop2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, V member, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd2(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd2(String dbName, K key, V member, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, V[] members, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(String dbName, K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(String dbName, K key, V[] members, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(K key, Collection<V> members, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(String dbName, K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sAdd(String dbName, K key, Collection<V> members, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long sCard(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long sCard(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(String dbName, Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sDiff(String dbName, K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(String dbName, T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(String dbName, T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sDiffStore(String dbName, T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(String dbName, Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sInter(String dbName, K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(String dbName, T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(String dbName, T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sInterStore(String dbName, T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(String dbName, Collection<K> keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sUnion(String dbName, K[] keys, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(String dbName, T destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(String dbName, T destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <T, K> Long sUnionStore(String dbName, T destKey, K[] keys, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean sIsMember(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean sIsMember(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sMembers(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sMembers(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sMembers2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> sMembers2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, T, V> Boolean sMove(K srcKey, T destKey, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param srcKey
-//	 * @param destKey
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, T, V> Boolean sMove(String dbName, K srcKey, T destKey, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sPop(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sPop(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sPop2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sPop2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sRandMember(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sRandMember(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sRandMember2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> V sRandMember2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(String dbName, K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sRem(String dbName, K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param score
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(K key, double score, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param score
-//	 * @param member
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(K key, double score, V member, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param score
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd2(String dbName, K key, double score, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param score
-//	 * @param member
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd2(String dbName, K key, double score, V member, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param scoreMembers
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(K key, Map<Double, V> scoreMembers) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param scoreMembers
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(K key, Map<Double, V> scoreMembers, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param scoreMembers
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(String dbName, K key, Map<Double, V> scoreMembers) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param scoreMembers
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Boolean zAdd(String dbName, K key, Map<Double, V> scoreMembers, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zCard(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zCard(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zCount(K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zCount(String dbName, K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRange(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRange(K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRange(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRange(String dbName, K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeAll(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeAll(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeAll2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeAll2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore, double maxScore, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param offset
-//	 * @param count
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, long offset, long count) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param offset
-//	 * @param count
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, long offset, long count,
-//			Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param offset
-//	 * @param count
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore, double maxScore, long offset,
-//			long count) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param offset
-//	 * @param count
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore, double maxScore, long offset, long count,
-//			Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRank(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRank(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(String dbName, K key, V[] members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param members
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRem(String dbName, K key, Collection<V> members) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zRemRangeByRank(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zRemRangeByRank(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zRemRangeByScore(K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zRemRangeByScore(String dbName, K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRange(K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRange(K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRange(String dbName, K key, long begin, long end) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param begin
-//	 * @param end
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRange(String dbName, K key, long begin, long end, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeAll(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeAll(K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeAll2(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeAll2(String dbName, K key, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeByScore(K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeByScore(K key, double minScore, double maxScore, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeByScore(String dbName, K key, double minScore, double maxScore) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param minScore
-//	 * @param maxScore
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Set<V> zRevRangeByScore(String dbName, K key, double minScore, double maxScore, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRevRank(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long zRevRank(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Double zScore(K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Double zScore(String dbName, K key, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(K destKey, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(String dbName, K destKey, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(K destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(String dbName, K destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(K destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(String dbName, K destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param srcKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(K destKey, K srcKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param srcKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(String dbName, K destKey, K srcKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(K destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(String dbName, K destKey, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(K destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param destKey
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(String dbName, K destKey, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param increment
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Double zIncrBy(K key, double increment, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param increment
-//	 * @param member
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Double zIncrBy(String dbName, K key, double increment, V member) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keys() {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keys(Class<K> keyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keys(String dbName) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keys(String dbName, Class<K> keyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param pattern
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keysByPattern(String pattern) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param pattern
-//	 * @param keyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keysByPattern(String pattern, Class<K> keyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param pattern
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keysByPattern(String dbName, String pattern) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param pattern
-//	 * @param keyType
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Set<K> keysByPattern(String dbName, String pattern, Class<K> keyType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long del(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean exists(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean exists(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> List<KeyValuePair<K, Boolean>> exists(K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> List<KeyValuePair<K, Boolean>> exists(String dbName, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> List<KeyValuePair<K, Boolean>> exists(Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> List<KeyValuePair<K, Boolean>> exists(String dbName, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param seconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expire(K key, long seconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param seconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expire(String dbName, K key, long seconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param timestamp
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expireAt(K key, long timestamp) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param timestamp
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expireAt(String dbName, K key, long timestamp) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param date
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expireAt(K key, Date date) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param date
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean expireAt(String dbName, K key, Date date) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param targetIndex
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean move(K key, int targetIndex) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @param targetIndex
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Boolean move(String dbName, K key, int targetIndex) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long ttl(K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param key
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long ttl(String dbName, K key) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> values() {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> values(Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> values(String dbName) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> values(String dbName, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param pattern
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> valuesByPattern(String pattern) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param pattern
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> valuesByPattern(String pattern, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param pattern
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> valuesByPattern(String dbName, String pattern) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @param pattern
-//	 * @param valueType
-//	 * @return 
-//	 */
-//	@Override
-//	public <V> Set<V> valuesByPattern(String dbName, String pattern, Class<V> valueType) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @return 
-//	 */
-//	@Override
-//	public Long dbSize() {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName
-//	 * @return 
-//	 */
-//	@Override
-//	public Long dbSize(String dbName) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a>  
-//	 */
-//	@Override
-//	public void flushAll() {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a>  
-//	 */
-//	@Override
-//	public void flushDb() {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbName 
-//	 */
-//	@Override
-//	public void flushDb(String dbName) {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a>  
-//	 */
-//	@Override
-//	public void shutdown() {
-//		// TODO Auto-generated method stub
-//		
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param params
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> sort(K key, SortingParams params) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param key
-//	 * @param params
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> sort(int dbIndex, K key, SortingParams params) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param params
-//	 * @param targetKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sortCount(K key, SortingParams params, K targetKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param key
-//	 * @param params
-//	 * @param targetKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long sortCount(int dbIndex, K key, SortingParams params, K targetKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param params
-//	 * @param targetKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> sortResult(K key, SortingParams params, K targetKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param key
-//	 * @param params
-//	 * @param targetKey
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> List<V> sortResult(int dbIndex, K key, SortingParams params, K targetKey) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param where
-//	 * @param pivot
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lInsert(K key, LIST_POSITION where, V pivot, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param key
-//	 * @param where
-//	 * @param pivot
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lInsert(K key, LIST_POSITION where, V pivot, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param key
-//	 * @param where
-//	 * @param pivot
-//	 * @param value
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lInsert(int dbIndex, K key, LIST_POSITION where, V pivot, V value) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param key
-//	 * @param where
-//	 * @param pivot
-//	 * @param value
-//	 * @param expireSeconds
-//	 * @return 
-//	 */
-//	@Override
-//	public <K, V> Long lInsert(int dbIndex, K key, LIST_POSITION where, V pivot, V value, long expireSeconds) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(K destKey, ZParams params, int[] weights, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(int dbIndex, K destKey, ZParams params, int[] weights, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(K destKey, ZParams params, int[] weights, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zUnionStore(int dbIndex, K destKey, ZParams params, int[] weights, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(K destKey, ZParams params, int[] weights, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(int dbIndex, K destKey, ZParams params, int[] weights, K[] keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(K destKey, ZParams params, int[] weights, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	/**
-//	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-//	 * @param dbIndex
-//	 * @param destKey
-//	 * @param params
-//	 * @param weights
-//	 * @param keys
-//	 * @return 
-//	 */
-//	@Override
-//	public <K> Long zInterStore(int dbIndex, K destKey, ZParams params, int[] weights, Collection<K> keys) {
-//		// TODO Auto-generated method stub
-//		return null;
-//	}
-//
-//	
-//
-//}
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * 
+ * Create Date : 2016-8-24
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.ArrayUtils;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.DateUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.NumberUtils;
+import org.sniper.commons.util.StringUtils;
+import org.sniper.nosql.redis.dao.RedisPipelineCallback;
+import org.sniper.nosql.redis.dao.RedisScanCallback;
+import org.sniper.nosql.redis.dao.RedisMessageListener;
+import org.sniper.serialization.Serializer;
+import org.springframework.beans.factory.DisposableBean;
+
+import redis.clients.jedis.BinaryClient.LIST_POSITION;
+import redis.clients.jedis.BinaryJedisClusterCommands;
+import redis.clients.jedis.BinaryJedisPubSub;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+import redis.clients.jedis.ScanParams;
+import redis.clients.jedis.ScanResult;
+import redis.clients.jedis.SortingParams;
+import redis.clients.jedis.Tuple;
+import redis.clients.jedis.ZParams;
+
+/**
+ * Jedis命令行数据访问实现类，直接通过Jedis的二进制命令访问Redis，省去了RedisTemplate的连接包装和结果转换。</P>
+ * 1.多个键的exists、mSet后的expire等批量命令在单机模式下通过Jedis原生管道一次性发送。</P>
+ * 2.集群模式下mGet、mSet和del按键所在的槽分组后分别执行，mSetNX和其它多键命令要求所有键在同一个槽上。</P>
+ * 3.频道订阅在独立线程中占用一个连接，所有监听器共享该连接，订阅连接异常断开后自动重新订阅。</P>
+ * 4.集群模式下的并行扫描共用一个有界的线程池，空闲线程超时后自动回收。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class JedisCommandsDaoImpl extends JedisDaoSupport implements JedisCommandsDao, DisposableBean {
+	
+	private static final byte[] SET_IF_ABSENT = "NX".getBytes();
+	
+	private static final byte[] EXPIRE_MILLIS = "PX".getBytes();
+	
+	private static final byte[] EXPIRE_SECONDS = "EX".getBytes();
+	
+	private static final Logger logger = LoggerFactory.getLogger(JedisCommandsDaoImpl.class);
+	
+	/** 订阅连接异常断开后重新订阅前等待的毫秒数 */
+	private static final long RESUBSCRIBE_DELAY_MILLIS = 1000;
+	
+	/** 并行扫描线程池的空闲线程存活秒数 */
+	private static final long SCAN_KEEP_ALIVE_SECONDS = 60;
+	
+	/** 监听器与其适配器的映射集 */
+	private final ConcurrentMap<RedisMessageListener<?>, MessageListenerAdapter<?>> messageListeners = MapUtils.newConcurrentHashMap();
+	
+	/** 频道与其监听器适配器的映射集，同时作为订阅线程启停的锁 */
+	private final ConcurrentMap<String, Set<MessageListenerAdapter<?>>> channelListeners = MapUtils.newConcurrentHashMap();
+	
+	private Subscriber subscriber;
+	
+	private boolean destroyed;
+	
+	/** 并行扫描各节点的线程池，线程数不超过处理器个数 */
+	private final ThreadPoolExecutor scanExecutor = createScanExecutor();
+	
+	@Override
+	public <K> Set<K> keys() {
+		return keys((String) null);
+	}
+	
+	@Override
+	public <K> Set<K> keys(Class<K> keyType) {
+		return keys(null, keyType);
+	}
+	
+	@Override
+	public <K> Set<K> keys(String dbName) {
+		return keys(dbName, null);
+	}
+	
+	@Override
+	public <K> Set<K> keys(String dbName, Class<K> keyType) {
+		return keysByPattern(dbName, null, keyType);
+	}
+
+	@Override
+	public <K> Set<K> keysByPattern(String pattern) {
+		return keysByPattern(null, pattern);
+	}
+	
+	@Override
+	public <K> Set<K> keysByPattern(String pattern, Class<K> keyType) {
+		return keysByPattern(null, pattern, keyType);
+	}
+	
+	@Override
+	public <K> Set<K> keysByPattern(String dbName, String pattern) {
+		return keysByPattern(dbName, pattern, null);
+	}
+	
+	@Override
+	public <K> Set<K> keysByPattern(String dbName, String pattern, Class<K> keyType) {
+		List<byte[]> keyBytes = scanKeyBytes(dbName, pattern);
+		if (CollectionUtils.isEmpty(keyBytes))
+			return null;
+		
+		Set<byte[]> keyByteSet = CollectionUtils.newLinkedHashSet(keyBytes);
+		return deserializeKeyBytesToSet(dbName, keyByteSet, keyType);
+	}
+	
+	/**
+	 * 用scan命令分批获取匹配模式的键，避免keys命令在键很多时长时间阻塞服务端，集群模式下依次扫描每个主节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param pattern 匹配模式，为空时匹配所有键
+	 * @return 去重后的键字节列表
+	 */
+	private List<byte[]> scanKeyBytes(String dbName, String pattern) {
+		final ScanParams params = scanParams(pattern, DEFAULT_SCAN_BATCH_SIZE);
+		final Set<ByteBuffer> scannedKeys = CollectionUtils.newHashSet();
+		final List<byte[]> keyBytes = CollectionUtils.newArrayList();
+		final RedisScanCallback<List<byte[]>> collector = new RedisScanCallback<List<byte[]>>() {
+
+			@Override
+			public boolean doInBatch(List<byte[]> batch) {
+				for (byte[] keyByte : batch) {
+					// 游标可能重复返回同一个键
+					if (scannedKeys.add(ByteBuffer.wrap(keyByte)))
+						keyBytes.add(keyByte);
+				}
+				return true;
+			}
+		};
+
+		executeOnNodes(true, dbName, new JedisCallback<Boolean>() {
+
+			@Override
+			public Boolean doInJedis(Jedis jedis) {
+				return scanKeys(jedis, params, collector);
+			}
+		});
+
+		return keyBytes;
+	}
+
+	/**
+	 * 在Jedis连接所在节点上用游标遍历匹配的键，每扫描到一批键后回调一次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedis
+	 * @param params
+	 * @param callback
+	 * @return 是否遍历完所有键
+	 */
+	private boolean scanKeys(Jedis jedis, ScanParams params, RedisScanCallback<List<byte[]>> callback) {
+		byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+		do {
+			ScanResult<byte[]> result = jedis.scan(cursor, params);
+			if (!result.getResult().isEmpty() && !callback.doInBatch(result.getResult()))
+				return false;
+
+			cursor = result.getCursorAsBytes();
+		} while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
+
+		return true;
+	}
+
+	/**
+	 * 创建游标扫描参数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param pattern 匹配模式，为空时匹配所有元素
+	 * @param batchSize 每批扫描的个数
+	 * @return
+	 */
+	private ScanParams scanParams(String pattern, int batchSize) {
+		AssertUtils.assertTrue(batchSize > 0, "Scan batch size must greater than 0");
+
+		ScanParams params = new ScanParams().count(batchSize);
+		if (StringUtils.isNotEmpty(pattern))
+			params.match(pattern);
+
+		return params;
+	}
+	
+	@Override
+	public <K> Long del(K key) {
+		return del(null, key);
+	}
+	
+	@Override
+	public <K> Long del(String dbName, K key) {
+		return del(dbName, new Object[] { key });
+	}
+	
+	@Override
+	public <K> Long del(Collection<K> keys) {
+		return del(null, keys);
+	}
+
+	@Override
+	public <K> Long del(String dbName, Collection<K> keys) {
+		return del(dbName, CollectionUtils.toObjectArray(keys));
+	}
+
+	@Override
+	public <K> Long del(K[] keys) {
+		return del(null, keys);
+	}
+	
+	@Override
+	public <K> Long del(final String dbName, final K[] keys) {
+		if (ArrayUtils.isEmpty(keys))
+			return 0L;
+		
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		Long result = execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.del(keyBytes);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				// 集群模式下按槽分组后分别删除
+				long count = 0;
+				for (List<Integer> indexes : groupBySlot(keyBytes).values()) {
+					count += jedisCluster.del(subKeys(keyBytes, indexes));
+				}
+				return count;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyBytes);
+		return result;
+	}
+
+	@Override
+	public <K> Boolean exists(K key) {
+		return exists(null, key);
+	}
+
+	@Override
+	public <K> Boolean exists(final String dbName, K key) {
+		if (key == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.exists(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Map<K, Boolean> exists(K[] keys) {
+		return exists(null, keys);
+	}
+
+	@Override
+	public <K> Map<K, Boolean> exists(String dbName, K[] keys) {
+		return exists(dbName, ArrayUtils.toList(keys));
+	}
+
+	@Override
+	public <K> Map<K, Boolean> exists(Collection<K> keys) {
+		return exists(null, keys);
+	}
+
+	@Override
+	public <K> Map<K, Boolean> exists(final String dbName, final Collection<K> keys) {
+		if (CollectionUtils.isEmpty(keys))
+			return null;
+		
+		Serializer keySerializer = selectKeySerializer(dbName);
+		final List<byte[]> keyBytes = CollectionUtils.newArrayList(keys.size());
+		for (K key : keys) {
+			keyBytes.add(keySerializer.serialize(key));
+		}
+		
+		List<Boolean> existsList = execute(dbName, new JedisClusterCallback<List<Boolean>>() {
+
+			@Override
+			public List<Boolean> doInJedis(Jedis jedis) {
+				// 所有键的exists命令通过管道一次性发送
+				Pipeline pipeline = jedis.pipelined();
+				List<Response<Boolean>> responses = CollectionUtils.newArrayList(keyBytes.size());
+				for (byte[] keyByte : keyBytes) {
+					responses.add(pipeline.exists(keyByte));
+				}
+				pipeline.sync();
+
+				List<Boolean> existsList = CollectionUtils.newArrayList(keyBytes.size());
+				for (Response<Boolean> response : responses) {
+					existsList.add(response.get());
+				}
+				return existsList;
+			}
+
+			@Override
+			public List<Boolean> doInCluster(JedisCluster jedisCluster) {
+				// 集群模式下不支持管道，逐个执行
+				List<Boolean> existsList = CollectionUtils.newArrayList(keyBytes.size());
+				for (byte[] keyByte : keyBytes) {
+					existsList.add(jedisCluster.exists(keyByte));
+				}
+				return existsList;
+			}
+		});
+
+		Map<K, Boolean> result = MapUtils.newLinkedHashMap();
+		Iterator<Boolean> existsIterator = existsList.iterator();
+		for (K key : keys) {
+			result.put(key, existsIterator.next());
+		}
+		return result;
+	}
+
+	@Override
+	public <K> Boolean expire(K key, long seconds) {
+		return expire(null, key, seconds);
+	}
+
+	@Override
+	public <K> Boolean expire(final String dbName, K key, final long seconds) {
+		if (key == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Boolean result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.expire(keyByte, (int) seconds) == 1;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K> Boolean expireAt(K key, long timestamp) {
+		return expireAt(null, key, timestamp);
+	}
+
+	@Override
+	public <K> Boolean expireAt(final String dbName, K key, final long timestamp) {
+		if (key == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Boolean result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.expireAt(keyByte, timestamp) == 1;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K> Boolean expireAt(K key, Date date) {
+		return expireAt(null, key, date);
+	}
+
+	@Override
+	public <K> Boolean expireAt(String dbName, K key, Date date) {
+		return expireAt(dbName, key, DateUtils.dateToUnixTimestamp(date));
+	}
+	
+	@Override
+	public <K> Boolean move(K key, int targetIndex) {
+		return move(null, key, targetIndex);
+	}
+
+	@Override
+	public <K> Boolean move(final String dbName, K key, final int targetIndex) {
+		if (key == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Boolean result = execute(dbName, new JedisClusterCallback<Boolean>() {
+
+			@Override
+			public Boolean doInJedis(Jedis jedis) {
+				return jedis.move(keyByte, targetIndex) == 1;
+			}
+
+			@Override
+			public Boolean doInCluster(JedisCluster jedisCluster) {
+				// 集群只有0号库，服务端拒绝执行move命令
+				throw new UnsupportedOperationException("Command [move] is not supported in cluster mode");
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K> Long ttl(K key) {
+		return ttl(null, key);
+	}
+
+	@Override
+	public <K> Long ttl(final String dbName, K key) {
+		if (key == null)
+			return -2L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.ttl(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> List<V> sort(K key, SortingParams params) {
+		return sort(getDefaultDbIndex(), key, params);
+	}
+
+	@Override
+	public <K, V> List<V> sort(final int dbIndex, K key, final SortingParams params) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(null).serialize(key);
+		List<byte[]> valueBytes = execute(dbIndex, new JedisCommandsCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return params != null ? commands.sort(keyByte, params) : commands.sort(keyByte);
+			}
+		});
+		
+		return deserializeValueBytesToList(null, valueBytes, null);
+	}
+
+	@Override
+	public <K, V> Long sortCount(K key, SortingParams params, K targetKey) {
+		return sortCount(getDefaultDbIndex(), key, params, targetKey);
+	}
+
+	@Override
+	public <K, V> Long sortCount(final int dbIndex, K key, final SortingParams params, K targetKey) {
+		if (key == null || targetKey == null)
+			return 0L;
+		
+		Serializer keySerializer = selectKeySerializer(null);
+		final byte[] keyByte = keySerializer.serialize(key);
+		final byte[] targetKeyByte = keySerializer.serialize(targetKey);
+		return execute(dbIndex, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return params != null ? jedis.sort(keyByte, params, targetKeyByte) : jedis.sort(keyByte, targetKeyByte);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return params != null ? jedisCluster.sort(keyByte, params, targetKeyByte) : jedisCluster.sort(keyByte, targetKeyByte);
+			}
+		});
+	}
+
+	@Override
+	public <K, V> List<V> sortResult(K key, SortingParams params, K targetKey) {
+		return sortResult(getDefaultDbIndex(), key, params, targetKey);
+	}
+
+	@Override
+	public <K, V> List<V> sortResult(final int dbIndex, K key, final SortingParams params, K targetKey) {
+		if (key == null || targetKey == null)
+			return null;
+		
+		Serializer keySerializer = selectKeySerializer(null);
+		final byte[] keyByte = keySerializer.serialize(key);
+		final byte[] targetKeyByte = keySerializer.serialize(targetKey);
+		List<byte[]> valueBytes = execute(dbIndex, new JedisClusterCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInJedis(Jedis jedis) {
+				Long count = params != null ? jedis.sort(keyByte, params, targetKeyByte) : jedis.sort(keyByte, targetKeyByte);
+				
+				// 排序结果总是以列表的形式存入目标键
+				return count != null && count > 0 ? jedis.lrange(targetKeyByte, 0, -1) : null;
+			}
+
+			@Override
+			public List<byte[]> doInCluster(JedisCluster jedisCluster) {
+				Long count = params != null ? jedisCluster.sort(keyByte, params, targetKeyByte) 
+						: jedisCluster.sort(keyByte, targetKeyByte);
+				return count != null && count > 0 ? jedisCluster.lrange(targetKeyByte, 0, -1) : null;
+			}
+		});
+		
+		if (valueBytes == null)
+			return null;
+		
+		return deserializeValueBytesToList(null, valueBytes, null);
+	}
+	
+	@Override
+	public <V> List<V> values() {
+		return values((String) null);
+	}
+	
+	@Override
+	public <V> List<V> values(Class<V> valueType) {
+		return values(null, valueType);
+	}
+	
+	@Override
+	public <V> List<V> values(String dbName) {
+		return values(dbName, null);
+	}
+	
+	@Override
+	public <V> List<V> values(String dbName, Class<V> valueType) {
+		return valuesByPattern(dbName, null, valueType);
+	}
+
+	@Override
+	public <V> List<V> valuesByPattern(String pattern) {
+		return valuesByPattern(null, pattern);
+	}
+	
+	@Override
+	public <V> List<V> valuesByPattern(String pattern, Class<V> valueType) {
+		return valuesByPattern(null, pattern, valueType);
+	}
+	
+	@Override
+	public <V> List<V> valuesByPattern(String dbName, String pattern) {
+		return valuesByPattern(dbName, pattern, null);
+	}
+
+	@Override
+	public <V> List<V> valuesByPattern(String dbName, String pattern, Class<V> valueType) {
+		List<byte[]> keyBytes = scanKeyBytes(dbName, pattern);
+		if (CollectionUtils.isEmpty(keyBytes))
+			return null;
+		
+		// 扫描到的键每批执行一次mGet命令获取对应的值字节
+		List<byte[]> valueBytes = CollectionUtils.newArrayList(keyBytes.size());
+		for (int begin = 0; begin < keyBytes.size(); begin += DEFAULT_SCAN_BATCH_SIZE) {
+			List<byte[]> batch = keyBytes.subList(begin, Math.min(begin + DEFAULT_SCAN_BATCH_SIZE, keyBytes.size()));
+			valueBytes.addAll(mGet(dbName, CollectionUtils.toArray(batch, byte[].class)));
+		}
+		
+		return deserializeValueBytesToList(dbName, valueBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> void set(K key, V value) {
+		set(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> void set(K key, V value, long expireSeconds) {
+		set2(null, key, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void set2(String dbName, K key, V value) {
+		set2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> void set2(final String dbName, K key, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [set]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [set]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		execute(dbName, new JedisCommandsCallback<Object>() {
+			
+			@Override
+			public Object doInCommands(BinaryJedisClusterCommands commands) {
+				if (seconds > 0)
+					// 设值与过期时间在同一个命令中完成
+					commands.setex(keyByte, (int) seconds, valueByte);
+				else
+					commands.set(keyByte, valueByte);
+				
+				return null;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+	}
+
+	@Override
+	public <K, V> Boolean setNX(K key, V value) {
+		return setNX(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Boolean setNX(K key, V value, long expireSeconds) {
+		return setNX2(null, key, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> Boolean setNX2(String dbName, K key, V value) {
+		return setNX2(dbName, key, value, 0);
+	}	
+	
+	@Override
+	public <K, V> Boolean setNX2(final String dbName, K key, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [setNX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [setNX]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		Boolean result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				if (seconds > 0)
+					// 设值与过期时间在同一个命令中完成，键已存在时返回空
+					return commands.set(keyByte, valueByte, SET_IF_ABSENT, EXPIRE_SECONDS, seconds) != null;
+				
+				return commands.setnx(keyByte, valueByte) == 1;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K, V> Boolean pSetNX(K key, V value, long expireMillis) {
+		return pSetNX2(null, key, value, expireMillis);
+	}
+	
+	@Override
+	public <K, V> Boolean pSetNX2(final String dbName, K key, V value, final long expireMillis) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [pSetNX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [pSetNX]");
+		AssertUtils.assertTrue(expireMillis > 0, "Expire millis must greater than 0 of command [pSetNX]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		Boolean result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				// 设值与过期时间在同一个命令中完成，键已存在时返回空
+				return commands.set(keyByte, valueByte, SET_IF_ABSENT, EXPIRE_MILLIS, expireMillis) != null;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K, V> void setEx(K key, V value) {
+		setEx(key, 0, value);
+	}
+
+	@Override
+	public <K, V> void setEx(K key, long seconds, V value) {
+		setEx2(null, key, seconds, value);
+	}
+	
+	@Override
+	public <K, V> void setEx2(String dbName, K key, V value) {
+		setEx2(dbName, key, getExpireSeconds(dbName), value);	
+	}
+
+	@Override
+	public <K, V> void setEx2(final String dbName, K key, final long seconds, V value) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [setEx]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [setEx]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		execute(dbName, new JedisCommandsCallback<Object>() {
+
+			@Override
+			public Object doInCommands(BinaryJedisClusterCommands commands) {
+				if (seconds > 0)
+					commands.setex(keyByte, (int) seconds, valueByte);
+				else
+					// 秒数小于等于0时永不过期
+					commands.set(keyByte, valueByte);
+				
+				return null;
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+	}
+	
+	@Override
+	public <K, V> void mSet(Map<K, V> kValues) {
+		mSet(null, kValues);
+	}
+	
+	@Override
+	public <K, V> void mSet(Map<K, V> kValues, long expireSeconds) {
+		mSet(null, kValues, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void mSet(String dbName, Map<K, V> kValues) {
+		mSet(dbName, kValues, 0);
+	}
+	
+	@Override
+	public <K, V> void mSet(final String dbName, Map<K, V> kValues, final long expireSeconds) {
+		AssertUtils.assertNotEmpty(kValues, "Key-value map can not be empty of command [mSet]");
+		
+		final byte[][] keysValues = toKeysValues(serializeKeyValueToByteMap(dbName, kValues));
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				if (seconds > 0) {
+					// mSet和所有键的expire命令通过管道一次性发送
+					Pipeline pipeline = jedis.pipelined();
+					pipeline.mset(keysValues);
+					for (int i = 0; i < keysValues.length; i += 2) {
+						pipeline.expire(keysValues[i], (int) seconds);
+					}
+					pipeline.sync();
+				} else
+					jedis.mset(keysValues);
+				
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// 集群模式下按槽分组后分别设值
+				for (byte[][] slotKeysValues : groupKeysValuesBySlot(keysValues)) {
+					jedisCluster.mset(slotKeysValues);
+				}
+				
+				setExpireTime(jedisCluster, keysValues, seconds);
+				return null;
+			}
+		});
+		
+		if (!getNearCacheNotifiedDbIndexes().isEmpty())
+			invalidateNearCache(dbName, toKeys(keysValues));
+	}
+
+	@Override
+	public <K, V> void mSetNX(Map<K, V> kValues) {
+		mSetNX(null, kValues);
+	}
+	
+	@Override
+	public <K, V> void mSetNX(Map<K, V> kValues, long expireSeconds) {
+		mSetNX(null, kValues, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void mSetNX(String dbName, Map<K, V> kValues) {
+		mSetNX(dbName, kValues, 0);
+	}
+	
+	@Override
+	public <K, V> void mSetNX(final String dbName, Map<K, V> kValues, final long expireSeconds) {
+		AssertUtils.assertNotEmpty(kValues, "Key values can not be empty of command [mSetNX]");
+		
+		final byte[][] keysValues = toKeysValues(serializeKeyValueToByteMap(dbName, kValues));
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				// 只有所有键都不存在并被设值时才设置过期时间，避免延长已存在的键的过期时间
+				if (jedis.msetnx(keysValues) == 1 && seconds > 0) {
+					// 所有键的expire命令通过管道一次性发送
+					Pipeline pipeline = jedis.pipelined();
+					for (int i = 0; i < keysValues.length; i += 2) {
+						pipeline.expire(keysValues[i], (int) seconds);
+					}
+					pipeline.sync();
+				}
+				
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// 所有键必须在同一个槽上
+				if (jedisCluster.msetnx(keysValues) == 1)
+					setExpireTime(jedisCluster, keysValues, seconds);
+				
+				return null;
+			}
+		});
+		
+		if (!getNearCacheNotifiedDbIndexes().isEmpty())
+			invalidateNearCache(dbName, toKeys(keysValues));
+	}
+	
+	/**
+	 * 将键值字节映射集转换为键和值交替排列的数组
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param byteMap
+	 * @return
+	 */
+	private byte[][] toKeysValues(Map<byte[], byte[]> byteMap) {
+		byte[][] keysValues = new byte[byteMap.size() * 2][];
+		int index = 0;
+		for (Entry<byte[], byte[]> entry : byteMap.entrySet()) {
+			keysValues[index++] = entry.getKey();
+			keysValues[index++] = entry.getValue();
+		}
+		return keysValues;
+	}
+	
+	/**
+	 * 获取键和值交替排列的数组中的所有键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keysValues
+	 * @return
+	 */
+	private byte[][] toKeys(byte[][] keysValues) {
+		byte[][] keyBytes = new byte[keysValues.length / 2][];
+		for (int i = 0; i < keyBytes.length; i++) {
+			keyBytes[i] = keysValues[i * 2];
+		}
+		return keyBytes;
+	}
+	
+	/**
+	 * 按键所在的槽对键和值交替排列的数组进行分组
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keysValues
+	 * @return 每个槽上的键和值交替排列的数组
+	 */
+	private List<byte[][]> groupKeysValuesBySlot(byte[][] keysValues) {
+		Collection<List<Integer>> slots = groupBySlot(toKeys(keysValues)).values();
+		List<byte[][]> groups = CollectionUtils.newArrayList(slots.size());
+		for (List<Integer> indexes : slots) {
+			byte[][] slotKeysValues = new byte[indexes.size() * 2][];
+			for (int i = 0; i < indexes.size(); i++) {
+				slotKeysValues[i * 2] = keysValues[indexes.get(i) * 2];
+				slotKeysValues[i * 2 + 1] = keysValues[indexes.get(i) * 2 + 1];
+			}
+			groups.add(slotKeysValues);
+		}
+		return groups;
+	}
+	
+	/**
+	 * 集群模式下逐个设置键和值交替排列的数组中所有键的过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedisCluster
+	 * @param keysValues
+	 * @param seconds 小于等于0时不设置
+	 */
+	private void setExpireTime(JedisCluster jedisCluster, byte[][] keysValues, long seconds) {
+		if (seconds <= 0)
+			return;
+		
+		for (int i = 0; i < keysValues.length; i += 2) {
+			jedisCluster.expire(keysValues[i], (int) seconds);
+		}
+	}
+	
+	/**
+	 * 写命令的结果为正数时设置键的过期时间，用于参数个数超过脚本能展开的上限时退化为先执行写命令再设置过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param commands
+	 * @param keyByte
+	 * @param result 写命令的结果
+	 * @param seconds 小于等于0时不设置
+	 * @return 写命令的结果
+	 */
+	private Long expireIfPositive(BinaryJedisClusterCommands commands, byte[] keyByte, Long result, long seconds) {
+		if (seconds > 0 && result != null && result > 0)
+			commands.expire(keyByte, (int) seconds);
+		
+		return result;
+	}
+	
+	@Override
+	public <K, V> void setRange(K key, long offset, V value) {
+		setRange(key, offset, value, 0);
+	}
+	
+	@Override
+	public <K, V> void setRange(K key, long offset, V value, long expireSeconds) {
+		setRange2(null, key, offset, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void setRange2(String dbName, K key, long offset, V value) {
+		setRange2(dbName, key, offset, value, 0);
+	}
+	
+	@Override
+	public <K, V> void setRange2(final String dbName, K key, final long offset, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [setRange]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [setRange]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0)
+			writeAndExpire(dbName, "SETRANGE", false, seconds, keyByte, stringSerializer.serialize(offset), valueByte);
+		else
+			execute(dbName, new JedisCommandsCallback<Object>() {
+
+				@Override
+				public Object doInCommands(BinaryJedisClusterCommands commands) {
+					return commands.setrange(keyByte, offset, valueByte);
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+	}
+
+	@Override
+	public <K, V> Long append(K key, V value) {
+		return append(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long append(K key, V value, long expireSeconds) {
+		return append2(null, key, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> Long append2(String dbName, K key, V value) {
+		return append2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long append2(final String dbName, K key, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [append]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [append]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		Long result;
+		if (seconds > 0)
+			result = (Long) writeAndExpire(dbName, "APPEND", false, seconds, keyByte, valueByte);
+		else
+			result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+				@Override
+				public Long doInCommands(BinaryJedisClusterCommands commands) {
+					return commands.append(keyByte, valueByte);
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K, V> V get(K key) {
+		return get(key, null);
+	}
+	
+	@Override
+	public <K, V> V get(K key, Class<V> valueType) {
+		return get2(null, key, valueType);
+	}
+
+	@Override
+	public <K, V> V get2(String dbName, K key) {
+		return get2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> V get2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.get(keyByte);
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+
+	@Override
+	public <K, V> V getRange(K key, long begin, long end) {
+		return getRange(key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> V getRange(K key, long begin, long end, Class<V> valueType) {
+		return getRange(null, key, begin, end, valueType);
+	}
+
+	@Override
+	public <K, V> V getRange(String dbName, K key, long begin, long end) {
+		return getRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> V getRange(final String dbName, K key, final long begin, final long end, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.getrange(keyByte, begin, end);
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+
+	@Override
+	public <K, V, O> O getSet(K key, V value) {
+		return getSet(key, value, null);
+	}
+	
+	@Override
+	public <K, V, O> O getSet(K key, V value, Class<O> oldValueType) {
+		return getSet2(null, key, value, oldValueType);
+	}
+	
+	@Override
+	public <K, V, O> O getSet(K key, V value, long expireSeconds) {
+		return getSet(key, value, expireSeconds, null);
+	}
+	
+	@Override
+	public <K, V, O> O getSet(K key, V value, long expireSeconds, Class<O> oldValueType) {
+		return getSet2(null, key, value, expireSeconds, oldValueType);
+	}
+
+	@Override
+	public <K, V, O> O getSet2(String dbName, K key, V value) {
+		return getSet2(dbName, key, value, null);
+	}
+	
+	@Override
+	public <K, V, O> O getSet2(String dbName, K key, V value, Class<O> oldValueType) {
+		return getSet2(dbName, key, value, 0, oldValueType);
+	}
+	
+	@Override
+	public <K, V, O> O getSet2(String dbName, K key, V value, long expireSeconds) {
+		return getSet2(dbName, key, value, expireSeconds, null);
+	}
+	
+	@Override
+	public <K, V, O> O getSet2(final String dbName, K key, V value, final long expireSeconds, Class<O> oldValueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		byte[] oldValueByte;
+		if (seconds > 0)
+			oldValueByte = (byte[]) writeAndExpire(dbName, "GETSET", false, seconds, keyByte, valueByte);
+		else
+			oldValueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+				@Override
+				public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+					return commands.getSet(keyByte, valueByte);
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+		return deserializeValueByte(dbName, oldValueByte, oldValueType);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(Collection<K> keys) {
+		return mGet(keys, null);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(Collection<K> keys, Class<V> valueType) {
+		return mGet(null, keys, valueType);
+	}
+
+	@Override
+	public <K, V> List<V> mGet(String dbName, Collection<K> keys) {
+		return mGet(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(String dbName, Collection<K> keys, Class<V> valueType) {
+		return mGet(dbName, CollectionUtils.toObjectArray(keys), valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(K[] keys) {
+		return mGet(keys, null);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(K[] keys, Class<V> valueType) {
+		return mGet(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(String dbName, K[] keys) {
+		return mGet(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> List<V> mGet(String dbName, K[] keys, Class<V> valueType) {
+		if (ArrayUtils.isEmpty(keys))
+			return null;
+		
+		List<byte[]> valueBytes = mGet(dbName, serializeKeysToArray(dbName, keys));
+		return deserializeValueBytesToList(dbName, valueBytes, valueType);
+	}
+	
+	/**
+	 * 批量获取已序列化的键对应的值字节，集群模式下按槽分组后分别获取，再按键的原始顺序合并结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param keyBytes
+	 * @return
+	 */
+	private List<byte[]> mGet(final String dbName, final byte[][] keyBytes) {
+		return execute(dbName, new JedisClusterCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInJedis(Jedis jedis) {
+				return jedis.mget(keyBytes);
+			}
+
+			@Override
+			public List<byte[]> doInCluster(JedisCluster jedisCluster) {
+				List<byte[]> valueBytes = Arrays.asList(new byte[keyBytes.length][]);
+				for (List<Integer> indexes : groupBySlot(keyBytes).values()) {
+					List<byte[]> slotValueBytes = jedisCluster.mget(subKeys(keyBytes, indexes));
+					for (int i = 0; i < indexes.size(); i++) {
+						valueBytes.set(indexes.get(i), slotValueBytes.get(i));
+					}
+				}
+				return valueBytes;
+			}
+		});
+	}
+
+	@Override
+	public <K> Long strLen(K key) {
+		return strLen(null, key);
+	}
+
+	@Override
+	public <K> Long strLen(final String dbName, K key) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.strlen(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long decr(K key) {
+		return decr(null, key);
+	}
+
+	@Override
+	public <K> Long decr(final String dbName, K key) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [decr]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Long result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.decr(keyByte);
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K> Long decrBy(K key, long value) {
+		return decrBy(null, key, value);
+	}
+
+	@Override
+	public <K> Long decrBy(final String dbName, K key, final long value) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [decrBy]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Long result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.decrBy(keyByte, value);
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K> Long incr(K key) {
+		return incr(null, key);
+	}
+
+	@Override
+	public <K> Long incr(final String dbName, K key) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [incr]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Long result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.incr(keyByte);
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K> Long incrBy(K key, long value) {
+		return incrBy(null, key, value);
+	}
+
+	@Override
+	public <K> Long incrBy(final String dbName, K key, final long value) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [incrBy]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Long result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.incrBy(keyByte, value);
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSet(K key, H hashKey, V value) {
+		return hSet(key, hashKey, value, 0);
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSet(K key, H hashKey, V value, long expireSeconds) {
+		return hSet2(null, key, hashKey, value, expireSeconds);
+	}
+
+	@Override
+	public <K, H, V> Boolean hSet2(String dbName, K key, H hashKey, V value) {
+		return hSet2(dbName, key, hashKey, value, 0);
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSet2(final String dbName, K key, H hashKey, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hSet]");
+		AssertUtils.assertNotNull(hashKey, "Hash key can not be null of command [hSet]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [hSet]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		final byte[] valueByte = selectHashValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		Boolean result;
+		if (seconds > 0)
+			result = (Long) writeAndExpire(dbName, "HSET", false, seconds, keyByte, hashKeyByte, valueByte) == 1;
+		else
+			result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+				@Override
+				public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+					return commands.hset(keyByte, hashKeyByte, valueByte) == 1;
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSetNX(K key, H hashKey, V value) {
+		return hSetNX(key, hashKey, value, 0);
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSetNX(K key, H hashKey, V value, long expireSeconds) {
+		return hSetNX2(null, key, hashKey, value, expireSeconds);
+	}
+
+	@Override
+	public <K, H, V> Boolean hSetNX2(String dbName, K key, H hashKey, V value) {
+		return hSetNX2(dbName, key, hashKey, value, 0);
+	}
+	
+	@Override
+	public <K, H, V> Boolean hSetNX2(final String dbName, K key, H hashKey, V value, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hSetNX]");
+		AssertUtils.assertNotNull(hashKey, "Hash key can not be null of command [hSetNX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [hSetNX]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		final byte[] valueByte = selectHashValueSerializer(dbName).serialize(value);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		Boolean result;
+		if (seconds > 0)
+			result = (Long) writeAndExpire(dbName, "HSETNX", false, seconds, keyByte, hashKeyByte, valueByte) == 1;
+		else
+			result = execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+				@Override
+				public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+					return commands.hsetnx(keyByte, hashKeyByte, valueByte) == 1;
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K, H, V> void hMSet(K key, Map<H, V> hashKeyValues) {
+		hMSet(null, key, hashKeyValues);
+	}
+	
+	@Override
+	public <K, H, V> void hMSet(K key, Map<H, V> hashKeyValues, long expireSeconds) {
+		hMSet(null, key, hashKeyValues, expireSeconds);
+	}
+
+	@Override
+	public <K, H, V> void hMSet(String dbName, K key, Map<H, V> hashKeyValues) {
+		hMSet(dbName, key, hashKeyValues, 0);
+	}
+	
+	@Override
+	public <K, H, V> void hMSet(final String dbName, K key, Map<H, V> hashKeyValues, final long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hMSet]");
+		AssertUtils.assertNotEmpty(hashKeyValues, "Hash key values can not be empty of command [hMSet]");
+				
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final Map<byte[], byte[]> hashByteMap = serializeHashKeyValuesToByteMap(dbName, hashKeyValues);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0 && hashByteMap.size() * 2 <= MAX_SCRIPT_ARGS)
+			writeAndExpire(dbName, "HMSET", false, seconds, keyByte, toKeysValues(hashByteMap));
+		else
+			execute(dbName, new JedisCommandsCallback<Object>() {
+
+				@Override
+				public Object doInCommands(BinaryJedisClusterCommands commands) {
+					commands.hmset(keyByte, hashByteMap);
+					if (seconds > 0)
+						// 参数个数超过脚本能展开的上限时，退化为先执行写命令再设置过期时间
+						commands.expire(keyByte, (int) seconds);
+					
+					return null;
+				}
+			});
+		
+		invalidateNearCache(dbName, keyByte);
+	}
+
+	@Override
+	public <K, H> Long hDel(K key, H hashKey) {
+		return hDel(null, key, hashKey);
+	}
+
+	@Override
+	public <K, H> Long hDel(String dbName, K key, H hashKey) {
+		if (key == null || hashKey == null)
+			return 0L;
+		
+		return hDel(dbName, key, new Object[] { hashKey });
+	}
+
+	@Override
+	public <K, H> Long hDel(K key, H[] hashKeys) {
+		return hDel(null, key, hashKeys);
+	}
+
+	@Override
+	public <K, H> Long hDel(final String dbName, K key, H[] hashKeys) {
+		if (key == null || ArrayUtils.isEmpty(hashKeys))
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] hashKeyBytes = serializeHashKeysToArray(dbName, hashKeys);
+		Long result = execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hdel(keyByte, hashKeyBytes);
+			}
+		});
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+
+	@Override
+	public <K, H> Long hDel(K key, Collection<H> hashKeys) {
+		return hDel(null, key, hashKeys);
+	}
+
+	@Override
+	public <K, H> Long hDel(String dbName, K key, Collection<H> hashKeys) {
+		return hDel(dbName, key, CollectionUtils.toObjectArray(hashKeys));
+	}
+
+	@Override
+	public <K, H> Boolean hExists(K key, H hashKey) {
+		return hExists(null, key, hashKey);
+	}
+
+	@Override
+	public <K, H> Boolean hExists(final String dbName, K key, H hashKey) {
+		if (key == null || hashKey == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		return execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hexists(keyByte, hashKeyByte);
+			}
+		});
+	}
+
+	@Override
+	public <K, H, V> V hGet(K key, H hashKey) {
+		return hGet(key, hashKey, null);
+	}
+	
+	@Override
+	public <K, H, V> V hGet(K key, H hashKey, Class<V> valueType) {
+		return hGet2(null, key, hashKey, valueType);
+	}
+
+	@Override
+	public <K, H, V> V hGet2(String dbName, K key, H hashKey) {
+		return hGet2(dbName, key, hashKey, null);
+	}
+	
+	@Override
+	public <K, H, V> V hGet2(final String dbName, K key, H hashKey, Class<V> valueType) {
+		if (key == null || hashKey == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		byte[] hashValueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hget(keyByte, hashKeyByte);
+			} 
+		});
+		
+		return deserializeHashValueByte(dbName, hashValueByte, valueType);
+	}
+
+	@Override
+	public <K, H, V> Map<H, V> hGetAll(K key) {
+		return hGetAll(key, null);
+	}
+	
+	@Override
+	public <K, H, V> Map<H, V> hGetAll(K key, Class<V> valueType) {
+		return hGetAll(key, null, valueType);
+	}
+	
+	@Override
+	public <K, H, V> Map<H, V> hGetAll(K key, Class<H> hashKeyType, Class<V> valueType) {
+		return hGetAll2(null, key, hashKeyType, valueType);
+	}
+
+	@Override
+	public <K, H, V> Map<H, V> hGetAll2(String dbName, K key) {
+		return hGetAll2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, H, V> Map<H, V> hGetAll2(String dbName, K key, Class<V> valueType) {
+		return hGetAll2(dbName, key, null, valueType);
+	}
+	
+	@Override
+	public <K, H, V> Map<H, V> hGetAll2(final String dbName, K key, Class<H> hashKeyType, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Map<byte[], byte[]> hashKeyValueBytes = execute(dbName, new JedisCommandsCallback<Map<byte[], byte[]>>() {
+
+			@Override
+			public Map<byte[], byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hgetAll(keyByte);
+			}
+		});
+		
+		return deserializeHashKeyValueBytesToMap(dbName, hashKeyValueBytes, hashKeyType, valueType);
+	}
+
+	@Override
+	public <K, H> Set<H> hKeys(K key) {
+		return hKeys(key, null);
+	}
+	
+	@Override
+	public <K, H> Set<H> hKeys(K key, Class<H> hashKeyType) {
+		return hKeys2(null, key, hashKeyType);
+	}
+
+	@Override
+	public <K, H> Set<H> hKeys2(String dbName, K key) {
+		return hKeys2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, H> Set<H> hKeys2(final String dbName, K key, Class<H> hashKeyType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> hashKeyBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hkeys(keyByte);
+			}
+		});
+		
+		return deserializeHashKeyBytesToSet(dbName, hashKeyBytes, hashKeyType);
+	}
+
+	@Override
+	public <K> Long hLen(K key) {
+		return hLen(null, key);
+	}
+
+	@Override
+	public <K> Long hLen(final String dbName, K key) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hlen(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> List<V> hMGet(K key, Collection<H> hashKeys) {
+		return hMGet(key, hashKeys, null);
+	}
+	
+	@Override
+	public <K, H, V> List<V> hMGet(K key, Collection<H> hashKeys, Class<V> valueType) {
+		return hMGet(null, key, hashKeys, valueType);
+	}
+
+	@Override
+	public <K, H, V> List<V> hMGet(String dbName, K key, Collection<H> hashKeys) {
+		return hMGet(dbName, key, hashKeys, null);
+	}
+	
+	@Override
+	public <K, H, V> List<V> hMGet(String dbName, K key, Collection<H> hashKeys, Class<V> valueType) {
+		return hMGet(dbName, key, CollectionUtils.toObjectArray(hashKeys), valueType);
+	}
+
+	@Override
+	public <K, H, V> List<V> hMGet(K key, H[] hashKeys) {
+		return hMGet(key, hashKeys, null);
+	}
+	
+	@Override
+	public <K, H, V> List<V> hMGet(K key, H[] hashKeys, Class<V> valueType) {
+		return hMGet(null, key, hashKeys, valueType);
+	}
+
+	@Override
+	public <K, H, V> List<V> hMGet(String dbName, K key, H[] hashKeys) {
+		return hMGet(dbName, key, hashKeys, null);
+	}
+	
+	@Override
+	public <K, H, V> List<V> hMGet(final String dbName, K key, H[] hashKeys, Class<V> valueType) {
+		if (key == null || ArrayUtils.isEmpty(hashKeys))
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] hashKeyBytes = serializeHashKeysToArray(dbName, hashKeys);
+		List<byte[]> hashValueBytes = execute(dbName, new JedisCommandsCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.hmget(keyByte, hashKeyBytes);
+			}
+		});
+		
+		return deserializeHashValueBytesToList(dbName, hashValueBytes, valueType);
+	}
+
+	@Override
+	public <K, V> List<V> hVals(K key) {
+		return hVals(key, null);
+	}
+	
+	@Override
+	public <K, V> List<V> hVals(K key, Class<V> valueType) {
+		return hVals2(null, key, valueType);
+	}
+
+	@Override
+	public <K, V> List<V> hVals2(String dbName, K key) {
+		return hVals2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> List<V> hVals2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		List<byte[]> hashValueBytes = execute(dbName, new JedisCommandsCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				Collection<byte[]> hashValueBytes = commands.hvals(keyByte);
+				return hashValueBytes != null ? CollectionUtils.newArrayList(hashValueBytes) : null;
+			}
+		});
+		
+		return deserializeHashValueBytesToList(dbName, hashValueBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Long lInsert(K key, LIST_POSITION where, V pivot, V value) {
+		return lInsert(key, where, pivot, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lInsert(K key, LIST_POSITION where, V pivot, V value, long expireSeconds) {
+		return lInsert(getDefaultDbIndex(), key, where, pivot, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lInsert(int dbIndex, K key, LIST_POSITION where, V pivot, V value) {
+		return lInsert(dbIndex, key, where, pivot, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lInsert(int dbIndex, K key, final LIST_POSITION where, V pivot, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [lInsert]");
+		AssertUtils.assertNotNull(where, "Position can not be null of command [lInsert]");
+		AssertUtils.assertNotNull(pivot, "Pivot can not be null of command [lInsert]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [lInsert]");
+		
+		Serializer valueSerializer = selectValueSerializer(null);
+		final byte[] keyByte = selectKeySerializer(null).serialize(key);
+		final byte[] pivotByte = valueSerializer.serialize(pivot);
+		final byte[] valueByte = valueSerializer.serialize(value);
+		if (expireSeconds > 0)
+			return (Long) writeAndExpire(dbIndex, "LINSERT", true, expireSeconds, 
+					keyByte, stringSerializer.serialize(where.name()), pivotByte, valueByte);
+		
+		return execute(dbIndex, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.linsert(keyByte, where, pivotByte, valueByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> void lSet(K key, long posttion, V value) {
+		lSet(key, posttion, value, 0);
+	}
+	
+	@Override
+	public <K, V> void lSet(K key, long posttion, V value, long expireSeconds) {
+		lSet2(null, key, posttion, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> void lSet2(String dbName, K key, long posttion, V value) {
+		lSet2(dbName, key, posttion, value, 0);
+	}
+	
+	@Override
+	public <K, V> void lSet2(final String dbName, K key, final long posttion, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [lSet]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [lSet]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0) {
+			writeAndExpire(dbName, "LSET", false, seconds, keyByte, stringSerializer.serialize(posttion), valueByte);
+			return;
+		}
+		
+		execute(dbName, new JedisCommandsCallback<Object>() {
+
+			@Override
+			public Object doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lset(keyByte, posttion, valueByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, V value) {
+		return lPush(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, V value, long expireSeconds) {
+		return lPush2(null, key, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lPush2(String dbName, K key, V value) {
+		return lPush2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lPush2(String dbName, K key, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(value, "Value can not be null of command [lPush]");
+		return lPush(dbName, key, new Object[] { value }, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, V[] values) {
+		return lPush(null, key, values);
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, V[] values, long expireSeconds) {
+		return lPush(null, key, values, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lPush(String dbName, K key, V[] values) {
+		return lPush(dbName, key, values, 0);
+	}
+	
+	@Override
+	public <K, V> Long lPush(final String dbName, K key, V[] values, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [lPush]");
+		AssertUtils.assertNotEmpty(values, "Values can not be empty of command [lPush]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] valueBytes = serializeValuesToArray(dbName, values);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0 && valueBytes.length <= MAX_SCRIPT_ARGS)
+			return (Long) writeAndExpire(dbName, "LPUSH", true, seconds, keyByte, valueBytes);
+		
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return expireIfPositive(commands, keyByte, commands.lpush(keyByte, valueBytes), seconds);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, Collection<V> values) {
+		return lPush(null, key, values); 
+	}
+	
+	@Override
+	public <K, V> Long lPush(K key, Collection<V> values, long expireSeconds) {
+		return lPush(null, key, values, expireSeconds); 
+	}
+	
+	@Override
+	public <K, V> Long lPush(String dbName, K key, Collection<V> values) {
+		return lPush(dbName, key, CollectionUtils.toObjectArray(values), 0);
+	}
+	
+	@Override
+	public <K, V> Long lPush(String dbName, K key, Collection<V> values, long expireSeconds) {
+		return lPush(dbName, key, CollectionUtils.toObjectArray(values), expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lPushX(K key, V value) {
+		return lPushX(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lPushX(K key, V value, long expireSeconds) {
+		return lPushX2(null, key, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long lPushX2(String dbName, K key, V value) {
+		return lPushX2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long lPushX2(final String dbName, K key, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [lPushX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [lPushX]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0)
+			return (Long) writeAndExpire(dbName, "LPUSHX", true, seconds, keyByte, valueByte);
+		
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lpushx(keyByte, valueByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> V lIndex(K key, long index) {
+		return lIndex(key, index, null);
+	}
+	
+	@Override
+	public <K, V> V lIndex(K key, long index, Class<V> valueType) {
+		return lIndex(null, key, index, valueType);
+	}
+	
+	@Override
+	public <K, V> V lIndex(String dbName, K key, long index) {
+		return lIndex(dbName, key, index, null);
+	}
+	
+	@Override
+	public <K, V> V lIndex(final String dbName, K key, final long index, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lindex(keyByte, index);
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+	
+	@Override
+	public <K> Long lLen(K key) {
+		return lLen(null, key);
+	}
+	
+	@Override
+	public <K> Long lLen(final String dbName, K key) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.llen(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> V lPop(K key) {
+		return lPop(key, null);
+	}
+	
+	@Override
+	public <K, V> V lPop(K key, Class<V> valueType) {
+		return lPop2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> V lPop2(String dbName, K key) {
+		return lPop2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> V lPop2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lpop(keyByte);
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> lRange(K key, long begin, long end) {
+		return lRange(key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> List<V> lRange(K key, long begin, long end, Class<V> valueType) {
+		return lRange(null, key, begin, end, valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> lRange(String dbName, K key, long begin, long end) {
+		return lRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> List<V> lRange(final String dbName, K key, final long begin, final long end, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		List<byte[]> valueBytes = execute(dbName, new JedisCommandsCallback<List<byte[]>>() {
+
+			@Override
+			public List<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lrange(keyByte, begin, end);
+			}
+		});
+		
+		return deserializeValueBytesToList(dbName, valueBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> lRangeAll(K key) {
+		return lRangeAll(key, null);
+	}
+	
+	@Override
+	public <K, V> List<V> lRangeAll(K key, Class<V> valueType) {
+		return lRangeAll2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> List<V> lRangeAll2(String dbName, K key) {
+		return lRangeAll2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> List<V> lRangeAll2(String dbName, K key, Class<V> valueType) {
+		return lRange(dbName, key, 0 , -1, valueType);
+	}
+	
+	@Override
+	public <K, V> Long lRem(K key, long count, V value) {
+		return lRem(null, key, count, value);
+	}
+	
+	@Override
+	public <K, V> Long lRem(final String dbName, K key, final long count, V value) {
+		if (key == null || value == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.lrem(keyByte, count, valueByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long lRemAll(K key, V value) {
+		return lRemAll(null, key, value);
+	}
+	
+	@Override
+	public <K, V> Long lRemAll(String dbName, K key, V value) {
+		return lRem(dbName, key, 0L, value);
+	}
+	
+	@Override
+	public <K> void lTrim(K key, long begin, long end) {
+		lTrim(null, key, begin, end);
+	}
+	
+	@Override
+	public <K> void lTrim(final String dbName, K key, final long begin, final long end) {
+		if (key == null)
+			return;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		execute(dbName, new JedisCommandsCallback<Object>() {
+
+			@Override
+			public Object doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.ltrim(keyByte, begin, end);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, V value) {
+		return rPush(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, V value, long expireSeconds) {
+		return rPush2(null, key, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPush2(String dbName, K key, V value) {
+		return rPush2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPush2(String dbName, K key, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(value, "Value can not be null of command [rPush]");
+		return rPush(dbName, key, new Object[] { value }, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, V[] values) {
+		return rPush(null, key, values);
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, V[] values, long expireSeconds) {
+		return rPush(null, key, values, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPush(String dbName, K key, V[] values) {
+		return rPush(dbName, key, values, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPush(final String dbName, K key, V[] values, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [rPush]");
+		AssertUtils.assertNotEmpty(values, "Values can not be empty of command [rPush]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] valueBytes = serializeValuesToArray(dbName, values);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0 && valueBytes.length <= MAX_SCRIPT_ARGS)
+			return (Long) writeAndExpire(dbName, "RPUSH", true, seconds, keyByte, valueBytes);
+		
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return expireIfPositive(commands, keyByte, commands.rpush(keyByte, valueBytes), seconds);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, Collection<V> values) {
+		return rPush(null, key, values);
+	}
+	
+	@Override
+	public <K, V> Long rPush(K key, Collection<V> values, long expireSeconds) {
+		return rPush(null, key, values, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPush(String dbName, K key, Collection<V> values) {
+		return rPush(dbName, key, values, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPush(String dbName, K key, Collection<V> values, long expireSeconds) {
+		return rPush(dbName, key, CollectionUtils.toObjectArray(values), expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPushX(K key, V value) {
+		return rPushX(key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPushX(K key, V value, long expireSeconds) {
+		return rPushX2(null, key, value, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long rPushX2(String dbName, K key, V value) {
+		return rPushX2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> Long rPushX2(final String dbName, K key, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [rPushX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [rPushX]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0)
+			return (Long) writeAndExpire(dbName, "RPUSHX", true, seconds, keyByte, valueByte);
+		
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.rpushx(keyByte, valueByte);
+			}
+		});
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush(S srcKey, T destKey) {
+		return rPopLPush(srcKey, destKey, null);
+	}
+	
+	@Override
+  	public <S, T, V> V rPopLPush(S srcKey, T destKey, Class<V> valueType) {
+  		return rPopLPush(srcKey, destKey, 0, valueType);
+  	}
+	
+	@Override
+	public <S, T, V> V rPopLPush(S srcKey, T destKey, long expireSeconds) {
+		return rPopLPush2(null, srcKey, destKey, expireSeconds);
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush(S srcKey, T destKey, long expireSeconds, Class<V> valueType) {
+		return rPopLPush2(null, srcKey, destKey, expireSeconds, valueType);
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey) {
+		return rPopLPush2(dbName, srcKey, destKey, 0);
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey, Class<V> valueType) {
+		return rPopLPush2(dbName, srcKey, destKey, 0, valueType);
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush2(String dbName, S srcKey, T destKey, long expireSeconds) {
+		return rPopLPush2(dbName, srcKey, destKey, expireSeconds, null);
+	}
+	
+	@Override
+	public <S, T, V> V rPopLPush2(final String dbName, S srcKey, T destKey, long expireSeconds, Class<V> valueType) {
+		AssertUtils.assertNotNull(srcKey, "Source key can not be null of command [rPopLPush]");
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [rPopLPush]");
+		
+		Serializer keySerializer = selectKeySerializer(dbName);
+		final byte[] destKeyByte = keySerializer.serialize(destKey);
+		final byte[] srcKeyByte = srcKey.equals(destKey) ? destKeyByte : keySerializer.serialize(srcKey);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		byte[] valueByte = execute(dbName, new JedisClusterCallback<byte[]>() {
+
+			@Override
+			public byte[] doInJedis(Jedis jedis) {
+				// 将源列表中最后一个元素取出后存入目标列表，并设置目标键的过期时间
+				byte[] valueByte = jedis.rpoplpush(srcKeyByte, destKeyByte);
+				if (seconds > 0)
+					jedis.expire(destKeyByte, (int) seconds);
+				
+				return valueByte;
+			}
+
+			@Override
+			public byte[] doInCluster(JedisCluster jedisCluster) {
+				byte[] valueByte = jedisCluster.rpoplpush(srcKeyByte, destKeyByte);
+				if (seconds > 0)
+					jedisCluster.expire(destKeyByte, (int) seconds);
+				
+				return valueByte;
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+	
+	@Override
+	public <K, V> V rPop(K key) {
+		return rPop(key, null);
+	}
+	
+	@Override
+	public <K, V> V rPop(K key, Class<V> valueType) {
+		return rPop2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> V rPop2(String dbName, K key) {
+		return rPop2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> V rPop2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.rpop(keyByte);
+			}
+		});
+		
+		return deserializeValueByte(dbName, valueByte, valueType);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, V member) {
+		return sAdd(key, member, 0);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, V member, long expireSeconds) {
+		return sAdd2(null, key, member, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long sAdd2(String dbName, K key, V member) {
+		return sAdd2(dbName, key, member, 0);
+	}
+	
+	@Override
+	public <K, V> Long sAdd2(String dbName, K key, V member, long expireSeconds) {
+		AssertUtils.assertNotNull(member, "Member can not be null of command [sAdd]");
+		return sAdd(dbName, key, Collections.singletonList(member), expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, V[] members) {
+		return sAdd(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, V[] members, long expireSeconds) {
+		return sAdd(null, key, members, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(String dbName, K key, V[] members) {
+		return sAdd(dbName, key, members, 0);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(final String dbName, K key, V[] members, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [sAdd]");
+		AssertUtils.assertNotEmpty(members, "Members can not be empty of command [sAdd]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] memberBytes = serializeValuesToArray(dbName, members);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		if (seconds > 0 && memberBytes.length <= MAX_SCRIPT_ARGS)
+			return (Long) writeAndExpire(dbName, "SADD", true, seconds, keyByte, memberBytes);
+		
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return expireIfPositive(commands, keyByte, commands.sadd(keyByte, memberBytes), seconds);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, Collection<V> members) {
+		return sAdd(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(K key, Collection<V> members, long expireSeconds) {
+		return sAdd(null, key, members, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(String dbName, K key, Collection<V> members) {
+		return sAdd(dbName, key, members, 0);
+	}
+	
+	@Override
+	public <K, V> Long sAdd(String dbName, K key, Collection<V> members, long expireSeconds) {
+		return sAdd(dbName, key, CollectionUtils.toObjectArray(members), expireSeconds);
+	}
+	
+	@Override
+	public <K> Long sCard(K key) {
+		return sCard(null, key);
+	}
+	
+	@Override
+	public <K> Long sCard(final String dbName, K key) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.scard(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(Collection<K> keys) {
+		return sDiff(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(Collection<K> keys, Class<V> valueType) {
+		return sDiff(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(String dbName, Collection<K> keys) {
+		return sDiff(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(String dbName, Collection<K> keys, Class<V> valueType) {
+		return sDiff(dbName, CollectionUtils.toObjectArray(keys), valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(K[] keys) {
+		return sDiff(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(K[] keys, Class<V> valueType) {
+		return sDiff(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(String dbName, K[] keys) {
+		return sDiff(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sDiff(final String dbName, K[] keys, Class<V> valueType) {
+		if (ArrayUtils.isEmpty(keys))
+			return null;
+		
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		Set<byte[]> memberBytes = execute(dbName, new JedisClusterCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInJedis(Jedis jedis) {
+				return jedis.sdiff(keyBytes);
+			}
+
+			@Override
+			public Set<byte[]> doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.sdiff(keyBytes);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(T destKey, Collection<K> keys) {
+		return sDiffStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(T destKey, Collection<K> keys, long expireSeconds) {
+		return sDiffStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(String dbName, T destKey, Collection<K> keys) {
+		return sDiffStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
+		return sDiffStore(dbName, destKey, CollectionUtils.toObjectArray(keys), expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(T destKey, K[] keys) {
+		return sDiffStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(T destKey, K[] keys, long expireSeconds) {
+		return sDiffStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(String dbName, T destKey, K[] keys) {
+		return sDiffStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sDiffStore(final String dbName, T destKey, K[] keys, long expireSeconds) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [sDiffStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [sDiffStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(dbName).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				Long result = jedis.sdiffstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedis.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				Long result = jedisCluster.sdiffstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedisCluster.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(Collection<K> keys) {
+		return sInter(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(Collection<K> keys, Class<V> valueType) {
+		return sInter(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(String dbName, Collection<K> keys) {
+		return sInter(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(String dbName, Collection<K> keys, Class<V> valueType) {
+		return sInter(dbName, CollectionUtils.toObjectArray(keys), valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(K[] keys) {
+		return sInter(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(K[] keys, Class<V> valueType) {
+		return sInter(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(String dbName, K[] keys) {
+		return sInter(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sInter(final String dbName, K[] keys, Class<V> valueType) {
+		if (ArrayUtils.isEmpty(keys))
+			return null;
+		
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		Set<byte[]> memberBytes = execute(dbName, new JedisClusterCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInJedis(Jedis jedis) {
+				return jedis.sinter(keyBytes);
+			}
+
+			@Override
+			public Set<byte[]> doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.sinter(keyBytes);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(T destKey, Collection<K> keys) {
+		return sInterStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(T destKey, Collection<K> keys, long expireSeconds) {
+		return sInterStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(String dbName, T destKey, Collection<K> keys) {
+		return sInterStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
+		return sInterStore(dbName, destKey, CollectionUtils.toObjectArray(keys), expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(T destKey, K[] keys) {
+		return sInterStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(T destKey, K[] keys, long expireSeconds) {
+		return sInterStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(String dbName, T destKey, K[] keys) {
+		return sInterStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sInterStore(final String dbName, T destKey, K[] keys, long expireSeconds) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [sInterStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [sInterStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(dbName).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				Long result = jedis.sinterstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedis.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				Long result = jedisCluster.sinterstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedisCluster.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(Collection<K> keys) {
+		return sUnion(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(Collection<K> keys, Class<V> valueType) {
+		return sUnion(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(String dbName, Collection<K> keys) {
+		return sUnion(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(String dbName, Collection<K> keys, Class<V> valueType) {
+		return sUnion(dbName, CollectionUtils.toObjectArray(keys), valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(K[] keys) {
+		return sUnion(keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(K[] keys, Class<V> valueType) {
+		return sUnion(null, keys, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(String dbName, K[] keys) {
+		return sUnion(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sUnion(final String dbName, K[] keys, Class<V> valueType) {
+		if (ArrayUtils.isEmpty(keys))
+			return null;
+		
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		Set<byte[]> memberBytes = execute(dbName, new JedisClusterCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInJedis(Jedis jedis) {
+				return jedis.sunion(keyBytes);
+			}
+
+			@Override
+			public Set<byte[]> doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.sunion(keyBytes);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(T destKey, Collection<K> keys) {
+		return sUnionStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(T destKey, Collection<K> keys, long expireSeconds) {
+		return sUnionStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(String dbName, T destKey, Collection<K> keys) {
+		return sUnionStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(String dbName, T destKey, Collection<K> keys, long expireSeconds) {
+		return sUnionStore(dbName, destKey, CollectionUtils.toObjectArray(keys), expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(T destKey, K[] keys) {
+		return sUnionStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(T destKey, K[] keys, long expireSeconds) {
+		return sUnionStore(null, destKey, keys, expireSeconds);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(String dbName, T destKey, K[] keys) {
+		return sUnionStore(dbName, destKey, keys, 0);
+	}
+	
+	@Override
+	public <T, K> Long sUnionStore(final String dbName, T destKey, K[] keys, long expireSeconds) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [sUnionStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [sUnionStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(dbName).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				Long result = jedis.sunionstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedis.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				Long result = jedisCluster.sunionstore(destKeyByte, keyBytes);
+				if (seconds > 0)
+					jedisCluster.expire(destKeyByte, (int) seconds);
+				
+				return result;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Boolean sIsMember(K key, V member) {
+		return sIsMember(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Boolean sIsMember(final String dbName, K key, V member) {
+		if (key == null || member == null)
+			return false;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisCommandsCallback<Boolean>() {
+
+			@Override
+			public Boolean doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.sismember(keyByte, memberByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> sMembers(K key) {
+		return sMembers(key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sMembers(K key, Class<V> valueType) {
+		return sMembers2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> sMembers2(String dbName, K key) {
+		return sMembers2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> sMembers2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.smembers(keyByte);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, T, V> Boolean sMove(K srcKey, T destKey, V member) {
+		return sMove(null, srcKey, destKey, member);
+	}
+	
+	@Override
+	public <K, T, V> Boolean sMove(final String dbName, K srcKey, T destKey, V member) {
+		if (srcKey == null || destKey == null || member == null)
+			return false;
+		
+		Serializer keySerializer = selectKeySerializer(dbName);
+		final byte[] srcKeyByte = keySerializer.serialize(srcKey);
+		final byte[] destKeyByte = keySerializer.serialize(destKey);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisClusterCallback<Boolean>() {
+
+			@Override
+			public Boolean doInJedis(Jedis jedis) {
+				return jedis.smove(srcKeyByte, destKeyByte, memberByte) == 1;
+			}
+
+			@Override
+			public Boolean doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.smove(srcKeyByte, destKeyByte, memberByte) == 1;
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> V sPop(K key) {
+		return sPop(key, null);
+	}
+	
+	@Override
+	public <K, V> V sPop(K key, Class<V> valueType) {
+		return sPop2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> V sPop2(String dbName, K key) {
+		return sPop2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> V sPop2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.spop(keyByte);
+			}
+		});
+		
+		return deserializeValueByte(dbName, memberByte, valueType);
+	}
+	
+	@Override
+	public <K, V> V sRandMember(K key) {
+		return sRandMember(key, null);
+	}
+	
+	@Override
+	public <K, V> V sRandMember(K key, Class<V> valueType) {
+		return sRandMember2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> V sRandMember2(String dbName, K key) {
+		return sRandMember2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> V sRandMember2(final String dbName, K key, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = execute(dbName, new JedisCommandsCallback<byte[]>() {
+
+			@Override
+			public byte[] doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.srandmember(keyByte);
+			}
+		});
+		
+		return deserializeValueByte(dbName, memberByte, valueType);
+	}
+	
+	@Override
+	public <K, V> Long sRem(K key, V member) {
+		return sRem(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Long sRem(String dbName, K key, V member) {
+		return sRem(dbName, key, new Object[] { member });
+	}
+	
+	@Override
+	public <K, V> Long sRem(K key, V[] members) {
+		return sRem(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long sRem(final String dbName, K key, V[] members) {
+		if (key == null || ArrayUtils.isEmpty(members))
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] memberBytes = serializeValuesToArray(dbName, members);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.srem(keyByte, memberBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long sRem(K key, Collection<V> members) {
+		return sRem(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long sRem(String dbName, K key, Collection<V> members) {
+		return sRem(dbName, key, CollectionUtils.toObjectArray(members));
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(K key, double score, V member) {
+		return zAdd(key, score, member, 0);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(K key, double score, V member, long expireSeconds) {
+		return zAdd2(null, key, score, member, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd2(String dbName, K key, double score, V member) {
+		return zAdd2(dbName, key, score, member, 0);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd2(String dbName, K key, double score, V member, long expireSeconds) {
+		AssertUtils.assertNotNull(member, "Member can not be null of command [zAdd]");
+		return zAdd(dbName, key, Collections.singletonMap(score, member), expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(K key, Map<Double, V> scoreMembers) {
+		return zAdd(null, key, scoreMembers);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(K key, Map<Double, V> scoreMembers, long expireSeconds) {
+		return zAdd(null, key, scoreMembers, expireSeconds);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(String dbName, K key, Map<Double, V> scoreMembers) {
+		return zAdd(dbName, key, scoreMembers, 0);
+	}
+	
+	@Override
+	public <K, V> Boolean zAdd(final String dbName, K key, Map<Double, V> scoreMembers, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [zAdd]");
+		AssertUtils.assertNotEmpty(scoreMembers, "Score-member map can not be empty of command [zAdd]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Serializer valueSerializer = selectValueSerializer(dbName);
+		final long seconds = resolveExpireSeconds(getRepository(dbName), expireSeconds);
+		long count;
+		if (seconds > 0 && scoreMembers.size() * 2 <= MAX_SCRIPT_ARGS) {
+			// 所有成员通过一个zadd命令添加
+			byte[][] args = new byte[scoreMembers.size() * 2][];
+			int index = 0;
+			for (Entry<Double, V> entry : scoreMembers.entrySet()) {
+				args[index++] = stringSerializer.serialize(toScoreString(NumberUtils.safeDouble(entry.getKey())));
+				args[index++] = valueSerializer.serialize(entry.getValue());
+			}
+			count = NumberUtils.safeLong((Long) writeAndExpire(dbName, "ZADD", false, seconds, keyByte, args));
+		} else {
+			final Map<byte[], Double> memberScores = MapUtils.newLinkedHashMap();
+			for (Entry<Double, V> entry : scoreMembers.entrySet()) {
+				memberScores.put(valueSerializer.serialize(entry.getValue()), NumberUtils.safeDouble(entry.getKey()));
+			}
+			
+			count = execute(dbName, new JedisCommandsCallback<Long>() {
+
+				@Override
+				public Long doInCommands(BinaryJedisClusterCommands commands) {
+					Long added = commands.zadd(keyByte, memberScores);
+					if (seconds > 0)
+						// 参数个数超过脚本能展开的上限时，退化为先执行写命令再设置过期时间
+						commands.expire(keyByte, (int) seconds);
+					
+					return NumberUtils.safeLong(added);
+				}
+			});
+		}
+		
+		// 所有成员都是新添加的才返回true
+		return count == scoreMembers.size();
+	}
+	
+	@Override
+	public <K> Long zCard(K key) {
+		return zCard(null, key);
+	}
+	
+	@Override
+	public <K> Long zCard(final String dbName, K key) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zcard(keyByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zCount(K key, double minScore, double maxScore) {
+		return zCount(null, minScore, maxScore);
+	}
+	
+	@Override
+	public <K> Long zCount(final String dbName, K key, final double minScore, final double maxScore) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zcount(keyByte, minScore, maxScore);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> zRange(K key, long begin, long end) {
+		return zRange(key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRange(K key, long begin, long end, Class<V> valueType) {
+		return zRange(null, key, begin, end, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRange(String dbName, K key, long begin, long end) {
+		return zRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRange(final String dbName, K key, final long begin, final long end, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrange(keyByte, begin, end);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeAll(K key) {
+		return zRangeAll(key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeAll(K key, Class<V> valueType) {
+		return zRangeAll2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeAll2(String dbName, K key) {
+		return zRangeAll2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeAll2(String dbName, K key, Class<V> valueType) {
+		return zRange(dbName, key, 0, -1, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore) {
+		return zRangeByScore(key, minScore, maxScore, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, Class<V> valueType) {
+		return zRangeByScore(null, key, minScore, maxScore, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore, double maxScore) {
+		return zRangeByScore(dbName, key, minScore, maxScore, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(final String dbName, K key, final double minScore, final double maxScore, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrangeByScore(keyByte, minScore, maxScore);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, long offset, long count) {
+		return zRangeByScore(key, minScore, maxScore, offset, count, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(K key, double minScore, double maxScore, long offset, long count, Class<V> valueType) {
+		return zRangeByScore(null, key, minScore, maxScore, offset, count, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(String dbName, K key, double minScore,
+			double maxScore, long offset, long count) {
+		return zRangeByScore(dbName, key, minScore, maxScore, offset, count, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRangeByScore(final String dbName, K key, final double minScore, final double maxScore,
+			final long offset, final long count, Class<V> valueType) {
+
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrangeByScore(keyByte, minScore, maxScore, (int) offset, (int) count);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Long zRank(K key, V member) {
+		return zRank(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Long zRank(final String dbName, K key, V member) {
+		if (key == null || member == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrank(keyByte, memberByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long zRem(K key, V member) {
+		return zRem(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Long zRem(String dbName, K key, V member) {
+		return zRem(dbName, key, new Object[] { member });
+	}
+	
+	@Override
+	public <K, V> Long zRem(K key, V[] members) {
+		return zRem(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long zRem(final String dbName, K key, V[] members) {
+		if (key == null || ArrayUtils.isEmpty(members))
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[][] memberBytes = serializeValuesToArray(dbName, members);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrem(keyByte, memberBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Long zRem(K key, Collection<V> members) {
+		return zRem(null, key, members);
+	}
+	
+	@Override
+	public <K, V> Long zRem(String dbName, K key, Collection<V> members) {
+		return zRem(dbName, key, CollectionUtils.toObjectArray(members));
+	}
+	
+	@Override
+	public <K> Long zRemRangeByRank(K key, long begin, long end) {
+		return zRemRangeByRank(null, key, begin, end);
+	}
+	
+	@Override
+	public <K> Long zRemRangeByRank(final String dbName, K key, final long begin, final long end) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zremrangeByRank(keyByte, begin, end);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zRemRangeByScore(K key, double minScore, double maxScore) {
+		return zRemRangeByScore(null, key, minScore, maxScore);
+	}
+	
+	@Override
+	public <K> Long zRemRangeByScore(final String dbName, K key, final double minScore, final double maxScore) {
+		if (key == null)
+			return 0L;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zremrangeByScore(keyByte, minScore, maxScore);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRange(K key, long begin, long end) {
+		return zRevRange(key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRange(K key, long begin, long end, Class<V> valueType) {
+		return zRevRange(null, key, begin, end, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRange(String dbName, K key, long begin, long end) {
+		return zRevRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRange(final String dbName, K key, final long begin, final long end, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrevrange(keyByte, begin, end);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeAll(K key) {
+		return zRevRangeAll(key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeAll(K key, Class<V> valueType) {
+		return zRevRangeAll2(null, key, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeAll2(String dbName, K key) {
+		return zRevRangeAll2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeAll2(String dbName, K key, Class<V> valueType) {
+		return zRevRange(dbName, key, 0, -1, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeByScore(K key, double minScore, double maxScore) {
+		return zRevRangeByScore(key, minScore, maxScore, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeByScore(K key, double minScore, double maxScore, Class<V> valueType) {
+		return zRevRangeByScore(null, key, minScore, maxScore, valueType);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeByScore(String dbName, K key, double minScore, double maxScore) {
+		return zRevRangeByScore(dbName, key, minScore, maxScore, null);
+	}
+	
+	@Override
+	public <K, V> Set<V> zRevRangeByScore(final String dbName, K key, final double minScore, final double maxScore, Class<V> valueType) {
+		if (key == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		Set<byte[]> memberBytes = execute(dbName, new JedisCommandsCallback<Set<byte[]>>() {
+
+			@Override
+			public Set<byte[]> doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrevrangeByScore(keyByte, maxScore, minScore);
+			}
+		});
+		
+		return deserializeValueByteToSet(dbName, memberBytes, valueType);
+	}
+	
+	@Override
+	public <K, V> Long zRevRank(K key, V member) {
+		return zRevRank(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Long zRevRank(final String dbName, K key, V member) {
+		if (key == null || member == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisCommandsCallback<Long>() {
+
+			@Override
+			public Long doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zrevrank(keyByte, memberByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> Double zScore(K key, V member) {
+		return zScore(null, key, member);
+	}
+	
+	@Override
+	public <K, V> Double zScore(final String dbName, K key, V member) {
+		if (key == null || member == null)
+			return null;
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisCommandsCallback<Double>() {
+
+			@Override
+			public Double doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zscore(keyByte, memberByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zUnionStore(K destKey, K key) {
+		return zUnionStore(null, destKey, key);
+	}
+	
+	@Override
+	public <K> Long zUnionStore(String dbName, K destKey, K key) {
+		AssertUtils.assertNotNull(key, "Source key can not be null of command [zUnionStore]");
+		
+		return zUnionStore(dbName, destKey, new Object[] { key });
+	}
+	
+	@Override
+	public <K> Long zUnionStore(K destKey, K[] keys) {
+		return zUnionStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <K> Long zUnionStore(final String dbName, K destKey, K[] keys) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [zUnionStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [zUnionStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(dbName).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.zunionstore(destKeyByte, keyBytes);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.zunionstore(destKeyByte, keyBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zUnionStore(K destKey, Collection<K> keys) {
+		return zUnionStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <K> Long zUnionStore(String dbName, K destKey, Collection<K> keys) {
+		return zUnionStore(dbName, destKey, CollectionUtils.toObjectArray(keys));
+	}
+	
+	@Override
+	public <K> Long zUnionStore(K destKey, ZParams params, int[] weights, K[] keys) {
+		return zUnionStore(getDefaultDbIndex(), destKey, params, weights, keys);
+	}
+	
+	@Override
+	public <K> Long zUnionStore(int dbIndex, K destKey, ZParams params, int[] weights, K[] keys) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [zUnionStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [zUnionStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(null).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(null, keys);
+		final ZParams zParams = withWeights(params, weights);
+		return execute(dbIndex, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.zunionstore(destKeyByte, zParams, keyBytes);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.zunionstore(destKeyByte, zParams, keyBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zUnionStore(K destKey, ZParams params, int[] weights, Collection<K> keys) {
+		return zUnionStore(getDefaultDbIndex(), destKey, params, weights, keys);
+	}
+	
+	@Override
+	public <K> Long zUnionStore(int dbIndex, K destKey, ZParams params, int[] weights, Collection<K> keys) {
+		return zUnionStore(dbIndex, destKey, params, weights, CollectionUtils.toObjectArray(keys));
+	}
+	
+	@Override
+	public <K> Long zInterStore(K destKey, K srcKey) {
+		return zInterStore(null, destKey, srcKey);
+	}
+	
+	@Override
+	public <K> Long zInterStore(String dbName, K destKey, K srcKey) {
+		AssertUtils.assertNotNull(srcKey, "Source key can not be null of command [zInterStore]");
+		
+		return zInterStore(dbName, destKey, new Object[] { srcKey });
+	}
+	
+	@Override
+	public <K> Long zInterStore(K destKey, K[] keys) {
+		return zInterStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <K> Long zInterStore(final String dbName, K destKey, K[] keys) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [zInterStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [zInterStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(dbName).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.zinterstore(destKeyByte, keyBytes);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.zinterstore(destKeyByte, keyBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zInterStore(K destKey, Collection<K> keys) {
+		return zInterStore(null, destKey, keys);
+	}
+	
+	@Override
+	public <K> Long zInterStore(String dbName, K destKey, Collection<K> keys) {
+		return zInterStore(dbName, destKey, CollectionUtils.toObjectArray(keys));
+	}
+	
+	@Override
+	public <K> Long zInterStore(K destKey, ZParams params, int[] weights, K[] keys) {
+		return zInterStore(getDefaultDbIndex(), destKey, params, weights, keys);
+	}
+	
+	@Override
+	public <K> Long zInterStore(int dbIndex, K destKey, ZParams params, int[] weights, K[] keys) {
+		AssertUtils.assertNotNull(destKey, "Destination key can not be null of command [zInterStore]");
+		AssertUtils.assertNotEmpty(keys, "Source keys can not be empty of command [zInterStore]");
+		
+		final byte[] destKeyByte = selectKeySerializer(null).serialize(destKey);
+		final byte[][] keyBytes = serializeKeysToArray(null, keys);
+		final ZParams zParams = withWeights(params, weights);
+		return execute(dbIndex, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.zinterstore(destKeyByte, zParams, keyBytes);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.zinterstore(destKeyByte, zParams, keyBytes);
+			}
+		});
+	}
+	
+	@Override
+	public <K> Long zInterStore(K destKey, ZParams params, int[] weights, Collection<K> keys) {
+		return zInterStore(getDefaultDbIndex(), destKey, params, weights, keys);
+	}
+	
+	@Override
+	public <K> Long zInterStore(int dbIndex, K destKey, ZParams params, int[] weights, Collection<K> keys) {
+		return zInterStore(dbIndex, destKey, params, weights, CollectionUtils.toObjectArray(keys));
+	}
+	
+	/**
+	 * 将权重追加到zUnionStore和zInterStore命令的参数中
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param params 为null时创建新的参数
+	 * @param weights 为空时不追加
+	 * @return
+	 */
+	private ZParams withWeights(ZParams params, int[] weights) {
+		ZParams zParams = params != null ? params : new ZParams();
+		if (ArrayUtils.isNotEmpty(weights)) {
+			double[] doubleWeights = new double[weights.length];
+			for (int i = 0; i < weights.length; i++) {
+				doubleWeights[i] = weights[i];
+			}
+			zParams.weightsByDouble(doubleWeights);
+		}
+		return zParams;
+	}
+	
+	@Override
+	public <K, V> Double zIncrBy(K key, double increment, V member) {
+		return zIncrBy(null, key, increment, member);
+	}
+	
+	@Override
+	public <K, V> Double zIncrBy(final String dbName, K key, final double increment, V member) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [zIncrBy]");
+		AssertUtils.assertNotNull(member, "Member can not be null of command [zIncrBy]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return execute(dbName, new JedisCommandsCallback<Double>() {
+
+			@Override
+			public Double doInCommands(BinaryJedisClusterCommands commands) {
+				return commands.zincrby(keyByte, increment, memberByte);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V, T> T eval(String script, Class<T> resultType, K[] keys, V[] args) {
+		return eval(null, script, resultType, keys, args);
+	}
+	
+	@SuppressWarnings("unchecked")
+	@Override
+	public <K, V, T> T eval(final String dbName, String script, Class<T> resultType, K[] keys, V[] args) {
+		AssertUtils.assertNotBlank(script, "Script can not be blank of command [eval]");
+		
+		final byte[] scriptByte = stringSerializer.serialize(script);
+		byte[][] keyBytes = ArrayUtils.isEmpty(keys) ? new byte[0][] : serializeKeysToArray(dbName, keys);
+		byte[][] argBytes = ArrayUtils.isEmpty(args) ? new byte[0][] : serializeValuesToArray(dbName, args);
+		final int keyCount = keyBytes.length;
+		final byte[][] keysAndArgs = new byte[keyBytes.length + argBytes.length][];
+		System.arraycopy(keyBytes, 0, keysAndArgs, 0, keyBytes.length);
+		System.arraycopy(argBytes, 0, keysAndArgs, keyBytes.length, argBytes.length);
+		
+		Object result = execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				return jedis.eval(scriptByte, keyCount, keysAndArgs);
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// 集群按第一个键所在的槽选择执行脚本的节点
+				AssertUtils.assertTrue(keyCount > 0, "Keys can not be empty of command [eval] in cluster mode");
+				return jedisCluster.eval(scriptByte, keyCount, keysAndArgs);
+			}
+		});
+		
+		if (resultType == Long.class)
+			return (T) result;
+		
+		if (resultType == Boolean.class)
+			// 脚本返回true时结果为整数1，返回false时结果为空
+			return (T) Boolean.valueOf(result instanceof Long ? (Long) result == 1 : result != null);
+		
+		return deserializeValueByte(dbName, (byte[]) result, resultType);
+	}
+	
+	@Override
+	public <V> Long publish(String channel, V message) {
+		return publish(null, channel, message);
+	}
+	
+	@Override
+	public <V> Long publish(String dbName, String channel, V message) {
+		AssertUtils.assertNotBlank(channel, "Channel can not be blank of command [publish]");
+		AssertUtils.assertNotNull(message, "Message can not be null of command [publish]");
+		
+		final byte[] channelByte = stringSerializer.serialize(channel);
+		final byte[] messageByte = selectValueSerializer(dbName).serialize(message);
+		return execute(dbName, new JedisClusterCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.publish(channelByte, messageByte);
+			}
+
+			@Override
+			public Long doInCluster(JedisCluster jedisCluster) {
+				return jedisCluster.publish(channelByte, messageByte);
+			}
+		});
+	}
+	
+	@Override
+	public <V> void subscribe(RedisMessageListener<V> listener, String[] channels) {
+		subscribe(null, listener, channels);
+	}
+	
+	@Override
+	public <V> void subscribe(String dbName, RedisMessageListener<V> listener, String[] channels) {
+		AssertUtils.assertNotNull(listener, "Message listener can not be null of command [subscribe]");
+		AssertUtils.assertNotEmpty(channels, "Channels can not be empty of command [subscribe]");
+		
+		MessageListenerAdapter<?> adapter = messageListeners.get(listener);
+		if (adapter == null) {
+			// 同一个监听器只适配一次，其消息按首次订阅时指定库的值序列化器进行反序列化
+			MessageListenerAdapter<V> newAdapter = new MessageListenerAdapter<V>(dbName, listener);
+			adapter = messageListeners.putIfAbsent(listener, newAdapter);
+			if (adapter == null)
+				adapter = newAdapter;
+		}
+		
+		synchronized (channelListeners) {
+			List<byte[]> newChannels = CollectionUtils.newArrayList(channels.length);
+			for (String channel : channels) {
+				Set<MessageListenerAdapter<?>> adapters = channelListeners.get(channel);
+				if (adapters == null) {
+					adapters = new CopyOnWriteArraySet<MessageListenerAdapter<?>>();
+					channelListeners.put(channel, adapters);
+					newChannels.add(stringSerializer.serialize(channel));
+				}
+				adapters.add(adapter);
+			}
+			
+			if (newChannels.isEmpty())
+				return;
+			
+			if (subscriber == null)
+				subscriber = startSubscriber(0);
+			else
+				subscriber.addChannels(newChannels.toArray(new byte[newChannels.size()][]));
+		}
+	}
+	
+	@Override
+	public <V> void unsubscribe(RedisMessageListener<V> listener, String[] channels) {
+		MessageListenerAdapter<?> adapter = messageListeners.get(listener);
+		if (adapter == null)
+			return;
+		
+		synchronized (channelListeners) {
+			Collection<String> targetChannels = ArrayUtils.isEmpty(channels) ?
+					CollectionUtils.newArrayList(channelListeners.keySet()) : Arrays.asList(channels);
+			List<byte[]> removedChannels = CollectionUtils.newArrayList(targetChannels.size());
+			for (String channel : targetChannels) {
+				Set<MessageListenerAdapter<?>> adapters = channelListeners.get(channel);
+				if (adapters != null && adapters.remove(adapter) && adapters.isEmpty()) {
+					// 频道上没有监听器后退订
+					channelListeners.remove(channel);
+					removedChannels.add(stringSerializer.serialize(channel));
+				}
+			}
+			
+			if (ArrayUtils.isEmpty(channels))
+				messageListeners.remove(listener);
+			
+			if (subscriber == null || removedChannels.isEmpty())
+				return;
+			
+			if (channelListeners.isEmpty()) {
+				// 所有频道都已退订时结束订阅线程，归还订阅连接
+				subscriber.stop();
+				subscriber = null;
+			} else
+				subscriber.removeChannels(removedChannels.toArray(new byte[removedChannels.size()][]));
+		}
+	}
+	
+	/**
+	 * 启动订阅线程，订阅当前所有有监听器的频道
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param delayMillis 订阅前等待的毫秒数
+	 * @return
+	 */
+	private Subscriber startSubscriber(long delayMillis) {
+		byte[][] channelBytes = new byte[channelListeners.size()][];
+		int index = 0;
+		for (String channel : channelListeners.keySet()) {
+			channelBytes[index++] = stringSerializer.serialize(channel);
+		}
+		
+		Subscriber newSubscriber = new Subscriber(channelBytes, delayMillis);
+		Thread thread = new Thread(newSubscriber, "jedis-subscriber");
+		thread.setDaemon(true);
+		newSubscriber.thread = thread;
+		thread.start();
+		return newSubscriber;
+	}
+	
+	/**
+	 * 订阅线程退出后的处理，订阅连接异常断开且还有频道监听器时延迟后重新订阅
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param exited
+	 */
+	private void onSubscriberExit(Subscriber exited) {
+		synchronized (channelListeners) {
+			// 已主动结束的订阅线程不再是当前订阅线程
+			if (subscriber != exited)
+				return;
+			
+			subscriber = null;
+			if (!destroyed && !channelListeners.isEmpty())
+				subscriber = startSubscriber(RESUBSCRIBE_DELAY_MILLIS);
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		destroyNearCaches();
+		synchronized (channelListeners) {
+			destroyed = true;
+			if (subscriber != null) {
+				subscriber.stop();
+				subscriber = null;
+			}
+		}
+		scanExecutor.shutdownNow();
+	}
+	
+	/**
+	 * 创建并行扫描的线程池，任务在所有线程都忙时排队等待
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private static ThreadPoolExecutor createScanExecutor() {
+		int poolSize = Runtime.getRuntime().availableProcessors();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(poolSize, poolSize, SCAN_KEEP_ALIVE_SECONDS, 
+				TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "jedis-scan-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	/**
+	 * 频道消息监听器的适配器，按订阅时指定库的值序列化器反序列化消息
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class MessageListenerAdapter<V> {
+
+		private final String dbName;
+		
+		private final RedisMessageListener<V> listener;
+		
+		MessageListenerAdapter(String dbName, RedisMessageListener<V> listener) {
+			this.dbName = dbName;
+			this.listener = listener;
+		}
+		
+		void onMessage(String channel, byte[] messageByte) {
+			V message = deserializeValueByte(dbName, messageByte, null);
+			listener.onMessage(channel, message);
+		}
+	}
+	
+	/**
+	 * 在独立线程中占用一个连接订阅频道，并将消息分发给频道上的监听器。</P>
+	 * 1.订阅建立后，其它线程通过订阅连接追加或退订频道；建立前的变更在收到首个订阅确认时由订阅线程补发，调用方无需等待。</P>
+	 * 2.订阅连接异常断开时线程退出，由onSubscriberExit方法决定是否重新订阅。</P>
+	 * 3.单个监听器处理消息时抛出的异常只记录日志，不影响其它监听器和订阅连接。
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class Subscriber extends BinaryJedisPubSub implements Runnable {
+
+		private final byte[][] initialChannels;
+		
+		private final long delayMillis;
+		
+		/** 是否已收到首个频道的订阅确认，由channelListeners锁保护 */
+		private boolean ready;
+		
+		private volatile boolean stopped;
+		
+		private Thread thread;
+		
+		Subscriber(byte[][] initialChannels, long delayMillis) {
+			this.initialChannels = initialChannels;
+			this.delayMillis = delayMillis;
+		}
+
+		@Override
+		public void run() {
+			try {
+				if (delayMillis > 0)
+					Thread.sleep(delayMillis);
+				
+				if (!stopped)
+					execute(getDefaultDbIndex(), new JedisClusterCallback<Object>() {
+
+						@Override
+						public Object doInJedis(Jedis jedis) {
+							// 阻塞到所有频道都退订或连接断开
+							jedis.subscribe(Subscriber.this, initialChannels);
+							return null;
+						}
+
+						@Override
+						public Object doInCluster(JedisCluster jedisCluster) {
+							jedisCluster.subscribe(Subscriber.this, initialChannels);
+							return null;
+						}
+					});
+			} catch (InterruptedException e) {
+				// 等待重新订阅时被结束
+			} catch (RuntimeException e) {
+				// 订阅连接异常断开
+			} finally {
+				onSubscriberExit(this);
+			}
+		}
+
+		@Override
+		public void onSubscribe(byte[] channel, int subscribedChannels) {
+			synchronized (channelListeners) {
+				if (ready)
+					return;
+				
+				ready = true;
+				if (stopped) {
+					unsubscribe();
+					return;
+				}
+				
+				// 补发订阅建立前追加或退订的频道
+				Set<String> subscribedNames = CollectionUtils.newHashSet(initialChannels.length);
+				for (byte[] initialChannel : initialChannels) {
+					String name = stringSerializer.deserialize(initialChannel);
+					subscribedNames.add(name);
+				}
+				
+				List<byte[]> addedChannels = CollectionUtils.newArrayList();
+				for (String name : channelListeners.keySet()) {
+					if (!subscribedNames.remove(name))
+						addedChannels.add(stringSerializer.serialize(name));
+				}
+				
+				if (!addedChannels.isEmpty())
+					subscribe(addedChannels.toArray(new byte[addedChannels.size()][]));
+				
+				if (!subscribedNames.isEmpty()) {
+					List<byte[]> removedChannels = CollectionUtils.newArrayList(subscribedNames.size());
+					for (String name : subscribedNames) {
+						removedChannels.add(stringSerializer.serialize(name));
+					}
+					unsubscribe(removedChannels.toArray(new byte[removedChannels.size()][]));
+				}
+			}
+		}
+
+		@Override
+		public void onMessage(byte[] channel, byte[] message) {
+			String channelName = stringSerializer.deserialize(channel);
+			Set<MessageListenerAdapter<?>> adapters = channelListeners.get(channelName);
+			if (adapters == null)
+				return;
+			
+			for (MessageListenerAdapter<?> adapter : adapters) {
+				try {
+					adapter.onMessage(channelName, message);
+				} catch (RuntimeException e) {
+					logger.warn("Failed to handle message of channel " + channelName, e);
+				}
+			}
+		}
+		
+		/**
+		 * 在订阅连接上追加频道，调用方需持有channelListeners锁。</P>
+		 * 订阅尚未建立时由首个订阅确认补发，订阅未能建立时线程退出后重新订阅会包含这些频道
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param channels
+		 */
+		void addChannels(byte[][] channels) {
+			if (ready && isSubscribed())
+				subscribe(channels);
+		}
+		
+		/**
+		 * 在订阅连接上退订频道，调用方需持有channelListeners锁
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param channels
+		 */
+		void removeChannels(byte[][] channels) {
+			if (ready && isSubscribed())
+				unsubscribe(channels);
+		}
+		
+		/**
+		 * 结束订阅线程，调用方需持有channelListeners锁，退订所有频道后订阅连接会被归还
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 */
+		void stop() {
+			stopped = true;
+			if (thread != null)
+				// 中断等待重新订阅的线程
+				thread.interrupt();
+			
+			// 订阅尚未建立时由首个订阅确认退订
+			if (ready && isSubscribed())
+				unsubscribe();
+		}
+	}
+	
+	@Override
+	public Long dbSize() {
+		return dbSize(null);
+	}
+
+	@Override
+	public Long dbSize(final String dbName) {
+		List<Long> sizes = executeOnNodes(true, dbName, new JedisCallback<Long>() {
+
+			@Override
+			public Long doInJedis(Jedis jedis) {
+				return jedis.dbSize();
+			}
+		});
+		
+		long size = 0;
+		for (Long nodeSize : sizes) {
+			size += nodeSize;
+		}
+		return size;
+	}
+
+	@Override
+	public void flushAll() {
+		executeOnNodes(true, null, new JedisCallback<Object>() {
+			
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				return jedis.flushAll();
+			}
+		});
+	}
+
+	@Override
+	public void flushDb() {
+		this.flushDb(null);
+	}
+
+	@Override
+	public void flushDb(final String dbName) {
+		executeOnNodes(true, dbName, new JedisCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				return jedis.flushDB();
+			}
+		});
+	}
+
+	@Override
+	public void shutdown() {
+		executeOnNodes(false, null, new JedisCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				return jedis.shutdown();
+			}
+		});
+	}
+	
+	@Override
+	public <K> void scan(String pattern, int batchSize, RedisScanCallback<List<K>> callback) {
+		scan(null, pattern, null, batchSize, callback);
+	}
+	
+	@Override
+	public <K> void scan(String dbName, String pattern, Class<K> keyType, int batchSize, RedisScanCallback<List<K>> callback) {
+		scan(dbName, pattern, keyType, batchSize, false, callback);
+	}
+	
+	@Override
+	public <K> void scan(final String dbName, String pattern, final Class<K> keyType, int batchSize,
+			boolean parallel, final RedisScanCallback<List<K>> callback) {
+
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [scan]");
+		
+		final ScanParams params = scanParams(pattern, batchSize);
+		final RedisScanCallback<List<byte[]>> converter = new RedisScanCallback<List<byte[]>>() {
+
+			@Override
+			public boolean doInBatch(List<byte[]> batch) {
+				Set<K> keys = deserializeKeyBytesToSet(dbName, CollectionUtils.newLinkedHashSet(batch), keyType);
+				return callback.doInBatch(keys != null ? CollectionUtils.newArrayList(keys) : Collections.<K>emptyList());
+			}
+		};
+		
+		if (parallel && isCluster()) {
+			parallelScan(params, converter);
+			return;
+		}
+		
+		executeOnNodes(true, dbName, new JedisCallback<Boolean>() {
+
+			private boolean completed = true;
+
+			@Override
+			public Boolean doInJedis(Jedis jedis) {
+				// 回调要求停止后不再扫描其它节点
+				if (completed)
+					completed = scanKeys(jedis, params, converter);
+				
+				return completed;
+			}
+		});
+	}
+	
+	/**
+	 * 在集群的所有主节点上并行扫描键，各节点的扫描和反序列化在独立线程中进行，回调依次执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param params
+	 * @param callback
+	 */
+	private void parallelScan(final ScanParams params, final RedisScanCallback<List<byte[]>> callback) {
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final RedisScanCallback<List<byte[]>> serialCallback = new RedisScanCallback<List<byte[]>>() {
+
+			@Override
+			public synchronized boolean doInBatch(List<byte[]> batch) {
+				if (stopped.get())
+					return false;
+				
+				if (!callback.doInBatch(batch)) {
+					stopped.set(true);
+					return false;
+				}
+				return true;
+			}
+		};
+		
+		Collection<JedisPool> pools = getJedisCluster().getClusterNodes().values();
+		List<Future<Object>> futures = CollectionUtils.newArrayList(pools.size());
+		try {
+			for (final JedisPool pool : pools) {
+				futures.add(scanExecutor.submit(new Callable<Object>() {
+
+					@Override
+					public Object call() throws Exception {
+						Jedis jedis = pool.getResource();
+						try {
+							if (isMaster(jedis))
+								scanKeys(jedis, params, serialCallback);
+						} finally {
+							jedis.close();
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Object> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// 任一节点扫描出错时停止其它节点的扫描
+					stopped.set(true);
+					Throwable cause = e.getCause();
+					throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+				} catch (InterruptedException e) {
+					stopped.set(true);
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for parallel scan", e);
+				}
+			}
+		} finally {
+			// 出错时取消尚未完成的节点扫描，线程池由所有扫描共用
+			for (Future<Object> future : futures) {
+				future.cancel(true);
+			}
+		}
+	}
+	
+	@Override
+	public <K, H, V> void hScan(K key, String pattern, int batchSize, RedisScanCallback<Map<H, V>> callback) {
+		hScan2(null, key, pattern, null, null, batchSize, callback);
+	}
+	
+	@Override
+	public <K, H, V> void hScan2(final String dbName, K key, String pattern, final Class<H> hashKeyType,
+			final Class<V> valueType, int batchSize, final RedisScanCallback<Map<H, V>> callback) {
+
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [hScan]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final ScanParams params = scanParams(pattern, batchSize);
+		execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+				do {
+					ScanResult<Entry<byte[], byte[]>> result = jedis.hscan(keyByte, cursor, params);
+					if (!result.getResult().isEmpty()) {
+						Map<byte[], byte[]> hashKeyValueBytes = MapUtils.newLinkedHashMap();
+						for (Entry<byte[], byte[]> entry : result.getResult()) {
+							hashKeyValueBytes.put(entry.getKey(), entry.getValue());
+						}
+						
+						if (!callback.doInBatch(deserializeHashKeyValueBytesToMap(dbName, hashKeyValueBytes, hashKeyType, valueType)))
+							return null;
+					}
+					
+					cursor = result.getCursorAsBytes();
+				} while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
+				
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// JedisCluster未提供二进制版本的hscan命令，在键所在节点的连接上执行
+				return executeOnKeyNode(keyByte, this);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> void sScan(K key, String pattern, int batchSize, RedisScanCallback<List<V>> callback) {
+		sScan2(null, key, pattern, null, batchSize, callback);
+	}
+	
+	@Override
+	public <K, V> void sScan2(final String dbName, K key, String pattern, final Class<V> valueType,
+			int batchSize, final RedisScanCallback<List<V>> callback) {
+
+		AssertUtils.assertNotNull(key, "Key can not be null of command [sScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [sScan]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final ScanParams params = scanParams(pattern, batchSize);
+		execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+				do {
+					ScanResult<byte[]> result = jedis.sscan(keyByte, cursor, params);
+					if (!result.getResult().isEmpty()
+							&& !callback.doInBatch(deserializeValueBytesToList(dbName, result.getResult(), valueType)))
+						return null;
+					
+					cursor = result.getCursorAsBytes();
+				} while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
+				
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// JedisCluster未提供二进制版本的sscan命令，在键所在节点的连接上执行
+				return executeOnKeyNode(keyByte, this);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> void zScan(K key, String pattern, int batchSize, RedisScanCallback<Map<V, Double>> callback) {
+		zScan2(null, key, pattern, null, batchSize, callback);
+	}
+	
+	@Override
+	public <K, V> void zScan2(final String dbName, K key, String pattern, final Class<V> valueType,
+			int batchSize, final RedisScanCallback<Map<V, Double>> callback) {
+
+		AssertUtils.assertNotNull(key, "Key can not be null of command [zScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [zScan]");
+		
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final ScanParams params = scanParams(pattern, batchSize);
+		execute(dbName, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				byte[] cursor = ScanParams.SCAN_POINTER_START_BINARY;
+				do {
+					ScanResult<Tuple> result = jedis.zscan(keyByte, cursor, params);
+					List<Tuple> tuples = result.getResult();
+					if (!tuples.isEmpty()) {
+						List<byte[]> memberBytes = CollectionUtils.newArrayList(tuples.size());
+						for (Tuple tuple : tuples) {
+							memberBytes.add(tuple.getBinaryElement());
+						}
+						
+						List<V> members = deserializeValueBytesToList(dbName, memberBytes, valueType);
+						Map<V, Double> scoreMembers = MapUtils.newLinkedHashMap();
+						for (int i = 0; i < tuples.size(); i++) {
+							scoreMembers.put(members.get(i), tuples.get(i).getScore());
+						}
+						
+						if (!callback.doInBatch(scoreMembers))
+							return null;
+					}
+					
+					cursor = result.getCursorAsBytes();
+				} while (!Arrays.equals(cursor, ScanParams.SCAN_POINTER_START_BINARY));
+				
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// JedisCluster未提供二进制版本的zscan命令，在键所在节点的连接上执行
+				return executeOnKeyNode(keyByte, this);
+			}
+		});
+	}
+	
+	@Override
+	public List<Object> executePipelined(RedisPipelineCallback callback) {
+		return executePipelined(null, callback);
+	}
+
+	@Override
+	public List<Object> executePipelined(final String dbName, final RedisPipelineCallback callback) {
+		AssertUtils.assertNotNull(callback, "Pipeline callback must not be null");
+		
+		return execute(dbName, new JedisClusterCallback<List<Object>>() {
+
+			@Override
+			public List<Object> doInJedis(Jedis jedis) {
+				return executePipelined(dbName, new JedisCommandsAdapter(jedis), jedis.pipelined(), callback);
+			}
+
+			@Override
+			public List<Object> doInCluster(JedisCluster jedisCluster) {
+				// 集群不支持管道，命令在回调中逐个执行
+				return executePipelined(dbName, jedisCluster, null, callback);
+			}
+		});
+	}
+	
+	/**
+	 * 在命令集上执行管道回调
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param commands
+	 * @param pipelined 命令集对应的管道，为null时命令不排队而直接执行
+	 * @param callback
+	 * @return
+	 */
+	private List<Object> executePipelined(final String dbName, BinaryJedisClusterCommands commands, 
+			Pipeline pipelined, RedisPipelineCallback callback) {
+		
+		JedisPipeline pipeline = new JedisPipeline(commands, pipelined, selectKeySerializer(dbName), selectValueSerializer(dbName), 
+				selectHashKeySerializer(dbName), selectHashValueSerializer(dbName), getExpireSeconds(dbName)) {
+
+			@Override
+			protected Object deserializeValue(byte[] valueByte, Class<?> valueType) {
+				return deserializeValueByte(dbName, valueByte, valueType);
+			}
+
+			@Override
+			protected Object deserializeHashValue(byte[] hashValueByte, Class<?> hashValueType) {
+				return deserializeHashValueByte(dbName, hashValueByte, hashValueType);
+			}
+		};
+		
+		try {
+			callback.doInPipeline(pipeline);
+		} catch (RuntimeException e) {
+			// 回调出错时读取并丢弃已排队命令的响应，避免连接带着未读取的响应被归还
+			try {
+				pipeline.discard();
+			} catch (RuntimeException ex) {
+				// 忽略排队命令的执行错误，保留回调抛出的原始异常
+			}
+			throw e;
+		}
+		
+		List<Object> results = pipeline.close();
+		List<byte[]> writtenKeys = pipeline.getWrittenKeys();
+		if (!writtenKeys.isEmpty())
+			invalidateNearCache(dbName, CollectionUtils.toArray(writtenKeys, byte[].class));
+		
+		return results;
+	}
+
+}
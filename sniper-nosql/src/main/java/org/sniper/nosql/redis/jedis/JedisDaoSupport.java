@@ -18,20 +18,51 @@
 
 package org.sniper.nosql.redis.jedis;
 
+import java.util.List;
+import java.util.Map;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.SecurityUtils;
+import org.sniper.nosql.redis.RedisRepository;
 import org.sniper.nosql.redis.dao.RedisDaoSupport;
+import org.sniper.serialization.jdk.JdkSerializer;
 
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisCluster;
+import redis.clients.jedis.JedisClusterInfoCache;
 import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.exceptions.JedisDataException;
+import redis.clients.jedis.exceptions.JedisMovedDataException;
+import redis.clients.util.JedisClusterCRC16;
 
 /**
- * JedisDao支持类
+ * JedisDao支持类，直接通过Jedis的二进制命令访问Redis，键和值由库对应的序列化器处理。</P>
+ * 1.设置jedisPool时为单机模式，每次操作从连接池借出一个连接，用完后归还。</P>
+ * 2.设置jedisCluster时为集群模式，命令通过JedisCluster按键所在的槽路由，不支持select命令和管道。</P>
+ * 3.两种模式下行为不同的命令通过JedisClusterCallback分别实现，编译期即可确定集群模式下的执行方式。</P>
+ * 4.开启了近端缓存或失效通知的库，写操作后由后台线程通过连接池的连接向失效频道批量发布被修改的键，
+ * 使其它客户端的近端缓存失效；Jedis实现自身的读操作不经过近端缓存。
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
 public abstract class JedisDaoSupport extends RedisDaoSupport {
 	
-	 private JedisPool jedisPool;
+	/** 写入并设置过期时间的脚本 */
+	private static final byte[] WRITE_AND_EXPIRE_SCRIPT = WRITE_AND_EXPIRE_LUA.getBytes();
+	
+	/** 写入并设置过期时间脚本的SHA1摘要，服务端已缓存脚本时只需发送摘要 */
+	private static final byte[] WRITE_AND_EXPIRE_SHA1 = SecurityUtils.digest(WRITE_AND_EXPIRE_LUA, "SHA-1").getBytes();
+	
+	/** 集群模式下在键所在节点上执行时的最大重定向次数 */
+	private static final int MAX_REDIRECTIONS = 5;
+	
+	private JedisPool jedisPool;
+	
+	private JedisCluster jedisCluster;
 	 
-	 public JedisPool getJedisPool() {
+	public JedisPool getJedisPool() {
 		return jedisPool;
 	}
 
@@ -39,20 +70,338 @@ public abstract class JedisDaoSupport extends RedisDaoSupport {
 		this.jedisPool = jedisPool;
 	}
 	
+	public JedisCluster getJedisCluster() {
+		return jedisCluster;
+	}
+
+	public void setJedisCluster(JedisCluster jedisCluster) {
+		this.jedisCluster = jedisCluster;
+	}
+
 	@Override
 	protected void checkProperties() {
+		if (this.jedisPool == null && this.jedisCluster == null)
+			throw new IllegalArgumentException("Property 'jedisPool' or 'jedisCluster' is required");
+	}
+	
+	@Override
+	protected void init() throws Exception {
 		if (this.jedisPool == null)
-			throw new IllegalArgumentException("Property 'jedisPool' is required");
+			setCluster(true);
+		
+		super.init();
 	}
 
 	@Override
 	protected void initializeDefaultDbIndex() throws Exception {
-		// TODO Auto-generated method stub
+		if (isCluster()) {
+			// 集群只有0号库
+			this.defaultDbIndex = 0;
+			return;
+		}
+		
+		Jedis jedis = this.jedisPool.getResource();
+		try {
+			this.defaultDbIndex = jedis.getDB().intValue();
+		} finally {
+			jedis.close();
+		}
 	}
 	
 	@Override
 	protected void initializeGlobalSerializers() {
-		// TODO Auto-generated method stub
+		if (getGlobalKeySerializer() == null)
+			setGlobalKeySerializer(stringSerializer);
+		
+		if (getGlobalValueSerializer() == null)
+			setGlobalValueSerializer(new JdkSerializer());
+		
+		if (getGlobalHashKeySerializer() == null)
+			setGlobalHashKeySerializer(stringSerializer);
+		
+		if (getGlobalHashValueSerializer() == null)
+			setGlobalHashValueSerializer(new JdkSerializer());
+	}
+	
+	/**
+	 * 通过同一个连接向库索引对应的失效频道发布每个键，单机模式下多个键时通过管道一次性发送。
+	 * 发布命令与库无关，因此在默认库的连接上执行，不需要切换库
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	@Override
+	protected void publishNearCacheInvalidation(int dbIndex, final byte[]... keyBytes) {
+		final byte[] channel = stringSerializer.serialize(NEAR_CACHE_CHANNEL_PREFIX + dbIndex);
+		execute(getDefaultDbIndex(), new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				if (keyBytes.length == 1)
+					return jedis.publish(channel, toNearCacheInvalidationMessage(keyBytes[0]));
+				
+				Pipeline pipeline = jedis.pipelined();
+				for (byte[] keyByte : keyBytes) {
+					pipeline.publish(channel, toNearCacheInvalidationMessage(keyByte));
+				}
+				pipeline.sync();
+				return null;
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				// 集群不支持管道，发布的消息会广播到所有节点
+				for (byte[] keyByte : keyBytes) {
+					jedisCluster.publish(channel, toNearCacheInvalidationMessage(keyByte));
+				}
+				return null;
+			}
+		});
+	}
+	
+	/**
+	 * 获取库名称对应的库
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @return 不存在时返回null
+	 */
+	protected RedisRepository getRepository(String dbName) {
+		return repositoryManager != null ? repositoryManager.getRepository(dbName) : null;
+	}
+	
+	/**
+	 * 获取库名称对应的库索引
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @return 库不存在时返回默认库索引
+	 */
+	protected int getDbIndex(String dbName) {
+		RedisRepository repository = getRepository(dbName);
+		return repository != null ? repository.getDbIndex() : getDefaultDbIndex();
+	}
+	
+	/**
+	 * 在库名称对应的库中执行回调
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param callback
+	 * @return
+	 */
+	protected <T> T execute(String dbName, JedisClusterCallback<T> callback) {
+		return execute(getDbIndex(dbName), callback);
+	}
+	
+	/**
+	 * 在指定索引库中执行回调，单机模式下从连接池借出连接并选择库，回调结束后归还
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param callback
+	 * @return
+	 */
+	protected <T> T execute(int dbIndex, JedisClusterCallback<T> callback) {
+		if (isCluster())
+			return callback.doInCluster(this.jedisCluster);
+		
+		Jedis jedis = this.jedisPool.getResource();
+		try {
+			select(jedis, dbIndex);
+			return callback.doInJedis(jedis);
+		} finally {
+			// 下次借出时连接池会将被select过的连接切回池配置的库，归还前无需切回
+			jedis.close();
+		}
+	}
+	
+	/**
+	 * 在所有节点的库名称对应的库中执行回调，单机模式下只有一个节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param mastersOnly 集群模式下是否只在主节点上执行
+	 * @param dbName
+	 * @param callback
+	 * @return 各节点的回调结果
+	 */
+	protected <T> List<T> executeOnNodes(boolean mastersOnly, String dbName, JedisCallback<T> callback) {
+		if (!isCluster()) {
+			Jedis jedis = this.jedisPool.getResource();
+			try {
+				select(jedis, getDbIndex(dbName));
+				List<T> results = CollectionUtils.newArrayList(1);
+				results.add(callback.doInJedis(jedis));
+				return results;
+			} finally {
+				jedis.close();
+			}
+		}
+		
+		Map<String, JedisPool> nodes = this.jedisCluster.getClusterNodes();
+		List<T> results = CollectionUtils.newArrayList(nodes.size());
+		for (JedisPool pool : nodes.values()) {
+			Jedis jedis = pool.getResource();
+			try {
+				if (!mastersOnly || isMaster(jedis))
+					results.add(callback.doInJedis(jedis));
+			} finally {
+				jedis.close();
+			}
+		}
+		return results;
+	}
+	
+	/**
+	 * 集群模式下在键所在节点的连接上执行回调，用于JedisCluster未提供二进制版本的单键命令。</P>
+	 * 先在任一节点上执行，节点返回MOVED时按重定向的目标节点重新执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyByte
+	 * @param callback
+	 * @return
+	 */
+	protected <T> T executeOnKeyNode(byte[] keyByte, JedisCallback<T> callback) {
+		Map<String, JedisPool> nodes = this.jedisCluster.getClusterNodes();
+		JedisPool pool = nodes.values().iterator().next();
+		for (int redirections = 0; ; redirections++) {
+			Jedis jedis = pool.getResource();
+			try {
+				return callback.doInJedis(jedis);
+			} catch (JedisMovedDataException e) {
+				if (redirections >= MAX_REDIRECTIONS)
+					throw e;
+				
+				pool = this.jedisCluster.getClusterNodes().get(JedisClusterInfoCache.getNodeKey(e.getTargetNode()));
+				if (pool == null)
+					throw e;
+			} finally {
+				jedis.close();
+			}
+		}
+	}
+	
+	/**
+	 * 判断Jedis连接所在的节点是否为主节点
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedis
+	 * @return
+	 */
+	protected boolean isMaster(Jedis jedis) {
+		return jedis.info("replication").contains("role:master");
+	}
+	
+	/**
+	 * 选择指定索引的库，集群模式下只有0号库，不会调用此方法
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param jedis
+	 * @param dbIndex
+	 */
+	protected void select(Jedis jedis, int dbIndex) {
+		if (dbIndex != this.defaultDbIndex)
+			jedis.select(dbIndex);
+	}
+	
+	/**
+	 * 通过脚本在一次网络往返中原子的执行写命令并设置键的过期时间，避免写入后进程退出导致键永不过期。</P>
+	 * 先只发送脚本的摘要，服务端未缓存脚本时再发送完整的脚本
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param command 写命令名称
+	 * @param expireIfPositive 是否只在写命令返回正数时设置过期时间
+	 * @param expireSeconds 大于0的过期秒数
+	 * @param key
+	 * @param args 写命令除键以外的参数
+	 * @return 写命令的原始结果
+	 */
+	protected Object writeAndExpire(String dbName, String command, 
+			boolean expireIfPositive, long expireSeconds, byte[] key, byte[]... args) {
+		return writeAndExpire(getDbIndex(dbName), command, expireIfPositive, expireSeconds, key, args);
+	}
+	
+	/**
+	 * 在指定索引库中通过脚本原子的执行写命令并设置键的过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param command 写命令名称
+	 * @param expireIfPositive 是否只在写命令返回正数时设置过期时间
+	 * @param expireSeconds 大于0的过期秒数
+	 * @param key
+	 * @param args 写命令除键以外的参数
+	 * @return 写命令的原始结果
+	 */
+	protected Object writeAndExpire(int dbIndex, String command, 
+			boolean expireIfPositive, long expireSeconds, byte[] key, byte[]... args) {
+		
+		final byte[][] keysAndArgs = new byte[args.length + 4][];
+		keysAndArgs[0] = key;
+		keysAndArgs[1] = stringSerializer.serialize(command);
+		keysAndArgs[2] = stringSerializer.serialize(expireSeconds);
+		keysAndArgs[3] = stringSerializer.serialize(expireIfPositive ? "1" : "0");
+		System.arraycopy(args, 0, keysAndArgs, 4, args.length);
+		
+		return execute(dbIndex, new JedisClusterCallback<Object>() {
+
+			@Override
+			public Object doInJedis(Jedis jedis) {
+				try {
+					return jedis.evalsha(WRITE_AND_EXPIRE_SHA1, 1, keysAndArgs);
+				} catch (JedisDataException e) {
+					checkNoScript(e);
+					return jedis.eval(WRITE_AND_EXPIRE_SCRIPT, 1, keysAndArgs);
+				}
+			}
+
+			@Override
+			public Object doInCluster(JedisCluster jedisCluster) {
+				try {
+					return jedisCluster.evalsha(WRITE_AND_EXPIRE_SHA1, 1, keysAndArgs);
+				} catch (JedisDataException e) {
+					checkNoScript(e);
+					return jedisCluster.eval(WRITE_AND_EXPIRE_SCRIPT, 1, keysAndArgs);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * 检查evalsha命令的异常是否为服务端未缓存脚本，不是时重新抛出。</P>
+	 * 服务端重启或执行过script flush后，用eval重新执行，服务端会同时缓存脚本
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param e
+	 */
+	private void checkNoScript(JedisDataException e) {
+		if (e.getMessage() == null || !e.getMessage().contains("NOSCRIPT"))
+			throw e;
+	}
+	
+	/**
+	 * 按键所在的槽对键的下标进行分组，集群模式下多键命令只能作用在同一个槽的键上
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyBytes
+	 * @return 槽与该槽上的键下标的映射集
+	 */
+	protected Map<Integer, List<Integer>> groupBySlot(byte[][] keyBytes) {
+		Map<Integer, List<Integer>> slots = MapUtils.newLinkedHashMap();
+		for (int i = 0; i < keyBytes.length; i++) {
+			int slot = JedisClusterCRC16.getSlot(keyBytes[i]);
+			List<Integer> indexes = slots.get(slot);
+			if (indexes == null) {
+				indexes = CollectionUtils.newArrayList();
+				slots.put(slot, indexes);
+			}
+			indexes.add(i);
+		}
+		return slots;
+	}
+	
+	/**
+	 * 获取指定下标的键组成的数组
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param keyBytes
+	 * @param indexes
+	 * @return
+	 */
+	protected byte[][] subKeys(byte[][] keyBytes, List<Integer> indexes) {
+		byte[][] subKeys = new byte[indexes.size()][];
+		for (int i = 0; i < subKeys.length; i++) {
+			subKeys[i] = keyBytes[indexes.get(i)];
+		}
+		return subKeys;
 	}
 
 }
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.jedis;
+
+import java.util.List;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.nosql.redis.dao.RedisPipeline;
+import org.sniper.serialization.Serializer;
+
+import redis.clients.jedis.BinaryJedisClusterCommands;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
+
+/**
+ * Jedis管道抽象类。</P>
+ * 单机模式下命令通过Jedis原生管道排队，同步时一次性发送，排队时记录结果的转换方式，
+ * 同步后按顺序将原始结果转换为与命令一一对应的结果，值的反序列化由子类按所在库的规则实现。
+ * 集群模式下不支持管道，命令被直接执行
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+abstract class JedisPipeline implements RedisPipeline {
+	
+	/** 原样返回结果的转换器 */
+	private static final Converter IDENTITY = new Converter(false, null);
+	
+	/** 无返回值命令的转换器 */
+	private static final Converter STATUS = new Converter(false, null);
+	
+	/** 将整数结果转换为是否为1的转换器 */
+	private static final Converter BOOLEAN = new Converter(false, null);
+	
+	private final BinaryJedisClusterCommands commands;
+	
+	/** Jedis原生管道，集群模式下为null */
+	private final Pipeline pipeline;
+	
+	private final Serializer keySerializer;
+	
+	private final Serializer valueSerializer;
+	
+	private final Serializer hashKeySerializer;
+	
+	private final Serializer hashValueSerializer;
+	
+	/** 所在库的过期秒数 */
+	private final long expireSeconds;
+	
+	/** 与命令一一对应的结果转换器 */
+	private final List<Converter> converters = CollectionUtils.newArrayList();
+	
+	/** 管道中排队命令的响应或直接执行时的原始结果 */
+	private final List<Object> rawResults = CollectionUtils.newArrayList();
+	
+	/** 被写命令修改过的键 */
+	private final List<byte[]> writtenKeys = CollectionUtils.newArrayList();
+	
+	JedisPipeline(BinaryJedisClusterCommands commands, Pipeline pipeline, Serializer keySerializer, Serializer valueSerializer, 
+			Serializer hashKeySerializer, Serializer hashValueSerializer, long expireSeconds) {
+		
+		this.commands = commands;
+		this.pipeline = pipeline;
+		this.keySerializer = keySerializer;
+		this.valueSerializer = valueSerializer;
+		this.hashKeySerializer = hashKeySerializer;
+		this.hashValueSerializer = hashValueSerializer;
+		this.expireSeconds = expireSeconds;
+	}
+
+	@Override
+	public <K> void get(K key) {
+		get(key, null);
+	}
+
+	@Override
+	public <K, V> void get(K key, Class<V> valueType) {
+		byte[] keyByte = keySerializer.serialize(key);
+		add(pipeline != null ? pipeline.get(keyByte) : commands.get(keyByte), new Converter(false, valueType));
+	}
+
+	@Override
+	public <K, V> void set(K key, V value) {
+		set(key, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void set(K key, V value, long expireSeconds) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] valueByte = valueSerializer.serialize(value);
+		if (expireSeconds > 0)
+			add(pipeline != null ? pipeline.setex(keyByte, (int) expireSeconds, valueByte) 
+					: commands.setex(keyByte, (int) expireSeconds, valueByte), STATUS);
+		else
+			add(pipeline != null ? pipeline.set(keyByte, valueByte) : commands.set(keyByte, valueByte), STATUS);
+		
+		writtenKeys.add(keyByte);
+	}
+
+	@Override
+	public <K> void del(K key) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(pipeline != null ? pipeline.del(keyByte) : commands.del(keyByte), IDENTITY);
+	}
+
+	@Override
+	public <K> void exists(K key) {
+		byte[] keyByte = keySerializer.serialize(key);
+		add(pipeline != null ? pipeline.exists(keyByte) : commands.exists(keyByte), IDENTITY);
+	}
+
+	@Override
+	public <K> void expire(K key, long seconds) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(pipeline != null ? pipeline.expire(keyByte, (int) seconds) : commands.expire(keyByte, (int) seconds), BOOLEAN);
+	}
+
+	@Override
+	public <K> void incrBy(K key, long value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(pipeline != null ? pipeline.incrBy(keyByte, value) : commands.incrBy(keyByte, value), IDENTITY);
+	}
+
+	@Override
+	public <K, H> void hGet(K key, H hashKey) {
+		hGet(key, hashKey, null);
+	}
+
+	@Override
+	public <K, H, V> void hGet(K key, H hashKey, Class<V> hashValueType) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] hashKeyByte = hashKeySerializer.serialize(hashKey);
+		add(pipeline != null ? pipeline.hget(keyByte, hashKeyByte) : commands.hget(keyByte, hashKeyByte), 
+				new Converter(true, hashValueType));
+	}
+
+	@Override
+	public <K, H, V> void hSet(K key, H hashKey, V value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] hashKeyByte = hashKeySerializer.serialize(hashKey);
+		byte[] valueByte = hashValueSerializer.serialize(value);
+		writtenKeys.add(keyByte);
+		add(pipeline != null ? pipeline.hset(keyByte, hashKeyByte, valueByte) 
+				: commands.hset(keyByte, hashKeyByte, valueByte), BOOLEAN);
+	}
+
+	@Override
+	public <K, H> void hDel(K key, H hashKey) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] hashKeyByte = hashKeySerializer.serialize(hashKey);
+		writtenKeys.add(keyByte);
+		add(pipeline != null ? pipeline.hdel(keyByte, hashKeyByte) : commands.hdel(keyByte, hashKeyByte), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void lPush(K key, V value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] valueByte = valueSerializer.serialize(value);
+		add(pipeline != null ? pipeline.lpush(keyByte, valueByte) : commands.lpush(keyByte, valueByte), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void rPush(K key, V value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] valueByte = valueSerializer.serialize(value);
+		add(pipeline != null ? pipeline.rpush(keyByte, valueByte) : commands.rpush(keyByte, valueByte), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void sAdd(K key, V member) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] memberByte = valueSerializer.serialize(member);
+		add(pipeline != null ? pipeline.sadd(keyByte, memberByte) : commands.sadd(keyByte, memberByte), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void zAdd(K key, double score, V member) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] memberByte = valueSerializer.serialize(member);
+		add(pipeline != null ? pipeline.zadd(keyByte, score, memberByte) : commands.zadd(keyByte, score, memberByte), BOOLEAN);
+	}
+	
+	/**
+	 * 同步管道后返回与命令一一对应的结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	List<Object> close() {
+		if (pipeline != null)
+			pipeline.sync();
+		
+		List<Object> results = CollectionUtils.newArrayList(converters.size());
+		for (int i = 0; i < converters.size(); i++) {
+			Object rawResult = rawResults.get(i);
+			if (rawResult instanceof Response)
+				rawResult = ((Response<?>) rawResult).get();
+			
+			results.add(convert(converters.get(i), rawResult));
+		}
+		return results;
+	}
+	
+	/**
+	 * 获取被写命令修改过的键，用于在管道关闭后使近端缓存失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	List<byte[]> getWrittenKeys() {
+		return writtenKeys;
+	}
+	
+	/**
+	 * 丢弃管道中已排队的命令，读取并忽略它们的响应，避免连接带着未读取的响应被归还
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	void discard() {
+		if (pipeline != null)
+			pipeline.sync();
+	}
+	
+	/**
+	 * 添加命令的原始结果及其转换器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param rawResult
+	 * @param converter
+	 */
+	private void add(Object rawResult, Converter converter) {
+		converters.add(converter);
+		rawResults.add(rawResult);
+	}
+	
+	/**
+	 * 转换原始结果，字节结果按转换器指定的类型反序列化，其它结果按转换器的类型转换或原样返回
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param converter
+	 * @param rawResult
+	 * @return
+	 */
+	private Object convert(Converter converter, Object rawResult) {
+		if (converter == STATUS)
+			return null;
+		
+		if (converter == BOOLEAN)
+			return rawResult instanceof Long ? Boolean.valueOf((Long) rawResult == 1) : rawResult;
+		
+		if (converter == IDENTITY || !(rawResult instanceof byte[]))
+			return rawResult;
+		
+		return converter.hash ? deserializeHashValue((byte[]) rawResult, converter.type) 
+				: deserializeValue((byte[]) rawResult, converter.type);
+	}
+	
+	/**
+	 * 将值字节反序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param valueByte
+	 * @param valueType
+	 * @return
+	 */
+	protected abstract Object deserializeValue(byte[] valueByte, Class<?> valueType);
+	
+	/**
+	 * 将哈希值字节反序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hashValueByte
+	 * @param hashValueType
+	 * @return
+	 */
+	protected abstract Object deserializeHashValue(byte[] hashValueByte, Class<?> hashValueType);
+	
+	/**
+	 * 结果转换器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Converter {
+		
+		/** 是否为哈希值 */
+		private final boolean hash;
+		
+		/** 反序列化的目标类型 */
+		private final Class<?> type;
+		
+		private Converter(boolean hash, Class<?> type) {
+			this.hash = hash;
+			this.type = type;
+		}
+	}
+
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.lettuce;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.RedisAsyncCommandsDao;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.RedisFuture;
+
+/**
+ * 基于Lettuce的Redis异步命令接口实现类，命令发送后立即返回，结果由Lettuce的IO线程回调设置，
+ * 调用线程和连接均不会被命令占用，并发发送的命令在同一个连接上以管道方式传输。</P>
+ * 写入时的过期时间、序列化器和近端缓存失效通知与同步DAO的行为一致
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LettuceAsyncCommandsDaoImpl extends LettuceDaoSupport implements RedisAsyncCommandsDao {
+	
+	/** 丢弃状态回复的转换器 */
+	private static final ResultConverter<String, Void> VOID_CONVERTER = new ResultConverter<String, Void>() {
+
+		@Override
+		public Void convert(String result) {
+			return null;
+		}
+	};
+	
+	/** 将整数结果1转换为true的转换器 */
+	private static final ResultConverter<Long, Boolean> ONE_CONVERTER = new ResultConverter<Long, Boolean>() {
+
+		@Override
+		public Boolean convert(Long result) {
+			return result != null && result == 1;
+		}
+	};
+	
+	@Override
+	public <K, V> ListenableFuture<Void> set2(String dbName, K key, V value) {
+		return set2(dbName, key, value, 0);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Void> set2(String dbName, K key, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [set]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [set]");
+		
+		RedisRepository repository = getRepository(dbName);
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(repository);
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] valueByte = selectValueSerializer(dbName).serialize(value);
+		long seconds = resolveExpireSeconds(repository, expireSeconds);
+		
+		// 设值与过期时间在同一个命令中完成
+		RedisFuture<String> future = seconds > 0 ? asyncConnection.setex(keyByte, seconds, valueByte) 
+				: asyncConnection.set(keyByte, valueByte);
+		invalidateNearCache(dbName, keyByte);
+		return adapt(future, VOID_CONVERTER);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<V> get2(String dbName, K key) {
+		return get2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<V> get2(final String dbName, K key, final Class<V> valueType) {
+		if (key == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).get(keyByte), new ResultConverter<byte[], V>() {
+
+			@Override
+			public V convert(byte[] valueByte) {
+				return deserializeValueByte(dbName, valueByte, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> mGet(String dbName, Collection<K> keys) {
+		return mGet(dbName, keys, null);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> mGet(final String dbName, Collection<K> keys, final Class<V> valueType) {
+		if (CollectionUtils.isEmpty(keys))
+			return immediate(null);
+		
+		byte[][] keyBytes = serializeKeysToArray(dbName, CollectionUtils.toObjectArray(keys));
+		return adapt(getAsyncConnection(getRepository(dbName)).mget(keyBytes), new ResultConverter<List<byte[]>, List<V>>() {
+
+			@Override
+			public List<V> convert(List<byte[]> valueBytes) {
+				return deserializeValueBytesToList(dbName, valueBytes, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> incrBy(String dbName, K key, long value) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [incrBy]");
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		RedisFuture<Long> future = getAsyncConnection(getRepository(dbName)).incrby(keyByte, value);
+		invalidateNearCache(dbName, keyByte);
+		return adapt(future);
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Boolean> hSet2(String dbName, K key, H hashKey, V value) {
+		return hSet2(dbName, key, hashKey, value, 0);
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Boolean> hSet2(String dbName, K key, H hashKey, V value, long expireSeconds) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hSet]");
+		AssertUtils.assertNotNull(hashKey, "Hash key can not be null of command [hSet]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [hSet]");
+		
+		RedisRepository repository = getRepository(dbName);
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(repository);
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		byte[] valueByte = selectHashValueSerializer(dbName).serialize(value);
+		long seconds = resolveExpireSeconds(repository, expireSeconds);
+		
+		ListenableFuture<Boolean> result;
+		if (seconds > 0) {
+			ListenableFuture<Long> future = writeAndExpire(asyncConnection, "HSET", false, seconds, keyByte, hashKeyByte, valueByte);
+			result = transform(future, ONE_CONVERTER);
+		} else
+			result = adapt(asyncConnection.hset(keyByte, hashKeyByte, valueByte));
+		
+		invalidateNearCache(dbName, keyByte);
+		return result;
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<V> hGet2(String dbName, K key, H hashKey) {
+		return hGet2(dbName, key, hashKey, null);
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<V> hGet2(final String dbName, K key, H hashKey, final Class<V> valueType) {
+		if (key == null || hashKey == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		return adapt(getAsyncConnection(getRepository(dbName)).hget(keyByte, hashKeyByte), new ResultConverter<byte[], V>() {
+
+			@Override
+			public V convert(byte[] valueByte) {
+				return deserializeHashValueByte(dbName, valueByte, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<List<V>> hMGet(String dbName, K key, Collection<H> hashKeys) {
+		return hMGet(dbName, key, hashKeys, null);
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<List<V>> hMGet(final String dbName, K key, Collection<H> hashKeys, final Class<V> valueType) {
+		if (key == null || CollectionUtils.isEmpty(hashKeys))
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[][] hashKeyBytes = serializeHashKeysToArray(dbName, CollectionUtils.toObjectArray(hashKeys));
+		return adapt(getAsyncConnection(getRepository(dbName)).hmget(keyByte, hashKeyBytes), new ResultConverter<List<byte[]>, List<V>>() {
+
+			@Override
+			public List<V> convert(List<byte[]> valueBytes) {
+				return deserializeHashValueBytesToList(dbName, valueBytes, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(String dbName, K key) {
+		return hGetAll2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, H, V> ListenableFuture<Map<H, V>> hGetAll2(final String dbName, K key, final Class<V> valueType) {
+		if (key == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).hgetall(keyByte), new ResultConverter<Map<byte[], byte[]>, Map<H, V>>() {
+
+			@Override
+			public Map<H, V> convert(Map<byte[], byte[]> hashKeyValueBytes) {
+				return deserializeHashKeyValueBytesToMap(dbName, hashKeyValueBytes, null, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, H> ListenableFuture<Long> hDel(String dbName, K key, Collection<H> hashKeys) {
+		if (key == null || CollectionUtils.isEmpty(hashKeys))
+			return immediate(0L);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[][] hashKeyBytes = serializeHashKeysToArray(dbName, CollectionUtils.toObjectArray(hashKeys));
+		RedisFuture<Long> future = getAsyncConnection(getRepository(dbName)).hdel(keyByte, hashKeyBytes);
+		invalidateNearCache(dbName, keyByte);
+		return adapt(future);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Long> rPush(String dbName, K key, Collection<V> values) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [rPush]");
+		AssertUtils.assertNotEmpty(values, "Values can not be empty of command [rPush]");
+		
+		RedisRepository repository = getRepository(dbName);
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(repository);
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[][] valueBytes = serializeValuesToArray(dbName, CollectionUtils.toObjectArray(values));
+		long seconds = resolveExpireSeconds(repository, 0);
+		if (seconds > 0)
+			return writeAndExpire(asyncConnection, "RPUSH", true, seconds, keyByte, valueBytes);
+		
+		return adapt(asyncConnection.rpush(keyByte, valueBytes));
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> lRange(String dbName, K key, long begin, long end) {
+		return lRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<List<V>> lRange(final String dbName, K key, long begin, long end, final Class<V> valueType) {
+		if (key == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).lrange(keyByte, begin, end), new ResultConverter<List<byte[]>, List<V>>() {
+
+			@Override
+			public List<V> convert(List<byte[]> valueBytes) {
+				return deserializeValueBytesToList(dbName, valueBytes, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Long> sAdd2(String dbName, K key, V member) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [sAdd]");
+		AssertUtils.assertNotNull(member, "Member can not be null of command [sAdd]");
+		
+		RedisRepository repository = getRepository(dbName);
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(repository);
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		long seconds = resolveExpireSeconds(repository, 0);
+		if (seconds > 0)
+			return writeAndExpire(asyncConnection, "SADD", true, seconds, keyByte, memberByte);
+		
+		return adapt(asyncConnection.sadd(keyByte, memberByte));
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Boolean> sIsMember(String dbName, K key, V member) {
+		if (key == null || member == null)
+			return immediate(false);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return adapt(getAsyncConnection(getRepository(dbName)).sismember(keyByte, memberByte));
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> sMembers2(String dbName, K key) {
+		return sMembers2(dbName, key, null);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> sMembers2(final String dbName, K key, final Class<V> valueType) {
+		if (key == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).smembers(keyByte), new ResultConverter<Set<byte[]>, Set<V>>() {
+
+			@Override
+			public Set<V> convert(Set<byte[]> valueBytes) {
+				return deserializeValueByteToSet(dbName, valueBytes, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Boolean> zAdd2(String dbName, K key, double score, V member) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [zAdd]");
+		AssertUtils.assertNotNull(member, "Member can not be null of command [zAdd]");
+		
+		RedisRepository repository = getRepository(dbName);
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(repository);
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		long seconds = resolveExpireSeconds(repository, 0);
+		ListenableFuture<Long> future;
+		if (seconds > 0)
+			future = writeAndExpire(asyncConnection, "ZADD", false, seconds, 
+					keyByte, stringSerializer.serialize(toScoreString(score)), memberByte);
+		else
+			future = adapt(asyncConnection.zadd(keyByte, score, memberByte));
+		
+		return transform(future, ONE_CONVERTER);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> zRange(String dbName, K key, long begin, long end) {
+		return zRange(dbName, key, begin, end, null);
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Set<V>> zRange(final String dbName, K key, long begin, long end, final Class<V> valueType) {
+		if (key == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).zrange(keyByte, begin, end), new ResultConverter<List<byte[]>, Set<V>>() {
+
+			@Override
+			public Set<V> convert(List<byte[]> valueBytes) {
+				// 按分值排列的成员有序的放入集合中
+				return deserializeValueByteToSet(dbName, valueBytes, valueType);
+			}
+		});
+	}
+	
+	@Override
+	public <K, V> ListenableFuture<Double> zScore(String dbName, K key, V member) {
+		if (key == null || member == null)
+			return immediate(null);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		byte[] memberByte = selectValueSerializer(dbName).serialize(member);
+		return adapt(getAsyncConnection(getRepository(dbName)).zscore(keyByte, memberByte));
+	}
+	
+	@Override
+	public <K> ListenableFuture<Boolean> exists(String dbName, K key) {
+		if (key == null)
+			return immediate(false);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).exists(keyByte));
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> del(String dbName, Collection<K> keys) {
+		if (CollectionUtils.isEmpty(keys))
+			return immediate(0L);
+		
+		byte[][] keyBytes = serializeKeysToArray(dbName, CollectionUtils.toObjectArray(keys));
+		RedisFuture<Long> future = getAsyncConnection(getRepository(dbName)).del(keyBytes);
+		invalidateNearCache(dbName, keyBytes);
+		return adapt(future);
+	}
+	
+	@Override
+	public <K> ListenableFuture<Boolean> expire(String dbName, K key, long seconds) {
+		if (key == null)
+			return immediate(false);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		RedisFuture<Boolean> future = getAsyncConnection(getRepository(dbName)).expire(keyByte, seconds);
+		// 缩短过期时间后近端缓存中的值可能比Redis中的键存活得更久
+		invalidateNearCache(dbName, keyByte);
+		return adapt(future);
+	}
+	
+	@Override
+	public <K> ListenableFuture<Long> ttl(String dbName, K key) {
+		if (key == null)
+			return immediate(-2L);
+		
+		byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		return adapt(getAsyncConnection(getRepository(dbName)).ttl(keyByte));
+	}
+
+}
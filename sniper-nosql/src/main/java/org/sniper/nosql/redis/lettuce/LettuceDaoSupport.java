@@ -0,0 +1,408 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.redis.lettuce;
+
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.SecurityUtils;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.RedisDaoSupport;
+import org.sniper.serialization.jdk.JdkSerializer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lambdaworks.redis.RedisAsyncConnection;
+import com.lambdaworks.redis.RedisCommandExecutionException;
+import com.lambdaworks.redis.RedisFuture;
+import com.lambdaworks.redis.ScriptOutputType;
+
+/**
+ * Lettuce异步DAO支持类，命令通过Lettuce共享的本地异步连接发送，发送后立即返回，
+ * 不占用调用线程和连接池中的连接，多个命令在同一个连接上自动以管道方式传输。</P>
+ * 1.每个库索引对应一个共享连接，连接建立时即选择好库，命令执行过程中不再发送select命令。</P>
+ * 2.默认库之外的库优先使用dbConnectionFactories中配置的连接工厂，未配置时由默认的连接工厂派生，
+ *   派生的连接工厂在销毁时一并销毁。</P>
+ * 3.命令结果在Lettuce的IO线程中反序列化并回调，Future的回调中不应执行阻塞操作。</P>
+ * 4.连接工厂必须共享本地连接，哨兵模式下默认库之外的库必须在dbConnectionFactories中配置。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public abstract class LettuceDaoSupport extends RedisDaoSupport implements DisposableBean {
+	
+	/** 写入并设置过期时间脚本的SHA1摘要，服务端已缓存脚本时只需发送摘要 */
+	private static final String WRITE_AND_EXPIRE_SHA1 = SecurityUtils.digest(WRITE_AND_EXPIRE_LUA, "SHA-1");
+	
+	/** 直接返回命令原始结果的转换器 */
+	private static final ResultConverter<Object, Object> IDENTITY_CONVERTER = new ResultConverter<Object, Object>() {
+
+		@Override
+		public Object convert(Object result) {
+			return result;
+		}
+	};
+	
+	/** 默认库的连接工厂 */
+	private LettuceConnectionFactory connectionFactory;
+	
+	/** 库索引与连接工厂的映射集 */
+	private Map<Integer, LettuceConnectionFactory> dbConnectionFactories = MapUtils.newHashMap();
+	
+	/** 由默认的连接工厂派生的连接工厂 */
+	private final Map<Integer, LettuceConnectionFactory> derivedConnectionFactories = MapUtils.newConcurrentHashMap();
+	
+	/** 库索引与共享的本地异步连接的映射集 */
+	private final Map<Integer, RedisAsyncConnection<byte[], byte[]>> asyncConnections = MapUtils.newConcurrentHashMap();
+
+	public LettuceConnectionFactory getConnectionFactory() {
+		return connectionFactory;
+	}
+
+	public void setConnectionFactory(LettuceConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+
+	public Map<Integer, LettuceConnectionFactory> getDbConnectionFactories() {
+		return dbConnectionFactories;
+	}
+
+	public void setDbConnectionFactories(Map<Integer, LettuceConnectionFactory> dbConnectionFactories) {
+		this.dbConnectionFactories = dbConnectionFactories;
+	}
+
+	@Override
+	protected void checkProperties() {
+		if (this.connectionFactory == null)
+			throw new IllegalArgumentException("Property 'connectionFactory' is required");
+		
+		checkShareNativeConnection(this.connectionFactory);
+		if (this.dbConnectionFactories != null) {
+			for (LettuceConnectionFactory dbConnectionFactory : this.dbConnectionFactories.values()) {
+				checkShareNativeConnection(dbConnectionFactory);
+			}
+		}
+	}
+	
+	/**
+	 * 检查连接工厂是否共享本地连接，未共享时每次获取的都是专用连接，关闭后无法继续使用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 */
+	private static void checkShareNativeConnection(LettuceConnectionFactory connectionFactory) {
+		if (!connectionFactory.getShareNativeConnection())
+			throw new IllegalArgumentException("Lettuce connection factory must share native connection");
+	}
+	
+	@Override
+	protected void initializeDefaultDbIndex() throws Exception {
+		this.defaultDbIndex = this.connectionFactory.getDatabase();
+	}
+	
+	@Override
+	protected void initializeGlobalSerializers() {
+		if (getGlobalKeySerializer() == null)
+			setGlobalKeySerializer(stringSerializer);
+		
+		if (getGlobalValueSerializer() == null)
+			setGlobalValueSerializer(new JdkSerializer());
+		
+		if (getGlobalHashKeySerializer() == null)
+			setGlobalHashKeySerializer(stringSerializer);
+		
+		if (getGlobalHashValueSerializer() == null)
+			setGlobalHashValueSerializer(new JdkSerializer());
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		destroyNearCaches();
+		this.asyncConnections.clear();
+		for (LettuceConnectionFactory derivedConnectionFactory : this.derivedConnectionFactories.values()) {
+			derivedConnectionFactory.destroy();
+		}
+		this.derivedConnectionFactories.clear();
+	}
+	
+	/**
+	 * 获取指定库对应的Redis仓库
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @return 未配置时返回null
+	 */
+	protected RedisRepository getRepository(String dbName) {
+		return repositoryManager != null ? repositoryManager.getRepository(dbName) : null;
+	}
+	
+	/**
+	 * 获取Redis仓库对应库的共享异步连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param repository 为null时获取默认库的连接
+	 * @return
+	 */
+	protected RedisAsyncConnection<byte[], byte[]> getAsyncConnection(RedisRepository repository) {
+		return getAsyncConnection(repository != null ? repository.getDbIndex() : getDefaultDbIndex());
+	}
+	
+	/**
+	 * 获取库索引对应的共享异步连接，首次获取时建立连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @return
+	 */
+	protected RedisAsyncConnection<byte[], byte[]> getAsyncConnection(int dbIndex) {
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = this.asyncConnections.get(dbIndex);
+		if (asyncConnection != null)
+			return asyncConnection;
+		
+		synchronized (this.asyncConnections) {
+			asyncConnection = this.asyncConnections.get(dbIndex);
+			if (asyncConnection == null) {
+				asyncConnection = openAsyncConnection(selectConnectionFactory(dbIndex));
+				this.asyncConnections.put(dbIndex, asyncConnection);
+			}
+			return asyncConnection;
+		}
+	}
+	
+	/**
+	 * 选择库索引对应的连接工厂，未配置时由默认的连接工厂派生
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @return
+	 */
+	private LettuceConnectionFactory selectConnectionFactory(int dbIndex) {
+		if (dbIndex == getDefaultDbIndex())
+			return this.connectionFactory;
+		
+		LettuceConnectionFactory dbConnectionFactory = this.dbConnectionFactories != null ? 
+				this.dbConnectionFactories.get(dbIndex) : null;
+		if (dbConnectionFactory != null)
+			return dbConnectionFactory;
+		
+		if (this.connectionFactory.isRedisSentinelAware())
+			throw new IllegalStateException("Lettuce connection factory of db [" + dbIndex + "] is not configured");
+		
+		dbConnectionFactory = new LettuceConnectionFactory(this.connectionFactory.getHostName(), this.connectionFactory.getPort());
+		dbConnectionFactory.setPassword(this.connectionFactory.getPassword());
+		dbConnectionFactory.setTimeout(this.connectionFactory.getTimeout());
+		dbConnectionFactory.setShutdownTimeout(this.connectionFactory.getShutdownTimeout());
+		dbConnectionFactory.setDatabase(dbIndex);
+		dbConnectionFactory.afterPropertiesSet();
+		this.derivedConnectionFactories.put(dbIndex, dbConnectionFactory);
+		return dbConnectionFactory;
+	}
+	
+	/**
+	 * 从连接工厂中获取共享的本地异步连接，共享连接不会随Spring连接的关闭而关闭
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	private static RedisAsyncConnection<byte[], byte[]> openAsyncConnection(LettuceConnectionFactory connectionFactory) {
+		RedisConnection connection = connectionFactory.getConnection();
+		try {
+			return (RedisAsyncConnection<byte[], byte[]>) connection.getNativeConnection();
+		} finally {
+			connection.close();
+		}
+	}
+	
+	/**
+	 * 异步连接上的发布命令不等待响应，直接跟在写命令之后发送，不需要后台线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	@Override
+	protected boolean isBlockingInvalidationPublish() {
+		return false;
+	}
+	
+	/**
+	 * 在库索引对应的连接上发布近端缓存失效消息，与之前的写命令在同一个连接上按顺序执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	@Override
+	protected void publishNearCacheInvalidation(int dbIndex, byte[]... keyBytes) {
+		RedisAsyncConnection<byte[], byte[]> asyncConnection = getAsyncConnection(dbIndex);
+		byte[] channel = (NEAR_CACHE_CHANNEL_PREFIX + dbIndex).getBytes();
+		for (byte[] keyByte : keyBytes) {
+			asyncConnection.publish(channel, toNearCacheInvalidationMessage(keyByte));
+		}
+	}
+	
+	/**
+	 * 创建已完成的Future，用于无需发送命令的调用
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param value
+	 * @return
+	 */
+	protected <T> ListenableFuture<T> immediate(T value) {
+		SettableListenableFuture<T> result = new SettableListenableFuture<T>();
+		result.set(value);
+		return result;
+	}
+	
+	/**
+	 * 将Lettuce命令的Future适配为Spring的ListenableFuture，结果不做转换
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param future
+	 * @return
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	protected <T> ListenableFuture<T> adapt(RedisFuture<T> future) {
+		return adapt(future, (ResultConverter) IDENTITY_CONVERTER);
+	}
+	
+	/**
+	 * 将Lettuce命令的Future适配为Spring的ListenableFuture，命令完成后在IO线程中转换结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param future
+	 * @param converter
+	 * @return
+	 */
+	protected <R, T> ListenableFuture<T> adapt(RedisFuture<R> future, ResultConverter<R, T> converter) {
+		SettableListenableFuture<T> result = new SettableListenableFuture<T>();
+		complete(future, converter, result);
+		return result;
+	}
+	
+	/**
+	 * 在Future完成后转换其结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param future
+	 * @param converter
+	 * @return
+	 */
+	protected <R, T> ListenableFuture<T> transform(ListenableFuture<R> future, final ResultConverter<R, T> converter) {
+		final SettableListenableFuture<T> result = new SettableListenableFuture<T>();
+		future.addCallback(new ListenableFutureCallback<R>() {
+
+			@Override
+			public void onSuccess(R value) {
+				try {
+					result.set(converter.convert(value));
+				} catch (Throwable e) {
+					result.setException(e);
+				}
+			}
+
+			@Override
+			public void onFailure(Throwable e) {
+				result.setException(e);
+			}
+		});
+		return result;
+	}
+	
+	/**
+	 * 在Lettuce命令完成后转换结果并设置到目标Future中，服务端返回错误时目标Future以RedisCommandExecutionException失败
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param future
+	 * @param converter
+	 * @param result
+	 */
+	private static <R, T> void complete(final RedisFuture<R> future, 
+			final ResultConverter<R, T> converter, final SettableListenableFuture<T> result) {
+		
+		future.addListener(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					R value = future.get();
+					String error = future.getError();
+					if (error != null)
+						result.setException(new RedisCommandExecutionException(error));
+					else
+						result.set(converter.convert(value));
+				} catch (ExecutionException e) {
+					result.setException(e.getCause());
+				} catch (Throwable e) {
+					result.setException(e);
+				}
+			}
+		}, MoreExecutors.directExecutor());
+	}
+	
+	/**
+	 * 通过脚本在一次网络往返中原子的执行写命令并设置键的过期时间。</P>
+	 * 先只发送脚本的摘要，服务端未缓存脚本时再发送完整的脚本，写命令的结果必须为整数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param asyncConnection
+	 * @param command 写命令名称
+	 * @param expireIfPositive 是否只在写命令返回正数时设置过期时间
+	 * @param expireSeconds 大于0的过期秒数
+	 * @param key
+	 * @param args 写命令除键以外的参数
+	 * @return 写命令的整数结果
+	 */
+	protected ListenableFuture<Long> writeAndExpire(final RedisAsyncConnection<byte[], byte[]> asyncConnection, 
+			String command, boolean expireIfPositive, long expireSeconds, byte[] key, byte[]... args) {
+		
+		final byte[][] keys = new byte[][] { key };
+		final byte[][] values = new byte[args.length + 3][];
+		values[0] = stringSerializer.serialize(command);
+		values[1] = stringSerializer.serialize(expireSeconds);
+		values[2] = stringSerializer.serialize(expireIfPositive ? "1" : "0");
+		System.arraycopy(args, 0, values, 3, args.length);
+		
+		final SettableListenableFuture<Long> result = new SettableListenableFuture<Long>();
+		final RedisFuture<Long> evalsha = asyncConnection.evalsha(WRITE_AND_EXPIRE_SHA1, ScriptOutputType.INTEGER, keys, values);
+		evalsha.addListener(new Runnable() {
+
+			@Override
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			public void run() {
+				String error = evalsha.getError();
+				if (error != null && error.startsWith("NOSCRIPT")) {
+					// 服务端重启或执行过script flush后，用eval重新执行，服务端会同时缓存脚本
+					RedisFuture<Long> eval = asyncConnection.eval(WRITE_AND_EXPIRE_LUA, ScriptOutputType.INTEGER, keys, values);
+					complete(eval, (ResultConverter) IDENTITY_CONVERTER, result);
+				} else
+					complete(evalsha, (ResultConverter) IDENTITY_CONVERTER, result);
+			}
+		}, MoreExecutors.directExecutor());
+		return result;
+	}
+	
+	/**
+	 * 命令结果转换器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	protected interface ResultConverter<R, T> {
+		
+		/**
+		 * 将命令的原始结果转换为目标结果
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param result
+		 * @return
+		 */
+		public T convert(R result);
+	}
+
+}
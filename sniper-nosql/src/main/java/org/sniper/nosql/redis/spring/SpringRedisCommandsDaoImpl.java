@@ -18,6 +18,8 @@
 
 package org.sniper.nosql.redis.spring;
 
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -26,6 +28,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sniper.commons.util.ArrayUtils;
 import org.sniper.commons.util.AssertUtils;
@@ -33,18 +43,32 @@ import org.sniper.commons.util.CollectionUtils;
 import org.sniper.commons.util.DateUtils;
 import org.sniper.commons.util.MapUtils;
 import org.sniper.commons.util.NumberUtils;
-import org.sniper.commons.util.StringUtils;
 import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.connection.AbstractRoutingConnectionFactory;
+import org.sniper.nosql.redis.dao.RedisMessageListener;
+import org.sniper.nosql.redis.dao.RedisNearCache;
+import org.sniper.nosql.redis.dao.RedisPipelineCallback;
+import org.sniper.nosql.redis.dao.RedisScanCallback;
 import org.sniper.serialization.Serializer;
 import org.sniper.serialization.TypedSerializer;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.DefaultTuple;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
 import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisListCommands.Position;
 import org.springframework.data.redis.connection.RedisZSetCommands.Aggregate;
 import org.springframework.data.redis.connection.RedisZSetCommands.Tuple;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.connection.SortParameters;
 import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
 import org.springframework.stereotype.Repository;
 
 /**
@@ -53,7 +77,93 @@ import org.springframework.stereotype.Repository;
  * @version 1.0
  */
 @Repository
-public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements SpringRedisCommandsDao {
+public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements SpringRedisCommandsDao, DisposableBean {
+	
+	private static final byte[] SET_IF_ABSENT = "NX".getBytes();
+	
+	private static final byte[] EXPIRE_MILLIS = "PX".getBytes();
+	
+	private static final byte[] EXPIRE_SECONDS = "EX".getBytes();
+	
+	/** 分发频道消息的线程数 */
+	private static final int LISTENER_POOL_SIZE = Math.max(2, Runtime.getRuntime().availableProcessors());
+	
+	/** 等待分发的频道消息的最大个数，队列已满时由订阅线程直接分发，使订阅连接的读取放慢 */
+	private static final int LISTENER_QUEUE_CAPACITY = 10000;
+	
+	/** 执行订阅任务的线程数，订阅任务会一直占用线程，重新订阅时新旧任务可能同时存在 */
+	private static final int SUBSCRIPTION_POOL_SIZE = 2;
+	
+	/** 所有订阅共享的频道消息监听容器，首次订阅时才创建 */
+	private volatile RedisMessageListenerContainer listenerContainer;
+	
+	/** 监听容器分发消息的执行器 */
+	private ExecutorService listenerExecutor;
+	
+	/** 监听容器执行订阅任务的执行器 */
+	private ExecutorService subscriptionExecutor;
+	
+	/** 订阅监听器与对应的Spring消息监听器映射 */
+	private final ConcurrentMap<RedisMessageListener<?>, MessageListener> messageListeners = MapUtils.newConcurrentHashMap();
+	
+	/**
+	 * 创建近端缓存后订阅对应库的失效频道，开启了近端缓存或失效通知的客户端在写操作后由后台线程向此频道批量发布被修改的键。</P>
+	 * 只订阅失效频道而不是整个库的键空间通知，未开启近端缓存的库的写操作不会被推送到客户端；
+	 * 不经过DAO的写操作以及服务端的过期只能依靠缓存的过期时间使其失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Override
+	protected void initializeNearCaches() {
+		super.initializeNearCaches();
+		
+		Set<Integer> dbIndexes = getNearCacheDbIndexes();
+		if (dbIndexes.isEmpty())
+			return;
+		
+		List<Topic> topics = CollectionUtils.newArrayList(dbIndexes.size());
+		for (Integer dbIndex : dbIndexes) {
+			topics.add(new ChannelTopic(NEAR_CACHE_CHANNEL_PREFIX + dbIndex));
+		}
+		
+		getListenerContainer().addMessageListener(new MessageListener() {
+
+			@Override
+			public void onMessage(Message message, byte[] pattern) {
+				// 本地写操作完成时已使缓存失效，忽略自己发布的消息
+				byte[] body = message.getBody();
+				if (!isForeignNearCacheInvalidation(body))
+					return;
+				
+				String channel = new String(message.getChannel());
+				int dbIndex = Integer.parseInt(channel.substring(NEAR_CACHE_CHANNEL_PREFIX.length()));
+				invalidateNearCache(dbIndex, Arrays.copyOfRange(body, publisherId.length, body.length));
+			}
+		}, topics);
+	}
+	
+	/**
+	 * 通过同一个连接向库索引对应的失效频道发布每个键，多个键时通过管道一次性发送
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param keyBytes
+	 */
+	@Override
+	protected void publishNearCacheInvalidation(int dbIndex, final byte[]... keyBytes) {
+		final byte[] channel = (NEAR_CACHE_CHANNEL_PREFIX + dbIndex).getBytes();
+		super.getRedisTemplate().execute(new RedisCallback<Void>() {
+
+			@Override
+			public Void doInRedis(RedisConnection connection) throws DataAccessException {
+				boolean pipelined = keyBytes.length > 1 && openPipeline(connection);
+				for (byte[] keyByte : keyBytes) {
+					connection.publish(channel, toNearCacheInvalidationMessage(keyByte));
+				}
+				
+				closePipeline(connection, pipelined);
+				return null;
+			}
+		});
+	}
 	
 	@Override
 	public <K> Set<K> keys() {
@@ -92,18 +202,18 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 	
 	@Override
 	public <K> Set<K> keysByPattern(final String dbName, final String pattern, final Class<K> keyType) {
-		
-		return super.getRedisTemplate().execute(new RedisCallback<Set<K>>() {
-			
+		// 用scan命令分批获取，避免keys命令在键很多时长时间阻塞服务端
+		final Set<K> keys = CollectionUtils.newLinkedHashSet();
+		scan(dbName, pattern, keyType, DEFAULT_SCAN_BATCH_SIZE, new RedisScanCallback<List<K>>() {
+
 			@Override
-			public Set<K> doInRedis(RedisConnection connection) throws DataAccessException {
-				select(connection, dbName);
-				byte[] patternByte = stringSerializer.serialize(StringUtils.isNotEmpty(pattern) ? pattern : StringUtils.ANY);
-				Set<byte[]> keyBytes = connection.keys(patternByte);
-				return deserializeKeyBytesToSet(dbName, keyBytes, keyType);
+			public boolean doInBatch(List<K> batch) {
+				keys.addAll(batch);
+				return true;
 			}
 		});
 		
+		return CollectionUtils.isNotEmpty(keys) ? keys : null;
 	}
 	
 	@Override
@@ -137,7 +247,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		if (ArrayUtils.isEmpty(keys))
 			return 0L;
 		
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -145,6 +255,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.del(serializeKeysToArray(dbName, keys));
 			}
 		});
+		
+		invalidateNearCacheKeys(dbName, Arrays.asList(keys));
+		return result;
 	}
 
 	@Override
@@ -195,9 +308,20 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Map<K, Boolean> doInRedis(RedisConnection connection) throws DataAccessException {
 				select(connection, dbName);
 				
+				// 所有键的exists命令通过管道一次性发送，不支持管道时逐个执行
+				boolean pipelined = openPipeline(connection);
+				List<Object> existsList = CollectionUtils.newArrayList(keys.size());
+				for (K key : keys) {
+					existsList.add(connection.exists(keySerializer.serialize(key)));
+				}
+				
+				if (pipelined)
+					existsList = closePipeline(connection, pipelined);
+				
 				Map<K, Boolean> result = MapUtils.newLinkedHashMap();
+				Iterator<Object> existsIterator = existsList.iterator();
 				for (K key : keys) {
-					result.put(key, connection.exists(keySerializer.serialize(key)));
+					result.put(key, (Boolean) existsIterator.next());
 				}
 				
 				return result;
@@ -216,7 +340,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			return false;
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
@@ -224,6 +348,10 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.expire(keySerializer.serialize(key), seconds);
 			}
 		});
+		
+		// 缩短过期时间后近端缓存中的值可能比Redis中的键存活得更久
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -237,7 +365,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			return false;
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
@@ -245,6 +373,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.expireAt(keySerializer.serialize(key), timestamp);
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -268,7 +399,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			return false;
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
@@ -276,6 +407,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.move(keySerializer.serialize(key), targetIndex);
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -462,18 +596,40 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 	public <V> List<V> valuesByPattern(final String dbName, final String pattern, final Class<V> valueType) {
 		return super.getRedisTemplate().execute(new RedisCallback<List<V>>() {
 			@Override
-			public List<V> doInRedis(RedisConnection connection) throws DataAccessException {
+			public List<V> doInRedis(final RedisConnection connection) throws DataAccessException {
 				select(connection, dbName);
-				/* 第一步：先获取匹配模式的键字节集合 */
-				byte[] patternByte = stringSerializer.serialize(StringUtils.isNotEmpty(pattern) ? pattern : StringUtils.ANY);
-				Set<byte[]> keyBytes = connection.keys(patternByte);
+				final Set<ByteBuffer> scannedKeys = CollectionUtils.newHashSet();
+				final List<byte[]> valueBytes = CollectionUtils.newArrayList();
 				
-				if (CollectionUtils.isEmpty(keyBytes))
+				/* 用scan命令分批获取匹配模式的键，每批键再执行一次mGet命令获取对应的值字节，
+				 * 最后将所有值字节反序列化到列表中 */
+				scan(connection.scan(scanOptions(pattern, DEFAULT_SCAN_BATCH_SIZE)), DEFAULT_SCAN_BATCH_SIZE, 
+						new ScanBatchConverter<byte[], List<byte[]>>() {
+
+					@Override
+					public List<byte[]> convert(List<byte[]> rawBatch) {
+						// 游标可能重复返回同一个键
+						List<byte[]> keyBytes = CollectionUtils.newArrayList(rawBatch.size());
+						for (byte[] keyByte : rawBatch) {
+							if (scannedKeys.add(ByteBuffer.wrap(keyByte)))
+								keyBytes.add(keyByte);
+						}
+						return keyBytes;
+					}
+				}, new RedisScanCallback<List<byte[]>>() {
+
+					@Override
+					public boolean doInBatch(List<byte[]> keyBytes) {
+						if (CollectionUtils.isNotEmpty(keyBytes))
+							valueBytes.addAll(connection.mGet(CollectionUtils.toArray(keyBytes, byte[].class)));
+						
+						return true;
+					}
+				});
+				
+				if (CollectionUtils.isEmpty(valueBytes))
 					return null;
 				
-				/* 第二步：再根据键集合执行mGet命令，批量获取对应的值字节集合，
-				 * 最后再将多个值字节反序列化到列表中*/
-				List<byte[]> valueBytes = connection.mGet(CollectionUtils.toArray(keyBytes, byte[].class));
 				return deserializeValueBytesToList(dbName, valueBytes, valueType);
 			}
 		});
@@ -507,11 +663,18 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
-				connection.set(keyByte, valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					// 设值与过期时间在同一个命令中完成
+					connection.setEx(keyByte, seconds, valueSerializer.serialize(value));
+				else
+					connection.set(keyByte, valueSerializer.serialize(value));
+				
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
 	}
 
 	@Override
@@ -536,17 +699,52 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
 		final Serializer valueSerializer = selectValueSerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				Boolean result = connection.setNX(keyByte, valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
-				return result;
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					// 设值与过期时间在同一个命令中完成，键已存在时返回空
+					return connection.execute("SET", keyByte, valueSerializer.serialize(value), 
+							SET_IF_ABSENT, EXPIRE_SECONDS, stringSerializer.serialize(seconds)) != null;
+				
+				return connection.setNX(keyByte, valueSerializer.serialize(value));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
+	}
+	
+	@Override
+	public <K, V> Boolean pSetNX(K key, V value, long expireMillis) {
+		return pSetNX2(null, key, value, expireMillis);
+	}
+	
+	@Override
+	public <K, V> Boolean pSetNX2(final String dbName, final K key, final V value, final long expireMillis) {
+		AssertUtils.assertNotNull(key, "Key can not be null of command [pSetNX]");
+		AssertUtils.assertNotNull(value, "Value can not be null of command [pSetNX]");
+		AssertUtils.assertTrue(expireMillis > 0, "Expire millis must greater than 0 of command [pSetNX]");
+		
+		final Serializer keySerializer = selectKeySerializer(dbName);
+		final Serializer valueSerializer = selectValueSerializer(dbName);
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+
+			@Override
+			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				// 设值与过期时间在同一个命令中完成，键已存在时返回空
+				return connection.execute("SET", keySerializer.serialize(key), valueSerializer.serialize(value), 
+						SET_IF_ABSENT, EXPIRE_MILLIS, stringSerializer.serialize(expireMillis)) != null;
+			}
+		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -585,6 +783,8 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
 	}
 	
 	@Override
@@ -612,11 +812,15 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				Map<byte[], byte[]> byteMap = serializeKeyValueToByteMap(dbName, kValues);
 				RedisRepository repository = select(connection, dbName);
+				boolean pipelined = openPipeline(connection);
 				connection.mSet(byteMap);
 				setExpireTime(connection, repository, byteMap.keySet(), expireSeconds);
+				closePipeline(connection, pipelined);
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKeys(dbName, kValues.keySet());
 	}
 
 	@Override
@@ -644,11 +848,15 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				Map<byte[], byte[]> byteMap = serializeKeyValueToByteMap(dbName, kValues);
 				RedisRepository repository = select(connection, dbName);
+				boolean pipelined = openPipeline(connection);
 				connection.mSetNX(byteMap);
 				setExpireTime(connection, repository, byteMap.keySet(), expireSeconds);
+				closePipeline(connection, pipelined);
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKeys(dbName, kValues.keySet());
 	}
 	
 	@Override
@@ -679,11 +887,18 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				connection.setRange(keyByte, valueSerializer.serialize(value), offset);
-				setExpireTime(connection, repository, keyByte, expireSeconds);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					writeAndExpire(connection, ReturnType.INTEGER, "SETRANGE", false, seconds, 
+							keyByte, stringSerializer.serialize(offset), valueSerializer.serialize(value));
+				else
+					connection.setRange(keyByte, valueSerializer.serialize(value), offset);
+				
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
 	}
 
 	@Override
@@ -708,17 +923,23 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
 		final Serializer valueSerializer = selectValueSerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				Long length = connection.append(keyByte, valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
-				return length;
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "APPEND", false, seconds, 
+							keyByte, valueSerializer.serialize(value));
+				
+				return connection.append(keyByte, valueSerializer.serialize(value));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -741,16 +962,27 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		if (key == null)
 			return null;
 		
-		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<V>() {
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		RedisNearCache nearCache = getNearCache(dbName);
+		V value;
+		if (nearCache != null && (value = nearCache.get(keyByte, valueType)) != null)
+			return value;
+		
+		// 读取前获取键的版本号，读取期间键被修改时不缓存读到的旧值
+		long stamp = nearCache != null ? nearCache.stamp(keyByte) : 0;
+		value = super.getRedisTemplate().execute(new RedisCallback<V>() {
 
 			@Override
 			public V doInRedis(RedisConnection connection) throws DataAccessException {
 				select(connection, dbName);
-				byte[] keyByte = keySerializer.serialize(key);
 				return deserializeValueByte(dbName, connection.get(keyByte), valueType);
 			}
 		});
+		
+		if (nearCache != null)
+			nearCache.put(stamp, keyByte, valueType, value);
+		
+		return value;
 	}
 
 	@Override
@@ -827,13 +1059,19 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
 		final Serializer valueSerializer = selectValueSerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<O>() {
+		O result = super.getRedisTemplate().execute(new RedisCallback<O>() {
 
 			@Override
 			public O doInRedis(RedisConnection connection) throws DataAccessException {
 				RedisRepository repository = select(connection, dbName);
 				byte[] keyByte = keySerializer.serialize(key);
-				byte[] oldValueByte = connection.getSet(keyByte, valueSerializer.serialize(value));
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				byte[] oldValueByte;
+				if (seconds > 0)
+					oldValueByte = writeAndExpire(connection, ReturnType.VALUE, "GETSET", false, seconds, 
+							keyByte, valueSerializer.serialize(value));
+				else
+					oldValueByte = connection.getSet(keyByte, valueSerializer.serialize(value));
 				
 				O result = null;
 				if (valueSerializer.isTypedSerializer()) 
@@ -841,10 +1079,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				else
 					result = valueSerializer.deserialize(oldValueByte);
 				
-				setExpireTime(connection, repository, keyByte, expireSeconds);
 				return result;
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -887,12 +1127,55 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		if (ArrayUtils.isEmpty(keys))
 			return null;
 		
+		byte[][] keyBytes = serializeKeysToArray(dbName, keys);
+		RedisNearCache nearCache = getNearCache(dbName);
+		if (nearCache == null)
+			return mGet(dbName, keyBytes, valueType);
+		
+		// 先从近端缓存中获取，只从Redis中读取未命中的键
+		List<V> values = CollectionUtils.newArrayList(keyBytes.length);
+		List<Integer> missedIndexes = CollectionUtils.newArrayList();
+		for (int i = 0; i < keyBytes.length; i++) {
+			V value = nearCache.get(keyBytes[i], valueType);
+			values.add(value);
+			if (value == null)
+				missedIndexes.add(i);
+		}
+		
+		if (missedIndexes.isEmpty())
+			return values;
+		
+		byte[][] missedKeyBytes = new byte[missedIndexes.size()][];
+		long[] stamps = new long[missedKeyBytes.length];
+		for (int i = 0; i < missedKeyBytes.length; i++) {
+			missedKeyBytes[i] = keyBytes[missedIndexes.get(i)];
+			stamps[i] = nearCache.stamp(missedKeyBytes[i]);
+		}
+		
+		List<V> missedValues = mGet(dbName, missedKeyBytes, valueType);
+		for (int i = 0; i < missedKeyBytes.length; i++) {
+			V value = missedValues.get(i);
+			values.set(missedIndexes.get(i), value);
+			nearCache.put(stamps[i], missedKeyBytes[i], valueType, value);
+		}
+		return values;
+	}
+	
+	/**
+	 * 从Redis中批量获取已序列化的键对应的值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbName
+	 * @param keyBytes
+	 * @param valueType
+	 * @return
+	 */
+	private <V> List<V> mGet(final String dbName, final byte[][] keyBytes, final Class<V> valueType) {
 		return super.getRedisTemplate().execute(new RedisCallback<List<V>>() {
 
 			@Override
 			public List<V> doInRedis(RedisConnection connection) throws DataAccessException {
 				select(connection, dbName);
-				List<byte[]> valueBytes = connection.mGet(serializeKeysToArray(dbName, keys));
+				List<byte[]> valueBytes = connection.mGet(keyBytes);
 				return deserializeValueBytesToList(dbName, valueBytes, valueType);
 			}
 		});
@@ -929,7 +1212,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		AssertUtils.assertNotNull(key, "Key can not be null of command [decr]");
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -937,6 +1220,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.decr(keySerializer.serialize(key));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -949,7 +1235,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		AssertUtils.assertNotNull(key, "Key can not be null of command [decrBy]");
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -957,6 +1243,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.decrBy(keySerializer.serialize(key), value);
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -969,7 +1258,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		AssertUtils.assertNotNull(key, "Key can not be null of command [incr]");
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -977,6 +1266,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.incr(keySerializer.serialize(key));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -989,7 +1281,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		AssertUtils.assertNotNull(key, "Key can not be null of command [incrBy]");
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -997,6 +1289,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.incrBy(keySerializer.serialize(key), value);
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -1024,17 +1319,23 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		final Serializer keySerializer = selectKeySerializer(dbName);
 		final Serializer hashKeySerializer = selectHashKeySerializer(dbName);
 		final Serializer valueSerializer = selectValueSerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				Boolean result = connection.hSet(keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
-				return result;
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.BOOLEAN, "HSET", false, seconds, 
+							keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
+				
+				return connection.hSet(keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 	
 	@Override
@@ -1063,17 +1364,23 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		final Serializer keySerializer = selectKeySerializer(dbName);
 		final Serializer hashKeySerializer = selectHashKeySerializer(dbName);
 		final Serializer valueSerializer = selectValueSerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
+		Boolean result = super.getRedisTemplate().execute(new RedisCallback<Boolean>() {
 
 			@Override
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				Boolean result = connection.hSetNX(keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
-				return result;
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.BOOLEAN, "HSETNX", false, seconds, 
+							keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
+				
+				return connection.hSetNX(keyByte, hashKeySerializer.serialize(hashKey), valueSerializer.serialize(value));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -1105,11 +1412,24 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				connection.hMSet(keyByte, serializeHashKeyValuesToByteMap(dbName, hashKeyValues));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
+				Map<byte[], byte[]> hashByteMap = serializeHashKeyValuesToByteMap(dbName, hashKeyValues);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0) {
+					byte[][] args = new byte[hashByteMap.size() * 2][];
+					int index = 0;
+					for (Entry<byte[], byte[]> entry : hashByteMap.entrySet()) {
+						args[index++] = entry.getKey();
+						args[index++] = entry.getValue();
+					}
+					writeAndExpire(connection, ReturnType.STATUS, "HMSET", false, seconds, keyByte, args);
+				} else
+					connection.hMSet(keyByte, hashByteMap);
+				
 				return null;
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
 	}
 
 	@Override
@@ -1136,7 +1456,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			return 0L;
 		
 		final Serializer keySerializer = selectKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+		Long result = super.getRedisTemplate().execute(new RedisCallback<Long>() {
 
 			@Override
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
@@ -1144,6 +1464,9 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				return connection.hDel(keySerializer.serialize(key), serializeHashKeysToArray(dbName, hashKeys));
 			}
 		});
+		
+		invalidateNearCacheKey(dbName, key);
+		return result;
 	}
 
 	@Override
@@ -1198,17 +1521,28 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		if (key == null || hashKey == null)
 			return null;
 		
-		final Serializer keySerializer = selectKeySerializer(dbName);
-		final Serializer hashKeySerializer = selectHashKeySerializer(dbName);
-		return super.getRedisTemplate().execute(new RedisCallback<V>() {
+		final byte[] keyByte = selectKeySerializer(dbName).serialize(key);
+		final byte[] hashKeyByte = selectHashKeySerializer(dbName).serialize(hashKey);
+		RedisNearCache nearCache = getNearCache(dbName);
+		V value;
+		if (nearCache != null && (value = nearCache.hGet(keyByte, hashKeyByte, valueType)) != null)
+			return value;
+		
+		long stamp = nearCache != null ? nearCache.stamp(keyByte) : 0;
+		value = super.getRedisTemplate().execute(new RedisCallback<V>() {
 
 			@Override
 			public V doInRedis(RedisConnection connection) throws DataAccessException {
 				select(connection, dbName);
-				byte[] hashValueByte = connection.hGet(keySerializer.serialize(key), hashKeySerializer.serialize(hashKey));
+				byte[] hashValueByte = connection.hGet(keyByte, hashKeyByte);
 				return deserializeHashValueByte(dbName, hashValueByte, valueType);
 			} 
 		});
+		
+		if (nearCache != null)
+			nearCache.hPut(stamp, keyByte, hashKeyByte, valueType, value);
+		
+		return value;
 	}
 
 	@Override
@@ -1423,12 +1757,13 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
 				
-				long count = NumberUtils.safeLong(connection.lInsert(keyByte, where, 
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "LINSERT", true, seconds, 
+							keyByte, stringSerializer.serialize(where.name()), valueSerializer.serialize(pivot), valueSerializer.serialize(value));
+				
+				return NumberUtils.safeLong(connection.lInsert(keyByte, where, 
 						valueSerializer.serialize(pivot), valueSerializer.serialize(value)));
-				if (count > 0) 
-					setExpireTime(connection, repository, keyByte, expireSeconds);
-					
-				return count;
 			}
 		});
 	}
@@ -1463,8 +1798,13 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);	
 				RedisRepository repository = select(connection, dbName);
-				connection.lSet(keyByte, posttion, valueSerializer.serialize(value));
-				setExpireTime(connection, repository, keyByte, expireSeconds);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					writeAndExpire(connection, ReturnType.STATUS, "LSET", false, seconds, 
+							keyByte, stringSerializer.serialize(posttion), valueSerializer.serialize(value));
+				else
+					connection.lSet(keyByte, posttion, valueSerializer.serialize(value));
+				
 				return null;
 			}
 		});
@@ -1519,11 +1859,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				RedisRepository repository = select(connection, dbName);
 				byte[] keyByte = keySerializer.serialize(key);
 				
-				long count = NumberUtils.safeLong(connection.lPush(keyByte, serializeValuesToArray(dbName, values)));
-				if (count > 0)
-					setExpireTime(connection, repository, keyByte, expireSeconds);
+				byte[][] valueBytes = serializeValuesToArray(dbName, values);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "LPUSH", true, seconds, keyByte, valueBytes);
 				
-				return count;
+				return NumberUtils.safeLong(connection.lPush(keyByte, valueBytes));
 			}
 		});
 	}
@@ -1577,11 +1918,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
 				
-				long count = NumberUtils.safeLong(connection.lPushX(keyByte, valueSerializer.serialize(value)));
-				if (count > 0)
-					setExpireTime(connection, repository, keyByte, expireSeconds);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "LPUSHX", true, seconds, 
+							keyByte, valueSerializer.serialize(value));
 				
-				return count;
+				return NumberUtils.safeLong(connection.lPushX(keyByte, valueSerializer.serialize(value)));
 			}
 		});
 	}
@@ -1826,11 +2168,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
 				
-				long count = NumberUtils.safeLong(connection.rPush(keyByte, serializeValuesToArray(dbName, values)));
-				if (count > 0)
-					setExpireTime(connection, repository, keyByte, expireSeconds);
+				byte[][] valueBytes = serializeValuesToArray(dbName, values);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "RPUSH", true, seconds, keyByte, valueBytes);
 				
-				return count;
+				return NumberUtils.safeLong(connection.rPush(keyByte, valueBytes));
 			}
 		});
 	}
@@ -1884,11 +2227,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
 				
-				long count = NumberUtils.safeLong(connection.rPushX(keyByte, valueSerializer.serialize(value)));
-				if (count > 0)
-					setExpireTime(connection, repository, keyByte, expireSeconds);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "RPUSHX", true, seconds, 
+							keyByte, valueSerializer.serialize(value));
 				
-				return count;
+				return NumberUtils.safeLong(connection.rPushX(keyByte, valueSerializer.serialize(value)));
 			}
 		});
 	}
@@ -2030,11 +2374,12 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Long doInRedis(RedisConnection connection) throws DataAccessException {
 				RedisRepository repository = select(connection, dbName);
 				byte[] keyByte = keySerializer.serialize(key);
-				long count = NumberUtils.safeLong(connection.sAdd(keyByte, serializeValuesToArray(dbName, members)));
-				if (count > 0)
-					setExpireTime(connection, repository, keyByte, expireSeconds);
+				byte[][] valueBytes = serializeValuesToArray(dbName, members);
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				if (seconds > 0)
+					return writeAndExpire(connection, ReturnType.INTEGER, "SADD", true, seconds, keyByte, valueBytes);
 				
-				return count;
+				return NumberUtils.safeLong(connection.sAdd(keyByte, valueBytes));
 			}
 		});
 	}
@@ -2630,17 +2975,28 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Boolean doInRedis(RedisConnection connection) throws DataAccessException {
 				byte[] keyByte = keySerializer.serialize(key);
 				RedisRepository repository = select(connection, dbName);
-				Iterator<Entry<Double, V>> iterator = scoreMembers.entrySet().iterator();
-				boolean result = true;
-				while (iterator.hasNext()) {
-					Entry<Double, V> entry = iterator.next();
-					
-					// TODO 使用批量zadd
-					result = result && connection.zAdd(keyByte, 
-							NumberUtils.safeDouble(entry.getKey()), valueSerializer.serialize(entry.getValue()));
+				long seconds = resolveExpireSeconds(repository, expireSeconds);
+				long count;
+				if (seconds > 0) {
+					// 所有成员通过一个zadd命令添加
+					byte[][] args = new byte[scoreMembers.size() * 2][];
+					int index = 0;
+					for (Entry<Double, V> entry : scoreMembers.entrySet()) {
+						args[index++] = stringSerializer.serialize(toScoreString(NumberUtils.safeDouble(entry.getKey())));
+						args[index++] = valueSerializer.serialize(entry.getValue());
+					}
+					Long added = writeAndExpire(connection, ReturnType.INTEGER, "ZADD", false, seconds, keyByte, args);
+					count = NumberUtils.safeLong(added);
+				} else {
+					Set<Tuple> tuples = CollectionUtils.newLinkedHashSet();
+					for (Entry<Double, V> entry : scoreMembers.entrySet()) {
+						tuples.add(new DefaultTuple(valueSerializer.serialize(entry.getValue()), NumberUtils.safeDouble(entry.getKey())));
+					}
+					count = NumberUtils.safeLong(connection.zAdd(keyByte, tuples));
 				}
-				setExpireTime(connection, repository, keyByte, expireSeconds);
-				return result;
+				
+				// 所有成员都是新添加的才返回true
+				return count == scoreMembers.size();
 			}
 		});
 	}
@@ -3319,6 +3675,185 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 		});
 	}
 
+	@Override
+	public <K, V, T> T eval(String script, Class<T> resultType, K[] keys, V[] args) {
+		return eval(null, script, resultType, keys, args);
+	}
+
+	@Override
+	public <K, V, T> T eval(final String dbName, final String script, final Class<T> resultType, final K[] keys, final V[] args) {
+		AssertUtils.assertNotBlank(script, "Script can not be blank of command [eval]");
+		
+		final byte[][] keyBytes = ArrayUtils.isEmpty(keys) ? new byte[0][] : serializeKeysToArray(dbName, keys);
+		final byte[][] argBytes = ArrayUtils.isEmpty(args) ? new byte[0][] : serializeValuesToArray(dbName, args);
+		return super.getRedisTemplate().execute(new RedisCallback<T>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public T doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				byte[] scriptByte = stringSerializer.serialize(script);
+				byte[][] keysAndArgs = new byte[keyBytes.length + argBytes.length][];
+				System.arraycopy(keyBytes, 0, keysAndArgs, 0, keyBytes.length);
+				System.arraycopy(argBytes, 0, keysAndArgs, keyBytes.length, argBytes.length);
+				
+				if (resultType == Long.class)
+					return (T) connection.eval(scriptByte, ReturnType.INTEGER, keyBytes.length, keysAndArgs);
+				
+				if (resultType == Boolean.class)
+					return (T) connection.eval(scriptByte, ReturnType.BOOLEAN, keyBytes.length, keysAndArgs);
+				
+				byte[] resultByte = connection.eval(scriptByte, ReturnType.VALUE, keyBytes.length, keysAndArgs);
+				return deserializeValueByte(dbName, resultByte, resultType);
+			}
+		});
+	}
+	
+	@Override
+	public <V> Long publish(String channel, V message) {
+		return publish(null, channel, message);
+	}
+
+	@Override
+	public <V> Long publish(final String dbName, final String channel, final V message) {
+		AssertUtils.assertNotBlank(channel, "Channel can not be blank of command [publish]");
+		AssertUtils.assertNotNull(message, "Message can not be null of command [publish]");
+		
+		final Serializer valueSerializer = selectValueSerializer(dbName);
+		return super.getRedisTemplate().execute(new RedisCallback<Long>() {
+
+			@Override
+			public Long doInRedis(RedisConnection connection) throws DataAccessException {
+				return connection.publish(stringSerializer.serialize(channel), valueSerializer.serialize(message));
+			}
+		});
+	}
+
+	@Override
+	public <V> void subscribe(RedisMessageListener<V> listener, String[] channels) {
+		subscribe(null, listener, channels);
+	}
+
+	@Override
+	public <V> void subscribe(final String dbName, final RedisMessageListener<V> listener, String[] channels) {
+		AssertUtils.assertNotNull(listener, "Message listener can not be null of command [subscribe]");
+		AssertUtils.assertNotEmpty(channels, "Channels can not be empty of command [subscribe]");
+		
+		MessageListener messageListener = messageListeners.get(listener);
+		if (messageListener == null) {
+			// 同一个监听器只适配一次，其消息按首次订阅时指定库的值序列化器进行反序列化
+			MessageListener newMessageListener = new MessageListener() {
+
+				@Override
+				public void onMessage(Message message, byte[] pattern) {
+					String channel = stringSerializer.deserialize(message.getChannel());
+					V value = deserializeValueByte(dbName, message.getBody(), null);
+					listener.onMessage(channel, value);
+				}
+			};
+			
+			messageListener = messageListeners.putIfAbsent(listener, newMessageListener);
+			if (messageListener == null)
+				messageListener = newMessageListener;
+		}
+		
+		getListenerContainer().addMessageListener(messageListener, toChannelTopics(channels));
+	}
+
+	@Override
+	public <V> void unsubscribe(RedisMessageListener<V> listener, String[] channels) {
+		MessageListener messageListener = messageListeners.get(listener);
+		if (messageListener == null || listenerContainer == null)
+			return;
+		
+		if (ArrayUtils.isEmpty(channels)) {
+			listenerContainer.removeMessageListener(messageListener);
+			messageListeners.remove(listener);
+		} else
+			listenerContainer.removeMessageListener(messageListener, toChannelTopics(channels));
+	}
+	
+	/**
+	 * 获取频道消息监听容器，不存在时用当前RedisTemplate的连接工厂创建并启动。</P>
+	 * 容器未设置执行器时会为每条消息创建一个线程，因此分发消息和执行订阅任务都使用有界的线程池
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @return
+	 */
+	private RedisMessageListenerContainer getListenerContainer() {
+		RedisMessageListenerContainer container = listenerContainer;
+		if (container == null) {
+			synchronized (messageListeners) {
+				container = listenerContainer;
+				if (container == null) {
+					listenerExecutor = createListenerExecutor("redis-listener-", LISTENER_POOL_SIZE, 
+							LISTENER_QUEUE_CAPACITY, new ThreadPoolExecutor.CallerRunsPolicy());
+					subscriptionExecutor = createListenerExecutor("redis-subscription-", SUBSCRIPTION_POOL_SIZE, 
+							SUBSCRIPTION_POOL_SIZE, new ThreadPoolExecutor.AbortPolicy());
+					
+					container = new RedisMessageListenerContainer();
+					container.setConnectionFactory(super.getRedisTemplate().getConnectionFactory());
+					container.setTaskExecutor(listenerExecutor);
+					container.setSubscriptionExecutor(subscriptionExecutor);
+					container.afterPropertiesSet();
+					container.start();
+					listenerContainer = container;
+				}
+			}
+		}
+		return container;
+	}
+	
+	/**
+	 * 创建监听容器使用的有界执行器，执行线程均为守护线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param threadNamePrefix
+	 * @param poolSize
+	 * @param queueCapacity
+	 * @param rejectedHandler 队列已满时的处理策略
+	 * @return
+	 */
+	private static ExecutorService createListenerExecutor(final String threadNamePrefix, int poolSize, 
+			int queueCapacity, RejectedExecutionHandler rejectedHandler) {
+		
+		return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS, 
+				new ArrayBlockingQueue<Runnable>(queueCapacity), new ThreadFactory() {
+
+			private final AtomicInteger threadNumber = new AtomicInteger();
+
+			@Override
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		}, rejectedHandler);
+	}
+	
+	/**
+	 * 将频道名称转换为频道主题列表
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param channels
+	 * @return
+	 */
+	private List<Topic> toChannelTopics(String[] channels) {
+		List<Topic> topics = CollectionUtils.newArrayList(channels.length);
+		for (String channel : channels) {
+			topics.add(new ChannelTopic(channel));
+		}
+		return topics;
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		destroyNearCaches();
+		if (listenerContainer != null) {
+			// 容器不会关闭外部设置的执行器
+			listenerContainer.destroy();
+			listenerExecutor.shutdown();
+			subscriptionExecutor.shutdown();
+		}
+	}
+
 	@Override
 	public Long dbSize() {
 		return dbSize(null);
@@ -3345,6 +3880,7 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			public Object doInRedis(RedisConnection connection)
 					throws DataAccessException {
 				connection.flushAll();
+				clearNearCaches(null);
 				return null;
 			}
 		});
@@ -3362,8 +3898,10 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			@Override
 			public Object doInRedis(RedisConnection connection)
 					throws DataAccessException {
-				select(connection, dbName);
+				RedisRepository repository = select(connection, dbName);
 				connection.flushDb();
+				// 清空库时不会产生键空间通知
+				clearNearCaches(repository != null ? repository.getDbIndex() : getDefaultDbIndex());
 				return null;
 			}
 		});
@@ -3381,5 +3919,218 @@ public class SpringRedisCommandsDaoImpl extends SpringRedisDaoSupport implements
 			}
 		});
 	}
+	
+	@Override
+	public <K> void scan(String pattern, int batchSize, RedisScanCallback<List<K>> callback) {
+		scan(null, pattern, null, batchSize, callback);
+	}
+
+	@Override
+	public <K> void scan(String dbName, String pattern, Class<K> keyType, int batchSize, RedisScanCallback<List<K>> callback) {
+		scan(dbName, pattern, keyType, batchSize, false, callback);
+	}
+
+	@Override
+	public <K> void scan(final String dbName, String pattern, final Class<K> keyType, final int batchSize, 
+			boolean parallel, final RedisScanCallback<List<K>> callback) {
+		
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [scan]");
+		
+		final ScanOptions options = scanOptions(pattern, batchSize);
+		final ScanBatchConverter<byte[], List<K>> converter = new ScanBatchConverter<byte[], List<K>>() {
+
+			@Override
+			public List<K> convert(List<byte[]> rawBatch) {
+				Set<K> keys = deserializeKeyBytesToSet(dbName, CollectionUtils.newLinkedHashSet(rawBatch), keyType);
+				return keys != null ? CollectionUtils.newArrayList(keys) : Collections.<K>emptyList();
+			}
+		};
+		
+		RedisConnectionFactory connectionFactory = super.getRedisTemplate().getConnectionFactory();
+		if (parallel && connectionFactory instanceof AbstractRoutingConnectionFactory) {
+			Collection<RedisConnectionFactory> connectionFactories = ((AbstractRoutingConnectionFactory) connectionFactory).getAllConnectionFactories();
+			if (connectionFactories.size() > 1) {
+				parallelScan(connectionFactories, dbName, options, batchSize, converter, callback);
+				return;
+			}
+		}
+		
+		super.getRedisTemplate().execute(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				scan(connection.scan(options), batchSize, converter, callback);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public <K, H, V> void hScan(K key, String pattern, int batchSize, RedisScanCallback<Map<H, V>> callback) {
+		hScan2(null, key, pattern, null, null, batchSize, callback);
+	}
+
+	@Override
+	public <K, H, V> void hScan2(final String dbName, final K key, String pattern, final Class<H> hashKeyType, 
+			final Class<V> valueType, final int batchSize, final RedisScanCallback<Map<H, V>> callback) {
+		
+		AssertUtils.assertNotNull(key, "Key can not be null of command [hScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [hScan]");
+		
+		final ScanOptions options = scanOptions(pattern, batchSize);
+		final Serializer keySerializer = selectKeySerializer(dbName);
+		super.getRedisTemplate().execute(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				scan(connection.hScan(keySerializer.serialize(key), options), batchSize, 
+						new ScanBatchConverter<Entry<byte[], byte[]>, Map<H, V>>() {
+
+					@Override
+					public Map<H, V> convert(List<Entry<byte[], byte[]>> rawBatch) {
+						Map<byte[], byte[]> hashKeyValueBytes = MapUtils.newLinkedHashMap();
+						for (Entry<byte[], byte[]> entry : rawBatch) {
+							hashKeyValueBytes.put(entry.getKey(), entry.getValue());
+						}
+						return deserializeHashKeyValueBytesToMap(dbName, hashKeyValueBytes, hashKeyType, valueType);
+					}
+				}, callback);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public <K, V> void sScan(K key, String pattern, int batchSize, RedisScanCallback<List<V>> callback) {
+		sScan2(null, key, pattern, null, batchSize, callback);
+	}
+
+	@Override
+	public <K, V> void sScan2(final String dbName, final K key, String pattern, final Class<V> valueType, 
+			final int batchSize, final RedisScanCallback<List<V>> callback) {
+		
+		AssertUtils.assertNotNull(key, "Key can not be null of command [sScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [sScan]");
+		
+		final ScanOptions options = scanOptions(pattern, batchSize);
+		final Serializer keySerializer = selectKeySerializer(dbName);
+		super.getRedisTemplate().execute(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				scan(connection.sScan(keySerializer.serialize(key), options), batchSize, 
+						new ScanBatchConverter<byte[], List<V>>() {
+
+					@Override
+					public List<V> convert(List<byte[]> rawBatch) {
+						return deserializeValueBytesToList(dbName, rawBatch, valueType);
+					}
+				}, callback);
+				return null;
+			}
+		});
+	}
+
+	@Override
+	public <K, V> void zScan(K key, String pattern, int batchSize, RedisScanCallback<Map<V, Double>> callback) {
+		zScan2(null, key, pattern, null, batchSize, callback);
+	}
+
+	@Override
+	public <K, V> void zScan2(final String dbName, final K key, String pattern, final Class<V> valueType, 
+			final int batchSize, final RedisScanCallback<Map<V, Double>> callback) {
+		
+		AssertUtils.assertNotNull(key, "Key can not be null of command [zScan]");
+		AssertUtils.assertNotNull(callback, "Scan callback can not be null of command [zScan]");
+		
+		final ScanOptions options = scanOptions(pattern, batchSize);
+		final Serializer keySerializer = selectKeySerializer(dbName);
+		super.getRedisTemplate().execute(new RedisCallback<Object>() {
+
+			@Override
+			public Object doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				scan(connection.zScan(keySerializer.serialize(key), options), batchSize, 
+						new ScanBatchConverter<Tuple, Map<V, Double>>() {
+
+					@Override
+					public Map<V, Double> convert(List<Tuple> rawBatch) {
+						List<byte[]> valueBytes = CollectionUtils.newArrayList(rawBatch.size());
+						for (Tuple tuple : rawBatch) {
+							valueBytes.add(tuple.getValue());
+						}
+						
+						List<V> values = deserializeValueBytesToList(dbName, valueBytes, valueType);
+						Map<V, Double> scoreMembers = MapUtils.newLinkedHashMap();
+						for (int i = 0; i < rawBatch.size(); i++) {
+							scoreMembers.put(values.get(i), rawBatch.get(i).getScore());
+						}
+						return scoreMembers;
+					}
+				}, callback);
+				return null;
+			}
+		});
+	}
+	
+	@Override
+	public List<Object> executePipelined(RedisPipelineCallback callback) {
+		return executePipelined(null, callback);
+	}
+
+	@Override
+	public List<Object> executePipelined(final String dbName, final RedisPipelineCallback callback) {
+		AssertUtils.assertNotNull(callback, "Pipeline callback must not be null");
+		
+		final Serializer keySerializer = selectKeySerializer(dbName);
+		final Serializer valueSerializer = selectValueSerializer(dbName);
+		final Serializer hashKeySerializer = selectHashKeySerializer(dbName);
+		final Serializer hashValueSerializer = selectHashValueSerializer(dbName);
+		return super.getRedisTemplate().execute(new RedisCallback<List<Object>>() {
+
+			@Override
+			public List<Object> doInRedis(RedisConnection connection) throws DataAccessException {
+				select(connection, dbName);
+				// 外层调用方已开启管道或事务时直接沿用，不由本方法开启和关闭
+				boolean opened = openPipeline(connection);
+				SpringRedisPipeline pipeline = new SpringRedisPipeline(connection, opened, 
+						keySerializer, valueSerializer, hashKeySerializer, hashValueSerializer, getExpireSeconds(dbName)) {
+
+					@Override
+					protected Object deserializeValue(byte[] valueByte, Class<?> valueType) {
+						return deserializeValueByte(dbName, valueByte, valueType);
+					}
+
+					@Override
+					protected Object deserializeHashValue(byte[] hashValueByte, Class<?> hashValueType) {
+						return deserializeHashValueByte(dbName, hashValueByte, hashValueType);
+					}
+				};
+				
+				try {
+					callback.doInPipeline(pipeline);
+				} catch (RuntimeException e) {
+					// 回调出错时丢弃本方法开启的管道中已排队的命令，避免连接带着未关闭的管道被归还
+					if (opened) {
+						try {
+							closePipeline(connection, opened);
+						} catch (RuntimeException ex) {
+							// 忽略排队命令的执行错误，保留回调抛出的原始异常
+						}
+					}
+					throw e;
+				}
+				List<Object> results = pipeline.close();
+				List<byte[]> writtenKeys = pipeline.getWrittenKeys();
+				if (!writtenKeys.isEmpty())
+					invalidateNearCache(dbName, CollectionUtils.toArray(writtenKeys, byte[].class));
+				
+				return results;
+			}
+		});
+	}
 
 }
@@ -18,21 +18,39 @@
 
 package org.sniper.nosql.redis.spring;
 
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
+import org.sniper.commons.util.AssertUtils;
 import org.sniper.commons.util.CollectionUtils;
 import org.sniper.commons.util.ReflectionUtils;
+import org.sniper.commons.util.StringUtils;
 import org.sniper.nosql.redis.RedisRepository;
 import org.sniper.nosql.redis.dao.RedisDaoSupport;
+import org.sniper.nosql.redis.dao.RedisScanCallback;
 import org.sniper.nosql.redis.serializer.SpringRedisSerializerProxy;
 import org.sniper.serialization.Serializer;
 import org.sniper.serialization.TypedSerializer;
 import org.springframework.data.redis.connection.DataType;
 import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisConnectionUtils;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ScanOptions.ScanOptionsBuilder;
 
 /**
  * Redis数据访问接口支持类
@@ -40,6 +58,62 @@ import org.springframework.data.redis.core.RedisTemplate;
  * @version 1.0
  */
 public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
+	
+	/** 键类型与对应数据列表读取器的映射表，读取器调用的xxxTypeList方法仍可被子类重写 */
+	private static final Map<DataType, DataTypeListReader> DATA_TYPE_LIST_READERS = new EnumMap<DataType, DataTypeListReader>(DataType.class);
+	
+	static {
+		DATA_TYPE_LIST_READERS.put(DataType.NONE, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.noneTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+		
+		DATA_TYPE_LIST_READERS.put(DataType.STRING, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.stringTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+		
+		DATA_TYPE_LIST_READERS.put(DataType.LIST, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.listTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+		
+		DATA_TYPE_LIST_READERS.put(DataType.SET, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.setTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+		
+		DATA_TYPE_LIST_READERS.put(DataType.ZSET, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.zsetTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+		
+		DATA_TYPE_LIST_READERS.put(DataType.HASH, new DataTypeListReader() {
+			
+			@Override
+			public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+				return support.hashTypeList(connection, dbName, targetKey, valueType);
+			}
+		});
+	}
+	
+	/** 写入并设置过期时间的脚本 */
+	private static final SpringRedisScript WRITE_AND_EXPIRE_SCRIPT = new SpringRedisScript(WRITE_AND_EXPIRE_LUA);
 			
 	private RedisTemplate<?, ?> redisTemplate;
 	
@@ -104,6 +178,187 @@ public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
 		return redisRepository;
 	}
 		
+	/**
+	 * 在连接上开启管道，集群环境或连接已处于管道或事务中时不开启。</P>
+	 * 开启后连接上的命令只在客户端排队，直到调用closePipeline方法时一次性发送
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connection
+	 * @return 是否由本次调用开启了管道
+	 */
+	protected boolean openPipeline(RedisConnection connection) {
+		if (isCluster() || connection.isPipelined() || connection.isQueueing())
+			return false;
+		
+		connection.openPipeline();
+		return true;
+	}
+	
+	/**
+	 * 关闭由openPipeline方法开启的管道，发送排队的命令并返回结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connection
+	 * @param opened openPipeline方法的返回值
+	 * @return 未开启管道时返回null
+	 */
+	protected List<Object> closePipeline(RedisConnection connection, boolean opened) {
+		return opened ? connection.closePipeline() : null;
+	}
+		
+	/**
+	 * 创建游标扫描选项
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param pattern 匹配模式，为空时匹配所有元素
+	 * @param batchSize 每批扫描的个数
+	 * @return
+	 */
+	protected ScanOptions scanOptions(String pattern, int batchSize) {
+		AssertUtils.assertTrue(batchSize > 0, "Scan batch size must greater than 0");
+		
+		ScanOptionsBuilder builder = ScanOptions.scanOptions().count(batchSize);
+		if (StringUtils.isNotEmpty(pattern))
+			builder.match(pattern);
+		
+		return builder.build();
+	}
+	
+	/**
+	 * 遍历游标，每凑满一批原始元素后转换并回调，遍历结束或回调要求停止后关闭游标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param cursor
+	 * @param batchSize
+	 * @param converter
+	 * @param callback
+	 * @return 是否遍历完所有元素
+	 */
+	protected <R, B> boolean scan(Cursor<R> cursor, int batchSize, ScanBatchConverter<R, B> converter, RedisScanCallback<B> callback) {
+		try {
+			List<R> rawBatch = CollectionUtils.newArrayList(batchSize);
+			while (cursor.hasNext()) {
+				rawBatch.add(cursor.next());
+				if (rawBatch.size() >= batchSize) {
+					if (!callback.doInBatch(converter.convert(rawBatch)))
+						return false;
+					
+					rawBatch = CollectionUtils.newArrayList(batchSize);
+				}
+			}
+			
+			return rawBatch.isEmpty() || callback.doInBatch(converter.convert(rawBatch));
+		} finally {
+			try {
+				cursor.close();
+			} catch (IOException e) {
+				// 游标关闭时只修改状态，不会出现IO异常
+			}
+		}
+	}
+	
+	/**
+	 * 在多个连接工厂对应的节点上并行扫描键，各节点的扫描和反序列化在独立线程中进行，回调依次执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactories
+	 * @param dbName
+	 * @param options
+	 * @param batchSize
+	 * @param converter
+	 * @param callback
+	 */
+	protected <B> void parallelScan(Collection<RedisConnectionFactory> connectionFactories, final String dbName, 
+			final ScanOptions options, final int batchSize, final ScanBatchConverter<byte[], B> converter, final RedisScanCallback<B> callback) {
+		
+		final AtomicBoolean stopped = new AtomicBoolean();
+		final RedisScanCallback<B> serialCallback = new RedisScanCallback<B>() {
+
+			@Override
+			public synchronized boolean doInBatch(B batch) {
+				if (stopped.get())
+					return false;
+				
+				if (!callback.doInBatch(batch)) {
+					stopped.set(true);
+					return false;
+				}
+				return true;
+			}
+		};
+		
+		ExecutorService executor = Executors.newFixedThreadPool(
+				Math.min(connectionFactories.size(), Runtime.getRuntime().availableProcessors()));
+		try {
+			List<Future<Object>> futures = CollectionUtils.newArrayList(connectionFactories.size());
+			for (final RedisConnectionFactory connectionFactory : connectionFactories) {
+				futures.add(executor.submit(new Callable<Object>() {
+
+					@Override
+					public Object call() throws Exception {
+						RedisConnection connection = RedisConnectionUtils.getConnection(connectionFactory);
+						try {
+							select(connection, dbName);
+							scan(connection.scan(options), batchSize, converter, serialCallback);
+						} finally {
+							RedisConnectionUtils.releaseConnection(connection, connectionFactory);
+						}
+						return null;
+					}
+				}));
+			}
+			
+			for (Future<Object> future : futures) {
+				try {
+					future.get();
+				} catch (ExecutionException e) {
+					// 任一节点扫描出错时停止其它节点的扫描
+					stopped.set(true);
+					Throwable cause = e.getCause();
+					throw cause instanceof RuntimeException ? (RuntimeException) cause : new IllegalStateException(cause);
+				} catch (InterruptedException e) {
+					stopped.set(true);
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while waiting for parallel scan", e);
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+	
+	/**
+	 * 通过脚本在一次网络往返中原子的执行写命令并设置键的过期时间，避免写入后进程退出导致键永不过期。</P>
+	 * 参数个数超过脚本能展开的上限时，退化为先执行写命令再设置过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connection
+	 * @param returnType 写命令的结果类型
+	 * @param command 写命令名称
+	 * @param expireIfPositive 是否只在写命令返回正数时设置过期时间
+	 * @param expireSeconds 大于0的过期秒数
+	 * @param key
+	 * @param args 写命令除键以外的参数
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T writeAndExpire(RedisConnection connection, ReturnType returnType, String command, 
+			boolean expireIfPositive, long expireSeconds, byte[] key, byte[]... args) {
+		
+		if (args.length > MAX_SCRIPT_ARGS) {
+			byte[][] commandArgs = new byte[args.length + 1][];
+			commandArgs[0] = key;
+			System.arraycopy(args, 0, commandArgs, 1, args.length);
+			Object result = connection.execute(command, commandArgs);
+			if (!expireIfPositive || (result instanceof Long && (Long) result > 0))
+				connection.expire(key, expireSeconds);
+			
+			return (T) (returnType == ReturnType.BOOLEAN && result instanceof Long ? Boolean.valueOf((Long) result == 1) : result);
+		}
+		
+		byte[][] keysAndArgs = new byte[args.length + 4][];
+		keysAndArgs[0] = key;
+		keysAndArgs[1] = stringSerializer.serialize(command);
+		keysAndArgs[2] = stringSerializer.serialize(expireSeconds);
+		keysAndArgs[3] = stringSerializer.serialize(expireIfPositive ? "1" : "0");
+		System.arraycopy(args, 0, keysAndArgs, 4, args.length);
+		return WRITE_AND_EXPIRE_SCRIPT.execute(this.redisTemplate.getConnectionFactory(), connection, returnType, 1, keysAndArgs);
+	}
+		
 	/**
 	 * 设置当前库数据键的过期时间。当参数expireSeconds小于等于0时，则使用当前库设置的过期时间
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -128,12 +383,17 @@ public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
 	 * @param expireSeconds
 	 */
 	protected void setExpireTime(RedisConnection connection, RedisRepository repository, Set<byte[]> keySet, long expireSeconds) {
+		if (expireSeconds <= 0)
+			expireSeconds = repository != null ? repository.toSeconds() : 0;
+		
 		if (expireSeconds > 0) {
+			// 多个键的expire命令通过管道一次性发送
+			boolean pipelined = openPipeline(connection);
 			for (byte[] keyByte : keySet) {
 				connection.expire(keyByte, expireSeconds);
 			}
-		} else 
-			setExpireTime(connection, repository, keySet);
+			closePipeline(connection, pipelined);
+		}
 	}
 	
 	/**
@@ -151,24 +411,6 @@ public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
 		}
 	}
 	
-	/** 
-	 * 设置当前库多个数据键的全局过期时间
-	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
-	 * @param connection
-	 * @param repository
-	 * @param keySet 数据键集
-	 */
-	private void setExpireTime(RedisConnection connection, RedisRepository repository, Set<byte[]> keySet) {
-		if (repository != null) {
-			long expireSeconds = repository.toSeconds();
-			if (expireSeconds > 0) {
-				for (byte[] keyByte : keySet) {
-					connection.expire(keyByte, expireSeconds);
-				}
-			}
-		}
-	}
-	
 	/**
 	 * 获取不同类型键对应的结果列表
 	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
@@ -179,17 +421,10 @@ public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
 	 * @param valueType
 	 * @return
 	 */
-	@SuppressWarnings("unchecked")
 	protected <V> List<V> listByDataType(DataType dataType, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
-		try {
-			// 执行当前对象的xxxTypeList方法后返回结果，其中xxx表示DataType枚举的code值
-			return (List<V>) ReflectionUtils.invokeMethod(this, dataType.code() + "TypeList", 
-					new Class<?>[] { RedisConnection.class, String.class, byte[].class, Class.class},
-					new Object[] { connection, dbName, targetKey, valueType });
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
-		return null;
+		// 按键类型从映射表中取出读取器，由其直接调用对应的xxxTypeList方法
+		DataTypeListReader reader = DATA_TYPE_LIST_READERS.get(dataType);
+		return reader != null ? reader.read(this, connection, dbName, targetKey, valueType) : null;
 	}
 	
 	/**
@@ -279,5 +514,41 @@ public abstract class SpringRedisDaoSupport extends RedisDaoSupport {
 		// 返回当前键所有域对应的值列表
 		return deserializeHashValueBytesToList(dbName, connection.hVals(targetKey), valueType);
 	}
+	
+	/**
+	 * 键类型对应的数据列表读取器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private interface DataTypeListReader {
+		
+		/**
+		 * 调用支持类中键类型对应的xxxTypeList方法读取数据列表
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param support
+		 * @param connection
+		 * @param dbName
+		 * @param targetKey
+		 * @param valueType
+		 * @return
+		 */
+		public <V> List<V> read(SpringRedisDaoSupport support, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType);
+	}
+	
+	/**
+	 * 游标扫描结果的批量转换器，将一批原始元素反序列化后交给回调
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	protected interface ScanBatchConverter<R, B> {
+		
+		/**
+		 * 转换一批原始元素
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param rawBatch
+		 * @return
+		 */
+		public B convert(List<R> rawBatch);
+	}
 
 }
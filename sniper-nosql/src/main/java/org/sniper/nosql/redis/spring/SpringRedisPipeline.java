@@ -0,0 +1,276 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.spring;
+
+import java.util.List;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.nosql.redis.dao.RedisPipeline;
+import org.sniper.serialization.Serializer;
+import org.springframework.data.redis.connection.RedisConnection;
+
+/**
+ * Spring Redis管道抽象类。</P>
+ * 每个命令排队时记录结果的转换方式，管道关闭后按顺序将原始结果转换为与命令一一对应的结果，
+ * 值的反序列化由子类按所在库的规则实现。不支持管道时命令被直接执行，原始结果在执行时收集
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+abstract class SpringRedisPipeline implements RedisPipeline {
+	
+	/** 原样返回结果的转换器 */
+	private static final Converter IDENTITY = new Converter(false, null);
+	
+	/** 无返回值命令的转换器 */
+	private static final Converter STATUS = new Converter(false, null);
+	
+	private final RedisConnection connection;
+	
+	/** 调用方是否已为本对象开启管道，开启时由本对象在关闭时发送排队的命令 */
+	private final boolean pipelined;
+	
+	private final Serializer keySerializer;
+	
+	private final Serializer valueSerializer;
+	
+	private final Serializer hashKeySerializer;
+	
+	private final Serializer hashValueSerializer;
+	
+	/** 所在库的过期秒数 */
+	private final long expireSeconds;
+	
+	/** 与命令一一对应的结果转换器 */
+	private final List<Converter> converters = CollectionUtils.newArrayList();
+	
+	/** 直接执行时收集的原始结果 */
+	private final List<Object> rawResults = CollectionUtils.newArrayList();
+	
+	/** 被写命令修改过的键 */
+	private final List<byte[]> writtenKeys = CollectionUtils.newArrayList();
+	
+	SpringRedisPipeline(RedisConnection connection, boolean pipelined, Serializer keySerializer, Serializer valueSerializer, 
+			Serializer hashKeySerializer, Serializer hashValueSerializer, long expireSeconds) {
+		
+		this.connection = connection;
+		this.pipelined = pipelined;
+		this.keySerializer = keySerializer;
+		this.valueSerializer = valueSerializer;
+		this.hashKeySerializer = hashKeySerializer;
+		this.hashValueSerializer = hashValueSerializer;
+		this.expireSeconds = expireSeconds;
+	}
+
+	@Override
+	public <K> void get(K key) {
+		get(key, null);
+	}
+
+	@Override
+	public <K, V> void get(K key, Class<V> valueType) {
+		add(connection.get(keySerializer.serialize(key)), new Converter(false, valueType));
+	}
+
+	@Override
+	public <K, V> void set(K key, V value) {
+		set(key, value, expireSeconds);
+	}
+
+	@Override
+	public <K, V> void set(K key, V value, long expireSeconds) {
+		byte[] keyByte = keySerializer.serialize(key);
+		byte[] valueByte = valueSerializer.serialize(value);
+		if (expireSeconds > 0)
+			connection.setEx(keyByte, expireSeconds, valueByte);
+		else
+			connection.set(keyByte, valueByte);
+		
+		writtenKeys.add(keyByte);
+		add(null, STATUS);
+	}
+
+	@Override
+	public <K> void del(K key) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(connection.del(keyByte), IDENTITY);
+	}
+
+	@Override
+	public <K> void exists(K key) {
+		add(connection.exists(keySerializer.serialize(key)), IDENTITY);
+	}
+
+	@Override
+	public <K> void expire(K key, long seconds) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(connection.expire(keyByte, seconds), IDENTITY);
+	}
+
+	@Override
+	public <K> void incrBy(K key, long value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(connection.incrBy(keyByte, value), IDENTITY);
+	}
+
+	@Override
+	public <K, H> void hGet(K key, H hashKey) {
+		hGet(key, hashKey, null);
+	}
+
+	@Override
+	public <K, H, V> void hGet(K key, H hashKey, Class<V> hashValueType) {
+		add(connection.hGet(keySerializer.serialize(key), hashKeySerializer.serialize(hashKey)), 
+				new Converter(true, hashValueType));
+	}
+
+	@Override
+	public <K, H, V> void hSet(K key, H hashKey, V value) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(connection.hSet(keyByte, hashKeySerializer.serialize(hashKey), hashValueSerializer.serialize(value)), IDENTITY);
+	}
+
+	@Override
+	public <K, H> void hDel(K key, H hashKey) {
+		byte[] keyByte = keySerializer.serialize(key);
+		writtenKeys.add(keyByte);
+		add(connection.hDel(keyByte, hashKeySerializer.serialize(hashKey)), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void lPush(K key, V value) {
+		add(connection.lPush(keySerializer.serialize(key), valueSerializer.serialize(value)), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void rPush(K key, V value) {
+		add(connection.rPush(keySerializer.serialize(key), valueSerializer.serialize(value)), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void sAdd(K key, V member) {
+		add(connection.sAdd(keySerializer.serialize(key), valueSerializer.serialize(member)), IDENTITY);
+	}
+
+	@Override
+	public <K, V> void zAdd(K key, double score, V member) {
+		add(connection.zAdd(keySerializer.serialize(key), score, valueSerializer.serialize(member)), IDENTITY);
+	}
+	
+	/**
+	 * 关闭管道后返回与命令一一对应的结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	List<Object> close() {
+		List<Object> rawResults = pipelined ? connection.closePipeline() : this.rawResults;
+		
+		/* 部分连接实现关闭管道时不返回无返回值命令的结果，
+		 * 原始结果个数少于命令个数时，原始结果只与有返回值的命令对应 */
+		boolean includeStatus = rawResults.size() == converters.size();
+		List<Object> results = CollectionUtils.newArrayList(converters.size());
+		int index = 0;
+		for (Converter converter : converters) {
+			if (converter == STATUS) {
+				results.add(null);
+				if (includeStatus)
+					index++;
+			} else
+				results.add(convert(converter, rawResults.get(index++)));
+		}
+		return results;
+	}
+	
+	/**
+	 * 获取被写命令修改过的键，用于在管道关闭后使近端缓存失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	List<byte[]> getWrittenKeys() {
+		return writtenKeys;
+	}
+	
+	/**
+	 * 添加命令的结果转换器，直接执行时同时收集原始结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param rawResult
+	 * @param converter
+	 */
+	private void add(Object rawResult, Converter converter) {
+		converters.add(converter);
+		if (!pipelined)
+			rawResults.add(rawResult);
+	}
+	
+	/**
+	 * 转换原始结果，字节结果按转换器指定的类型反序列化，其它结果原样返回
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param converter
+	 * @param rawResult
+	 * @return
+	 */
+	private Object convert(Converter converter, Object rawResult) {
+		if (converter == IDENTITY || !(rawResult instanceof byte[]))
+			return rawResult;
+		
+		return converter.hash ? deserializeHashValue((byte[]) rawResult, converter.type) 
+				: deserializeValue((byte[]) rawResult, converter.type);
+	}
+	
+	/**
+	 * 将值字节反序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param valueByte
+	 * @param valueType
+	 * @return
+	 */
+	protected abstract Object deserializeValue(byte[] valueByte, Class<?> valueType);
+	
+	/**
+	 * 将哈希值字节反序列化
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hashValueByte
+	 * @param hashValueType
+	 * @return
+	 */
+	protected abstract Object deserializeHashValue(byte[] hashValueByte, Class<?> hashValueType);
+	
+	/**
+	 * 结果转换器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Converter {
+		
+		/** 是否为哈希值 */
+		private final boolean hash;
+		
+		/** 反序列化的目标类型 */
+		private final Class<?> type;
+		
+		private Converter(boolean hash, Class<?> type) {
+			this.hash = hash;
+			this.type = type;
+		}
+	}
+
+}
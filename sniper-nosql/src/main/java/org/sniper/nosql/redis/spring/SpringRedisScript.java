@@ -0,0 +1,150 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.redis.spring;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import org.sniper.commons.util.CodecUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.SecurityUtils;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+
+/**
+ * 通过evalSha命令执行的Lua脚本。</P>
+ * 1.脚本在每个连接工厂上首次执行时通过scriptLoad命令加载一次，之后只发送SHA1摘要。</P>
+ * 2.服务端重启或脚本缓存被清空后，evalSha返回NOSCRIPT错误，此时改用eval命令执行，并移除连接工厂的加载标记，下次执行时重新加载。</P>
+ * 3.管道或事务中的命令只在closePipeline/exec时才返回错误，无法同步捕获NOSCRIPT，因此直接使用eval命令执行。</P>
+ * 4.加载标记保存在写时复制的数组中，每次执行只读取一次volatile引用并按对象标识比较，只有加载和移除标记时才加锁。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class SpringRedisScript {
+	
+	private static final String NO_SCRIPT_ERROR = "NOSCRIPT";
+	
+	private final byte[] script;
+	
+	private final String sha1;
+	
+	/** 已加载过脚本的连接工厂，弱引用避免脚本常量阻止工厂被回收 */
+	@SuppressWarnings("unchecked")
+	private volatile WeakReference<RedisConnectionFactory>[] loadedFactories = new WeakReference[0];
+	
+	SpringRedisScript(String script) {
+		this.script = CodecUtils.getBytes(script, CodecUtils.UTF8_ENCODING);
+		this.sha1 = SecurityUtils.digest(script, "SHA-1", CodecUtils.UTF8_ENCODING);
+	}
+	
+	/**
+	 * 获取脚本的SHA1摘要
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	String getSha1() {
+		return sha1;
+	}
+	
+	/**
+	 * 在连接上执行脚本
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory 连接所属的工厂
+	 * @param connection
+	 * @param returnType
+	 * @param numKeys 键的个数
+	 * @param keysAndArgs 键和参数
+	 * @return
+	 */
+	<T> T execute(RedisConnectionFactory connectionFactory, RedisConnection connection, 
+			ReturnType returnType, int numKeys, byte[]... keysAndArgs) {
+		
+		if (connection.isPipelined() || connection.isQueueing())
+			return connection.eval(script, returnType, numKeys, keysAndArgs);
+		
+		if (!isLoaded(connectionFactory)) {
+			connection.scriptLoad(script);
+			updateLoaded(connectionFactory, true);
+		}
+		
+		try {
+			return connection.evalSha(sha1, returnType, numKeys, keysAndArgs);
+		} catch (RuntimeException e) {
+			if (!isNoScriptError(e))
+				throw e;
+			
+			updateLoaded(connectionFactory, false);
+			return connection.eval(script, returnType, numKeys, keysAndArgs);
+		}
+	}
+	
+	/**
+	 * 判断脚本是否已在连接工厂上加载过
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 * @return
+	 */
+	private boolean isLoaded(RedisConnectionFactory connectionFactory) {
+		for (WeakReference<RedisConnectionFactory> reference : loadedFactories) {
+			if (reference.get() == connectionFactory)
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 复制出新的数组后添加或移除连接工厂的加载标记，同时清理已被回收的工厂
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 * @param loaded
+	 */
+	@SuppressWarnings("unchecked")
+	private synchronized void updateLoaded(RedisConnectionFactory connectionFactory, boolean loaded) {
+		List<WeakReference<RedisConnectionFactory>> references = CollectionUtils.newArrayList(loadedFactories.length + 1);
+		for (WeakReference<RedisConnectionFactory> reference : loadedFactories) {
+			RedisConnectionFactory factory = reference.get();
+			if (factory != null && factory != connectionFactory)
+				references.add(reference);
+		}
+		
+		if (loaded)
+			references.add(new WeakReference<RedisConnectionFactory>(connectionFactory));
+		
+		loadedFactories = references.toArray(new WeakReference[references.size()]);
+	}
+	
+	/**
+	 * 判断异常是否由服务端没有缓存脚本引起
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param e
+	 * @return
+	 */
+	private boolean isNoScriptError(Throwable e) {
+		while (e != null) {
+			String message = e.getMessage();
+			if (message != null && message.contains(NO_SCRIPT_ERROR))
+				return true;
+			
+			e = e.getCause();
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,387 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.RedisHashCommands;
+import org.sniper.nosql.redis.dao.RedisNearCache;
+import org.sniper.nosql.redis.dao.RedisPipeline;
+import org.sniper.nosql.redis.dao.RedisPipelineCallback;
+import org.sniper.nosql.redis.dao.RedisStringCommands;
+import org.sniper.nosql.redis.jedis.JedisCommandsDaoImpl;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.serialization.jdk.JdkSerializer;
+import org.sniper.serialization.jdk.StringSerializer;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import redis.clients.jedis.JedisPool;
+
+/**
+ * Jedis命令行数据访问单元测试类，客户端通过RESP协议连接本地Redis服务
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class JedisCommandsDaoTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "session";
+	
+	private static final int DB_INDEX = 1;
+	
+	private final int times = 20000;
+	
+	private final int keySize = 500;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private LocalRedisServer server;
+	
+	private JedisPool jedisPool;
+	
+	private JedisCommandsDaoImpl jedisCommandsDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		server = new LocalRedisServer(connectionFactory);
+		server.start();
+		
+		jedisPool = new JedisPool(new GenericObjectPoolConfig(), "127.0.0.1", server.getPort());
+		jedisCommandsDao = new JedisCommandsDaoImpl();
+		jedisCommandsDao.setJedisPool(jedisPool);
+		jedisCommandsDao.setRepositoryManager(createRepositoryManager());
+		jedisCommandsDao.afterPropertiesSet();
+		server.reset();
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		jedisPool.destroy();
+		server.close();
+	}
+	
+	private DefaultRedisRepositoryManager createRepositoryManager() {
+		return createRepositoryManager(0, false);
+	}
+	
+	/**
+	 * 创建库管理
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param nearCacheSize 近端缓存的最大键个数，为0时不开启
+	 * @param nearCacheNotify 写操作后是否发布近端缓存失效消息
+	 * @return
+	 */
+	private DefaultRedisRepositoryManager createRepositoryManager(int nearCacheSize, boolean nearCacheNotify) {
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(DB_INDEX);
+		repository.setNearCacheSize(nearCacheSize);
+		repository.setNearCacheNotify(nearCacheNotify);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		return repositoryManager;
+	}
+	
+	/**
+	 * 字符串命令测试，写入时设置的过期时间与写命令在同一次往返中生效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testStringCommands() {
+		jedisCommandsDao.set2(DB_NAME, "name", "dubin");
+		assertEquals("dubin", jedisCommandsDao.get2(DB_NAME, "name"));
+		assertEquals(Long.valueOf(-1), jedisCommandsDao.ttl(DB_NAME, "name"));
+		assertNull(jedisCommandsDao.get("name"));
+		
+		assertTrue(jedisCommandsDao.setNX2(DB_NAME, "lock", "owner", 30));
+		assertFalse(jedisCommandsDao.setNX2(DB_NAME, "lock", "other", 30));
+		assertEquals("owner", jedisCommandsDao.get2(DB_NAME, "lock"));
+		assertEquals(30, connectionFactory.getExpireSeconds(DB_INDEX, "lock".getBytes()));
+		
+		assertEquals("dubin", jedisCommandsDao.getSet2(DB_NAME, "name", "code727", 60));
+		assertEquals(60, connectionFactory.getExpireSeconds(DB_INDEX, "name".getBytes()));
+		
+		// 服务端的脚本缓存被清空后用完整的脚本重新执行
+		connectionFactory.flushScripts();
+		assertEquals("code727", jedisCommandsDao.getSet2(DB_NAME, "name", "dubin", 120));
+		assertEquals(120, connectionFactory.getExpireSeconds(DB_INDEX, "name".getBytes()));
+	}
+	
+	/**
+	 * 多键命令测试，带过期时间的mSet和多键的exists都通过管道发送，网络往返次数远小于键的个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testMultiKeyCommands() {
+		Map<String, Integer> kValues = MapUtils.newLinkedHashMap();
+		List<String> keys = CollectionUtils.newArrayList(keySize);
+		for (int i = 0; i < keySize; i++) {
+			kValues.put("key" + i, i);
+			keys.add("key" + i);
+		}
+		
+		server.reset();
+		jedisCommandsDao.mSet(DB_NAME, kValues, 60);
+		assertTrue(server.getRoundTrips() < keySize / 10);
+		assertEquals(60, connectionFactory.getExpireSeconds(DB_INDEX, "key0".getBytes()));
+		
+		List<Integer> values = jedisCommandsDao.mGet(DB_NAME, keys);
+		assertEquals(CollectionUtils.newArrayList(kValues.values()), values);
+		
+		keys.add("none");
+		server.reset();
+		Map<String, Boolean> exists = jedisCommandsDao.exists(DB_NAME, keys);
+		assertTrue(server.getRoundTrips() < keySize / 10);
+		assertEquals(keySize + 1, exists.size());
+		assertTrue(exists.get("key0"));
+		assertFalse(exists.get("none"));
+		
+		// 按游标分批遍历键
+		Set<String> allKeys = jedisCommandsDao.keys(DB_NAME);
+		assertEquals(kValues.keySet(), allKeys);
+		assertEquals(keySize, jedisCommandsDao.values(DB_NAME).size());
+		assertEquals(Long.valueOf(keySize), jedisCommandsDao.dbSize(DB_NAME));
+	}
+	
+	/**
+	 * 哈希命令测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testHashCommands() {
+		assertTrue(jedisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin", 60));
+		assertEquals(60, connectionFactory.getExpireSeconds(DB_INDEX, "user".getBytes()));
+		
+		Map<String, Object> hashes = MapUtils.newLinkedHashMap();
+		hashes.put("age", 35);
+		hashes.put("email", "code727@gmail.com");
+		jedisCommandsDao.hMSet(DB_NAME, "user", hashes);
+		
+		assertEquals(Integer.valueOf(35), jedisCommandsDao.hGet2(DB_NAME, "user", "age"));
+		assertEquals(Arrays.asList("dubin", "code727@gmail.com"), 
+				jedisCommandsDao.hMGet(DB_NAME, "user", Arrays.asList("name", "email")));
+		
+		Map<String, Object> all = jedisCommandsDao.hGetAll2(DB_NAME, "user");
+		assertEquals(3, all.size());
+		assertEquals("dubin", all.get("name"));
+	}
+	
+	/**
+	 * 列表、集合和有序集合命令测试，带过期时间的写命令在同一个脚本中设置过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testListSetSortedSetCommands() {
+		assertEquals(Long.valueOf(3), jedisCommandsDao.rPush(DB_NAME, "list", new String[] { "a", "b", "c" }, 60));
+		assertEquals(60, connectionFactory.getExpireSeconds(DB_INDEX, "list".getBytes()));
+		assertEquals(Long.valueOf(4), jedisCommandsDao.lPush(DB_NAME, "list", new String[] { "z" }));
+		assertEquals(Arrays.asList("z", "a", "b", "c"), jedisCommandsDao.lRange(DB_NAME, "list", 0, -1));
+		
+		assertEquals(Long.valueOf(2), jedisCommandsDao.sAdd(DB_NAME, "set", new String[] { "x", "y", "x" }, 60));
+		assertEquals(60, connectionFactory.getExpireSeconds(DB_INDEX, "set".getBytes()));
+		assertEquals(CollectionUtils.newHashSet(Arrays.asList("x", "y")), jedisCommandsDao.sMembers2(DB_NAME, "set"));
+		
+		Map<Double, String> scoreMembers = MapUtils.newLinkedHashMap();
+		scoreMembers.put(2.0, "second");
+		scoreMembers.put(1.0, "first");
+		assertTrue(jedisCommandsDao.zAdd(DB_NAME, "zset", scoreMembers));
+		assertEquals(Arrays.asList("first", "second"), 
+				CollectionUtils.newArrayList(jedisCommandsDao.zRange(DB_NAME, "zset", 0, -1)));
+	}
+	
+	/**
+	 * 管道回调中的命令在一次网络往返中发送，结果按排队顺序返回
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testExecutePipelined() {
+		server.reset();
+		List<Object> results = jedisCommandsDao.executePipelined(DB_NAME, new RedisPipelineCallback() {
+			
+			@Override
+			public void doInPipeline(RedisPipeline pipeline) {
+				pipeline.set("name", "dubin");
+				pipeline.get("name");
+				pipeline.exists("name");
+				pipeline.incrBy("counter", 5);
+				pipeline.hSet("user", "age", 35);
+				pipeline.hGet("user", "age", Integer.class);
+				pipeline.del("name");
+				pipeline.exists("name");
+			}
+		});
+		
+		assertTrue(server.getRoundTrips() <= 2);
+		assertEquals(8, results.size());
+		assertNull(results.get(0));
+		assertEquals("dubin", results.get(1));
+		assertEquals(Boolean.TRUE, results.get(2));
+		assertEquals(5L, results.get(3));
+		assertEquals(Boolean.TRUE, results.get(4));
+		assertEquals(35, results.get(5));
+		assertEquals(1L, results.get(6));
+		assertEquals(Boolean.FALSE, results.get(7));
+		assertEquals(Integer.valueOf(35), jedisCommandsDao.hGet2(DB_NAME, "user", "age"));
+	}
+	
+	/**
+	 * Jedis的写操作向失效频道发布被修改的键，同一个库上开启了近端缓存的Spring DAO收到后使缓存失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testNearCacheInvalidation() throws Exception {
+		JedisCommandsDaoImpl notifiedDao = new JedisCommandsDaoImpl();
+		notifiedDao.setJedisPool(jedisPool);
+		notifiedDao.setRepositoryManager(createRepositoryManager(0, true));
+		notifiedDao.afterPropertiesSet();
+		
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		SpringRedisCommandsDaoImpl cachedDao = new SpringRedisCommandsDaoImpl();
+		cachedDao.setRedisTemplate(redisTemplate);
+		cachedDao.setRepositoryManager(createRepositoryManager(100, true));
+		cachedDao.setGlobalKeySerializer(new StringSerializer());
+		cachedDao.setGlobalValueSerializer(new JdkSerializer());
+		cachedDao.afterPropertiesSet();
+		
+		try {
+			RedisNearCache nearCache = cachedDao.getNearCache(DB_NAME);
+			notifiedDao.set2(DB_NAME, "version", 1);
+			assertEquals(Integer.valueOf(1), cachedDao.get2(DB_NAME, "version"));
+			
+			long stamp = nearCache.getInvalidationCount();
+			notifiedDao.set2(DB_NAME, "version", 2);
+			awaitInvalidation(nearCache, stamp, 1);
+			assertEquals(Integer.valueOf(2), cachedDao.get2(DB_NAME, "version"));
+			
+			stamp = nearCache.getInvalidationCount();
+			notifiedDao.incrBy(DB_NAME, "counter", 1);
+			notifiedDao.executePipelined(DB_NAME, new RedisPipelineCallback() {
+				
+				@Override
+				public void doInPipeline(RedisPipeline pipeline) {
+					pipeline.set("version", 3);
+				}
+			});
+			awaitInvalidation(nearCache, stamp, 2);
+			assertEquals(Integer.valueOf(3), cachedDao.get2(DB_NAME, "version"));
+		} finally {
+			cachedDao.destroy();
+			notifiedDao.destroy();
+		}
+	}
+	
+	/**
+	 * 等待失效消息使近端缓存中的键失效，消息由后台线程发布、监听容器异步分发
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param nearCache
+	 * @param stamp 写入前的失效次数
+	 * @param count 需等待的失效次数
+	 * @throws InterruptedException
+	 */
+	private void awaitInvalidation(RedisNearCache nearCache, long stamp, int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (nearCache.getInvalidationCount() - stamp < count && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+	}
+	
+	/**
+	 * 性能对比测试，两种实现连接同一个本地服务并使用相同的序列化器，比较核心字符串和哈希命令的耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		JedisConnectionFactory jedisConnectionFactory = new JedisConnectionFactory();
+		jedisConnectionFactory.setHostName("127.0.0.1");
+		jedisConnectionFactory.setPort(server.getPort());
+		jedisConnectionFactory.afterPropertiesSet();
+		
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(jedisConnectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		SpringRedisCommandsDaoImpl springCommandsDao = new SpringRedisCommandsDaoImpl();
+		springCommandsDao.setRedisTemplate(redisTemplate);
+		springCommandsDao.setRepositoryManager(createRepositoryManager());
+		springCommandsDao.setGlobalKeySerializer(new StringSerializer());
+		springCommandsDao.setGlobalValueSerializer(new JdkSerializer());
+		springCommandsDao.setGlobalHashKeySerializer(new StringSerializer());
+		springCommandsDao.setGlobalHashValueSerializer(new JdkSerializer());
+		springCommandsDao.afterPropertiesSet();
+		
+		try {
+			// 预热
+			benchmark("Spring", springCommandsDao, times / 10);
+			benchmark("Jedis", jedisCommandsDao, times / 10);
+			
+			benchmark("Spring", springCommandsDao, times);
+			benchmark("Jedis", jedisCommandsDao, times);
+		} finally {
+			springCommandsDao.destroy();
+			jedisConnectionFactory.destroy();
+		}
+	}
+	
+	private <D extends RedisStringCommands & RedisHashCommands> void benchmark(String name, D dao, int times) {
+		long start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.set2(DB_NAME, "key" + (i % keySize), i);
+		}
+		long setElapsed = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.get2(DB_NAME, "key" + (i % keySize));
+		}
+		long getElapsed = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.hSet2(DB_NAME, "hash", "field" + (i % keySize), i);
+		}
+		long hSetElapsed = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.hGet2(DB_NAME, "hash", "field" + (i % keySize));
+		}
+		long hGetElapsed = System.nanoTime() - start;
+		
+		System.out.println(String.format("%s %d times: set %d ms, get %d ms, hSet %d ms, hGet %d ms", name, times, 
+				setElapsed / 1000000, getElapsed / 1000000, hSetElapsed / 1000000, hGetElapsed / 1000000));
+	}
+
+}
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.lettuce.LettuceAsyncCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.lambdaworks.redis.RedisCommandExecutionException;
+
+/**
+ * 基于Lettuce的Redis异步命令单元测试类，客户端通过RESP协议连接本地Redis服务
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LettuceAsyncCommandsDaoTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "user";
+	
+	private static final String EXPIRE_DB_NAME = "session";
+	
+	/** 一次请求中相互独立的读取个数 */
+	private final int fanOut = 20;
+	
+	private LocalRedisServer server;
+	
+	private LettuceConnectionFactory connectionFactory;
+	
+	private LettuceAsyncCommandsDaoImpl asyncDao;
+	
+	@Before
+	public void init() throws Exception {
+		server = new LocalRedisServer(new LocalRedisConnectionFactory());
+		server.start();
+		
+		connectionFactory = new LettuceConnectionFactory("127.0.0.1", server.getPort());
+		connectionFactory.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(1);
+		RedisRepository expireRepository = new RedisRepository();
+		expireRepository.setDbIndex(2);
+		expireRepository.setExpireTime(60);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		repositories.put(EXPIRE_DB_NAME, expireRepository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		asyncDao = new LettuceAsyncCommandsDaoImpl();
+		asyncDao.setConnectionFactory(connectionFactory);
+		asyncDao.setRepositoryManager(repositoryManager);
+		asyncDao.afterPropertiesSet();
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		asyncDao.destroy();
+		connectionFactory.destroy();
+		server.close();
+	}
+	
+	/**
+	 * 各库的命令在选择好库的共享连接上执行，服务端返回的错误通过Future抛出
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testCommands() throws Exception {
+		asyncDao.set2(DB_NAME, "name", "sniper").get(5, TimeUnit.SECONDS);
+		assertEquals("sniper", asyncDao.get2(DB_NAME, "name", String.class).get(5, TimeUnit.SECONDS));
+		assertNull(asyncDao.get2(null, "name").get(5, TimeUnit.SECONDS));
+		asyncDao.set2(DB_NAME, "nickname", "dubin").get(5, TimeUnit.SECONDS);
+		assertEquals(Arrays.asList("sniper", "dubin"), asyncDao.mGet(DB_NAME, Arrays.asList("name", "nickname")).get(5, TimeUnit.SECONDS));
+		
+		assertEquals(Long.valueOf(5), asyncDao.incrBy(DB_NAME, "count", 5).get(5, TimeUnit.SECONDS));
+		assertTrue(asyncDao.hSet2(DB_NAME, "user", "age", 30).get(5, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(30), asyncDao.hGet2(DB_NAME, "user", "age").get(5, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(30), asyncDao.<String, String, Integer>hGetAll2(DB_NAME, "user").get(5, TimeUnit.SECONDS).get("age"));
+		assertTrue(asyncDao.exists(DB_NAME, "user").get(5, TimeUnit.SECONDS));
+		assertEquals(Long.valueOf(2), asyncDao.del(DB_NAME, Arrays.asList("name", "user")).get(5, TimeUnit.SECONDS));
+		assertFalse(asyncDao.exists(DB_NAME, "user").get(5, TimeUnit.SECONDS));
+		
+		// 库设置了过期时间时，写入和设置过期时间通过脚本一次完成，服务端未缓存脚本时改用eval执行
+		asyncDao.set2(EXPIRE_DB_NAME, "token", "abc").get(5, TimeUnit.SECONDS);
+		assertTrue(asyncDao.hSet2(EXPIRE_DB_NAME, "session", "id", 1).get(5, TimeUnit.SECONDS));
+		assertTrue(asyncDao.ttl(EXPIRE_DB_NAME, "token").get(5, TimeUnit.SECONDS) > 0);
+		assertTrue(asyncDao.ttl(EXPIRE_DB_NAME, "session").get(5, TimeUnit.SECONDS) > 0);
+		assertFalse(asyncDao.exists(DB_NAME, "session").get(5, TimeUnit.SECONDS));
+		
+		ListenableFuture<Double> future = asyncDao.zScore(DB_NAME, "zset", "member");
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RedisCommandExecutionException);
+		}
+	}
+	
+	/**
+	 * 性能对比测试，模拟每次网络往返1毫秒的延迟，比较逐个等待和并发读取fanOut个键的耗时和往返次数，
+	 * 并发读取的命令在同一个连接上以管道方式传输，不需要额外的线程和连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		for (int i = 0; i < fanOut; i++) {
+			asyncDao.set2(DB_NAME, "key:" + i, i).get(5, TimeUnit.SECONDS);
+		}
+		server.setLatency(1);
+		
+		server.reset();
+		long start = System.nanoTime();
+		for (int i = 0; i < fanOut; i++) {
+			assertEquals(Integer.valueOf(i), asyncDao.get2(DB_NAME, "key:" + i).get(5, TimeUnit.SECONDS));
+		}
+		long serialElapsed = System.nanoTime() - start;
+		int serialRoundTrips = server.getRoundTrips();
+		
+		server.reset();
+		start = System.nanoTime();
+		List<ListenableFuture<Integer>> futures = CollectionUtils.newArrayList(fanOut);
+		for (int i = 0; i < fanOut; i++) {
+			ListenableFuture<Integer> future = asyncDao.get2(DB_NAME, "key:" + i);
+			futures.add(future);
+		}
+		for (int i = 0; i < fanOut; i++) {
+			assertEquals(Integer.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+		}
+		long asyncElapsed = System.nanoTime() - start;
+		int asyncRoundTrips = server.getRoundTrips();
+		
+		System.out.println(String.format("Fan-out %d reads with 1 ms latency: serial %d ms (%d round trips), async %d ms (%d round trips)", 
+				fanOut, serialElapsed / 1000000, serialRoundTrips, asyncElapsed / 1000000, asyncRoundTrips));
+		assertEquals(fanOut, serialRoundTrips);
+		assertTrue(asyncRoundTrips < fanOut);
+		assertTrue(asyncElapsed < serialElapsed);
+	}
+
+}
@@ -0,0 +1,830 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.SecurityUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.DefaultTuple;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.connection.RedisZSetCommands.Tuple;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanCursor;
+import org.springframework.data.redis.core.ScanIteration;
+import org.springframework.data.redis.core.ScanOptions;
+
+/**
+ * 基于JVM内存的Redis连接工厂，用于在没有Redis服务的环境中测试DAO的命令和网络往返次数。</P>
+ * 1.非管道模式下每个命令计为一次网络往返，管道模式下关闭管道时计为一次网络往返。</P>
+ * 2.与Jedis一致，关闭管道时默认不返回无返回值命令(如set、mSet)的结果。</P>
+ * 3.只实现测试用到的命令，过期时间只记录不生效。游标命令在打开时对数据做快照，每次迭代检查count个元素后再按模式过滤。</P>
+ * 4.publish命令向按频道订阅的监听器同步分发消息。</P>
+ * 5.脚本按DAO写入并设置过期时间的脚本约定执行：KEYS[1]为键，ARGV依次为写命令、过期秒数、是否只在结果为正数时设置过期时间和写命令的其余参数。</P>
+ * 6.可设置每次网络往返的模拟延迟，延迟在命令执行后等待，不会阻塞其它连接上的命令。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LocalRedisConnectionFactory implements RedisConnectionFactory {
+	
+	private static final Charset CHARSET = Charset.forName("ISO-8859-1");
+	
+	/** 无返回值的命令 */
+	private static final Set<String> STATUS_COMMANDS = CollectionUtils.newHashSet(
+			Arrays.asList("set", "setEx", "mSet", "hMSet", "select", "flushDb"));
+	
+	/** 默认库索引，DAO初始化时通过反射读取 */
+	private int dbIndex;
+	
+	/** 关闭管道时是否返回无返回值命令的结果 */
+	private boolean statusResults;
+	
+	/** 每次网络往返模拟的延迟毫秒数 */
+	private long latency;
+	
+	/** 各库的数据 */
+	private final Map<Integer, Map<String, Object>> databases = MapUtils.newHashMap();
+	
+	/** 各库键的过期秒数 */
+	private final Map<String, Long> expires = MapUtils.newHashMap();
+	
+	/** 服务端缓存的脚本 */
+	private final Map<String, String> scripts = MapUtils.newConcurrentHashMap();
+	
+	private final AtomicInteger roundTrips = new AtomicInteger();
+	
+	/** 按频道订阅的监听器 */
+	private final Map<String, List<MessageListener>> channelListeners = MapUtils.newConcurrentHashMap();
+	
+	/** 各命令的执行次数 */
+	private final Map<String, AtomicInteger> commandCounts = MapUtils.newConcurrentHashMap();
+	
+	public void setStatusResults(boolean statusResults) {
+		this.statusResults = statusResults;
+	}
+	
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+
+	/**
+	 * 获取网络往返次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getRoundTrips() {
+		return roundTrips.get();
+	}
+	
+	/**
+	 * 获取指定命令的执行次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param command
+	 * @return
+	 */
+	public int getCommandCount(String command) {
+		AtomicInteger count = commandCounts.get(command);
+		return count != null ? count.get() : 0;
+	}
+	
+	/**
+	 * 获取指定键的过期秒数，未设置时返回-1
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @param key
+	 * @return
+	 */
+	public synchronized long getExpireSeconds(int dbIndex, byte[] key) {
+		Long seconds = expires.get(dbIndex + ":" + toKey(key));
+		return seconds != null ? seconds : -1;
+	}
+	
+	/**
+	 * 获取订阅了指定频道的监听器个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param channel
+	 * @return
+	 */
+	public int getChannelListenerCount(String channel) {
+		List<MessageListener> listeners = channelListeners.get(channel);
+		return listeners != null ? listeners.size() : 0;
+	}
+	
+	/**
+	 * 获取所有频道的订阅个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getSubscriptionCount() {
+		int count = 0;
+		for (List<MessageListener> listeners : channelListeners.values()) {
+			count += listeners.size();
+		}
+		return count;
+	}
+	
+	/**
+	 * 清空服务端缓存的脚本，模拟服务端重启
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void flushScripts() {
+		scripts.clear();
+	}
+	
+	/**
+	 * 清空计数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void reset() {
+		roundTrips.set(0);
+		commandCounts.clear();
+	}
+
+	@Override
+	public DataAccessException translateExceptionIfPossible(RuntimeException ex) {
+		return null;
+	}
+
+	@Override
+	public RedisConnection getConnection() {
+		return newConnection(dbIndex);
+	}
+	
+	/**
+	 * 获取共享当前数据和计数，但连接初始位于指定库的连接工厂，模拟连接池database属性不同的连接工厂
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dbIndex
+	 * @return
+	 */
+	public RedisConnectionFactory forDatabase(final int dbIndex) {
+		return new LocalRedisConnectionFactory() {
+			
+			@Override
+			public RedisConnection getConnection() {
+				return LocalRedisConnectionFactory.this.newConnection(dbIndex);
+			}
+		};
+	}
+	
+	private RedisConnection newConnection(int dbIndex) {
+		return (RedisConnection) Proxy.newProxyInstance(RedisConnection.class.getClassLoader(), 
+				new Class<?>[] { RedisConnection.class }, new LocalConnection(dbIndex));
+	}
+
+	@Override
+	public boolean getConvertPipelineAndTxResults() {
+		return true;
+	}
+
+	@Override
+	public RedisSentinelConnection getSentinelConnection() {
+		throw new UnsupportedOperationException();
+	}
+	
+	private static String toKey(byte[] bytes) {
+		return new String(bytes, CHARSET);
+	}
+	
+	private static byte[] toBytes(String key) {
+		return key.getBytes(CHARSET);
+	}
+	
+	/**
+	 * 内存连接
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class LocalConnection implements InvocationHandler {
+		
+		private int selectedIndex;
+		
+		/** 管道中排队命令的结果，为null时表示未开启管道 */
+		private List<Object> pipelineResults;
+		
+		private boolean closed;
+		
+		LocalConnection(int dbIndex) {
+			this.selectedIndex = dbIndex;
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+			String name = method.getName();
+			switch (name) {
+			case "openPipeline":
+				pipelineResults = new LinkedList<Object>();
+				return null;
+			case "closePipeline":
+				List<Object> results = pipelineResults;
+				pipelineResults = null;
+				roundTrip();
+				return results;
+			case "isPipelined":
+				return pipelineResults != null;
+			case "isQueueing":
+				return false;
+			case "isSubscribed":
+				return false;
+			case "getSubscription":
+				return null;
+			case "close":
+				closed = true;
+				return null;
+			case "isClosed":
+				return closed;
+			case "getNativeConnection":
+				return this;
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "equals":
+				return proxy == args[0];
+			case "toString":
+				return "LocalConnection";
+			default:
+				break;
+			}
+			
+			Object result;
+			try {
+				result = getClass().getDeclaredMethod(name, method.getParameterTypes()).invoke(this, args);
+			} catch (NoSuchMethodException e) {
+				throw new UnsupportedOperationException("Command [" + name + "] is not supported");
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+			
+			AtomicInteger count = commandCounts.get(name);
+			if (count == null) {
+				commandCounts.put(name, new AtomicInteger());
+				count = commandCounts.get(name);
+			}
+			count.incrementAndGet();
+			
+			if (pipelineResults == null) {
+				roundTrip();
+				return result;
+			}
+			
+			if (statusResults || !STATUS_COMMANDS.contains(name))
+				pipelineResults.add(result);
+			
+			return null;
+		}
+		
+		/**
+		 * 记录一次网络往返，并等待模拟的延迟
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @throws InterruptedException
+		 */
+		private void roundTrip() throws InterruptedException {
+			roundTrips.incrementAndGet();
+			if (latency > 0)
+				Thread.sleep(latency);
+		}
+		
+		@SuppressWarnings("unused")
+		public void subscribe(MessageListener listener, byte[]... channels) {
+			for (byte[] channel : channels) {
+				String name = toKey(channel);
+				List<MessageListener> listeners = channelListeners.get(name);
+				if (listeners == null) {
+					channelListeners.put(name, new CopyOnWriteArrayList<MessageListener>());
+					listeners = channelListeners.get(name);
+				}
+				listeners.add(listener);
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long publish(byte[] channel, byte[] message) {
+			List<MessageListener> listeners = channelListeners.get(toKey(channel));
+			if (listeners == null)
+				return 0L;
+			
+			for (MessageListener listener : listeners) {
+				listener.onMessage(new DefaultMessage(channel, message), null);
+			}
+			return (long) listeners.size();
+		}
+		
+		private Map<String, Object> database() {
+			Map<String, Object> database = databases.get(selectedIndex);
+			if (database == null) {
+				database = new TreeMap<String, Object>();
+				databases.put(selectedIndex, database);
+			}
+			return database;
+		}
+		
+		@SuppressWarnings("unchecked")
+		private <T> T value(byte[] key) {
+			return (T) database().get(toKey(key));
+		}
+		
+		@SuppressWarnings("unused")
+		public void select(int dbIndex) {
+			selectedIndex = dbIndex;
+		}
+		
+		@SuppressWarnings("unused")
+		public String scriptLoad(byte[] script) {
+			String source = toKey(script);
+			String sha1 = SecurityUtils.digest(source, "SHA-1", "ISO-8859-1");
+			scripts.put(sha1, source);
+			return sha1;
+		}
+		
+		@SuppressWarnings("unused")
+		public Object eval(byte[] script, ReturnType returnType, int numKeys, byte[]... keysAndArgs) {
+			return evalSha(scriptLoad(script), returnType, numKeys, keysAndArgs);
+		}
+		
+		public Object evalSha(String sha1, ReturnType returnType, int numKeys, byte[]... keysAndArgs) {
+			if (!scripts.containsKey(sha1))
+				throw new InvalidDataAccessApiUsageException("NOSCRIPT No matching script. Please use EVAL.");
+			
+			synchronized (LocalRedisConnectionFactory.this) {
+				byte[] key = keysAndArgs[0];
+				byte[][] args = new byte[keysAndArgs.length - 3][];
+				args[0] = key;
+				System.arraycopy(keysAndArgs, 4, args, 1, args.length - 1);
+				Object result = execute(toKey(keysAndArgs[1]), args);
+				if ("0".equals(toKey(keysAndArgs[3])) || (result instanceof Long && (Long) result > 0))
+					expire(key, Long.parseLong(toKey(keysAndArgs[2])));
+				
+				switch (returnType) {
+				case BOOLEAN:
+					return result instanceof Long ? (Long) result == 1 : result != null;
+				case STATUS:
+					return "OK";
+				default:
+					return result;
+				}
+			}
+		}
+		
+		public Object execute(String command, byte[]... args) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				switch (command.toUpperCase()) {
+				case "SET":
+					// 只支持SET key value NX EX seconds
+					if (exists(args[0]))
+						return null;
+					
+					setEx(args[0], Long.parseLong(toKey(args[4])), args[1]);
+					return toBytes("OK");
+				case "GETSET":
+					byte[] oldValue = value(args[0]);
+					set(args[0], args[1]);
+					return oldValue;
+				case "HSET":
+					return hSet(args[0], args[1], args[2]) ? 1L : 0L;
+				case "HMSET":
+					for (int i = 1; i < args.length; i += 2) {
+						hSet(args[0], args[i], args[i + 1]);
+					}
+					return toBytes("OK");
+				case "LPUSH":
+					return lPush(args[0], Arrays.copyOfRange(args, 1, args.length));
+				case "RPUSH":
+					return rPush(args[0], Arrays.copyOfRange(args, 1, args.length));
+				case "SADD":
+					return sAdd(args[0], Arrays.copyOfRange(args, 1, args.length));
+				case "ZADD":
+					long count = 0;
+					for (int i = 1; i < args.length; i += 2) {
+						if (zAdd(args[0], Double.parseDouble(toKey(args[i])), args[i + 1]))
+							count++;
+					}
+					return count;
+				default:
+					throw new UnsupportedOperationException("Command [" + command + "] is not supported");
+				}
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Cursor<byte[]> scan(ScanOptions options) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				List<String> names = CollectionUtils.newArrayList(database().keySet());
+				List<byte[]> items = CollectionUtils.newArrayList(names.size());
+				for (String name : names) {
+					items.add(toBytes(name));
+				}
+				return cursor(names, items, options);
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Cursor<Entry<byte[], byte[]>> hScan(byte[] key, ScanOptions options) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> hash = hash(key);
+				List<String> names = CollectionUtils.newArrayList(hash.keySet());
+				List<Entry<byte[], byte[]>> items = CollectionUtils.newArrayList(names.size());
+				for (String name : names) {
+					items.add(new SimpleImmutableEntry<byte[], byte[]>(toBytes(name), hash.get(name)));
+				}
+				return cursor(names, items, options);
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Cursor<byte[]> sScan(byte[] key, ScanOptions options) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> set = hash(key);
+				List<String> names = CollectionUtils.newArrayList(set.keySet());
+				return cursor(names, CollectionUtils.newArrayList(set.values()), options);
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Cursor<Tuple> zScan(byte[] key, ScanOptions options) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> zset = hash(key);
+				List<String> names = CollectionUtils.newArrayList(zset.keySet());
+				List<Tuple> items = CollectionUtils.newArrayList(names.size());
+				for (String name : names) {
+					items.add(new DefaultTuple(toBytes(name), Double.valueOf(toKey(zset.get(name)))));
+				}
+				return cursor(names, items, options);
+			}
+		}
+		
+		/**
+		 * 创建遍历快照的游标，首次迭代的网络往返由命令本身计数
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param names 用于模式匹配的元素名称
+		 * @param items
+		 * @param options
+		 * @return
+		 */
+		private <T> Cursor<T> cursor(final List<String> names, final List<T> items, ScanOptions options) {
+			String pattern = options.getPattern();
+			final Pattern regex = pattern != null ? Pattern.compile(toRegex(pattern), Pattern.DOTALL) : null;
+			final int count = options.getCount() != null ? options.getCount().intValue() : 10;
+			return new ScanCursor<T>(options) {
+
+				@Override
+				protected ScanIteration<T> doScan(long cursorId, ScanOptions options) {
+					if (cursorId > 0)
+						roundTrips.incrementAndGet();
+					
+					int end = (int) Math.min(cursorId + count, items.size());
+					List<T> batch = CollectionUtils.newArrayList();
+					for (int i = (int) cursorId; i < end; i++) {
+						if (regex == null || regex.matcher(names.get(i)).matches())
+							batch.add(items.get(i));
+					}
+					return new ScanIteration<T>(end < items.size() ? end : 0, batch);
+				}
+			}.open();
+		}
+		
+		private String toRegex(String pattern) {
+			StringBuilder regex = new StringBuilder();
+			for (char c : pattern.toCharArray()) {
+				if (c == '*')
+					regex.append(".*");
+				else if (c == '?')
+					regex.append('.');
+				else
+					regex.append(Pattern.quote(String.valueOf(c)));
+			}
+			return regex.toString();
+		}
+		
+		@SuppressWarnings("unused")
+		public List<byte[]> mGet(byte[]... keys) {
+			List<byte[]> values = CollectionUtils.newArrayList(keys.length);
+			for (byte[] key : keys) {
+				values.add(get(key));
+			}
+			return values;
+		}
+		
+		@SuppressWarnings("unused")
+		public byte[] get(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return value(key);
+			}
+		}
+		
+		public void set(byte[] key, byte[] value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				database().put(toKey(key), value);
+				expires.remove(selectedIndex + ":" + toKey(key));
+			}
+		}
+		
+		public void setEx(byte[] key, long seconds, byte[] value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				set(key, value);
+				expire(key, seconds);
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Boolean setNX(byte[] key, byte[] value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				if (exists(key))
+					return false;
+				
+				set(key, value);
+				return true;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public void mSet(Map<byte[], byte[]> tuple) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				for (Entry<byte[], byte[]> entry : tuple.entrySet()) {
+					set(entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Boolean mSetNX(Map<byte[], byte[]> tuple) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				for (byte[] key : tuple.keySet()) {
+					if (exists(key))
+						return false;
+				}
+				mSet(tuple);
+				return true;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long del(byte[]... keys) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				long count = 0;
+				for (byte[] key : keys) {
+					if (database().remove(toKey(key)) != null)
+						count++;
+					expires.remove(selectedIndex + ":" + toKey(key));
+				}
+				return count;
+			}
+		}
+		
+		public Boolean exists(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return database().containsKey(toKey(key));
+			}
+		}
+		
+		public Boolean expire(byte[] key, long seconds) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				if (!exists(key))
+					return false;
+				
+				expires.put(selectedIndex + ":" + toKey(key), seconds);
+				return true;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long ttl(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				if (!exists(key))
+					return -2L;
+				
+				Long seconds = expires.get(selectedIndex + ":" + toKey(key));
+				return seconds != null ? seconds : -1L;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long dbSize() {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return (long) database().size();
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public void flushDb() {
+			synchronized (LocalRedisConnectionFactory.this) {
+				database().clear();
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long incrBy(byte[] key, long value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				byte[] current = value(key);
+				long result = (current != null ? Long.parseLong(toKey(current)) : 0) + value;
+				database().put(toKey(key), toBytes(String.valueOf(result)));
+				return result;
+			}
+		}
+		
+		private Map<String, byte[]> hash(byte[] key) {
+			Map<String, byte[]> hash = value(key);
+			if (hash == null) {
+				hash = new TreeMap<String, byte[]>();
+				database().put(toKey(key), hash);
+			}
+			return hash;
+		}
+		
+		public byte[] hGet(byte[] key, byte[] field) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> hash = value(key);
+				return hash != null ? hash.get(toKey(field)) : null;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public List<byte[]> hMGet(byte[] key, byte[]... fields) {
+			List<byte[]> values = CollectionUtils.newArrayList(fields.length);
+			for (byte[] field : fields) {
+				values.add(hGet(key, field));
+			}
+			return values;
+		}
+		
+		@SuppressWarnings("unused")
+		public Map<byte[], byte[]> hGetAll(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> hash = value(key);
+				Map<byte[], byte[]> result = MapUtils.newLinkedHashMap();
+				if (hash != null) {
+					for (Entry<String, byte[]> entry : hash.entrySet()) {
+						result.put(toBytes(entry.getKey()), entry.getValue());
+					}
+				}
+				return result;
+			}
+		}
+		
+		public Boolean hSet(byte[] key, byte[] field, byte[] value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return hash(key).put(toKey(field), value) == null;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public void hMSet(byte[] key, Map<byte[], byte[]> hashes) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				for (Entry<byte[], byte[]> entry : hashes.entrySet()) {
+					hSet(key, entry.getKey(), entry.getValue());
+				}
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long hDel(byte[] key, byte[]... fields) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> hash = value(key);
+				long count = 0;
+				if (hash != null) {
+					for (byte[] field : fields) {
+						if (hash.remove(toKey(field)) != null)
+							count++;
+					}
+				}
+				return count;
+			}
+		}
+		
+		private List<byte[]> list(byte[] key) {
+			List<byte[]> list = value(key);
+			if (list == null) {
+				list = new LinkedList<byte[]>();
+				database().put(toKey(key), list);
+			}
+			return list;
+		}
+		
+		public Long lPush(byte[] key, byte[]... values) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				List<byte[]> list = list(key);
+				for (byte[] value : values) {
+					list.add(0, value);
+				}
+				return (long) list.size();
+			}
+		}
+		
+		public Long rPush(byte[] key, byte[]... values) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				List<byte[]> list = list(key);
+				list.addAll(Arrays.asList(values));
+				return (long) list.size();
+			}
+		}
+		
+		public Long sAdd(byte[] key, byte[]... values) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				Map<String, byte[]> set = hash(key);
+				long count = 0;
+				for (byte[] value : values) {
+					if (set.put(toKey(value), value) == null)
+						count++;
+				}
+				return count;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Long zAdd(byte[] key, Set<Tuple> tuples) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				long count = 0;
+				for (Tuple tuple : tuples) {
+					if (zAdd(key, tuple.getScore(), tuple.getValue()))
+						count++;
+				}
+				return count;
+			}
+		}
+		
+		public Boolean zAdd(byte[] key, double score, byte[] value) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return hash(key).put(toKey(value), toBytes(String.valueOf(score))) == null;
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public List<byte[]> lRange(byte[] key, long begin, long end) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				List<byte[]> list = list(key);
+				int to = end < 0 ? list.size() + (int) end + 1 : Math.min((int) end + 1, list.size());
+				return CollectionUtils.newArrayList(list.subList((int) begin, to));
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public Set<byte[]> sMembers(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return CollectionUtils.newLinkedHashSet(hash(key).values());
+			}
+		}
+		
+		/**
+		 * 按分数升序返回有序集合的全部成员，忽略范围参数
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param key
+		 * @param begin
+		 * @param end
+		 * @return
+		 */
+		@SuppressWarnings("unused")
+		public Set<byte[]> zRange(byte[] key, long begin, long end) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				TreeMap<Double, byte[]> members = new TreeMap<Double, byte[]>();
+				for (Entry<String, byte[]> entry : hash(key).entrySet()) {
+					members.put(Double.valueOf(toKey(entry.getValue())), toBytes(entry.getKey()));
+				}
+				return CollectionUtils.newLinkedHashSet(members.values());
+			}
+		}
+		
+		@SuppressWarnings("unused")
+		public List<byte[]> hVals(byte[] key) {
+			synchronized (LocalRedisConnectionFactory.this) {
+				return CollectionUtils.newArrayList(hash(key).values());
+			}
+		}
+	}
+
+}
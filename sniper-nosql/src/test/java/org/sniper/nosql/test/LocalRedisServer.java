@@ -0,0 +1,431 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.test;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.ScanOptions.ScanOptionsBuilder;
+
+/**
+ * 基于RESP协议的本地Redis服务，将客户端发送的命令转换为内存连接上的调用，用于在没有Redis服务的环境中测试Jedis客户端。</P>
+ * 1.每个客户端连接对应一个内存连接，数据、过期时间和脚本都由内存连接工厂维护。</P>
+ * 2.读完客户端已发送的所有命令后才刷新响应，每次刷新计为一次网络往返。管道中的命令较多时客户端会分多次写出，因此统计结果是近似值。</P>
+ * 3.可以模拟每次网络往返的延迟，刷新响应前等待。</P>
+ * 4.只实现测试用到的命令，未实现的命令返回错误响应。
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LocalRedisServer {
+	
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+	
+	/** 状态响应OK */
+	private static final Object OK = new Object();
+	
+	private final LocalRedisConnectionFactory connectionFactory;
+	
+	private ServerSocket serverSocket;
+	
+	private final List<Socket> clients = new CopyOnWriteArrayList<Socket>();
+	
+	private final AtomicInteger roundTrips = new AtomicInteger();
+	
+	/** 模拟的每次网络往返的延迟毫秒数 */
+	private volatile long latency;
+	
+	public LocalRedisServer(LocalRedisConnectionFactory connectionFactory) {
+		this.connectionFactory = connectionFactory;
+	}
+	
+	/**
+	 * 在本机的随机端口上启动服务
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws IOException
+	 */
+	public void start() throws IOException {
+		serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+		Thread acceptor = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				while (!serverSocket.isClosed()) {
+					try {
+						Socket socket = serverSocket.accept();
+						socket.setTcpNoDelay(true);
+						clients.add(socket);
+						Thread session = new Thread(new Session(socket), "local-redis-session");
+						session.setDaemon(true);
+						session.start();
+					} catch (IOException e) {
+						// 服务已关闭
+					}
+				}
+			}
+		}, "local-redis-acceptor");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+	
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * 获取网络往返次数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getRoundTrips() {
+		return roundTrips.get();
+	}
+	
+	/**
+	 * 清空计数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void setLatency(long latency) {
+		this.latency = latency;
+	}
+	
+	public void reset() {
+		roundTrips.set(0);
+	}
+	
+	/**
+	 * 关闭服务及所有客户端连接
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws IOException
+	 */
+	public void close() throws IOException {
+		serverSocket.close();
+		for (Socket client : clients) {
+			client.close();
+		}
+	}
+	
+	private static void sleep(long millis) throws IOException {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		}
+	}
+	
+	private static String toText(byte[] bytes) {
+		return new String(bytes, CHARSET);
+	}
+	
+	private static byte[] toBytes(String text) {
+		return text.getBytes(CHARSET);
+	}
+	
+	/**
+	 * 客户端会话
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private class Session implements Runnable {
+		
+		private final Socket socket;
+		
+		private final RedisConnection connection = connectionFactory.getConnection();
+		
+		/** 未遍历完的scan游标 */
+		private final Map<String, Cursor<byte[]>> cursors = MapUtils.newHashMap();
+		
+		private int cursorSequence;
+		
+		private Session(Socket socket) {
+			this.socket = socket;
+		}
+
+		@Override
+		public void run() {
+			try {
+				InputStream in = new BufferedInputStream(socket.getInputStream());
+				OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+				byte[][] args;
+				while ((args = readCommand(in)) != null) {
+					String name = toText(args[0]).toUpperCase();
+					try {
+						writeReply(out, execute(name, args));
+					} catch (RuntimeException e) {
+						String message = String.valueOf(e.getMessage());
+						out.write(toBytes("-" + (message.startsWith("NOSCRIPT") ? message : "ERR " + message) + "\r\n"));
+					}
+					
+					if (in.available() == 0) {
+						if (latency > 0)
+							sleep(latency);
+						
+						out.flush();
+						roundTrips.incrementAndGet();
+					}
+					
+					if ("QUIT".equals(name))
+						break;
+				}
+			} catch (IOException e) {
+				// 客户端已断开
+			} finally {
+				clients.remove(socket);
+				try {
+					socket.close();
+				} catch (IOException e) {
+					// 忽略关闭错误
+				}
+			}
+		}
+		
+		private Object execute(String name, byte[][] args) {
+			switch (name) {
+			case "PING":
+				return "PONG";
+			case "QUIT":
+				return OK;
+			case "SELECT":
+				connection.select(Integer.parseInt(toText(args[1])));
+				return OK;
+			case "GET":
+				return connection.get(args[1]);
+			case "SET":
+				if (args.length == 3) {
+					connection.set(args[1], args[2]);
+					return OK;
+				}
+				// 带NX和EX选项的set命令，键已存在时返回空
+				return connection.execute("SET", Arrays.copyOfRange(args, 1, args.length)) != null ? OK : null;
+			case "SETEX":
+				connection.setEx(args[1], Long.parseLong(toText(args[2])), args[3]);
+				return OK;
+			case "MGET":
+				return connection.mGet(Arrays.copyOfRange(args, 1, args.length));
+			case "MSET":
+				connection.mSet(toMap(args, 1));
+				return OK;
+			case "DEL":
+				return connection.del(Arrays.copyOfRange(args, 1, args.length));
+			case "EXISTS":
+				return connection.exists(args[1]);
+			case "EXPIRE":
+				return connection.expire(args[1], Long.parseLong(toText(args[2])));
+			case "TTL":
+				return connection.ttl(args[1]);
+			case "INCRBY":
+				return connection.incrBy(args[1], Long.parseLong(toText(args[2])));
+			case "HSET":
+				return connection.hSet(args[1], args[2], args[3]);
+			case "HGET":
+				return connection.hGet(args[1], args[2]);
+			case "HMGET":
+				return connection.hMGet(args[1], Arrays.copyOfRange(args, 2, args.length));
+			case "HMSET":
+				connection.hMSet(args[1], toMap(args, 2));
+				return OK;
+			case "HGETALL":
+				return connection.hGetAll(args[1]);
+			case "HDEL":
+				return connection.hDel(args[1], Arrays.copyOfRange(args, 2, args.length));
+			case "LPUSH":
+				return connection.lPush(args[1], Arrays.copyOfRange(args, 2, args.length));
+			case "RPUSH":
+				return connection.rPush(args[1], Arrays.copyOfRange(args, 2, args.length));
+			case "LRANGE":
+				return connection.lRange(args[1], Long.parseLong(toText(args[2])), Long.parseLong(toText(args[3])));
+			case "SADD":
+				return connection.sAdd(args[1], Arrays.copyOfRange(args, 2, args.length));
+			case "SMEMBERS":
+				return connection.sMembers(args[1]);
+			case "ZADD":
+				long added = 0;
+				for (int i = 2; i < args.length; i += 2) {
+					if (connection.zAdd(args[1], Double.parseDouble(toText(args[i])), args[i + 1]))
+						added++;
+				}
+				return added;
+			case "ZRANGE":
+				return connection.zRange(args[1], Long.parseLong(toText(args[2])), Long.parseLong(toText(args[3])));
+			case "EVALSHA":
+				return connection.evalSha(toText(args[1]), ReturnType.VALUE, 
+						Integer.parseInt(toText(args[2])), Arrays.copyOfRange(args, 3, args.length));
+			case "EVAL":
+				return connection.eval(args[1], ReturnType.VALUE, 
+						Integer.parseInt(toText(args[2])), Arrays.copyOfRange(args, 3, args.length));
+			case "SCAN":
+				return scan(args);
+			case "PUBLISH":
+				return connection.publish(args[1], args[2]);
+			case "DBSIZE":
+				return connection.dbSize();
+			case "FLUSHDB":
+				connection.flushDb();
+				return OK;
+			default:
+				throw new UnsupportedOperationException("unknown command '" + name + "'");
+			}
+		}
+		
+		/**
+		 * 执行scan命令，未遍历完的游标按编号保存，客户端用返回的编号继续遍历
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param args
+		 * @return
+		 */
+		private Object scan(byte[][] args) {
+			ScanOptionsBuilder builder = ScanOptions.scanOptions();
+			int count = 10;
+			for (int i = 2; i < args.length - 1; i += 2) {
+				String option = toText(args[i]).toUpperCase();
+				if ("MATCH".equals(option))
+					builder.match(toText(args[i + 1]));
+				else if ("COUNT".equals(option)) {
+					count = Integer.parseInt(toText(args[i + 1]));
+					builder.count(count);
+				}
+			}
+			
+			Cursor<byte[]> cursor = cursors.remove(toText(args[1]));
+			if (cursor == null)
+				cursor = connection.scan(builder.build());
+			
+			List<byte[]> batch = CollectionUtils.newArrayList(count);
+			while (batch.size() < count && cursor.hasNext()) {
+				batch.add(cursor.next());
+			}
+			
+			String next = "0";
+			if (cursor.hasNext()) {
+				next = String.valueOf(++cursorSequence);
+				cursors.put(next, cursor);
+			}
+			return Arrays.asList(toBytes(next), batch);
+		}
+		
+		private Map<byte[], byte[]> toMap(byte[][] args, int begin) {
+			Map<byte[], byte[]> map = MapUtils.newLinkedHashMap();
+			for (int i = begin; i < args.length; i += 2) {
+				map.put(args[i], args[i + 1]);
+			}
+			return map;
+		}
+		
+		/**
+		 * 读取一条以多行批量格式发送的命令，连接关闭时返回null
+		 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+		 * @param in
+		 * @return
+		 * @throws IOException
+		 */
+		private byte[][] readCommand(InputStream in) throws IOException {
+			int prefix = in.read();
+			if (prefix < 0)
+				return null;
+			
+			if (prefix != '*')
+				throw new IOException("Unsupported request prefix: " + (char) prefix);
+			
+			byte[][] args = new byte[Integer.parseInt(readLine(in))][];
+			for (int i = 0; i < args.length; i++) {
+				if (in.read() != '$')
+					throw new IOException("Bulk string expected");
+				
+				args[i] = new byte[Integer.parseInt(readLine(in))];
+				int offset = 0;
+				while (offset < args[i].length) {
+					int read = in.read(args[i], offset, args[i].length - offset);
+					if (read < 0)
+						throw new EOFException();
+					
+					offset += read;
+				}
+				readLine(in);
+			}
+			return args;
+		}
+		
+		private String readLine(InputStream in) throws IOException {
+			StringBuilder line = new StringBuilder();
+			int c;
+			while ((c = in.read()) != '\r') {
+				if (c < 0)
+					throw new EOFException();
+				
+				line.append((char) c);
+			}
+			in.read();
+			return line.toString();
+		}
+		
+		@SuppressWarnings("unchecked")
+		private void writeReply(OutputStream out, Object reply) throws IOException {
+			if (reply == OK)
+				out.write(toBytes("+OK\r\n"));
+			else if (reply == null)
+				out.write(toBytes("$-1\r\n"));
+			else if (reply instanceof String)
+				out.write(toBytes("+" + reply + "\r\n"));
+			else if (reply instanceof Boolean)
+				out.write(toBytes(":" + ((Boolean) reply ? 1 : 0) + "\r\n"));
+			else if (reply instanceof Number)
+				out.write(toBytes(":" + reply + "\r\n"));
+			else if (reply instanceof byte[]) {
+				byte[] bulk = (byte[]) reply;
+				out.write(toBytes("$" + bulk.length + "\r\n"));
+				out.write(bulk);
+				out.write(toBytes("\r\n"));
+			} else if (reply instanceof Map) {
+				Map<byte[], byte[]> map = (Map<byte[], byte[]>) reply;
+				out.write(toBytes("*" + map.size() * 2 + "\r\n"));
+				for (Entry<byte[], byte[]> entry : map.entrySet()) {
+					writeReply(out, entry.getKey());
+					writeReply(out, entry.getValue());
+				}
+			} else {
+				Collection<Object> multiBulk = (Collection<Object>) reply;
+				out.write(toBytes("*" + multiBulk.size() + "\r\n"));
+				for (Object element : multiBulk) {
+					writeReply(out, element);
+				}
+			}
+		}
+	}
+
+}
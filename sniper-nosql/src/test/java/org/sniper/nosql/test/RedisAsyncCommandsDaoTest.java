@@ -0,0 +1,185 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.DefaultRedisAsyncCommandsDao;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.util.concurrent.ListenableFuture;
+
+/**
+ * Redis异步命令接口默认实现类单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisAsyncCommandsDaoTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "user";
+	
+	/** 一次请求中相互独立的读取个数 */
+	private final int fanOut = 20;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private SpringRedisCommandsDaoImpl dao;
+	
+	private DefaultRedisAsyncCommandsDao asyncDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(1);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		
+		asyncDao = new DefaultRedisAsyncCommandsDao(dao);
+		asyncDao.setPoolSize(fanOut);
+		asyncDao.afterPropertiesSet();
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		asyncDao.destroy();
+		dao.destroy();
+	}
+	
+	/**
+	 * 异步命令的结果与同步DAO一致，并使用相同的库和序列化配置
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testCommands() throws Exception {
+		asyncDao.set2(DB_NAME, "name", "sniper").get(5, TimeUnit.SECONDS);
+		assertEquals("sniper", dao.get2(DB_NAME, "name"));
+		assertEquals("sniper", asyncDao.get2(DB_NAME, "name", String.class).get(5, TimeUnit.SECONDS));
+		assertNull(asyncDao.get2(null, "name").get(5, TimeUnit.SECONDS));
+		
+		assertEquals(Long.valueOf(5), asyncDao.incrBy(DB_NAME, "count", 5).get(5, TimeUnit.SECONDS));
+		assertTrue(asyncDao.hSet2(DB_NAME, "user", "age", 30).get(5, TimeUnit.SECONDS));
+		assertEquals(Integer.valueOf(30), asyncDao.hGet2(DB_NAME, "user", "age").get(5, TimeUnit.SECONDS));
+		assertEquals(Long.valueOf(3), asyncDao.rPush(DB_NAME, "list", Arrays.asList("a", "b", "c")).get(5, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("a", "b", "c"), asyncDao.lRange(DB_NAME, "list", 0, -1, String.class).get(5, TimeUnit.SECONDS));
+		assertTrue(asyncDao.exists(DB_NAME, "list").get(5, TimeUnit.SECONDS));
+		assertEquals(Long.valueOf(2), asyncDao.del(DB_NAME, Arrays.asList("list", "user")).get(5, TimeUnit.SECONDS));
+		assertFalse(asyncDao.exists(DB_NAME, "list").get(5, TimeUnit.SECONDS));
+		
+		// 命令执行出错时通过Future抛出
+		ListenableFuture<Double> future = asyncDao.zScore(DB_NAME, "zset", "member");
+		try {
+			future.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof UnsupportedOperationException);
+		}
+	}
+	
+	/**
+	 * 线程和等待队列都被占满时，新的命令被拒绝，返回的Future以RejectedExecutionException失败
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testRejection() throws Exception {
+		DefaultRedisAsyncCommandsDao boundedDao = new DefaultRedisAsyncCommandsDao(dao);
+		boundedDao.setPoolSize(1);
+		boundedDao.setQueueCapacity(1);
+		boundedDao.afterPropertiesSet();
+		connectionFactory.setLatency(100);
+		try {
+			ListenableFuture<String> running = boundedDao.get2(DB_NAME, "a");
+			ListenableFuture<String> queued = boundedDao.get2(DB_NAME, "b");
+			ListenableFuture<String> rejected = boundedDao.get2(DB_NAME, "c");
+			try {
+				rejected.get(1, TimeUnit.SECONDS);
+				fail();
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof RejectedExecutionException);
+			}
+			
+			assertNull(running.get(5, TimeUnit.SECONDS));
+			assertNull(queued.get(5, TimeUnit.SECONDS));
+		} finally {
+			boundedDao.destroy();
+		}
+	}
+	
+	/**
+	 * 性能对比测试，模拟每次网络往返1毫秒的延迟，比较逐个读取和并发读取fanOut个键的耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		for (int i = 0; i < fanOut; i++) {
+			dao.set2(DB_NAME, "key:" + i, i);
+		}
+		connectionFactory.setLatency(1);
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < fanOut; i++) {
+			assertEquals(Integer.valueOf(i), dao.get2(DB_NAME, "key:" + i));
+		}
+		long serialElapsed = System.nanoTime() - start;
+		
+		// 预热线程池
+		asyncDao.get2(DB_NAME, "key:0").get();
+		start = System.nanoTime();
+		List<ListenableFuture<Integer>> futures = CollectionUtils.newArrayList(fanOut);
+		for (int i = 0; i < fanOut; i++) {
+			ListenableFuture<Integer> future = asyncDao.get2(DB_NAME, "key:" + i);
+			futures.add(future);
+		}
+		for (int i = 0; i < fanOut; i++) {
+			assertEquals(Integer.valueOf(i), futures.get(i).get(5, TimeUnit.SECONDS));
+		}
+		long asyncElapsed = System.nanoTime() - start;
+		
+		System.out.println(String.format("Fan-out %d reads with 1 ms latency: serial %d ms, async %d ms", 
+				fanOut, serialElapsed / 1000000, asyncElapsed / 1000000));
+		assertTrue(asyncElapsed < serialElapsed);
+	}
+
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.test;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisConnectionUtils;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 写入并设置过期时间的原子性单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisAtomicExpireTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "session";
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private RedisTemplate<Object, Object> redisTemplate;
+	
+	private SpringRedisCommandsDaoImpl redisCommandsDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		redisCommandsDao = createDao();
+	}
+	
+	/**
+	 * 创建基于内存连接的DAO，库的过期时间为60秒
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 * @throws Exception
+	 */
+	private SpringRedisCommandsDaoImpl createDao() throws Exception {
+		RedisRepository repository = new RedisRepository();
+		repository.setExpireTime(60);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		SpringRedisCommandsDaoImpl dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		return dao;
+	}
+	
+	/**
+	 * 获取键的过期秒数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param key
+	 * @return
+	 */
+	private long expireSeconds(Object key) {
+		return connectionFactory.getExpireSeconds(0, redisCommandsDao.getGlobalKeySerializer().serialize(key));
+	}
+	
+	/**
+	 * set和setNX命令使用原生的SET选项设置过期时间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testSetWithExpire() {
+		redisCommandsDao.set2(DB_NAME, "name", "dubin");
+		assertEquals(1, connectionFactory.getRoundTrips());
+		assertEquals(60, expireSeconds("name"));
+		
+		redisCommandsDao.set2(DB_NAME, "name", "dubin", 10);
+		assertEquals(2, connectionFactory.getRoundTrips());
+		assertEquals(10, expireSeconds("name"));
+		
+		assertTrue(redisCommandsDao.setNX2(DB_NAME, "lock", "1", 30));
+		assertFalse(redisCommandsDao.setNX2(DB_NAME, "lock", "2", 30));
+		assertEquals(4, connectionFactory.getRoundTrips());
+		assertEquals(30, expireSeconds("lock"));
+		assertEquals("1", redisCommandsDao.get2(DB_NAME, "lock"));
+		assertEquals(0, connectionFactory.getCommandCount("expire"));
+	}
+	
+	/**
+	 * 没有原生过期选项的写命令通过脚本在一次网络往返内完成，脚本在连接工厂上只加载一次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception 
+	 */
+	@Test
+	public void testScriptWithExpire() throws Exception {
+		assertTrue(redisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin"));
+		assertEquals(60, expireSeconds("user"));
+		assertEquals(1, connectionFactory.getCommandCount("scriptLoad"));
+		
+		connectionFactory.reset();
+		assertFalse(redisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin", 20));
+		assertEquals(20, expireSeconds("user"));
+		assertEquals(2L, redisCommandsDao.lPush(DB_NAME, "list", new String[] { "a", "b" }).longValue());
+		assertEquals(60, expireSeconds("list"));
+		assertNull(redisCommandsDao.getSet2(DB_NAME, "name", "dubin", 5));
+		assertEquals(5, expireSeconds("name"));
+		
+		Map<Double, String> scoreMembers = MapUtils.newLinkedHashMap();
+		scoreMembers.put(1D, "a");
+		scoreMembers.put(2D, "b");
+		assertTrue(redisCommandsDao.zAdd(DB_NAME, "rank", scoreMembers, 15));
+		assertEquals(15, expireSeconds("rank"));
+		
+		System.out.println("Round trips of 4 writes with expire: " + connectionFactory.getRoundTrips());
+		assertEquals(4, connectionFactory.getRoundTrips());
+		assertEquals(0, connectionFactory.getCommandCount("expire"));
+		assertEquals(0, connectionFactory.getCommandCount("scriptLoad"));
+		
+		// 同一个连接工厂上的其它DAO不再加载脚本
+		createDao().hSet2(DB_NAME, "user", "age", 35);
+		assertEquals(0, connectionFactory.getCommandCount("scriptLoad"));
+	}
+	
+	/**
+	 * 服务端脚本缓存被清空后改用eval命令执行，下次执行时重新加载脚本
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testNoScriptFallback() {
+		redisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin");
+		connectionFactory.flushScripts();
+		connectionFactory.reset();
+		
+		assertTrue(redisCommandsDao.hSet2(DB_NAME, "user", "age", 35, 10));
+		assertEquals(10, expireSeconds("user"));
+		assertEquals(1, connectionFactory.getCommandCount("eval"));
+		assertEquals(Integer.valueOf(35), redisCommandsDao.hGet2(DB_NAME, "user", "age"));
+		
+		redisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin", 10);
+		assertEquals(1, connectionFactory.getCommandCount("scriptLoad"));
+		assertEquals(1, connectionFactory.getCommandCount("evalSha"));
+	}
+	
+	/**
+	 * 管道中的错误不会同步抛出，因此直接使用eval命令执行脚本
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testScriptInPipeline() {
+		// 绑定到当前线程的连接会被DAO复用
+		RedisConnection connection = RedisConnectionUtils.bindConnection(connectionFactory);
+		List<Object> results;
+		try {
+			connection.openPipeline();
+			assertNull(redisCommandsDao.hSet2(DB_NAME, "user", "name", "dubin", 10));
+			results = connection.closePipeline();
+		} finally {
+			RedisConnectionUtils.unbindConnection(connectionFactory);
+		}
+		
+		assertEquals(1, results.size());
+		assertEquals(10, expireSeconds("user"));
+		assertEquals(1, connectionFactory.getCommandCount("eval"));
+		assertEquals(0, connectionFactory.getCommandCount("evalSha"));
+		assertEquals(0, connectionFactory.getCommandCount("scriptLoad"));
+	}
+
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.ReflectionUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 按键类型读取数据列表的分派单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisDataTypeDispatchTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "sort";
+	
+	private final int times = 200000;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private DispatchDao dao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(3);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		dao = new DispatchDao();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		
+		dao.set2(DB_NAME, "string", "a");
+		dao.rPush(DB_NAME, "list", Arrays.asList("a", "b", "c"));
+		dao.sAdd2(DB_NAME, "set", "a");
+		dao.zAdd2(DB_NAME, "zset", 2, "b");
+		dao.zAdd2(DB_NAME, "zset", 1, "a");
+		dao.hSet2(DB_NAME, "hash", "field", "a");
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		dao.destroy();
+	}
+	
+	/**
+	 * 各键类型分派到对应的xxxTypeList方法，结果与反射调用一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testListByDataType() throws Exception {
+		RedisConnection connection = connectionFactory.getConnection();
+		connection.select(3);
+		
+		assertNull(dao.listByDataType(DataType.NONE, connection, DB_NAME, key("none"), String.class));
+		assertEquals(Arrays.asList("a"), dao.listByDataType(DataType.STRING, connection, DB_NAME, key("string"), String.class));
+		assertEquals(Arrays.asList("a", "b", "c"), dao.listByDataType(DataType.LIST, connection, DB_NAME, key("list"), String.class));
+		assertEquals(Arrays.asList("a"), dao.listByDataType(DataType.SET, connection, DB_NAME, key("set"), String.class));
+		assertEquals(Arrays.asList("a", "b"), dao.listByDataType(DataType.ZSET, connection, DB_NAME, key("zset"), String.class));
+		assertEquals(Arrays.asList("a"), dao.listByDataType(DataType.HASH, connection, DB_NAME, key("hash"), String.class));
+		
+		for (DataType dataType : DataType.values()) {
+			byte[] targetKey = key(dataType.code());
+			List<String> expected = dao.reflectiveListByDataType(dataType, connection, DB_NAME, targetKey, String.class);
+			assertEquals(expected, dao.listByDataType(dataType, connection, DB_NAME, targetKey, String.class));
+		}
+		
+		// 重写的xxxTypeList方法同样生效
+		int overriddenCount = dao.getOverriddenCount();
+		dao.listByDataType(DataType.NONE, connection, DB_NAME, key("none"), String.class);
+		assertEquals(overriddenCount + 1, dao.getOverriddenCount());
+		connection.close();
+	}
+	
+	/**
+	 * 性能对比测试，比较反射调用和映射表分派的耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		RedisConnection connection = connectionFactory.getConnection();
+		connection.select(3);
+		byte[] targetKey = key("string");
+		
+		// 预热
+		for (int i = 0; i < times; i++) {
+			dao.reflectiveListByDataType(DataType.STRING, connection, DB_NAME, targetKey, String.class);
+			dao.listByDataType(DataType.STRING, connection, DB_NAME, targetKey, String.class);
+		}
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.reflectiveListByDataType(DataType.STRING, connection, DB_NAME, targetKey, String.class);
+		}
+		long reflectiveElapsed = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			dao.listByDataType(DataType.STRING, connection, DB_NAME, targetKey, String.class);
+		}
+		long elapsed = System.nanoTime() - start;
+		connection.close();
+		
+		System.out.println(String.format("List by data type %d times: reflection %d ms, dispatch table %d ms", 
+				times, reflectiveElapsed / 1000000, elapsed / 1000000));
+	}
+	
+	private byte[] key(String key) {
+		return dao.serializeKey(key);
+	}
+	
+	/**
+	 * 暴露分派方法并保留原反射调用方式作为对照的DAO
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class DispatchDao extends SpringRedisCommandsDaoImpl {
+		
+		private int overriddenCount;
+		
+		@Override
+		protected <V> List<V> listByDataType(DataType dataType, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+			return super.listByDataType(dataType, connection, dbName, targetKey, valueType);
+		}
+		
+		@Override
+		protected <V> List<V> noneTypeList(RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) {
+			overriddenCount++;
+			return super.noneTypeList(connection, dbName, targetKey, valueType);
+		}
+		
+		@SuppressWarnings("unchecked")
+		private <V> List<V> reflectiveListByDataType(DataType dataType, RedisConnection connection, String dbName, byte[] targetKey, Class<V> valueType) throws Exception {
+			return (List<V>) ReflectionUtils.invokeMethod(this, dataType.code() + "TypeList", 
+					new Class<?>[] { RedisConnection.class, String.class, byte[].class, Class.class},
+					new Object[] { connection, dbName, targetKey, valueType });
+		}
+		
+		private byte[] serializeKey(String key) {
+			return selectKeySerializer(DB_NAME).serialize(key);
+		}
+		
+		private int getOverriddenCount() {
+			return overriddenCount;
+		}
+	}
+
+}
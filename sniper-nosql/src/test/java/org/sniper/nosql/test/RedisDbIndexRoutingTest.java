@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Map;
+
+import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.connection.DbIndexRoutingConnectionFactory;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * 按库索引路由的连接工厂单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisDbIndexRoutingTest extends BaseTestCase {
+	
+	private final int times = 1000;
+	
+	/**
+	 * 创建使用3个库的DAO，其中config库为默认库
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 * @return
+	 * @throws Exception
+	 */
+	private SpringRedisCommandsDaoImpl createDao(RedisConnectionFactory connectionFactory) throws Exception {
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put("config", new RedisRepository());
+		RedisRepository user = new RedisRepository();
+		user.setDbIndex(1);
+		repositories.put("user", user);
+		RedisRepository order = new RedisRepository();
+		order.setDbIndex(2);
+		repositories.put("order", order);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		SpringRedisCommandsDaoImpl dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		return dao;
+	}
+	
+	/**
+	 * 创建按库索引路由的连接工厂，user库使用专用连接工厂，order库使用默认连接工厂
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param server
+	 * @return
+	 * @throws Exception
+	 */
+	private DbIndexRoutingConnectionFactory createRoutingConnectionFactory(LocalRedisConnectionFactory server) throws Exception {
+		DbIndexRoutingConnectionFactory connectionFactory = new DbIndexRoutingConnectionFactory();
+		connectionFactory.setDefaultConnectionFactory(server);
+		Map<Integer, RedisConnectionFactory> dbConnectionFactories = MapUtils.newHashMap();
+		dbConnectionFactories.put(1, server.forDatabase(1));
+		connectionFactory.setDbConnectionFactories(dbConnectionFactories);
+		connectionFactory.afterPropertiesSet();
+		return connectionFactory;
+	}
+	
+	/**
+	 * 数据写入到仓库对应的库中
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testSelect() throws Exception {
+		LocalRedisConnectionFactory server = new LocalRedisConnectionFactory();
+		SpringRedisCommandsDaoImpl dao = createDao(createRoutingConnectionFactory(server));
+		SpringRedisCommandsDaoImpl plainDao = createDao(server);
+		
+		dao.set2("config", "name", "config");
+		dao.set2("user", "name", "user");
+		dao.set2("order", "name", "order");
+		
+		assertEquals("config", plainDao.get2("config", "name"));
+		assertEquals("user", plainDao.get2("user", "name"));
+		assertEquals("order", plainDao.get2("order", "name"));
+		assertEquals("user", dao.get2("user", "name"));
+		assertEquals("order", dao.get2("order", "name"));
+		
+		// 只有第一个select命令会被路由，之后的select命令原样发送
+		DbIndexRoutingConnectionFactory connectionFactory = createRoutingConnectionFactory(server);
+		server.reset();
+		RedisConnection connection = connectionFactory.getConnection();
+		connection.select(1);
+		connection.select(1);
+		connection.select(0);
+		assertEquals(1, connectionFactory.getRoutedSelectCount());
+		assertEquals(2, server.getCommandCount("select"));
+		connection.close();
+		assertTrue(connection.isClosed());
+		
+		// 没有专用连接工厂的库从默认连接工厂获取连接后发送select命令
+		connection = connectionFactory.getConnection();
+		connection.select(2);
+		assertEquals(1, connectionFactory.getRoutedSelectCount());
+		assertEquals(3, server.getCommandCount("select"));
+		connection.close();
+		
+		dao.destroy();
+		plainDao.destroy();
+	}
+	
+	/**
+	 * 在3个库上交替执行命令，比较每次都发送select命令和按库索引路由到专用连接池时的网络往返次数。</P>
+	 * 内存连接工厂每次都创建新连接，不会模拟JedisPool在借出连接时切换回默认库的select命令
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void performanceTest() throws Exception {
+		LocalRedisConnectionFactory server = new LocalRedisConnectionFactory();
+		SpringRedisCommandsDaoImpl plainDao = createDao(server);
+		server.reset();
+		execute(plainDao);
+		int plainRoundTrips = server.getRoundTrips();
+		int plainSelects = server.getCommandCount("select");
+		assertEquals(times * 2, plainSelects);
+		
+		DbIndexRoutingConnectionFactory connectionFactory = createRoutingConnectionFactory(server);
+		SpringRedisCommandsDaoImpl dao = createDao(connectionFactory);
+		server.reset();
+		execute(dao);
+		int roundTrips = server.getRoundTrips();
+		
+		// 只有没有专用连接工厂的order库仍需发送select命令
+		assertEquals(times, server.getCommandCount("select"));
+		assertEquals(times, connectionFactory.getRoutedSelectCount());
+		assertEquals(plainRoundTrips - times, roundTrips);
+		
+		System.out.println(String.format("%d requests on 3 dbs: %d round trips (%d selects) per-call select, %d round trips (%d selects) with a dedicated pool for 1 db", 
+				times, plainRoundTrips, plainSelects, roundTrips, server.getCommandCount("select")));
+		
+		plainDao.destroy();
+		dao.destroy();
+	}
+	
+	/**
+	 * 模拟一个请求依次访问3个库
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dao
+	 */
+	private void execute(SpringRedisCommandsDaoImpl dao) {
+		for (int i = 0; i < times; i++) {
+			dao.get2("config", "timeout");
+			dao.set2("user", "user:" + i, i);
+			dao.incrBy("order", "sequence", 1);
+		}
+	}
+
+}
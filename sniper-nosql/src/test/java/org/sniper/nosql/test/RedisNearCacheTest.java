@@ -0,0 +1,306 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.RedisNearCache;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Redis近端缓存单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisNearCacheTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "config";
+	
+	private final int readTimes = 10000;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	/** 开启了近端缓存的DAO */
+	private SpringRedisCommandsDaoImpl cachedDao;
+	
+	/** 模拟其它客户端的DAO */
+	private SpringRedisCommandsDaoImpl otherDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		cachedDao = createDao(100);
+		otherDao = createDao(0);
+		
+		// 等待失效频道的订阅完成
+		long deadline = System.currentTimeMillis() + 5000;
+		while (connectionFactory.getSubscriptionCount() == 0 && System.currentTimeMillis() < deadline)
+			Thread.sleep(10);
+		
+		// 只订阅开启了近端缓存的库的失效频道
+		assertEquals(1, connectionFactory.getSubscriptionCount());
+		assertEquals(1, connectionFactory.getChannelListenerCount("sniper:near-cache@2"));
+	}
+	
+	@After
+	public void destroy() throws Exception {
+		cachedDao.destroy();
+		otherDao.destroy();
+	}
+	
+	/**
+	 * 创建DAO
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param nearCacheSize 近端缓存的最大键个数，为0时不开启，但仍会发布失效消息
+	 * @return
+	 * @throws Exception
+	 */
+	private SpringRedisCommandsDaoImpl createDao(int nearCacheSize) throws Exception {
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(2);
+		repository.setNearCacheSize(nearCacheSize);
+		repository.setNearCacheNotify(true);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		SpringRedisCommandsDaoImpl dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		return dao;
+	}
+	
+	/**
+	 * 重复读取同一个键时只有首次读取产生网络往返
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testGet() throws Exception {
+		RedisNearCache nearCache = cachedDao.getNearCache(DB_NAME);
+		long stamp = nearCache.getInvalidationCount();
+		otherDao.set2(DB_NAME, "timeout", 30);
+		awaitInvalidation(stamp, 1);
+		connectionFactory.reset();
+		
+		long start = System.nanoTime();
+		for (int i = 0; i < readTimes; i++) {
+			assertEquals(Integer.valueOf(30), cachedDao.get2(DB_NAME, "timeout"));
+		}
+		long cachedElapsed = System.nanoTime() - start;
+		int cachedRoundTrips = connectionFactory.getRoundTrips();
+		assertEquals(1, connectionFactory.getCommandCount("get"));
+		
+		connectionFactory.reset();
+		start = System.nanoTime();
+		for (int i = 0; i < readTimes; i++) {
+			otherDao.get2(DB_NAME, "timeout");
+		}
+		long elapsed = System.nanoTime() - start;
+		
+		System.out.println(String.format("Get %d times with near cache: %d round trips, %d ms, hit ratio %.4f", 
+				readTimes, cachedRoundTrips, cachedElapsed / 1000000, nearCache.getHitRatio()));
+		System.out.println(String.format("Get %d times without near cache: %d round trips, %d ms", 
+				readTimes, connectionFactory.getRoundTrips(), elapsed / 1000000));
+		
+		assertEquals(readTimes - 1, nearCache.getHitCount());
+		assertEquals(1, nearCache.getMissCount());
+		assertNull(otherDao.getNearCache(DB_NAME));
+	}
+	
+	/**
+	 * 等待失效消息使近端缓存中的键失效，消息由监听容器异步分发
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param stamp 写入前的失效次数
+	 * @param count 需等待的失效次数
+	 * @throws InterruptedException
+	 */
+	private void awaitInvalidation(long stamp, int count) throws InterruptedException {
+		RedisNearCache nearCache = cachedDao.getNearCache(DB_NAME);
+		long deadline = System.currentTimeMillis() + 5000;
+		while (nearCache.getInvalidationCount() - stamp < count && System.currentTimeMillis() < deadline)
+			Thread.sleep(1);
+	}
+	
+	/**
+	 * 本地写操作完成后立即失效，其它客户端的写操作通过失效消息失效
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testInvalidation() throws Exception {
+		RedisNearCache nearCache = cachedDao.getNearCache(DB_NAME);
+		cachedDao.set2(DB_NAME, "version", 1);
+		assertEquals(Integer.valueOf(1), cachedDao.get2(DB_NAME, "version"));
+		
+		cachedDao.set2(DB_NAME, "version", 2);
+		assertEquals(Integer.valueOf(2), cachedDao.get2(DB_NAME, "version"));
+		
+		long stamp = nearCache.getInvalidationCount();
+		otherDao.set2(DB_NAME, "version", 3);
+		awaitInvalidation(stamp, 1);
+		assertEquals(Integer.valueOf(3), cachedDao.get2(DB_NAME, "version"));
+		
+		stamp = nearCache.getInvalidationCount();
+		otherDao.del(DB_NAME, "version");
+		awaitInvalidation(stamp, 1);
+		assertNull(cachedDao.get2(DB_NAME, "version"));
+		
+		stamp = nearCache.getInvalidationCount();
+		otherDao.hSet2(DB_NAME, "user", "name", "dubin");
+		awaitInvalidation(stamp, 1);
+		assertEquals("dubin", cachedDao.hGet2(DB_NAME, "user", "name"));
+		connectionFactory.reset();
+		assertEquals("dubin", cachedDao.hGet2(DB_NAME, "user", "name"));
+		assertEquals(0, connectionFactory.getCommandCount("hGet"));
+		
+		stamp = nearCache.getInvalidationCount();
+		otherDao.hSet2(DB_NAME, "user", "name", "code727");
+		awaitInvalidation(stamp, 1);
+		assertEquals("code727", cachedDao.hGet2(DB_NAME, "user", "name"));
+	}
+	
+	/**
+	 * 批量获取时只从Redis中读取未命中的键，结果顺序与键的顺序一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testMGet() throws Exception {
+		Map<String, Integer> kValues = MapUtils.newLinkedHashMap();
+		for (int i = 0; i < 4; i++) {
+			kValues.put("key" + i, i);
+		}
+		long stamp = cachedDao.getNearCache(DB_NAME).getInvalidationCount();
+		otherDao.mSet(DB_NAME, kValues);
+		awaitInvalidation(stamp, kValues.size());
+		cachedDao.get2(DB_NAME, "key1");
+		cachedDao.get2(DB_NAME, "key3");
+		
+		connectionFactory.reset();
+		List<Integer> values = cachedDao.mGet(DB_NAME, Arrays.asList("key0", "key1", "key2", "key3", "none"));
+		assertEquals(Arrays.asList(0, 1, 2, 3, null), values);
+		assertEquals(1, connectionFactory.getCommandCount("mGet"));
+		
+		connectionFactory.reset();
+		values = cachedDao.mGet(DB_NAME, Arrays.asList("key0", "key1", "key2", "key3"));
+		assertEquals(Arrays.asList(0, 1, 2, 3), values);
+		assertEquals(0, connectionFactory.getRoundTrips());
+	}
+	
+	/**
+	 * 缓存按最近访问顺序淘汰和按时间过期，读取期间键被修改时不缓存旧值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testEvictionAndExpiration() throws Exception {
+		RedisNearCache nearCache = new RedisNearCache(2, 50, TimeUnit.MILLISECONDS);
+		byte[] a = "a".getBytes();
+		byte[] b = "b".getBytes();
+		byte[] c = "c".getBytes();
+		
+		nearCache.put(nearCache.stamp(a), a, null, "A");
+		nearCache.put(nearCache.stamp(b), b, null, "B");
+		assertEquals("A", nearCache.get(a, null));
+		nearCache.put(nearCache.stamp(c), c, null, "C");
+		assertEquals(2, nearCache.size());
+		assertNull(nearCache.get(b, null));
+		assertEquals("A", nearCache.get(a, null));
+		
+		// 以不同类型读取时不命中
+		assertNull(nearCache.get(a, String.class));
+		
+		long stamp = nearCache.stamp(b);
+		long otherStamp = nearCache.stamp(a);
+		nearCache.invalidate(b);
+		nearCache.put(stamp, b, null, "B");
+		assertNull(nearCache.get(b, null));
+		
+		// 其它键的失效不影响进行中的读取
+		assertEquals(otherStamp, nearCache.stamp(a));
+		
+		Thread.sleep(100);
+		assertNull(nearCache.get(a, null));
+		assertNull(nearCache.get(c, null));
+	}
+	
+	/**
+	 * 每个键缓存的哈希域个数有上限，按最近访问顺序淘汰
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testFieldLimit() {
+		RedisNearCache nearCache = new RedisNearCache(10, 2, 1, TimeUnit.MINUTES);
+		byte[] key = "user".getBytes();
+		byte[] name = "name".getBytes();
+		byte[] age = "age".getBytes();
+		byte[] sex = "sex".getBytes();
+		
+		nearCache.hPut(nearCache.stamp(key), key, name, null, "dubin");
+		nearCache.hPut(nearCache.stamp(key), key, age, null, 35);
+		assertEquals("dubin", nearCache.hGet(key, name, null));
+		nearCache.hPut(nearCache.stamp(key), key, sex, null, "M");
+		
+		assertNull(nearCache.hGet(key, age, null));
+		assertEquals("dubin", nearCache.hGet(key, name, null));
+		assertEquals("M", nearCache.hGet(key, sex, null));
+	}
+	
+	/**
+	 * 修改键的过期时间后使其失效，避免缓存值比Redis中的键存活得更久
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testExpireInvalidation() throws Exception {
+		RedisNearCache nearCache = cachedDao.getNearCache(DB_NAME);
+		cachedDao.set2(DB_NAME, "token", "abc");
+		assertEquals("abc", cachedDao.get2(DB_NAME, "token"));
+		
+		cachedDao.expire(DB_NAME, "token", 1);
+		connectionFactory.reset();
+		assertEquals("abc", cachedDao.get2(DB_NAME, "token"));
+		assertEquals(1, connectionFactory.getCommandCount("get"));
+		
+		long stamp = nearCache.getInvalidationCount();
+		otherDao.expire(DB_NAME, "token", 1);
+		awaitInvalidation(stamp, 1);
+		connectionFactory.reset();
+		assertEquals("abc", cachedDao.get2(DB_NAME, "token"));
+		assertEquals(1, connectionFactory.getCommandCount("get"));
+	}
+
+}
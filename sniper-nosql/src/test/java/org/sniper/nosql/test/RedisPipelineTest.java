@@ -0,0 +1,225 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.nosql.test;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.dao.RedisPipeline;
+import org.sniper.nosql.redis.dao.RedisPipelineCallback;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * Redis管道单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisPipelineTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "session";
+	
+	private static final int DB_INDEX = 1;
+	
+	private final int keySize = 500;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private SpringRedisCommandsDaoImpl redisCommandsDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		redisCommandsDao = createDao(false);
+	}
+	
+	/**
+	 * 创建基于内存连接的DAO
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param cluster
+	 * @return
+	 * @throws Exception
+	 */
+	private SpringRedisCommandsDaoImpl createDao(boolean cluster) throws Exception {
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		redisTemplate.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(DB_INDEX);
+		repository.setExpireTime(60);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		SpringRedisCommandsDaoImpl dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.setCluster(cluster);
+		dao.afterPropertiesSet();
+		return dao;
+	}
+	
+	/**
+	 * 获取除select命令之外的网络往返次数，select命令在开启管道之前执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private int pipelineRoundTrips() {
+		return connectionFactory.getRoundTrips() - connectionFactory.getCommandCount("select");
+	}
+	
+	/**
+	 * 管道回调中各命令的结果按排队顺序返回，无返回值的命令结果为null
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testExecutePipelined() {
+		List<Object> results = redisCommandsDao.executePipelined(DB_NAME, new RedisPipelineCallback() {
+			
+			@Override
+			public void doInPipeline(RedisPipeline pipeline) {
+				pipeline.set("name", "dubin");
+				pipeline.get("name");
+				pipeline.exists("name");
+				pipeline.incrBy("counter", 5);
+				pipeline.hSet("user", "age", 35);
+				pipeline.hGet("user", "age", Integer.class);
+				pipeline.del("name");
+				pipeline.exists("name");
+			}
+		});
+		
+		assertEquals(1, pipelineRoundTrips());
+		assertEquals(8, results.size());
+		assertNull(results.get(0));
+		assertEquals("dubin", results.get(1));
+		assertEquals(Boolean.TRUE, results.get(2));
+		assertEquals(5L, results.get(3));
+		assertEquals(Boolean.TRUE, results.get(4));
+		assertEquals(35, results.get(5));
+		assertEquals(1L, results.get(6));
+		assertEquals(Boolean.FALSE, results.get(7));
+		
+		// 管道中写入的值使用相同的序列化器，可直接通过DAO读取
+		assertEquals(Integer.valueOf(35), redisCommandsDao.hGet2(DB_NAME, "user", "age"));
+	}
+	
+	/**
+	 * 客户端返回无返回值命令的结果时，结果同样按排队顺序对齐
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testExecutePipelinedWithStatusResults() {
+		connectionFactory.setStatusResults(true);
+		List<Object> results = redisCommandsDao.executePipelined(new RedisPipelineCallback() {
+			
+			@Override
+			public void doInPipeline(RedisPipeline pipeline) {
+				pipeline.set("name", "dubin", 10);
+				pipeline.get("name");
+			}
+		});
+		
+		assertEquals(2, results.size());
+		assertNull(results.get(0));
+		assertEquals("dubin", results.get(1));
+	}
+	
+	/**
+	 * 批量命令及其过期时间在一次网络往返内完成
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testMultipleKeyCommands() {
+		List<String> keys = CollectionUtils.newArrayList(keySize);
+		Map<String, Integer> kValues = MapUtils.newLinkedHashMap();
+		for (int i = 0; i < keySize; i++) {
+			keys.add("key" + i);
+			if (i % 2 == 0)
+				kValues.put("key" + i, i);
+		}
+		
+		redisCommandsDao.mSet(DB_NAME, kValues, 30);
+		System.out.println("Round trips of mSet with expire " + kValues.size() + " keys: " + connectionFactory.getRoundTrips());
+		assertEquals(1, pipelineRoundTrips());
+		assertEquals(kValues.size(), connectionFactory.getCommandCount("expire"));
+		
+		connectionFactory.reset();
+		Map<String, Boolean> exists = redisCommandsDao.exists(DB_NAME, keys);
+		System.out.println("Round trips of exists " + keySize + " keys: " + connectionFactory.getRoundTrips());
+		assertEquals(1, pipelineRoundTrips());
+		assertEquals(keySize, exists.size());
+		for (int i = 0; i < keySize; i++) {
+			assertEquals(i % 2 == 0, exists.get("key" + i));
+		}
+		
+		connectionFactory.reset();
+		Map<String, Integer> hashes = MapUtils.newLinkedHashMap();
+		hashes.put("age", 35);
+		hashes.put("height", 175);
+		redisCommandsDao.hMSet(DB_NAME, "user", hashes);
+		// hMSet与过期时间通过脚本执行，首次执行时需加载脚本
+		assertEquals(1, pipelineRoundTrips() - connectionFactory.getCommandCount("scriptLoad"));
+		assertEquals(0, connectionFactory.getCommandCount("expire"));
+	}
+	
+	/**
+	 * 集群环境下不开启管道，命令逐个执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception 
+	 */
+	@Test
+	public void testClusterFallback() throws Exception {
+		SpringRedisCommandsDaoImpl clusterDao = createDao(true);
+		List<String> keys = CollectionUtils.newArrayList(keySize);
+		for (int i = 0; i < keySize; i++) {
+			keys.add("key" + i);
+		}
+		clusterDao.set("key0", 0);
+		
+		connectionFactory.reset();
+		Map<String, Boolean> exists = clusterDao.exists(keys);
+		assertEquals(keySize, connectionFactory.getRoundTrips());
+		assertEquals(Boolean.TRUE, exists.get("key0"));
+		assertEquals(Boolean.FALSE, exists.get("key1"));
+		
+		connectionFactory.reset();
+		List<Object> results = clusterDao.executePipelined(new RedisPipelineCallback() {
+			
+			@Override
+			public void doInPipeline(RedisPipeline pipeline) {
+				pipeline.set("name", "dubin");
+				pipeline.get("name");
+			}
+		});
+		assertEquals(2, connectionFactory.getRoundTrips());
+		assertNull(results.get(0));
+		assertEquals("dubin", results.get(1));
+	}
+
+}
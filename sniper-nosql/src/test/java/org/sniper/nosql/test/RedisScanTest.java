@@ -0,0 +1,270 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+package org.sniper.nosql.test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.nosql.redis.DefaultRedisRepositoryManager;
+import org.sniper.nosql.redis.RedisRepository;
+import org.sniper.nosql.redis.connection.RedisMultipleConnectionFactory;
+import org.sniper.nosql.redis.dao.RedisScanCallback;
+import org.sniper.nosql.redis.spring.SpringRedisCommandsDaoImpl;
+import org.sniper.test.junit.BaseTestCase;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Redis游标遍历单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RedisScanTest extends BaseTestCase {
+	
+	private static final String DB_NAME = "session";
+	
+	private final int keySize = 1000;
+	
+	private final int batchSize = 100;
+	
+	private LocalRedisConnectionFactory connectionFactory;
+	
+	private SpringRedisCommandsDaoImpl redisCommandsDao;
+	
+	@Before
+	public void init() throws Exception {
+		connectionFactory = new LocalRedisConnectionFactory();
+		redisCommandsDao = createDao(connectionFactory);
+	}
+	
+	/**
+	 * 创建基于指定连接工厂的DAO
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param connectionFactory
+	 * @return
+	 * @throws Exception
+	 */
+	private SpringRedisCommandsDaoImpl createDao(RedisConnectionFactory connectionFactory) throws Exception {
+		RedisTemplate<Object, Object> redisTemplate = new RedisTemplate<Object, Object>();
+		redisTemplate.setConnectionFactory(connectionFactory);
+		// 匹配模式作用于序列化后的键，因此键使用字符串序列化器
+		redisTemplate.setKeySerializer(new StringRedisSerializer());
+		redisTemplate.setHashKeySerializer(new StringRedisSerializer());
+		redisTemplate.afterPropertiesSet();
+		
+		RedisRepository repository = new RedisRepository();
+		repository.setDbIndex(1);
+		Map<String, RedisRepository> repositories = MapUtils.newHashMap();
+		repositories.put(DB_NAME, repository);
+		DefaultRedisRepositoryManager repositoryManager = new DefaultRedisRepositoryManager();
+		repositoryManager.setRepositories(repositories);
+		
+		SpringRedisCommandsDaoImpl dao = new SpringRedisCommandsDaoImpl();
+		dao.setRedisTemplate(redisTemplate);
+		dao.setRepositoryManager(repositoryManager);
+		dao.afterPropertiesSet();
+		return dao;
+	}
+	
+	/**
+	 * 写入指定个数的键，键名为user:序号或order:序号交替出现
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param dao
+	 * @param size
+	 */
+	private void prepareKeys(SpringRedisCommandsDaoImpl dao, int size) {
+		Map<String, Integer> kValues = MapUtils.newLinkedHashMap();
+		for (int i = 0; i < size; i++) {
+			kValues.put((i % 2 == 0 ? "user:" : "order:") + i, i);
+		}
+		dao.mSet(DB_NAME, kValues);
+	}
+	
+	/**
+	 * 按模式获取键和值时通过游标分批遍历，不再阻塞式地一次返回全部键
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testKeysAndValuesByPattern() {
+		prepareKeys(redisCommandsDao, keySize);
+		connectionFactory.reset();
+		
+		Set<String> keys = redisCommandsDao.keysByPattern(DB_NAME, "user:*");
+		System.out.println("Round trips of keysByPattern " + keySize + " keys: " + connectionFactory.getRoundTrips());
+		assertEquals(keySize / 2, keys.size());
+		assertTrue(keys.contains("user:0"));
+		assertFalse(keys.contains("order:1"));
+		assertEquals(0, connectionFactory.getCommandCount("keys"));
+		
+		List<Integer> values = redisCommandsDao.valuesByPattern(DB_NAME, "order:*");
+		assertEquals(keySize / 2, values.size());
+		assertTrue(values.contains(1));
+		assertFalse(values.contains(0));
+		
+		assertNull(redisCommandsDao.keysByPattern(DB_NAME, "none:*"));
+	}
+	
+	/**
+	 * 每批结果单独反序列化后回调，回调返回false时停止遍历
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testScanBatches() {
+		prepareKeys(redisCommandsDao, keySize);
+		connectionFactory.reset();
+		
+		final List<Integer> batchSizes = CollectionUtils.newArrayList();
+		final Set<String> keys = CollectionUtils.newHashSet();
+		redisCommandsDao.scan(DB_NAME, "*", String.class, batchSize, new RedisScanCallback<List<String>>() {
+
+			@Override
+			public boolean doInBatch(List<String> batch) {
+				batchSizes.add(batch.size());
+				keys.addAll(batch);
+				return true;
+			}
+		});
+		
+		System.out.println("Round trips of scan " + keySize + " keys with batch size " + batchSize + ": " + connectionFactory.getRoundTrips());
+		assertEquals(keySize, keys.size());
+		for (int size : batchSizes) {
+			assertTrue(size <= batchSize);
+		}
+		
+		final List<Integer> stopped = CollectionUtils.newArrayList();
+		redisCommandsDao.scan(DB_NAME, "*", String.class, batchSize, new RedisScanCallback<List<String>>() {
+
+			@Override
+			public boolean doInBatch(List<String> batch) {
+				stopped.add(batch.size());
+				return stopped.size() < 2;
+			}
+		});
+		assertEquals(2, stopped.size());
+	}
+	
+	/**
+	 * 遍历哈希、集合与有序集合的成员
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testMemberScan() {
+		Map<String, Integer> hashes = MapUtils.newLinkedHashMap();
+		Integer[] members = new Integer[keySize];
+		Map<Double, Integer> scoreMembers = MapUtils.newLinkedHashMap();
+		for (int i = 0; i < keySize; i++) {
+			hashes.put("field" + i, i);
+			members[i] = i;
+			scoreMembers.put((double) i, i);
+		}
+		redisCommandsDao.hMSet(DB_NAME, "user", hashes);
+		redisCommandsDao.sAdd(DB_NAME, "tags", members);
+		redisCommandsDao.zAdd(DB_NAME, "rank", scoreMembers);
+		
+		final Map<String, Integer> scannedHashes = MapUtils.newHashMap();
+		redisCommandsDao.hScan2(DB_NAME, "user", "field1*", String.class, Integer.class, batchSize, 
+				new RedisScanCallback<Map<String, Integer>>() {
+
+			@Override
+			public boolean doInBatch(Map<String, Integer> batch) {
+				scannedHashes.putAll(batch);
+				return true;
+			}
+		});
+		// field1, field10-field19, field100-field199
+		assertEquals(111, scannedHashes.size());
+		assertEquals(Integer.valueOf(123), scannedHashes.get("field123"));
+		
+		final Set<Integer> scannedMembers = CollectionUtils.newHashSet();
+		redisCommandsDao.sScan2(DB_NAME, "tags", null, Integer.class, batchSize, new RedisScanCallback<List<Integer>>() {
+
+			@Override
+			public boolean doInBatch(List<Integer> batch) {
+				scannedMembers.addAll(batch);
+				return true;
+			}
+		});
+		assertEquals(keySize, scannedMembers.size());
+		
+		final Map<Integer, Double> scannedScores = MapUtils.newHashMap();
+		redisCommandsDao.zScan2(DB_NAME, "rank", null, Integer.class, batchSize, new RedisScanCallback<Map<Integer, Double>>() {
+
+			@Override
+			public boolean doInBatch(Map<Integer, Double> batch) {
+				scannedScores.putAll(batch);
+				return true;
+			}
+		});
+		assertEquals(keySize, scannedScores.size());
+		assertEquals(Double.valueOf(99), scannedScores.get(99));
+	}
+	
+	/**
+	 * 路由连接工厂下并行遍历所有目标节点，回调串行执行
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testParallelScan() throws Exception {
+		LocalRedisConnectionFactory first = new LocalRedisConnectionFactory();
+		LocalRedisConnectionFactory second = new LocalRedisConnectionFactory();
+		prepareKeys(createDao(first), keySize);
+		prepareKeys(createDao(second), keySize / 2);
+		prepareKeys(redisCommandsDao, 10);
+		
+		Map<Object, RedisConnectionFactory> targetConnectionFactories = MapUtils.newLinkedHashMap();
+		targetConnectionFactories.put("first", first);
+		targetConnectionFactories.put("second", second);
+		RedisMultipleConnectionFactory routingConnectionFactory = new RedisMultipleConnectionFactory();
+		routingConnectionFactory.setTargetConnectionFactories(targetConnectionFactories);
+		routingConnectionFactory.setResolvedDefaultConnectionFactory(connectionFactory);
+		routingConnectionFactory.afterPropertiesSet();
+		SpringRedisCommandsDaoImpl routingDao = createDao(routingConnectionFactory);
+		
+		final List<String> keys = CollectionUtils.newArrayList();
+		final int[] concurrency = new int[2];
+		RedisScanCallback<List<String>> callback = new RedisScanCallback<List<String>>() {
+
+			@Override
+			public boolean doInBatch(List<String> batch) {
+				concurrency[1] = Math.max(concurrency[1], ++concurrency[0]);
+				keys.addAll(batch);
+				concurrency[0]--;
+				return true;
+			}
+		};
+		
+		long start = System.nanoTime();
+		routingDao.scan(DB_NAME, "user:*", String.class, batchSize, true, callback);
+		System.out.println(String.format("Parallel scan of 3 nodes: %d keys, %d ms", keys.size(), (System.nanoTime() - start) / 1000000));
+		assertEquals(keySize / 2 + keySize / 4 + 5, keys.size());
+		assertEquals(1, concurrency[1]);
+		
+		// 非并行时只遍历默认节点
+		keys.clear();
+		routingDao.scan(DB_NAME, "user:*", String.class, batchSize, false, callback);
+		assertEquals(5, keys.size());
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.serialization;
+
+/**
+ * 元素处理器接口，逐个处理从数组中增量反序列化出来的元素
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface ElementHandler<E> {
+	
+	/**
+	 * 处理反序列化出来的元素，返回false时停止继续反序列化后面的元素
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param element
+	 * @return
+	 * @throws Exception
+	 */
+	public boolean handle(E element) throws Exception;
+
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.serialization;
+
+import java.io.InputStream;
+
+/**
+ * 流式类型化序列器接口，直接从输入流中反序列化，不需要先将全部内容读取成字符串
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface StreamingTypedSerializer extends TypedSerializer {
+	
+	/**
+	 * 将输入流的内容反序列化成指定目标类型的对象，结果与反序列化相同内容的字符串一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param in
+	 * @param encoding 输入流的字符集编码，为空时使用序列器的编码
+	 * @param targetType
+	 * @return
+	 * @throws SerializationException
+	 */
+	public <T> T deserialize(InputStream in, String encoding, Class<T> targetType) throws SerializationException;
+	
+	/**
+	 * 将输入流中的数组逐个反序列化成指定类型的元素并交给元素处理器处理，内容不是数组时作为单个元素处理。</P>
+	 * 任何时刻只有一个元素驻留在内存中，适合处理元素个数很多的大数组
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param in
+	 * @param encoding 输入流的字符集编码，为空时使用序列器的编码
+	 * @param elementType
+	 * @param handler
+	 * @return 已处理的元素个数
+	 * @throws SerializationException
+	 */
+	public <E> long deserializeElements(InputStream in, String encoding, Class<E> elementType, ElementHandler<E> handler) throws SerializationException;
+
+}
@@ -18,26 +18,37 @@
 
 package org.sniper.serialization.json.jackson.fasterxml;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.reflect.Array;
 import java.util.Collection;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.sniper.commons.util.ClassUtils;
 import org.sniper.commons.util.DateUtils;
 import org.sniper.commons.util.ObjectUtils;
 import org.sniper.commons.util.StringUtils;
+import org.sniper.serialization.ElementHandler;
 import org.sniper.serialization.SerializationException;
+import org.sniper.serialization.StreamingTypedSerializer;
 import org.sniper.serialization.json.AbstractJsonSerializer;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.type.TypeFactory;
 
 /**
- * FasterxmlJackson 序列器实现类
+ * FasterxmlJackson 序列器实现类，支持直接从输入流中反序列化以及增量反序列化大数组
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public class FasterxmlJacksonSerializer extends AbstractJsonSerializer {
+public class FasterxmlJacksonSerializer extends AbstractJsonSerializer implements StreamingTypedSerializer {
 	
 	private ObjectMapper objectMapper;
 	
@@ -139,4 +150,120 @@ public class FasterxmlJacksonSerializer extends AbstractJsonSerializer {
 		return (T) objectMapper.readValue(jsonArray, safeDeserializeType(collectionType));
 	}
 
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> T deserialize(InputStream in, String encoding, Class<T> targetType) throws SerializationException {
+		JsonParser parser = null;
+		try {
+			parser = createParser(in, encoding);
+			JsonToken token = parser.nextToken();
+			if (token == null)
+				throw new IllegalArgumentException("JSON stream must not be empty");
+			
+			TypeFactory typeFactory = objectMapper.getTypeFactory();
+			Class<?> type = safeDeserializeType(targetType);
+			if (token == JsonToken.START_ARRAY) {
+				if (ClassUtils.isCollection(type))
+					return (T) objectMapper.readValue(parser, type);
+				
+				if (ClassUtils.isArray(type))
+					return objectMapper.readValue(parser, typeFactory.constructArrayType(type.getComponentType()));
+				
+				return objectMapper.readValue(parser, typeFactory.constructParametricType(Collection.class, type));
+			} 
+			
+			// 与字符串的反序列化保持一致，集合或数组类型时返回只包含一个元素的集合或数组
+			if (ClassUtils.isCollection(type))
+				return (T) objectMapper.readerFor(type).with(DeserializationFeature.ACCEPT_SINGLE_VALUE_AS_ARRAY).readValue(parser);
+			
+			if (ClassUtils.isArray(type)) {
+				Object array = Array.newInstance(type.getComponentType(), 1);
+				Array.set(array, 0, objectMapper.readValue(parser, type.getComponentType()));
+				return (T) array;
+			}
+			
+			return (T) objectMapper.readValue(parser, type);
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException("Cannot deserialize", e);
+		} finally {
+			closeParser(parser);
+		}
+	}
+	
+	@Override
+	public <E> long deserializeElements(InputStream in, String encoding, Class<E> elementType, ElementHandler<E> handler) throws SerializationException {
+		JsonParser parser = null;
+		long count = 0;
+		try {
+			parser = createParser(in, encoding);
+			JsonToken token = parser.nextToken();
+			if (token == null)
+				return count;
+			
+			ObjectReader reader = objectMapper.readerFor(safeDeserializeType(elementType));
+			if (token != JsonToken.START_ARRAY) {
+				handler.handle(reader.<E>readValue(parser));
+				return ++count;
+			}
+			
+			while (parser.nextToken() != JsonToken.END_ARRAY) {
+				count++;
+				if (!handler.handle(reader.<E>readValue(parser)))
+					break;
+			}
+			return count;
+		} catch (SerializationException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new SerializationException("Cannot deserialize element " + count, e);
+		} finally {
+			closeParser(parser);
+		}
+	}
+	
+	/**
+	 * 创建输入流的JSON解析器，Unicode编码时直接解析字节流，由解析器自动检测具体的编码格式，
+	 * 其余编码时先按编码转换成字符流
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param in
+	 * @param encoding
+	 * @return
+	 * @throws IOException
+	 */
+	private JsonParser createParser(InputStream in, String encoding) throws IOException {
+		if (StringUtils.isBlank(encoding))
+			encoding = getEncoding();
+		
+		JsonParser parser = null;
+		for (JsonEncoding jsonEncoding : JsonEncoding.values()) {
+			if (jsonEncoding.getJavaName().equalsIgnoreCase(encoding)) {
+				parser = objectMapper.getFactory().createParser(in);
+				break;
+			}
+		}
+		
+		if (parser == null)
+			parser = objectMapper.getFactory().createParser(new InputStreamReader(in, encoding));
+		
+		// 输入流由调用方负责关闭
+		return parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+	}
+	
+	/**
+	 * 关闭JSON解析器
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parser
+	 */
+	private void closeParser(JsonParser parser) {
+		if (parser != null) {
+			try {
+				parser.close();
+			} catch (IOException e) {
+				// 忽略关闭时的异常
+			}
+		}
+	}
+
 }
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.sharding.route;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.sharding.AbstractSharding;
+
+/**
+ * 一致性哈希路由分片器实现类。</P>
+ * 每个路由目标在哈希环上对应多个虚拟节点，参数路由到哈希值顺时针方向的第一个虚拟节点，
+ * 增加或删除路由目标时只有相邻区间内的参数会改变路由结果。</P>
+ * 哈希环以有序数组保存，路由时只做一次二分查找，增删路由目标时整体替换哈希环
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class ConsistentHashRouteSharding extends AbstractSharding<Route> {
+	
+	/** 默认的虚拟节点数 */
+	public static final int DEFAULT_VIRTUAL_NODES = 160;
+	
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	/** 每个路由目标对应的虚拟节点数 */
+	private final int virtualNodes;
+	
+	/** 路由目标列表 */
+	private final List<String> targets = CollectionUtils.newArrayList();
+	
+	/** 哈希环 */
+	private volatile Ring ring = new Ring(new long[0], new String[0]);
+	
+	public ConsistentHashRouteSharding() {
+		this(DEFAULT_VIRTUAL_NODES);
+	}
+	
+	public ConsistentHashRouteSharding(int virtualNodes) {
+		AssertUtils.assertTrue(virtualNodes > 0, "Virtual nodes must greater than 0");
+		this.virtualNodes = virtualNodes;
+	}
+	
+	public int getVirtualNodes() {
+		return virtualNodes;
+	}
+	
+	public synchronized List<String> getTargets() {
+		return CollectionUtils.newArrayList(targets);
+	}
+	
+	public synchronized void setTargets(Collection<String> targets) {
+		this.targets.clear();
+		for (String target : targets) {
+			AssertUtils.assertNotBlank(target, "Route target must not be blank");
+			if (!this.targets.contains(target))
+				this.targets.add(target);
+		}
+		rebuild();
+	}
+	
+	/**
+	 * 添加路由目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param target
+	 */
+	public synchronized void addTarget(String target) {
+		AssertUtils.assertNotBlank(target, "Route target must not be blank");
+		if (!targets.contains(target)) {
+			targets.add(target);
+			rebuild();
+		}
+	}
+	
+	/**
+	 * 删除路由目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param target
+	 */
+	public synchronized void removeTarget(String target) {
+		if (targets.remove(target))
+			rebuild();
+	}
+
+	@Override
+	protected Route buildShardingEntity() {
+		return new Route();
+	}
+	
+	/**
+	 * 根据long型参数进行路由，避免参数装箱
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param route
+	 */
+	public void sharding(long parameter, Route route) {
+		checkShardingEntity(route);
+		route.setTarget(locate(mix(parameter)));
+	}
+
+	@Override
+	protected <P> void doSharding(P parameter, Route route) {
+		route.setTarget(locate(hash(parameter)));
+	}
+	
+	/**
+	 * 在哈希环上查找哈希值顺时针方向的第一个虚拟节点所对应的路由目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hash
+	 * @return
+	 */
+	private String locate(long hash) {
+		Ring ring = this.ring;
+		AssertUtils.assertTrue(ring.hashes.length > 0, "Route targets must not be empty");
+		
+		int index = Arrays.binarySearch(ring.hashes, hash);
+		if (index < 0) {
+			index = -index - 1;
+			if (index == ring.hashes.length)
+				index = 0;
+		}
+		return ring.targets[index];
+	}
+	
+	/**
+	 * 重新生成哈希环
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	private void rebuild() {
+		// 哈希值相同的虚拟节点只保留先添加的路由目标
+		TreeMap<Long, String> nodes = new TreeMap<Long, String>();
+		for (String target : targets) {
+			for (int i = 0; i < virtualNodes; i++) {
+				Long hash = hash(target + "#" + i);
+				if (!nodes.containsKey(hash))
+					nodes.put(hash, target);
+			}
+		}
+		
+		long[] hashes = new long[nodes.size()];
+		String[] ringTargets = new String[hashes.length];
+		int index = 0;
+		for (Entry<Long, String> node : nodes.entrySet()) {
+			hashes[index] = node.getKey();
+			ringTargets[index++] = node.getValue();
+		}
+		
+		this.ring = new Ring(hashes, ringTargets);
+	}
+	
+	/**
+	 * 计算参数的哈希值，整型参数与其数字字符串的哈希值相同
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	private static <P> long hash(P parameter) {
+		if (parameter == null)
+			return mix(0);
+		
+		if (RouteParameters.isIntegral(parameter))
+			return mix(((Number) parameter).longValue());
+		
+		String str = parameter.toString();
+		if (RouteParameters.isLong(str))
+			return mix(Long.parseLong(str));
+		
+		// FNV-1a算法
+		long hash = FNV_OFFSET_BASIS;
+		for (int i = 0; i < str.length(); i++) {
+			hash ^= str.charAt(i);
+			hash *= FNV_PRIME;
+		}
+		return mix(hash);
+	}
+	
+	/**
+	 * 对哈希值做扰动，使相邻的数字均匀分布在哈希环上
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param hash
+	 * @return
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xff51afd7ed558ccdL;
+		hash ^= hash >>> 33;
+		hash *= 0xc4ceb9fe1a85ec53L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+	
+	/**
+	 * 哈希环
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class Ring {
+		
+		/** 按升序排列的虚拟节点哈希值 */
+		private final long[] hashes;
+		
+		/** 与虚拟节点一一对应的路由目标 */
+		private final String[] targets;
+		
+		private Ring(long[] hashes, String[] targets) {
+			this.hashes = hashes;
+			this.targets = targets;
+		}
+	}
+
+}
@@ -24,38 +24,134 @@ import org.sniper.commons.util.NumberUtils;
 import org.sniper.sharding.AbstractHashSharding;
 
 /**
- * 哈希路由分片器实现类
+ * 哈希路由分片器实现类。</P>
+ * 整型参数和不超出long范围的数字字符串直接用long取模，只有超出范围的大数才使用BigInteger，
+ * 各取模结果对应的格式化路由目标在首次使用时一次性生成并缓存，路由过程中不再做格式化处理
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
 public class HashRouteSharding extends AbstractHashSharding<Route> {
+	
+	/** 缓存格式化路由目标的最大模数，超过时每次路由都重新格式化 */
+	private static final int MAX_CACHED_MODEL = 1 << 14;
+	
+	/** 按取模结果缓存的路由目标 */
+	private volatile String[] targets;
+	
+	@Override
+	public void setModel(int model) {
+		super.setModel(model);
+		this.targets = null;
+	}
+	
+	@Override
+	public void setFormatLength(int formatLength) {
+		super.setFormatLength(formatLength);
+		this.targets = null;
+	}
 
 	@Override
 	protected Route buildShardingEntity() {
 		return new Route();
 	}
+	
+	/**
+	 * 根据long型参数进行路由，避免参数装箱
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param route
+	 */
+	public void sharding(long parameter, Route route) {
+		checkShardingEntity(route);
+		route.setTarget(getTarget(slot(parameter)));
+	}
 
 	@Override
 	protected <P> void doSharding(P parameter, Route route) {
-		String target = "";
+		route.setTarget(getTarget(slot(parameter)));
+	}
+	
+	/**
+	 * 计算参数的取模结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	private <P> long slot(P parameter) {
 		if (parameter == null)
-			target = "0";
-		else {
-			BigInteger integer;
+			return 0;
+		
+		if (RouteParameters.isIntegral(parameter))
+			return slot(((Number) parameter).longValue());
+		
+		if (parameter instanceof BigInteger)
+			return ((BigInteger) parameter).abs().mod(model).longValue();
+		
+		String str = parameter.toString();
+		if (RouteParameters.isLong(str))
+			return slot(Long.parseLong(str));
+		
+		if (RouteParameters.isInteger(str)) {
 			try {
-				integer = new BigInteger(parameter.toString()).abs();
+				return new BigInteger(str).abs().mod(model).longValue();
 			} catch (NumberFormatException e) {
-				// 如果是小数或其他非数字型对象，则直接利用该对象的哈希绝对值取模
-				integer = new BigInteger(String.valueOf(parameter.hashCode())).abs();
+				// 非ASCII数字等BigInteger无法解析的情况，按哈希值处理
 			}
-			
-			target = integer.mod(model).toString();
 		}
 		
-		if (formatLength > 0)
-			route.setTarget(NumberUtils.format(new BigInteger(target), formatLength));
-		else
-			route.setTarget(target);
+		// 如果是小数或其他非数字型对象，则直接利用该对象的哈希绝对值取模
+		return slot((long) parameter.hashCode());
+	}
+	
+	/**
+	 * 计算long型参数的取模结果，先取余再取绝对值，避免Long.MIN_VALUE取绝对值时溢出
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	private long slot(long parameter) {
+		return Math.abs(parameter % model.longValue());
+	}
+	
+	/**
+	 * 获取取模结果对应的路由目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param slot
+	 * @return
+	 */
+	private String getTarget(long slot) {
+		String[] targets = this.targets;
+		if (targets == null)
+			this.targets = targets = buildTargets();
+		
+		return slot < targets.length ? targets[(int) slot] : formatTarget(slot);
+	}
+	
+	/**
+	 * 生成所有取模结果对应的路由目标，模数超过缓存上限时返回空数组
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	private String[] buildTargets() {
+		int size = getModel();
+		if (size > MAX_CACHED_MODEL)
+			return new String[0];
+		
+		String[] targets = new String[size];
+		for (int i = 0; i < size; i++) {
+			targets[i] = formatTarget(i);
+		}
+		return targets;
+	}
+	
+	/**
+	 * 格式化取模结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param slot
+	 * @return
+	 */
+	private String formatTarget(long slot) {
+		return formatLength > 0 ? NumberUtils.format(slot, formatLength) : String.valueOf(slot);
 	}
 
 }
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.sharding.route;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.sharding.AbstractSharding;
+
+/**
+ * 范围路由分片器实现类。</P>
+ * 路由表由多个区间下限及其对应的路由目标组成，参数路由到不大于它的最大下限所对应的目标，
+ * 适用于按自增ID或时间戳等有序参数分段存储的场景。</P>
+ * 路由表以有序数组保存，路由时只做一次二分查找，修改路由表时整体替换
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class RangeRouteSharding extends AbstractSharding<Route> {
+	
+	/** 区间下限与路由目标的映射 */
+	private final TreeMap<Long, String> ranges = new TreeMap<Long, String>();
+	
+	/** 路由表 */
+	private volatile RangeTable table = new RangeTable(new long[0], new String[0]);
+	
+	public synchronized Map<Long, String> getRanges() {
+		return MapUtils.newLinkedHashMap(ranges);
+	}
+	
+	public synchronized void setRanges(Map<Long, String> ranges) {
+		this.ranges.clear();
+		for (Entry<Long, String> range : ranges.entrySet()) {
+			AssertUtils.assertNotNull(range.getKey(), "Range lower bound must not be null");
+			AssertUtils.assertNotBlank(range.getValue(), "Route target must not be blank");
+			this.ranges.put(range.getKey(), range.getValue());
+		}
+		rebuild();
+	}
+	
+	/**
+	 * 添加区间，大于等于下限且小于下一个区间下限的参数将路由到指定的目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lowerBound
+	 * @param target
+	 */
+	public synchronized void addRange(long lowerBound, String target) {
+		AssertUtils.assertNotBlank(target, "Route target must not be blank");
+		ranges.put(lowerBound, target);
+		rebuild();
+	}
+	
+	/**
+	 * 删除区间
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param lowerBound
+	 */
+	public synchronized void removeRange(long lowerBound) {
+		if (ranges.remove(lowerBound) != null)
+			rebuild();
+	}
+
+	@Override
+	protected Route buildShardingEntity() {
+		return new Route();
+	}
+	
+	/**
+	 * 根据long型参数进行路由，避免参数装箱
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param route
+	 */
+	public void sharding(long parameter, Route route) {
+		checkShardingEntity(route);
+		route.setTarget(locate(parameter));
+	}
+
+	@Override
+	protected <P> void doSharding(P parameter, Route route) {
+		route.setTarget(locate(RouteParameters.toLong(parameter)));
+	}
+	
+	/**
+	 * 查找参数所在区间对应的路由目标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 * @throws IllegalArgumentException
+	 */
+	private String locate(long parameter) throws IllegalArgumentException {
+		RangeTable table = this.table;
+		int index = Arrays.binarySearch(table.lowerBounds, parameter);
+		if (index < 0) {
+			// 未命中下限时取插入点的前一个区间
+			index = -index - 2;
+			if (index < 0)
+				throw new IllegalArgumentException("Sharded parameter [" + parameter + "] is out of route ranges");
+		}
+		return table.targets[index];
+	}
+	
+	/**
+	 * 重新生成路由表
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	private void rebuild() {
+		long[] lowerBounds = new long[ranges.size()];
+		String[] targets = new String[lowerBounds.length];
+		int index = 0;
+		for (Entry<Long, String> range : ranges.entrySet()) {
+			lowerBounds[index] = range.getKey();
+			targets[index++] = range.getValue();
+		}
+		
+		this.table = new RangeTable(lowerBounds, targets);
+	}
+	
+	/**
+	 * 路由表
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class RangeTable {
+		
+		/** 按升序排列的区间下限 */
+		private final long[] lowerBounds;
+		
+		/** 与区间一一对应的路由目标 */
+		private final String[] targets;
+		
+		private RangeTable(long[] lowerBounds, String[] targets) {
+			this.lowerBounds = lowerBounds;
+			this.targets = targets;
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.sharding.route;
+
+/**
+ * 路由参数工具类，用字符扫描代替异常判断参数是否为数字
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class RouteParameters {
+	
+	/** 一定不会超出long范围的十进制最大位数 */
+	private static final int MAX_LONG_DIGITS = 18;
+	
+	private RouteParameters() {}
+	
+	/**
+	 * 判断参数是否为整型数字对象
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 */
+	static boolean isIntegral(Object parameter) {
+		return parameter instanceof Long || parameter instanceof Integer 
+				|| parameter instanceof Short || parameter instanceof Byte;
+	}
+	
+	/**
+	 * 判断字符串是否为可直接用Long.parseLong解析的十进制整数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param str
+	 * @return
+	 */
+	static boolean isLong(String str) {
+		int start = signLength(str);
+		int length = str.length();
+		if (length == start || length - start > MAX_LONG_DIGITS)
+			return false;
+		
+		for (int i = start; i < length; i++) {
+			char c = str.charAt(i);
+			if (c < '0' || c > '9')
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * 判断字符串是否为任意长度的十进制整数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param str
+	 * @return
+	 */
+	static boolean isInteger(String str) {
+		int start = signLength(str);
+		int length = str.length();
+		if (length == start)
+			return false;
+		
+		for (int i = start; i < length; i++) {
+			if (!Character.isDigit(str.charAt(i)))
+				return false;
+		}
+		return true;
+	}
+	
+	/**
+	 * 将整型数字对象或不超出long范围的数字字符串转换为long值
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @return
+	 * @throws IllegalArgumentException
+	 */
+	static long toLong(Object parameter) throws IllegalArgumentException {
+		if (parameter == null)
+			return 0;
+		
+		if (isIntegral(parameter))
+			return ((Number) parameter).longValue();
+		
+		String str = parameter.toString();
+		if (isLong(str))
+			return Long.parseLong(str);
+		
+		throw new IllegalArgumentException("Sharded parameter [" + str + "] is not a long value");
+	}
+	
+	/**
+	 * 获取字符串开头的正负号长度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param str
+	 * @return
+	 */
+	private static int signLength(String str) {
+		if (str.isEmpty())
+			return 0;
+		
+		char c = str.charAt(0);
+		return c == '-' || c == '+' ? 1 : 0;
+	}
+
+}
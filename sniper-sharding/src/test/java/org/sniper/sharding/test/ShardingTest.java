@@ -18,7 +18,16 @@
 
 package org.sniper.sharding.test;
 
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Test;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.commons.util.NumberUtils;
+import org.sniper.sharding.Shardable;
+import org.sniper.sharding.route.ConsistentHashRouteSharding;
+import org.sniper.sharding.route.RangeRouteSharding;
 import org.sniper.sharding.route.Route;
 import org.sniper.sharding.route.HashRouteSharding;
 import org.sniper.test.junit.BaseTestCase;
@@ -40,5 +49,205 @@ public class ShardingTest extends BaseTestCase {
 		sharding.sharding("9527", route);
 		System.out.println(route);
 	}
+	
+	/**
+	 * 新的取模路径与原BigInteger实现的路由结果一致
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testHashRouteCompatibility() {
+		HashRouteSharding sharding = new HashRouteSharding();
+		sharding.setModel(100);
+		sharding.setAllowNull(true);
+		sharding.setFormatLength(4);
+		
+		Object[] parameters = new Object[] { null, "9527", 9527, 9527L, -9527L, (short) -3, (byte) 7, 
+				Long.MAX_VALUE, Long.MIN_VALUE, Integer.MIN_VALUE, "+12", "-0012", "007", "99999999999999999999999", 
+				new BigInteger("-123456789012345678901"), "12.5", 12.5, "abc", "", "-", "\u0663\u0664" };
+		for (Object parameter : parameters) {
+			assertEquals(String.valueOf(parameter), legacyHashRoute(parameter, 100, 4), sharding.sharding(parameter).getTarget());
+		}
+		
+		Route route = new Route("test_table_");
+		sharding.sharding(Long.MIN_VALUE, route);
+		assertEquals(legacyHashRoute(Long.MIN_VALUE, 100, 4), route.getTarget());
+		
+		// 修改模数和格式化长度后缓存的路由目标随之失效
+		sharding.setModel(7);
+		sharding.setFormatLength(0);
+		assertEquals(legacyHashRoute(9526, 7, 0), sharding.sharding(9526).getTarget());
+		
+		// 超过缓存上限的模数每次重新格式化
+		sharding.setModel(100000);
+		sharding.setFormatLength(6);
+		assertEquals("009527", sharding.sharding(9527).getTarget());
+	}
+	
+	/**
+	 * 一致性哈希路由测试，增加路由目标时只有少部分参数改变路由结果
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testConsistentHashRouteSharding() {
+		ConsistentHashRouteSharding sharding = new ConsistentHashRouteSharding();
+		sharding.setTargets(Arrays.asList("db_0", "db_1", "db_2", "db_3"));
+		
+		int size = 100000;
+		String[] targets = new String[size];
+		Map<String, Integer> counts = MapUtils.newHashMap();
+		Route route = new Route();
+		for (int i = 0; i < size; i++) {
+			sharding.sharding((long) i, route);
+			targets[i] = route.getTarget();
+			Integer count = counts.get(targets[i]);
+			counts.put(targets[i], count != null ? count + 1 : 1);
+		}
+		System.out.println("Consistent hash distribution: " + counts);
+		for (Integer count : counts.values()) {
+			assertTrue(Math.abs(count - size / 4) < size / 4 / 5);
+		}
+		
+		// 整型参数与其数字字符串的路由结果相同
+		assertEquals(targets[9527], sharding.sharding("9527").getTarget());
+		assertEquals(targets[9527], sharding.sharding(9527).getTarget());
+		
+		sharding.addTarget("db_4");
+		int moved = 0;
+		for (int i = 0; i < size; i++) {
+			sharding.sharding((long) i, route);
+			if (!targets[i].equals(route.getTarget())) {
+				// 改变路由结果的参数只会迁移到新增的目标上
+				assertEquals("db_4", route.getTarget());
+				moved++;
+			}
+		}
+		System.out.println("Moved after adding target: " + moved);
+		assertTrue(Math.abs(moved - size / 5) < size / 5 / 5);
+		
+		sharding.removeTarget("db_4");
+		for (int i = 0; i < size; i++) {
+			sharding.sharding((long) i, route);
+			assertEquals(targets[i], route.getTarget());
+		}
+	}
+	
+	/**
+	 * 范围路由测试
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testRangeRouteSharding() {
+		RangeRouteSharding sharding = new RangeRouteSharding();
+		sharding.addRange(0, "order_0");
+		sharding.addRange(1000000, "order_1");
+		sharding.addRange(2000000, "order_2");
+		
+		assertEquals("order_0", sharding.sharding(0).getTarget());
+		assertEquals("order_0", sharding.sharding("999999").getTarget());
+		assertEquals("order_1", sharding.sharding(1000000L).getTarget());
+		assertEquals("order_2", sharding.sharding(Long.MAX_VALUE).getTarget());
+		
+		try {
+			sharding.sharding(-1);
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+		
+		try {
+			sharding.sharding("abc");
+			fail();
+		} catch (IllegalArgumentException e) {
+		}
+		
+		sharding.removeRange(1000000);
+		assertEquals("order_0", sharding.sharding(1500000).getTarget());
+	}
+	
+	/**
+	 * 性能对比测试，比较原BigInteger实现与各分片器的路由耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void performanceTest() {
+		final int times = 1000000;
+		
+		long start = System.nanoTime();
+		int checksum = 0;
+		for (int i = 0; i < times; i++) {
+			checksum += legacyHashRoute((long) i, 1024, 4).length();
+		}
+		System.out.println(String.format("Legacy BigInteger hash: %d routes, %d ms", times, (System.nanoTime() - start) / 1000000));
+		
+		HashRouteSharding hashSharding = new HashRouteSharding();
+		hashSharding.setModel(1024);
+		hashSharding.setFormatLength(4);
+		
+		ConsistentHashRouteSharding consistentHashSharding = new ConsistentHashRouteSharding();
+		consistentHashSharding.setTargets(Arrays.asList("0", "1", "2", "3", "4", "5", "6", "7"));
+		
+		RangeRouteSharding rangeSharding = new RangeRouteSharding();
+		for (int i = 0; i < 64; i++) {
+			rangeSharding.addRange(i * (times / 64), String.valueOf(i));
+		}
+		
+		checksum += benchmark("Hash boxed", hashSharding, times);
+		Route route = new Route();
+		start = System.nanoTime();
+		for (int i = 0; i < times; i++) {
+			hashSharding.sharding((long) i, route);
+			checksum += route.getTarget().length();
+		}
+		System.out.println(String.format("Hash primitive: %d routes, %d ms", times, (System.nanoTime() - start) / 1000000));
+		
+		checksum += benchmark("Consistent hash", consistentHashSharding, times);
+		checksum += benchmark("Range", rangeSharding, times);
+		assertTrue(checksum > 0);
+	}
+	
+	/**
+	 * 对分片器执行指定次数的路由，返回路由目标长度之和，防止循环被优化掉
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param name
+	 * @param sharding
+	 * @param times
+	 * @return
+	 */
+	private int benchmark(String name, Shardable<Route> sharding, int times) {
+		Route route = new Route();
+		int checksum = 0;
+		long start = System.nanoTime();
+		for (long i = 0; i < times; i++) {
+			sharding.sharding(i, route);
+			checksum += route.getTarget().length();
+		}
+		System.out.println(String.format("%s: %d routes, %d ms", name, times, (System.nanoTime() - start) / 1000000));
+		return checksum;
+	}
+	
+	/**
+	 * 原HashRouteSharding的路由实现，用于结果比对和性能基准
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param parameter
+	 * @param model
+	 * @param formatLength
+	 * @return
+	 */
+	private String legacyHashRoute(Object parameter, int model, int formatLength) {
+		String target = "";
+		if (parameter == null)
+			target = "0";
+		else {
+			BigInteger integer;
+			try {
+				integer = new BigInteger(parameter.toString()).abs();
+			} catch (NumberFormatException e) {
+				integer = new BigInteger(String.valueOf(parameter.hashCode())).abs();
+			}
+			
+			target = integer.mod(BigInteger.valueOf(model)).toString();
+		}
+		
+		return formatLength > 0 ? NumberUtils.format(new BigInteger(target), formatLength) : target;
+	}
 
 }
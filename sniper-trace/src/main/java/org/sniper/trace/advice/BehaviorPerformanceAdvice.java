@@ -19,24 +19,40 @@
 package org.sniper.trace.advice;
 
 import java.lang.reflect.Method;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.Map.Entry;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.AssertUtils;
 import org.sniper.commons.util.DateUtils;
+import org.sniper.commons.util.MapUtils;
 import org.sniper.context.ThreadLocalHolder;
 import org.sniper.spring.aop.AbstractMethodAroundAdvice;
 import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+import org.sniper.trace.histogram.HistogramSnapshot;
+import org.sniper.trace.histogram.LatencyHistogram;
 import org.sniper.trace.service.BehaviorPerformanceLoggerService;
 import org.sniper.trace.service.BehaviorPerformanceService;
+import org.springframework.beans.factory.DisposableBean;
 
 /**
- * 性能采集拦截切面实现类
+ * 性能采集拦截切面实现类。</P>
+ * 1.默认对每次调用生成一条性能记录并交给性能采集服务存储。</P>
+ * 2.开启直方图模式后，每次调用的纳秒级耗时只记录到方法对应的无锁直方图中，
+ *   由后台线程按统计周期生成各方法的性能统计记录并交给性能采集服务存储，业务线程上不分配对象也不输出日志。</P>
  * @author  <a href="mailto:code727@gmail.com">杜斌</a>
  * @version 1.0
  */
-public class BehaviorPerformanceAdvice extends AbstractMethodAroundAdvice {
+public class BehaviorPerformanceAdvice extends AbstractMethodAroundAdvice implements DisposableBean {
 	
 	private static final String BEHAVIOR_PERFORMANCE = "behavior_performance";
 	
@@ -44,22 +60,98 @@ public class BehaviorPerformanceAdvice extends AbstractMethodAroundAdvice {
 	
 	private BehaviorPerformanceService behaviorPerformanceService;
 	
+	/** 是否开启直方图模式 */
+	private boolean histogram;
+	
+	/** 直方图模式的统计周期(秒) */
+	private long flushInterval = 60;
+	
+	/** 方法与耗时直方图的映射 */
+	private final ConcurrentMap<Method, LatencyHistogram> histograms = MapUtils.newConcurrentHashMap();
+	
+	/** 直方图模式下各线程的调用帧栈 */
+	private final ThreadLocal<FrameStack> frameStacks = new ThreadLocal<FrameStack>() {
+		
+		@Override
+		protected FrameStack initialValue() {
+			return new FrameStack();
+		}
+	};
+	
+	/** 当前统计周期的开始时间 */
+	private volatile long periodStartTime = System.currentTimeMillis();
+	
+	private ScheduledExecutorService flusher;
+	
 	public void setBehaviorPerformanceService(
 			BehaviorPerformanceService behaviorPerformanceService) {
 		this.behaviorPerformanceService = behaviorPerformanceService;
 	}
 	
+	public boolean isHistogram() {
+		return histogram;
+	}
+
+	public void setHistogram(boolean histogram) {
+		this.histogram = histogram;
+	}
+
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	public void setFlushInterval(long flushInterval) {
+		AssertUtils.assertTrue(flushInterval > 0, "Flush interval must greater than 0");
+		this.flushInterval = flushInterval;
+	}
+
 	@Override
 	protected void init() throws Exception {
 		if (behaviorPerformanceService == null) {
 			behaviorPerformanceService = new BehaviorPerformanceLoggerService();
 			logger.info("behaviorPerformanceService is null, use default implementation:" + BehaviorPerformanceLoggerService.class.getName());
 		}
+		
+		if (histogram) {
+			flusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+
+				@Override
+				public Thread newThread(Runnable runnable) {
+					Thread thread = new Thread(runnable, "behavior-performance-flusher");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+			flusher.scheduleAtFixedRate(new Runnable() {
+				
+				@Override
+				public void run() {
+					try {
+						flush();
+					} catch (Throwable e) {
+						logger.error("Flush behavior statistics error", e);
+					}
+				}
+			}, flushInterval, flushInterval, TimeUnit.SECONDS);
+		}
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		if (flusher != null) {
+			flusher.shutdown();
+			// 输出最后一个统计周期内的数据
+			flush();
+		}
 	}
 		
 	@SuppressWarnings("unchecked")
 	@Override
 	protected void doBeforeTask(Method method, Object[] args, Object target) {
+		if (histogram) {
+			frameStacks.get().push(method, System.nanoTime());
+			return;
+		}
 		
 		Stack<BehaviorPerformance> methodStack = (Stack<BehaviorPerformance>) ThreadLocalHolder.getAttribute(BEHAVIOR_PERFORMANCE);
 		
@@ -81,6 +173,12 @@ public class BehaviorPerformanceAdvice extends AbstractMethodAroundAdvice {
 	@Override
 	protected void doAfterReturningTask(Object returnValue, Method method,
 			Object[] args, Object target) throws Throwable {
+		if (histogram) {
+			long elapsedTime = frameStacks.get().pop(method, System.nanoTime());
+			if (elapsedTime >= 0)
+				getHistogram(method).record(elapsedTime);
+			return;
+		}
 		
 		// 从堆栈里取出最近一个被doBeforeTask()处理的方法BehaviorPerformance对象，可保证总是先得到最里层的方法
 		BehaviorPerformance behaviorPerformance = ((Stack<BehaviorPerformance>) ThreadLocalHolder
@@ -94,4 +192,104 @@ public class BehaviorPerformanceAdvice extends AbstractMethodAroundAdvice {
 		}
 	}
 	
+	/**
+	 * 获取方法对应的耗时直方图，不存在时创建
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param method
+	 * @return
+	 */
+	private LatencyHistogram getHistogram(Method method) {
+		LatencyHistogram histogram = histograms.get(method);
+		if (histogram == null) {
+			LatencyHistogram newHistogram = new LatencyHistogram();
+			histogram = histograms.putIfAbsent(method, newHistogram);
+			if (histogram == null)
+				histogram = newHistogram;
+		}
+		return histogram;
+	}
+	
+	/**
+	 * 结束当前统计周期，将各方法在周期内的耗时分布交给性能采集服务存储
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	public void flush() {
+		Date startTime = new Date(periodStartTime);
+		long endTime = System.currentTimeMillis();
+		periodStartTime = endTime;
+		
+		for (Entry<Method, LatencyHistogram> entry : histograms.entrySet()) {
+			HistogramSnapshot snapshot = entry.getValue().snapshotAndReset();
+			if (snapshot.getCount() == 0)
+				continue;
+			
+			Method method = entry.getKey();
+			BehaviorStatistics behaviorStatistics = new BehaviorStatistics();
+			behaviorStatistics.setDeclaringClass(method.getDeclaringClass().getName());
+			behaviorStatistics.setMethodName(method.getName());
+			behaviorStatistics.setStartTime(startTime);
+			behaviorStatistics.setEndTime(new Date(endTime));
+			behaviorStatistics.setCount(snapshot.getCount());
+			behaviorStatistics.setMinTime(snapshot.getMin());
+			behaviorStatistics.setMaxTime(snapshot.getMax());
+			behaviorStatistics.setMeanTime(snapshot.getMean());
+			behaviorStatistics.setP50Time(snapshot.getPercentile(50));
+			behaviorStatistics.setP90Time(snapshot.getPercentile(90));
+			behaviorStatistics.setP99Time(snapshot.getPercentile(99));
+			behaviorStatistics.setP999Time(snapshot.getPercentile(99.9));
+			behaviorPerformanceService.store(behaviorStatistics);
+		}
+	}
+	
+	/**
+	 * 调用帧栈，以预分配的数组保存各层调用的方法和开始时间，压栈出栈时不分配对象
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class FrameStack {
+		
+		/** 最大深度，超过时说明有大量方法因抛出异常而未出栈 */
+		private static final int MAX_DEPTH = 1024;
+		
+		private Method[] methods = new Method[16];
+		
+		private long[] startTimes = new long[16];
+		
+		private int size;
+		
+		private void push(Method method, long startTime) {
+			if (size == methods.length) {
+				if (size == MAX_DEPTH) {
+					// 丢弃所有未出栈的帧，避免栈无限增长
+					Arrays.fill(methods, null);
+					size = 0;
+				} else {
+					methods = Arrays.copyOf(methods, size * 2);
+					startTimes = Arrays.copyOf(startTimes, size * 2);
+				}
+			}
+			
+			methods[size] = method;
+			startTimes[size++] = startTime;
+		}
+		
+		/**
+		 * 弹出方法对应的帧并返回耗时，其上方因抛出异常而未出栈的帧会被一并丢弃，找不到时返回-1
+		 * @param method
+		 * @param endTime
+		 * @return
+		 */
+		private long pop(Method method, long endTime) {
+			for (int i = size - 1; i >= 0; i--) {
+				if (methods[i] == method) {
+					while (size > i) {
+						methods[--size] = null;
+					}
+					return endTime - startTimes[i];
+				}
+			}
+			return -1;
+		}
+	}
+	
 }
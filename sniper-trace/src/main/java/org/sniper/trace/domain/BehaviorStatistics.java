@@ -0,0 +1,166 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.domain;
+
+import java.util.Date;
+
+import org.sniper.commons.entity.IdEntity;
+
+/**
+ * 性能统计对象，记录一个方法在一个统计周期内的耗时分布，耗时单位均为纳秒
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class BehaviorStatistics extends IdEntity<Long> {
+
+	private static final long serialVersionUID = -3405938871146419823L;
+	
+	/** 方法所在包全限定名 */
+	private String declaringClass;
+	
+	/** 方法名称 */
+	private String methodName;
+	
+	/** 统计周期开始时间 */
+	private Date startTime;
+	
+	/** 统计周期结束时间 */
+	private Date endTime;
+	
+	/** 调用次数 */
+	private long count;
+	
+	/** 最小耗时 */
+	private long minTime;
+	
+	/** 最大耗时 */
+	private long maxTime;
+	
+	/** 平均耗时 */
+	private long meanTime;
+	
+	/** 50%的调用不超过的耗时 */
+	private long p50Time;
+	
+	/** 90%的调用不超过的耗时 */
+	private long p90Time;
+	
+	/** 99%的调用不超过的耗时 */
+	private long p99Time;
+	
+	/** 99.9%的调用不超过的耗时 */
+	private long p999Time;
+
+	public String getDeclaringClass() {
+		return declaringClass;
+	}
+
+	public void setDeclaringClass(String declaringClass) {
+		this.declaringClass = declaringClass;
+	}
+
+	public String getMethodName() {
+		return methodName;
+	}
+
+	public void setMethodName(String methodName) {
+		this.methodName = methodName;
+	}
+
+	public Date getStartTime() {
+		return startTime;
+	}
+
+	public void setStartTime(Date startTime) {
+		this.startTime = startTime;
+	}
+
+	public Date getEndTime() {
+		return endTime;
+	}
+
+	public void setEndTime(Date endTime) {
+		this.endTime = endTime;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public void setCount(long count) {
+		this.count = count;
+	}
+
+	public long getMinTime() {
+		return minTime;
+	}
+
+	public void setMinTime(long minTime) {
+		this.minTime = minTime;
+	}
+
+	public long getMaxTime() {
+		return maxTime;
+	}
+
+	public void setMaxTime(long maxTime) {
+		this.maxTime = maxTime;
+	}
+
+	public long getMeanTime() {
+		return meanTime;
+	}
+
+	public void setMeanTime(long meanTime) {
+		this.meanTime = meanTime;
+	}
+
+	public long getP50Time() {
+		return p50Time;
+	}
+
+	public void setP50Time(long p50Time) {
+		this.p50Time = p50Time;
+	}
+
+	public long getP90Time() {
+		return p90Time;
+	}
+
+	public void setP90Time(long p90Time) {
+		this.p90Time = p90Time;
+	}
+
+	public long getP99Time() {
+		return p99Time;
+	}
+
+	public void setP99Time(long p99Time) {
+		this.p99Time = p99Time;
+	}
+
+	public long getP999Time() {
+		return p999Time;
+	}
+
+	public void setP999Time(long p999Time) {
+		this.p999Time = p999Time;
+	}
+	
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.histogram;
+
+/**
+ * 耗时直方图快照
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class HistogramSnapshot {
+	
+	/** 桶计数 */
+	private final long[] buckets;
+	
+	/** 记录次数 */
+	private final long count;
+	
+	/** 耗时总和 */
+	private final long total;
+	
+	/** 最小耗时 */
+	private final long min;
+	
+	/** 最大耗时 */
+	private final long max;
+	
+	HistogramSnapshot(long[] buckets, long total, long min, long max) {
+		long count = 0;
+		for (long bucket : buckets) {
+			count += bucket;
+		}
+		
+		this.buckets = buckets;
+		this.count = count;
+		this.total = total;
+		this.min = count > 0 ? min : 0;
+		this.max = max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+	
+	/**
+	 * 获取平均耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getMean() {
+		return count > 0 ? total / count : 0;
+	}
+	
+	/**
+	 * 获取指定百分位的耗时，结果为所在桶的最大耗时，且不会超过记录到的最大耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param percentile 取值范围为0到100
+	 * @return
+	 */
+	public long getPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		
+		long rank = (long) Math.ceil(count * Math.min(Math.max(percentile, 0), 100) / 100);
+		if (rank < 1)
+			rank = 1;
+		
+		long accumulated = 0;
+		for (int i = 0; i < buckets.length; i++) {
+			accumulated += buckets[i];
+			if (accumulated >= rank)
+				return Math.min(LatencyHistogram.highestValueOf(i), max);
+		}
+		return max;
+	}
+
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁耗时直方图，以纳秒为单位记录耗时分布。</P>
+ * 1.采用对数线性分桶，每个2的幂区间再均分为32个子桶，相对误差不超过1/32，
+ *   小于32纳秒的耗时按原值精确记录，超过1小时的耗时按1小时记录。</P>
+ * 2.记录时只对桶计数和统计值做原子操作，不加锁也不分配对象，可在业务线程上直接调用。</P>
+ * 3.快照与记录并发进行时，各桶计数不会丢失，只会被计入本次或下一次快照。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LatencyHistogram {
+	
+	/** 子桶位数 */
+	static final int SUB_BUCKET_BITS = 5;
+	
+	/** 每个2的幂区间内的子桶数 */
+	static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	
+	/** 可记录的最大耗时 */
+	static final long MAX_VALUE = TimeUnit.HOURS.toNanos(1);
+	
+	/** 桶计数 */
+	private final AtomicLongArray counts = new AtomicLongArray(indexOf(MAX_VALUE) + 1);
+	
+	/** 耗时总和 */
+	private final AtomicLong total = new AtomicLong();
+	
+	/** 最小耗时 */
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	
+	/** 最大耗时 */
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * 记录一次耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param nanos
+	 */
+	public void record(long nanos) {
+		if (nanos < 0)
+			nanos = 0;
+		else if (nanos > MAX_VALUE)
+			nanos = MAX_VALUE;
+		
+		counts.incrementAndGet(indexOf(nanos));
+		total.addAndGet(nanos);
+		
+		long current;
+		while (nanos < (current = min.get()) && !min.compareAndSet(current, nanos));
+		while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos));
+	}
+	
+	/**
+	 * 获取当前的快照
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public HistogramSnapshot snapshot() {
+		long[] buckets = new long[counts.length()];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = counts.get(i);
+		}
+		return new HistogramSnapshot(buckets, total.get(), min.get(), max.get());
+	}
+	
+	/**
+	 * 获取当前的快照后清零，用于按周期统计
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public HistogramSnapshot snapshotAndReset() {
+		long[] buckets = new long[counts.length()];
+		for (int i = 0; i < buckets.length; i++) {
+			buckets[i] = counts.getAndSet(i, 0);
+		}
+		return new HistogramSnapshot(buckets, total.getAndSet(0), min.getAndSet(Long.MAX_VALUE), max.getAndSet(0));
+	}
+	
+	/**
+	 * 计算耗时所在的桶下标
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param nanos
+	 * @return
+	 */
+	static int indexOf(long nanos) {
+		if (nanos < SUB_BUCKET_COUNT)
+			return (int) nanos;
+		
+		// 最高位所在的幂次决定桶，其后的SUB_BUCKET_BITS位决定子桶
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int shift = exponent - SUB_BUCKET_BITS;
+		return ((shift + 1) << SUB_BUCKET_BITS) + (int) (nanos >>> shift) - SUB_BUCKET_COUNT;
+	}
+	
+	/**
+	 * 计算桶内的最大耗时
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param index
+	 * @return
+	 */
+	static long highestValueOf(int index) {
+		if (index < SUB_BUCKET_COUNT)
+			return index;
+		
+		int shift = (index >>> SUB_BUCKET_BITS) - 1;
+		long mantissa = SUB_BUCKET_COUNT + (index & (SUB_BUCKET_COUNT - 1));
+		return ((mantissa + 1) << shift) - 1;
+	}
+
+}
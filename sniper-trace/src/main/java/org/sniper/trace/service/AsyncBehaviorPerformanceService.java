@@ -0,0 +1,268 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.spring.beans.CheckableInitializingBeanAdapter;
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+import org.sniper.trace.writer.BehaviorPerformanceWriter;
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * 异步性能采集服务实现类。</P>
+ * 1.业务线程只将性能记录写入有界无锁环形缓冲区，由后台线程按批次取出后交给写入器写入。</P>
+ * 2.缓冲区已满时按溢出策略丢弃记录或阻塞业务线程，丢弃的记录数和写入失败的记录数均可查询。</P>
+ * 3.缓冲区中的记录达到一个批次时立即唤醒后台线程，否则后台线程每隔flushInterval毫秒写入一次不足一批的记录。</P>
+ * 4.性能统计记录本身已是周期性产生的，直接交给写入器写入。</P>
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class AsyncBehaviorPerformanceService extends CheckableInitializingBeanAdapter implements BehaviorPerformanceService, DisposableBean {
+	
+	private static final Logger logger = LoggerFactory.getLogger(AsyncBehaviorPerformanceService.class);
+	
+	private BehaviorPerformanceWriter writer;
+	
+	/** 缓冲区容量 */
+	private int capacity = 8192;
+	
+	/** 每批写入的最大记录数 */
+	private int batchSize = 256;
+	
+	/** 不足一批时的最大写入间隔(毫秒) */
+	private long flushInterval = 1000;
+	
+	/** 缓冲区已满时的处理策略 */
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+	
+	private RingBuffer<BehaviorPerformance> buffer;
+	
+	private Thread drainer;
+	
+	private volatile boolean running;
+	
+	/** 是否已唤醒过后台线程，后台线程进入等待前复位，避免业务线程重复唤醒 */
+	private final AtomicBoolean signalled = new AtomicBoolean();
+	
+	/** 被丢弃的记录数 */
+	private final AtomicLong droppedCount = new AtomicLong();
+	
+	/** 写入失败的记录数 */
+	private final AtomicLong failedCount = new AtomicLong();
+	
+	/** 已写入的记录数，只被后台线程修改 */
+	private volatile long writtenCount;
+	
+	public BehaviorPerformanceWriter getWriter() {
+		return writer;
+	}
+
+	public void setWriter(BehaviorPerformanceWriter writer) {
+		this.writer = writer;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public int getBatchSize() {
+		return batchSize;
+	}
+
+	public void setBatchSize(int batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	public long getFlushInterval() {
+		return flushInterval;
+	}
+
+	public void setFlushInterval(long flushInterval) {
+		this.flushInterval = flushInterval;
+	}
+
+	public OverflowPolicy getOverflowPolicy() {
+		return overflowPolicy;
+	}
+
+	public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+		this.overflowPolicy = overflowPolicy;
+	}
+	
+	@Override
+	protected void checkProperties() {
+		AssertUtils.assertNotNull(writer, "Property 'writer' is required");
+		AssertUtils.assertTrue(capacity > 1, "Property 'capacity' must greater than 1");
+		AssertUtils.assertTrue(batchSize > 0, "Property 'batchSize' must greater than 0");
+		AssertUtils.assertTrue(flushInterval > 0, "Property 'flushInterval' must greater than 0");
+		AssertUtils.assertNotNull(overflowPolicy, "Property 'overflowPolicy' is required");
+	}
+
+	@Override
+	protected void init() throws Exception {
+		buffer = new RingBuffer<BehaviorPerformance>(capacity);
+		running = true;
+		drainer = new Thread(new Runnable() {
+			
+			@Override
+			public void run() {
+				drain();
+			}
+		}, "behavior-performance-drainer");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+	
+	@Override
+	public void destroy() throws Exception {
+		running = false;
+		if (drainer != null) {
+			LockSupport.unpark(drainer);
+			drainer.join(TimeUnit.SECONDS.toMillis(10));
+		}
+	}
+
+	@Override
+	public void store(BehaviorPerformance behaviorPerformance) {
+		if (!buffer.offer(behaviorPerformance)) {
+			if (overflowPolicy == OverflowPolicy.DROP || !running) {
+				droppedCount.incrementAndGet();
+				return;
+			}
+			
+			// 阻塞策略下唤醒后台线程腾出空位后重试
+			do {
+				LockSupport.unpark(drainer);
+				LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+			} while (!buffer.offer(behaviorPerformance) && running);
+		}
+		
+		// 只有首次达到一个批次的业务线程负责唤醒后台线程
+		if (!signalled.get() && buffer.size() >= batchSize && signalled.compareAndSet(false, true))
+			LockSupport.unpark(drainer);
+	}
+
+	@Override
+	public void store(BehaviorStatistics behaviorStatistics) {
+		try {
+			writer.write(behaviorStatistics);
+		} catch (Exception e) {
+			logger.error("Write behavior statistics error", e);
+		}
+	}
+	
+	/**
+	 * 获取缓冲区中等待写入的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public int getQueueDepth() {
+		return buffer != null ? buffer.size() : 0;
+	}
+	
+	/**
+	 * 获取因缓冲区已满而被丢弃的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+	
+	/**
+	 * 获取写入失败的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+	
+	/**
+	 * 获取已写入的记录数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	public long getWrittenCount() {
+		return writtenCount;
+	}
+	
+	/**
+	 * 后台线程循环取出缓冲区中的记录并批量写入，停止后写完剩余的记录再退出
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	private void drain() {
+		List<BehaviorPerformance> batch = CollectionUtils.newArrayList(batchSize);
+		long flushNanos = TimeUnit.MILLISECONDS.toNanos(flushInterval);
+		while (running) {
+			if (buffer.drainTo(batch, batchSize) == batchSize) {
+				// 满一批时立即写入，并继续取下一批
+				write(batch);
+				continue;
+			}
+			
+			if (batch.isEmpty() || buffer.size() == 0) {
+				// 先复位唤醒标记再检查，避免复位前已满的一批记录要等到下次定时写入
+				signalled.set(false);
+				if (buffer.size() < batchSize)
+					LockSupport.parkNanos(this, flushNanos);
+				buffer.drainTo(batch, batchSize - batch.size());
+			}
+			
+			if (!batch.isEmpty())
+				write(batch);
+		}
+		
+		while (buffer.drainTo(batch, batchSize) > 0) {
+			write(batch);
+		}
+	}
+	
+	/**
+	 * 写入一批记录后清空列表
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param batch
+	 */
+	private void write(List<BehaviorPerformance> batch) {
+		try {
+			writer.write(batch);
+			writtenCount += batch.size();
+		} catch (Throwable e) {
+			failedCount.addAndGet(batch.size());
+			logger.error("Write " + batch.size() + " behavior performances error", e);
+		} finally {
+			batch.clear();
+		}
+	}
+
+}
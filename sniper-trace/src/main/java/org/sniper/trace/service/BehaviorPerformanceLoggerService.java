@@ -22,6 +22,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.sniper.commons.util.DateUtils;
 import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
 
 /**
  * 性能采集日志服务实现类
@@ -40,6 +41,9 @@ public class BehaviorPerformanceLoggerService implements BehaviorPerformanceServ
 		.append("endTime:{}").append("\n")
 		.append("elapsedTime:{}ms").append("\n")
 		.toString();
+	
+	private static final String statisticsMessage = "Behavior statistics {}.{} [{} ~ {}]: "
+			+ "count={}, min={}ns, mean={}ns, p50={}ns, p90={}ns, p99={}ns, p999={}ns, max={}ns";
 			
 
 	@Override
@@ -50,5 +54,18 @@ public class BehaviorPerformanceLoggerService implements BehaviorPerformanceServ
 				DateUtils.dateToString(behaviorPerformance.getEndTime()),
 				behaviorPerformance.getElapsedTime());
 	}
+	
+	@Override
+	public void store(BehaviorStatistics behaviorStatistics) {
+		// 每个方法每个统计周期只输出一行日志
+		logger.info(statisticsMessage, behaviorStatistics.getDeclaringClass(), 
+				behaviorStatistics.getMethodName(),
+				DateUtils.dateToString(behaviorStatistics.getStartTime()),
+				DateUtils.dateToString(behaviorStatistics.getEndTime()),
+				behaviorStatistics.getCount(), behaviorStatistics.getMinTime(), 
+				behaviorStatistics.getMeanTime(), behaviorStatistics.getP50Time(), 
+				behaviorStatistics.getP90Time(), behaviorStatistics.getP99Time(), 
+				behaviorStatistics.getP999Time(), behaviorStatistics.getMaxTime());
+	}
 
 }
@@ -19,6 +19,7 @@
 package org.sniper.trace.service;
 
 import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
 
 /**
  * 性能采集服务接口
@@ -33,5 +34,12 @@ public interface BehaviorPerformanceService {
 	 * @param behaviorPerformance
 	 */
 	public void store(BehaviorPerformance behaviorPerformance);
+	
+	/**
+	 * 存储一个统计周期内的性能统计记录
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a> 
+	 * @param behaviorStatistics
+	 */
+	public void store(BehaviorStatistics behaviorStatistics);
 
 }
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.sniper.commons.util.AssertUtils;
+
+/**
+ * 有界无锁环形缓冲区，支持多个生产者和单个消费者。</P>
+ * 每个槽位维护一个序号，生产者通过CAS抢占写入位置，写完元素后更新槽位序号发布给消费者，
+ * 消费者取走元素后再把槽位序号推进一圈交还给生产者，整个过程不加锁
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+final class RingBuffer<E> {
+	
+	private final int mask;
+	
+	private final Object[] elements;
+	
+	/** 各槽位的序号 */
+	private final AtomicLongArray sequences;
+	
+	/** 下一个写入位置 */
+	private final AtomicLong tail = new AtomicLong();
+	
+	/** 下一个读取位置，只被消费者修改 */
+	private final AtomicLong head = new AtomicLong();
+	
+	RingBuffer(int capacity) {
+		AssertUtils.assertTrue(capacity > 1, "Ring buffer capacity must greater than 1");
+		
+		// 容量向上取2的幂，使位置可以通过位运算映射到槽位
+		int size = Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = size - 1;
+		this.elements = new Object[size];
+		this.sequences = new AtomicLongArray(size);
+		for (int i = 0; i < size; i++) {
+			sequences.set(i, i);
+		}
+	}
+	
+	/**
+	 * 写入元素，缓冲区已满时返回false
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param element
+	 * @return
+	 */
+	boolean offer(E element) {
+		long position = tail.get();
+		int index;
+		while (true) {
+			index = (int) (position & mask);
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1))
+					break;
+				
+				position = tail.get();
+			} else if (difference < 0)
+				// 槽位上一圈的元素还未被取走
+				return false;
+			else
+				position = tail.get();
+		}
+		
+		elements[index] = element;
+		sequences.set(index, position + 1);
+		return true;
+	}
+	
+	/**
+	 * 取出最多maxSize个元素添加到列表中，返回取出的个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param list
+	 * @param maxSize
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	int drainTo(List<E> list, int maxSize) {
+		long position = head.get();
+		int count = 0;
+		while (count < maxSize) {
+			int index = (int) (position & mask);
+			// 槽位序号未发布时表示缓冲区已空，或生产者已抢占位置但还未写完
+			if (sequences.get(index) != position + 1)
+				break;
+			
+			list.add((E) elements[index]);
+			elements[index] = null;
+			sequences.set(index, position + mask + 1);
+			position++;
+			count++;
+		}
+		
+		head.set(position);
+		return count;
+	}
+	
+	/**
+	 * 获取缓冲区中的元素个数
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	int size() {
+		long size = tail.get() - head.get();
+		return (int) Math.max(0, Math.min(size, elements.length));
+	}
+	
+	/**
+	 * 获取缓冲区容量
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @return
+	 */
+	int capacity() {
+		return elements.length;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.writer;
+
+import java.util.List;
+
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+
+/**
+ * 性能记录批量写入器接口，由异步性能采集服务在后台线程上调用
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public interface BehaviorPerformanceWriter {
+	
+	/**
+	 * 批量写入性能记录
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param behaviorPerformances
+	 * @throws Exception
+	 */
+	public void write(List<BehaviorPerformance> behaviorPerformances) throws Exception;
+	
+	/**
+	 * 写入性能统计记录
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @param behaviorStatistics
+	 * @throws Exception
+	 */
+	public void write(BehaviorStatistics behaviorStatistics) throws Exception;
+
+}
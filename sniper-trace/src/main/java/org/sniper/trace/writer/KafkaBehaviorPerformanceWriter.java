@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.writer;
+
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.StringUtils;
+import org.sniper.kafka.producer.KafkaProducer;
+import org.sniper.kafka.support.ProduceResult;
+import org.sniper.spring.beans.CheckableInitializingBeanAdapter;
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+
+/**
+ * Kafka性能记录写入器实现类。</P>
+ * 以"类名.方法名"作为消息键，使同一方法的记录进入同一分区，
+ * 每批记录发送后刷新生产者缓存并等待发送结果，有记录发送失败时抛出异常。
+ * 未指定统计记录的topic时忽略性能统计记录
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class KafkaBehaviorPerformanceWriter extends CheckableInitializingBeanAdapter implements BehaviorPerformanceWriter {
+	
+	private KafkaProducer kafkaProducer;
+	
+	/** 性能记录的topic */
+	private String performanceTopic;
+	
+	/** 性能统计记录的topic */
+	private String statisticsTopic;
+	
+	public KafkaProducer getKafkaProducer() {
+		return kafkaProducer;
+	}
+
+	public void setKafkaProducer(KafkaProducer kafkaProducer) {
+		this.kafkaProducer = kafkaProducer;
+	}
+
+	public String getPerformanceTopic() {
+		return performanceTopic;
+	}
+
+	public void setPerformanceTopic(String performanceTopic) {
+		this.performanceTopic = performanceTopic;
+	}
+
+	public String getStatisticsTopic() {
+		return statisticsTopic;
+	}
+
+	public void setStatisticsTopic(String statisticsTopic) {
+		this.statisticsTopic = statisticsTopic;
+	}
+	
+	@Override
+	protected void checkProperties() {
+		AssertUtils.assertNotNull(kafkaProducer, "Property 'kafkaProducer' is required");
+		AssertUtils.assertNotBlank(performanceTopic, "Property 'performanceTopic' is required");
+	}
+
+	@Override
+	public void write(List<BehaviorPerformance> behaviorPerformances) throws Exception {
+		List<Future<ProduceResult<String, BehaviorPerformance>>> futures = CollectionUtils.newArrayList(behaviorPerformances.size());
+		for (BehaviorPerformance behaviorPerformance : behaviorPerformances) {
+			futures.add(kafkaProducer.<String, BehaviorPerformance>send(performanceTopic, 
+					behaviorPerformance.getDeclaringClass() + "." + behaviorPerformance.getMethodName(), behaviorPerformance));
+		}
+		
+		// 刷新后所有发送均已完成，逐个获取结果使发送失败以异常的形式抛出
+		kafkaProducer.flush();
+		for (Future<ProduceResult<String, BehaviorPerformance>> future : futures) {
+			future.get();
+		}
+	}
+
+	@Override
+	public void write(BehaviorStatistics behaviorStatistics) {
+		if (StringUtils.isNotBlank(statisticsTopic))
+			kafkaProducer.send(statisticsTopic, behaviorStatistics.getDeclaringClass() 
+					+ "." + behaviorStatistics.getMethodName(), behaviorStatistics);
+	}
+
+}
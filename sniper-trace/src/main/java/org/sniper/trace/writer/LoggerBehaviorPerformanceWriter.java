@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.writer;
+
+import java.util.List;
+
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+import org.sniper.trace.service.BehaviorPerformanceLoggerService;
+import org.sniper.trace.service.BehaviorPerformanceService;
+
+/**
+ * 日志性能记录写入器实现类，委派给性能采集日志服务输出
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class LoggerBehaviorPerformanceWriter implements BehaviorPerformanceWriter {
+	
+	private final BehaviorPerformanceService loggerService = new BehaviorPerformanceLoggerService();
+
+	@Override
+	public void write(List<BehaviorPerformance> behaviorPerformances) {
+		for (BehaviorPerformance behaviorPerformance : behaviorPerformances) {
+			loggerService.store(behaviorPerformance);
+		}
+	}
+
+	@Override
+	public void write(BehaviorStatistics behaviorStatistics) {
+		loggerService.store(behaviorStatistics);
+	}
+
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.writer;
+
+import java.util.List;
+
+import org.sniper.commons.util.AssertUtils;
+import org.sniper.commons.util.StringUtils;
+import org.sniper.persistence.sqlmap.dao.SqlMapDao;
+import org.sniper.spring.beans.CheckableInitializingBeanAdapter;
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+
+/**
+ * SQL映射性能记录写入器实现类。</P>
+ * 一批性能记录作为列表参数一次性交给insert语句，由映射文件中的批量插入语句(如MyBatis的foreach)写入，
+ * 未指定统计记录的insert语句时忽略性能统计记录
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class SqlMapBehaviorPerformanceWriter extends CheckableInitializingBeanAdapter implements BehaviorPerformanceWriter {
+	
+	private SqlMapDao<?> sqlMapDao;
+	
+	/** 批量插入性能记录的语句 */
+	private String performanceStatement;
+	
+	/** 插入性能统计记录的语句 */
+	private String statisticsStatement;
+	
+	public SqlMapDao<?> getSqlMapDao() {
+		return sqlMapDao;
+	}
+
+	public void setSqlMapDao(SqlMapDao<?> sqlMapDao) {
+		this.sqlMapDao = sqlMapDao;
+	}
+
+	public String getPerformanceStatement() {
+		return performanceStatement;
+	}
+
+	public void setPerformanceStatement(String performanceStatement) {
+		this.performanceStatement = performanceStatement;
+	}
+
+	public String getStatisticsStatement() {
+		return statisticsStatement;
+	}
+
+	public void setStatisticsStatement(String statisticsStatement) {
+		this.statisticsStatement = statisticsStatement;
+	}
+	
+	@Override
+	protected void checkProperties() {
+		AssertUtils.assertNotNull(sqlMapDao, "Property 'sqlMapDao' is required");
+		AssertUtils.assertNotBlank(performanceStatement, "Property 'performanceStatement' is required");
+	}
+
+	@Override
+	public void write(List<BehaviorPerformance> behaviorPerformances) {
+		sqlMapDao.insert(performanceStatement, behaviorPerformances);
+	}
+
+	@Override
+	public void write(BehaviorStatistics behaviorStatistics) {
+		if (StringUtils.isNotBlank(statisticsStatement))
+			sqlMapDao.insert(statisticsStatement, behaviorStatistics);
+	}
+
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.test.junit.BaseTestCase;
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+import org.sniper.trace.service.AsyncBehaviorPerformanceService;
+import org.sniper.trace.service.OverflowPolicy;
+import org.sniper.trace.writer.BehaviorPerformanceWriter;
+
+/**
+ * 异步性能采集服务单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class AsyncBehaviorPerformanceServiceTest extends BaseTestCase {
+	
+	private final int threadSize = 8;
+	
+	private final int count = 20000;
+	
+	/**
+	 * 阻塞策略下多个线程写入的记录全部按批次写出，且不重复
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testBlock() throws Exception {
+		CollectingWriter writer = new CollectingWriter(0);
+		AsyncBehaviorPerformanceService service = newService(writer, OverflowPolicy.BLOCK, 64);
+		
+		long start = System.nanoTime();
+		produce(service);
+		service.destroy();
+		System.out.println(String.format("Block policy: %d threads x %d records, %d ms, %d batches", 
+				threadSize, count, (System.nanoTime() - start) / 1000000, writer.batches.get()));
+		
+		assertEquals(0, service.getDroppedCount());
+		assertEquals(threadSize * count, service.getWrittenCount());
+		assertEquals(threadSize * count, writer.ids.size());
+		assertEquals(0, service.getQueueDepth());
+		assertTrue(writer.maxBatchSize <= 16);
+	}
+	
+	/**
+	 * 丢弃策略下写入器较慢时丢弃记录，但不阻塞业务线程
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testDrop() throws Exception {
+		CollectingWriter writer = new CollectingWriter(1);
+		AsyncBehaviorPerformanceService service = newService(writer, OverflowPolicy.DROP, 64);
+		
+		produce(service);
+		assertTrue(service.getQueueDepth() <= 64);
+		service.destroy();
+		
+		System.out.println(String.format("Drop policy: written %d, dropped %d", service.getWrittenCount(), service.getDroppedCount()));
+		assertTrue(service.getDroppedCount() > 0);
+		assertEquals(threadSize * count, service.getWrittenCount() + service.getDroppedCount());
+	}
+	
+	/**
+	 * 写入失败的记录计入失败次数，不影响后续批次
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Exception
+	 */
+	@Test
+	public void testFailure() throws Exception {
+		final AtomicInteger calls = new AtomicInteger();
+		final CountDownLatch latch = new CountDownLatch(2);
+		AsyncBehaviorPerformanceService service = newService(new CollectingWriter(0) {
+			
+			@Override
+			public void write(List<BehaviorPerformance> behaviorPerformances) throws Exception {
+				latch.countDown();
+				if (calls.incrementAndGet() == 1)
+					throw new IllegalStateException("Write error");
+				
+				super.write(behaviorPerformances);
+			}
+		}, OverflowPolicy.DROP, 64);
+		service.setBatchSize(1);
+		
+		service.store(newBehaviorPerformance(1L));
+		sleep(100);
+		service.store(newBehaviorPerformance(2L));
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		service.destroy();
+		
+		assertEquals(1, service.getFailedCount());
+		assertEquals(1, service.getWrittenCount());
+	}
+	
+	private AsyncBehaviorPerformanceService newService(BehaviorPerformanceWriter writer, 
+			OverflowPolicy overflowPolicy, int capacity) throws Exception {
+		
+		AsyncBehaviorPerformanceService service = new AsyncBehaviorPerformanceService();
+		service.setWriter(writer);
+		service.setOverflowPolicy(overflowPolicy);
+		service.setCapacity(capacity);
+		service.setBatchSize(16);
+		service.setFlushInterval(50);
+		service.afterPropertiesSet();
+		return service;
+	}
+	
+	private void produce(final AsyncBehaviorPerformanceService service) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threadSize);
+		List<Future<Void>> futures = CollectionUtils.newArrayList(threadSize);
+		for (int i = 0; i < threadSize; i++) {
+			final long offset = (long) i * count;
+			futures.add(executor.submit(new Callable<Void>() {
+
+				@Override
+				public Void call() throws Exception {
+					for (int j = 0; j < count; j++) {
+						service.store(newBehaviorPerformance(offset + j));
+					}
+					return null;
+				}
+			}));
+		}
+		
+		for (Future<Void> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+	}
+	
+	private BehaviorPerformance newBehaviorPerformance(Long id) {
+		BehaviorPerformance behaviorPerformance = new BehaviorPerformance();
+		behaviorPerformance.setId(id);
+		return behaviorPerformance;
+	}
+	
+	/**
+	 * 收集记录编号的写入器
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class CollectingWriter implements BehaviorPerformanceWriter {
+		
+		/** 每批写入的耗时(毫秒) */
+		private final long writeTime;
+		
+		private final Set<Long> ids = CollectionUtils.newHashSet();
+		
+		private final AtomicInteger batches = new AtomicInteger();
+		
+		private volatile int maxBatchSize;
+		
+		private CollectingWriter(long writeTime) {
+			this.writeTime = writeTime;
+		}
+
+		@Override
+		public void write(List<BehaviorPerformance> behaviorPerformances) throws Exception {
+			if (writeTime > 0)
+				Thread.sleep(writeTime);
+			
+			for (BehaviorPerformance behaviorPerformance : behaviorPerformances) {
+				assertTrue(ids.add(behaviorPerformance.getId()));
+			}
+			batches.incrementAndGet();
+			maxBatchSize = Math.max(maxBatchSize, behaviorPerformances.size());
+		}
+
+		@Override
+		public void write(BehaviorStatistics behaviorStatistics) {
+		}
+	}
+
+}
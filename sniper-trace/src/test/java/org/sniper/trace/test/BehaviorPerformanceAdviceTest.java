@@ -0,0 +1,180 @@
+/*
+ * Copyright 2018 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * Create Date : 2018-7-6
+ */
+
+package org.sniper.trace.test;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.sniper.commons.util.CollectionUtils;
+import org.sniper.commons.util.MapUtils;
+import org.sniper.test.junit.BaseTestCase;
+import org.sniper.trace.advice.BehaviorPerformanceAdvice;
+import org.sniper.trace.domain.BehaviorPerformance;
+import org.sniper.trace.domain.BehaviorStatistics;
+import org.sniper.trace.histogram.HistogramSnapshot;
+import org.sniper.trace.histogram.LatencyHistogram;
+import org.sniper.trace.service.BehaviorPerformanceService;
+
+/**
+ * 性能采集拦截切面单元测试类
+ * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+ * @version 1.0
+ */
+public class BehaviorPerformanceAdviceTest extends BaseTestCase {
+	
+	/**
+	 * 直方图百分位的相对误差不超过子桶精度
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 */
+	@Test
+	public void testHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (long i = 1; i <= 100000; i++) {
+			histogram.record(i * 1000);
+		}
+		
+		HistogramSnapshot snapshot = histogram.snapshotAndReset();
+		assertEquals(100000, snapshot.getCount());
+		assertEquals(1000, snapshot.getMin());
+		assertEquals(100000000, snapshot.getMax());
+		assertEquals(50000500, snapshot.getMean());
+		assertPercentile(50000000, snapshot.getPercentile(50));
+		assertPercentile(99000000, snapshot.getPercentile(99));
+		assertPercentile(99900000, snapshot.getPercentile(99.9));
+		assertEquals(100000000, snapshot.getPercentile(100));
+		
+		// 快照后清零
+		snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.getCount());
+		assertEquals(0, snapshot.getMin());
+		assertEquals(0, snapshot.getPercentile(99));
+		
+		// 小于子桶数的耗时精确记录，负数和超大值被截断
+		histogram.record(7);
+		histogram.record(-1);
+		histogram.record(Long.MAX_VALUE);
+		snapshot = histogram.snapshot();
+		assertEquals(0, snapshot.getMin());
+		assertEquals(7, snapshot.getPercentile(50));
+	}
+	
+	/**
+	 * 直方图模式下按统计周期输出各方法的耗时分布，异常退出的方法帧会被丢弃
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Throwable
+	 */
+	@Test
+	public void testHistogramMode() throws Throwable {
+		CollectingService service = new CollectingService();
+		BehaviorPerformanceAdvice advice = new BehaviorPerformanceAdvice();
+		advice.setBehaviorPerformanceService(service);
+		advice.setHistogram(true);
+		advice.afterPropertiesSet();
+		
+		Method outer = BehaviorPerformanceAdviceTest.class.getMethod("testHistogramMode");
+		Method inner = BehaviorPerformanceAdviceTest.class.getMethod("testHistogram");
+		for (int i = 0; i < 100; i++) {
+			advice.before(outer, null, this);
+			advice.before(inner, null, this);
+			advice.afterReturning(null, inner, null, this);
+			
+			// 内层方法抛出异常后不会调用afterReturning
+			advice.before(inner, null, this);
+			advice.afterReturning(null, outer, null, this);
+		}
+		assertTrue(service.performances.isEmpty());
+		
+		advice.flush();
+		assertEquals(2, service.statistics.size());
+		assertEquals(100, service.statistics.get("testHistogramMode").getCount());
+		assertEquals(100, service.statistics.get("testHistogram").getCount());
+		
+		BehaviorStatistics statistics = service.statistics.get("testHistogramMode");
+		assertEquals(BehaviorPerformanceAdviceTest.class.getName(), statistics.getDeclaringClass());
+		assertTrue(statistics.getMinTime() <= statistics.getP50Time());
+		assertTrue(statistics.getP50Time() <= statistics.getP99Time());
+		assertTrue(statistics.getP99Time() <= statistics.getMaxTime());
+		assertFalse(statistics.getEndTime().before(statistics.getStartTime()));
+		
+		// 周期内没有调用的方法不输出
+		service.statistics.clear();
+		advice.flush();
+		assertTrue(service.statistics.isEmpty());
+		advice.destroy();
+	}
+	
+	/**
+	 * 性能对比测试，比较逐条记录和直方图模式的拦截开销
+	 * @author <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @throws Throwable
+	 */
+	@Test
+	public void performanceTest() throws Throwable {
+		Method method = BehaviorPerformanceAdviceTest.class.getMethod("performanceTest");
+		int times = 1000000;
+		
+		for (boolean histogram : new boolean[] { false, true }) {
+			CollectingService service = new CollectingService();
+			BehaviorPerformanceAdvice advice = new BehaviorPerformanceAdvice();
+			advice.setBehaviorPerformanceService(service);
+			advice.setHistogram(histogram);
+			advice.afterPropertiesSet();
+			
+			long start = System.nanoTime();
+			for (int i = 0; i < times; i++) {
+				advice.before(method, null, this);
+				advice.afterReturning(null, method, null, this);
+			}
+			System.out.println(String.format("%s mode: %d calls, %d ms", histogram ? "Histogram" : "Record", 
+					times, (System.nanoTime() - start) / 1000000));
+			advice.destroy();
+		}
+	}
+	
+	private void assertPercentile(long expected, long actual) {
+		assertTrue(actual + " is not near " + expected, Math.abs(actual - expected) <= expected / 32);
+	}
+	
+	/**
+	 * 收集性能记录的服务
+	 * @author  <a href="mailto:code727@gmail.com">杜斌</a>
+	 * @version 1.0
+	 */
+	private static class CollectingService implements BehaviorPerformanceService {
+		
+		private final List<BehaviorPerformance> performances = CollectionUtils.newArrayList();
+		
+		private final Map<String, BehaviorStatistics> statistics = MapUtils.newHashMap();
+
+		@Override
+		public void store(BehaviorPerformance behaviorPerformance) {
+			// 只保留第一条，避免大量记录占用内存
+			if (performances.isEmpty())
+				performances.add(behaviorPerformance);
+		}
+
+		@Override
+		public void store(BehaviorStatistics behaviorStatistics) {
+			statistics.put(behaviorStatistics.getMethodName(), behaviorStatistics);
+		}
+	}
+
+}